@@ -42,4 +42,9 @@ dependencies {
     testImplementation("org.robolectric:robolectric:4.7")
 
     androidTestImplementation("androidx.test.uiautomator:uiautomator:2.3.0")
-}
\ No newline at end of file
+}
+
+// Benchmarks are part of the unit test sources, but are skipped unless run with -PrunBenchmarks
+tasks.withType<Test>().configureEach {
+    systemProperty("assurance.runBenchmarks", project.hasProperty("runBenchmarks").toString())
+}
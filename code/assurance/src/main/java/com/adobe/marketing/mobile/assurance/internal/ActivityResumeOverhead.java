@@ -0,0 +1,87 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.services.Log;
+
+/**
+ * Measures the time the extension adds to the resume of the host app activities, separately for
+ * resumes with and without an active session, to keep track of the overhead of the floating button
+ * and of the session UI on screen transitions.
+ *
+ * <p>Resumes are reported on the main thread, this class is not thread safe.
+ */
+final class ActivityResumeOverhead {
+    private static final String LOG_TAG = "ActivityResumeOverhead";
+
+    private final long[] resumeCounts = new long[2];
+    private final long[] totalNanos = new long[2];
+    private final long[] maxNanos = new long[2];
+
+    /**
+     * Records the time spent handling the resume of an activity, and logs it at the trace level.
+     *
+     * @param sessionActive whether a session was active when the activity resumed
+     * @param elapsedNanos the time spent handling the resume, in nanoseconds
+     */
+    void record(final boolean sessionActive, final long elapsedNanos) {
+        final int index = sessionActive ? 1 : 0;
+        resumeCounts[index]++;
+        totalNanos[index] += elapsedNanos;
+        maxNanos[index] = Math.max(maxNanos[index], elapsedNanos);
+
+        Log.trace(
+                Assurance.LOG_TAG,
+                LOG_TAG,
+                "Activity resume took %d us (session active: %b), average %d us and max %d us"
+                        + " over %d resumes.",
+                elapsedNanos / 1000,
+                sessionActive,
+                getAverageNanos(sessionActive) / 1000,
+                maxNanos[index] / 1000,
+                resumeCounts[index]);
+    }
+
+    /**
+     * Returns the number of resumes recorded.
+     *
+     * @param sessionActive whether to return the resumes with or without an active session
+     * @return the number of resumes
+     */
+    long getResumeCount(final boolean sessionActive) {
+        return resumeCounts[sessionActive ? 1 : 0];
+    }
+
+    /**
+     * Returns the average time spent handling a resume.
+     *
+     * @param sessionActive whether to return the average of resumes with or without an active
+     *     session
+     * @return the average time in nanoseconds, 0 if no resume was recorded
+     */
+    long getAverageNanos(final boolean sessionActive) {
+        final int index = sessionActive ? 1 : 0;
+        return resumeCounts[index] == 0 ? 0 : totalNanos[index] / resumeCounts[index];
+    }
+
+    /**
+     * Returns the longest time spent handling a resume.
+     *
+     * @param sessionActive whether to return the maximum of resumes with or without an active
+     *     session
+     * @return the longest time in nanoseconds, 0 if no resume was recorded
+     */
+    long getMaxNanos(final boolean sessionActive) {
+        return maxNanos[sessionActive ? 1 : 0];
+    }
+}
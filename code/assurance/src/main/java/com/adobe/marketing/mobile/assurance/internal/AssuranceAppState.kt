@@ -82,13 +82,27 @@ internal class AssuranceAppState {
      */
     val sessionPhase: State<SessionPhase> = _sessionPhase
 
-    private val _statusLogs = mutableStateOf(emptyList<StatusLog>())
+    // bumped when the status logs change, at most once per publish interval of the store, so
+    // that a burst of logs recomposes the Status UI once
+    private val statusLogsVersion = mutableStateOf(0L)
+
+    private val statusLogStore = StatusLogStore { statusLogsVersion.value++ }
 
     /**
-     * Represents the Status UI logs for the current session.
+     * Represents the Status UI logs for the current session, up to the capacity of the
+     * [StatusLogStore], the oldest logs being evicted first.
      * These logs are not the same as device logs collected via log plugin.
+     * Reading the value always returns the logs logged so far, while compositions reading it are
+     * only invalidated once per publish interval of the store.
      */
-    internal val statusLogs: State<List<StatusLog>> = _statusLogs
+    internal val statusLogs: State<StatusLogSnapshot> = object : State<StatusLogSnapshot> {
+        override val value: StatusLogSnapshot
+            get() {
+                // registers the read for the composition to be invalidated on changes
+                statusLogsVersion.value
+                return statusLogStore.snapshot()
+            }
+    }
 
     /**
      * Updates the current session phase to the given [sessionPhase].
@@ -106,13 +120,13 @@ internal class AssuranceAppState {
      */
     @JvmName("logStatus")
     internal fun logStatus(level: AssuranceConstants.UILogColorVisibility, status: String) {
-        _statusLogs.value += StatusLog(level, status)
+        statusLogStore.append(StatusLog(level, status))
     }
 
     /**
      * Clears Assurance status logs.
      */
     internal fun clearLogs() {
-        _statusLogs.value = emptyList()
+        statusLogStore.clear()
     }
 }
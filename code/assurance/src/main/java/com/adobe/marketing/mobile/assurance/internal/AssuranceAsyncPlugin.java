@@ -0,0 +1,74 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+/**
+ * A plugin whose callbacks are delivered in order on a thread of its own, rather than on the
+ * thread of the session that triggers them, and which sends its events through a bounded {@link
+ * AssurancePluginEmitter} rather than directly to the session.
+ *
+ * <p>Suited to plugins doing slow work in their callbacks or emitting high volumes of events, for
+ * ex. diagnostic plugins. An asynchronous plugin is registered with a session wrapped in an {@link
+ * AssuranceAsyncPluginAdapter}.
+ */
+interface AssuranceAsyncPlugin {
+
+    /**
+     * Returns the vendor name
+     *
+     * <p>The Plugin will only receive the Control Events from the provided vendor.
+     *
+     * @return the vendor name
+     */
+    String getVendor();
+
+    /**
+     * Returns the control type
+     *
+     * <p>The Plugin will only receive the Control Events with the provided ControlType.
+     *
+     * @return the control type
+     */
+    String getControlType();
+
+    /**
+     * Invoked when plugin is successfully registered to the AssuranceSession
+     *
+     * @param emitter the {@link AssurancePluginEmitter} through which the plugin sends its events
+     *     to the session
+     */
+    void onRegistered(final AssurancePluginEmitter emitter);
+
+    /**
+     * Invoked when a AssuranceEvent is received for a specific vendor and specific control type
+     *
+     * @param event is AssuranceEvent
+     */
+    void onEventReceived(final AssuranceEvent event);
+
+    /** Invoked when a successful Assurance web socket connection is established */
+    void onSessionConnected();
+
+    /**
+     * Invoked when an Assurance session is disconnected.
+     *
+     * @param code an integer value representing the reason for websocket session disconnect
+     */
+    void onSessionDisconnected(final int code);
+
+    /**
+     * Invoked when the Assurance session is terminated. The events emitted until this callback
+     * returns are still sent to the session, the emitter drops all events afterwards, and no other
+     * callback is invoked.
+     */
+    void onSessionTerminated();
+}
@@ -0,0 +1,177 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registers an {@link AssuranceAsyncPlugin} with a session as an {@link AssurancePlugin}.
+ *
+ * <p>Callbacks are queued to a single thread owned by the adapter, in the order the session
+ * invokes them, so that a slow plugin never blocks the session threads. The {@link
+ * AssurancePluginEmitter} of the plugin is provided by the {@link AssurancePluginManager} before
+ * the plugin is registered. The plugin thread is started on demand and ends once idle.
+ */
+class AssuranceAsyncPluginAdapter implements AssurancePlugin {
+    private static final String LOG_TAG = "AssuranceAsyncPluginAdapter";
+    private static final long PLUGIN_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    private final AssuranceAsyncPlugin plugin;
+    private final ExecutorService executor;
+    private volatile AssurancePluginEmitter emitter;
+
+    AssuranceAsyncPluginAdapter(final AssuranceAsyncPlugin plugin) {
+        this(plugin, createExecutor(plugin));
+    }
+
+    @VisibleForTesting
+    AssuranceAsyncPluginAdapter(
+            final AssuranceAsyncPlugin plugin, final ExecutorService executor) {
+        this.plugin = plugin;
+        this.executor = executor;
+    }
+
+    /** Returns the name of the plugin, used in logs and metrics. */
+    String getPluginName() {
+        return plugin.getClass().getSimpleName();
+    }
+
+    /**
+     * Sets the emitter the plugin receives when it is registered.
+     *
+     * @param emitter the {@link AssurancePluginEmitter} of the plugin
+     */
+    void setEmitter(final AssurancePluginEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public String getVendor() {
+        return plugin.getVendor();
+    }
+
+    @Override
+    public String getControlType() {
+        return plugin.getControlType();
+    }
+
+    @Override
+    public void onRegistered(final AssuranceSession parentSession) {
+        final AssurancePluginEmitter pluginEmitter = emitter;
+
+        if (pluginEmitter == null) {
+            Log.warning(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Plugin %s registered without an emitter, ignoring it.",
+                    getPluginName());
+            return;
+        }
+
+        deliver(() -> plugin.onRegistered(pluginEmitter));
+    }
+
+    @Override
+    public void onEventReceived(final AssuranceEvent event) {
+        deliver(() -> plugin.onEventReceived(event));
+    }
+
+    @Override
+    public void onSessionConnected() {
+        deliver(plugin::onSessionConnected);
+    }
+
+    @Override
+    public void onSessionDisconnected(final int code) {
+        deliver(() -> plugin.onSessionDisconnected(code));
+    }
+
+    @Override
+    public void onSessionTerminated() {
+        onSessionTerminated(null);
+    }
+
+    /**
+     * Delivers the termination of the session to the plugin, then runs {@code onTerminated} on the
+     * plugin thread, so that the caller knows when the plugin is done emitting for the session.
+     *
+     * @param onTerminated run once the plugin handled the termination, or right away if the
+     *     plugin can no longer be called; may be null
+     */
+    void onSessionTerminated(@Nullable final Runnable onTerminated) {
+        // plugins are shared by the sessions of the extension, the executor is kept for the next
+        // session and its thread ends once idle
+        deliver(plugin::onSessionTerminated, onTerminated);
+    }
+
+    private void deliver(final Runnable callback) {
+        deliver(callback, null);
+    }
+
+    private void deliver(final Runnable callback, @Nullable final Runnable onDelivered) {
+        try {
+            executor.execute(
+                    () -> {
+                        try {
+                            callback.run();
+                        } catch (final Exception e) {
+                            Log.warning(
+                                    Assurance.LOG_TAG,
+                                    LOG_TAG,
+                                    "Plugin %s failed to handle a callback: %s",
+                                    getPluginName(),
+                                    e.getLocalizedMessage());
+                        } finally {
+                            if (onDelivered != null) {
+                                onDelivered.run();
+                            }
+                        }
+                    });
+        } catch (final RejectedExecutionException e) {
+            Log.debug(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Plugin %s was terminated, ignoring the callback.",
+                    getPluginName());
+
+            if (onDelivered != null) {
+                onDelivered.run();
+            }
+        }
+    }
+
+    private static ExecutorService createExecutor(final AssuranceAsyncPlugin plugin) {
+        final String threadName = "AssurancePlugin-" + plugin.getClass().getSimpleName();
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        PLUGIN_THREAD_KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, threadName);
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
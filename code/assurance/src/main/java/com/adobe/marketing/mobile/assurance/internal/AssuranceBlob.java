@@ -11,14 +11,7 @@
 
 package com.adobe.marketing.mobile.assurance.internal;
 
-import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.RESPONSE_KEY_BLOB_ID;
-import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.RESPONSE_KEY_ERROR;
 import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_ENDPOINT_FORMAT;
-import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_HEADER_KEY_ACCEPT;
-import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_HEADER_KEY_CONTENT_LENGTH;
-import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_HEADER_KEY_CONTENT_TYPE;
-import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_HEADER_KEY_FILE_CONTENT_TYPE;
-import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_HTTP_METHOD;
 import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_PATH_API;
 import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_PATH_FILEUPLOAD;
 import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_QUERY_KEY;
@@ -26,18 +19,13 @@ import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.B
 import android.net.Uri;
 import com.adobe.marketing.mobile.Assurance;
 import com.adobe.marketing.mobile.services.Log;
-import java.io.BufferedReader;
-import java.io.DataOutputStream;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
-import org.json.JSONException;
-import org.json.JSONObject;
 
 class AssuranceBlob {
     private static final String LOG_TAG = "AssuranceBlob";
+    private static final Object uploaderMutex = new Object();
+    private static AssuranceBlobUploader uploader;
 
     interface BlobUploadCallback {
         void onSuccess(final String blobID);
@@ -87,126 +75,36 @@ class AssuranceBlob {
             return;
         }
 
-        new Thread(
-                        new Runnable() {
-                            @Override
-                            public void run() {
-                                try {
-                                    final String environmentFormat =
-                                            AssuranceUtil.getURLFormatForEnvironment(
-                                                    session.getAssuranceEnvironment());
-                                    final String sessionId = session.getSessionId();
-                                    final String endpoint =
-                                            String.format(
-                                                    UPLOAD_ENDPOINT_FORMAT, environmentFormat);
-                                    final Uri uri =
-                                            new Uri.Builder()
-                                                    .encodedPath(endpoint)
-                                                    .appendPath(UPLOAD_PATH_API)
-                                                    .appendPath(UPLOAD_PATH_FILEUPLOAD)
-                                                    .appendQueryParameter(
-                                                            UPLOAD_QUERY_KEY,
-                                                            (sessionId != null
-                                                                            && !sessionId.isEmpty())
-                                                                    ? sessionId
-                                                                    : "")
-                                                    .build();
-                                    final URL destinationURL = new URL(uri.toString());
-                                    final HttpURLConnection connection =
-                                            (HttpURLConnection) destinationURL.openConnection();
-                                    connection.setDoInput(true);
-                                    connection.setDoOutput(true);
-                                    connection.setUseCaches(false);
-                                    connection.setRequestMethod(UPLOAD_HTTP_METHOD);
-                                    connection.setRequestProperty(
-                                            UPLOAD_HEADER_KEY_CONTENT_TYPE,
-                                            "application/octet-stream");
-                                    connection.setRequestProperty(
-                                            UPLOAD_HEADER_KEY_FILE_CONTENT_TYPE, contentType);
-                                    connection.setRequestProperty(
-                                            UPLOAD_HEADER_KEY_CONTENT_LENGTH, "" + blobData.length);
-                                    connection.setRequestProperty(
-                                            UPLOAD_HEADER_KEY_ACCEPT, "application/json");
-                                    final DataOutputStream outputStream =
-                                            new DataOutputStream(connection.getOutputStream());
-                                    outputStream.write(blobData);
-
-                                    // Reading the response
-                                    final int responseCode = connection.getResponseCode();
-                                    final String responseMessage = connection.getResponseMessage();
-                                    final BufferedReader bufferedReader =
-                                            new BufferedReader(
-                                                    new InputStreamReader(
-                                                            connection.getInputStream()));
-                                    final StringBuilder response = new StringBuilder();
-                                    String inputLine;
-
-                                    while ((inputLine = bufferedReader.readLine()) != null) {
-                                        response.append(inputLine);
-                                    }
-
-                                    outputStream.flush();
-                                    outputStream.close();
-
-                                    final JSONObject jsonResponse =
-                                            new JSONObject(response.toString());
-
-                                    if (jsonResponse.has(RESPONSE_KEY_ERROR)) {
-                                        final String error =
-                                                jsonResponse.getString(RESPONSE_KEY_ERROR);
-
-                                        if (!error.isEmpty()) {
-                                            callback.onFailure(
-                                                    "Error occurred when posting blob, error - "
-                                                            + error);
-                                            return;
-                                        }
-                                    }
-
-                                    if (jsonResponse.has(RESPONSE_KEY_BLOB_ID)) {
-                                        final String value =
-                                                jsonResponse.getString(RESPONSE_KEY_BLOB_ID);
-
-                                        if (value.isEmpty()) {
-                                            uploadFailure(
-                                                    callback,
-                                                    "Uploading Blob failed, Invalid BlobId returned"
-                                                            + " from the fileStorage server");
-                                            return;
-                                        }
-
-                                        uploadSuccess(callback, value);
-                                    }
-
-                                } catch (JSONException ex) {
-                                    uploadFailure(
-                                            callback,
-                                            "Uploading Blob failed, Json exception while parsing"
-                                                    + " response, Error - "
-                                                    + ex);
-
-                                } catch (final MalformedURLException ex) {
-                                    uploadFailure(
-                                            callback,
-                                            String.format(
-                                                    "Uploading Blob failed, MalformedURLException"
-                                                            + " %s",
-                                                    ex));
-                                } catch (final IOException ex) {
-                                    uploadFailure(
-                                            callback,
-                                            String.format(
-                                                    "Uploading Blob failed, IOException %s", ex));
-                                } catch (final Exception ex) {
-                                    uploadFailure(
-                                            callback,
-                                            String.format(
-                                                    "Uploading Blob failed with Exception : %s",
-                                                    ex));
-                                }
-                            }
-                        })
-                .start();
+        final URL destinationURL;
+
+        try {
+            final String environmentFormat =
+                    AssuranceUtil.getURLFormatForEnvironment(session.getAssuranceEnvironment());
+            final String sessionId = session.getSessionId();
+            final String endpoint = String.format(UPLOAD_ENDPOINT_FORMAT, environmentFormat);
+            final Uri uri =
+                    new Uri.Builder()
+                            .encodedPath(endpoint)
+                            .appendPath(UPLOAD_PATH_API)
+                            .appendPath(UPLOAD_PATH_FILEUPLOAD)
+                            .appendQueryParameter(
+                                    UPLOAD_QUERY_KEY,
+                                    (sessionId != null && !sessionId.isEmpty()) ? sessionId : "")
+                            .build();
+            destinationURL = new URL(uri.toString());
+        } catch (final MalformedURLException ex) {
+            uploadFailure(
+                    callback,
+                    String.format("Uploading Blob failed, MalformedURLException %s", ex));
+            return;
+        }
+
+        getUploader()
+                .upload(
+                        destinationURL,
+                        AssuranceBlobUploader.fromBytes(blobData),
+                        contentType,
+                        callback);
     }
 
     // ========================================================================================
@@ -214,34 +112,32 @@ class AssuranceBlob {
     // ========================================================================================
 
     /**
-     * Helper method to handle failure during blob upload.
-     *
-     * <p>
-     *
-     * @param reason A {@link String} message representing reason for failure
-     * @param callback callback to be called during upload failure
+     * Returns the {@link AssuranceBlobUploader} shared by all blob uploads, creating it on first
+     * use.
      */
-    private static void uploadFailure(final BlobUploadCallback callback, final String reason) {
-        Log.error(Assurance.LOG_TAG, LOG_TAG, reason);
+    private static AssuranceBlobUploader getUploader() {
+        synchronized (uploaderMutex) {
+            if (uploader == null) {
+                uploader = new AssuranceBlobUploader();
+            }
 
-        if (callback != null) {
-            callback.onFailure(reason);
+            return uploader;
         }
     }
 
     /**
-     * Helper method to handle success of blob upload.
+     * Helper method to handle failure during blob upload.
      *
      * <p>
      *
-     * @param blobId A {@link String} unique identity of the upladed blob
-     * @param callback callback to be called during successful upload
+     * @param reason A {@link String} message representing reason for failure
+     * @param callback callback to be called during upload failure
      */
-    private static void uploadSuccess(final BlobUploadCallback callback, final String blobId) {
-        Log.debug(Assurance.LOG_TAG, LOG_TAG, "Blob upload successfull for id:" + blobId);
+    private static void uploadFailure(final BlobUploadCallback callback, final String reason) {
+        Log.error(Assurance.LOG_TAG, LOG_TAG, reason);
 
         if (callback != null) {
-            callback.onSuccess(blobId);
+            callback.onFailure(reason);
         }
     }
 }
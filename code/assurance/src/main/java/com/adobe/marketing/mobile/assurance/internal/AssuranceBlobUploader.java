@@ -0,0 +1,410 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.RESPONSE_KEY_BLOB_ID;
+import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.RESPONSE_KEY_ERROR;
+import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_HEADER_KEY_ACCEPT;
+import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_HEADER_KEY_CONTENT_TYPE;
+import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_HEADER_KEY_FILE_CONTENT_TYPE;
+import static com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.BlobKeys.UPLOAD_HTTP_METHOD;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.services.Log;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Uploads blobs to the Assurance file storage server.
+ *
+ * <p>Uploads are run on a bounded pool of worker threads, so that at most {@code
+ * maxConcurrentUploads} uploads are in flight at a time, and at most {@code maxQueuedUploads} are
+ * accepted (in flight, waiting or retrying) before new uploads are rejected. The request body is
+ * streamed from a {@link BlobSource} in fixed length streaming mode, so the blob is never buffered
+ * by {@link HttpURLConnection}. Uploads that fail with a transient error (an {@link IOException},
+ * or a 408, 429 or 5xx response) are retried with exponential backoff without holding a worker
+ * thread while waiting.
+ */
+class AssuranceBlobUploader {
+    private static final String LOG_TAG = "AssuranceBlobUploader";
+    private static final int DEFAULT_MAX_CONCURRENT_UPLOADS = 2;
+    private static final int DEFAULT_MAX_QUEUED_UPLOADS = 16;
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    private static final long DEFAULT_INITIAL_BACKOFF_MS = 500;
+    private static final int CONNECT_TIMEOUT_MS = 10000;
+    private static final int READ_TIMEOUT_MS = 30000;
+    private static final int STREAM_BUFFER_SIZE = 8 * 1024;
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 30;
+
+    /** A source of the blob data that can be opened once for every upload attempt. */
+    interface BlobSource {
+        /**
+         * Returns the number of bytes that {@link #open()} provides.
+         *
+         * @return the length of the blob in bytes
+         */
+        long length();
+
+        /**
+         * Opens a new stream of the blob data, positioned at its start.
+         *
+         * @return an {@code InputStream} of the blob data, closed by the caller
+         * @throws IOException if the blob data cannot be read
+         */
+        InputStream open() throws IOException;
+    }
+
+    private final ScheduledThreadPoolExecutor executor;
+    private final int maxQueuedUploads;
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+    private final AtomicInteger pendingUploads = new AtomicInteger();
+
+    AssuranceBlobUploader() {
+        this(
+                DEFAULT_MAX_CONCURRENT_UPLOADS,
+                DEFAULT_MAX_QUEUED_UPLOADS,
+                DEFAULT_MAX_RETRIES,
+                DEFAULT_INITIAL_BACKOFF_MS);
+    }
+
+    @VisibleForTesting
+    AssuranceBlobUploader(
+            final int maxConcurrentUploads,
+            final int maxQueuedUploads,
+            final int maxRetries,
+            final long initialBackoffMillis) {
+        this.maxQueuedUploads = maxQueuedUploads;
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.executor =
+                new ScheduledThreadPoolExecutor(
+                        maxConcurrentUploads,
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "AssuranceBlobUploader");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        this.executor.setKeepAliveTime(WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Creates a {@link BlobSource} for an in-memory blob.
+     *
+     * @param data the blob data
+     * @return a {@code BlobSource} reading from {@code data}
+     */
+    static BlobSource fromBytes(final byte[] data) {
+        return new BlobSource() {
+            @Override
+            public long length() {
+                return data.length;
+            }
+
+            @Override
+            public InputStream open() {
+                return new ByteArrayInputStream(data);
+            }
+        };
+    }
+
+    /**
+     * Creates a {@link BlobSource} for a blob stored in a file. The file must not change until
+     * the upload completes.
+     *
+     * @param file the file containing the blob data
+     * @return a {@code BlobSource} reading from {@code file}
+     */
+    static BlobSource fromFile(final File file) {
+        return new BlobSource() {
+            @Override
+            public long length() {
+                return file.length();
+            }
+
+            @Override
+            public InputStream open() throws IOException {
+                return new FileInputStream(file);
+            }
+        };
+    }
+
+    /**
+     * Queues the upload of a blob to the provided URL. The callback is called on a worker thread
+     * once the upload has completed, failed after all retries, or was rejected because too many
+     * uploads are pending.
+     *
+     * @param url the URL to post the blob to
+     * @param source the {@link BlobSource} of the blob data
+     * @param contentType the MIME type of the blob
+     * @param callback the {@link AssuranceBlob.BlobUploadCallback} to notify with the result
+     */
+    void upload(
+            final URL url,
+            final BlobSource source,
+            final String contentType,
+            final AssuranceBlob.BlobUploadCallback callback) {
+        if (pendingUploads.incrementAndGet() > maxQueuedUploads) {
+            pendingUploads.decrementAndGet();
+            notifyFailure(
+                    callback,
+                    "Uploading Blob failed, too many uploads are pending. Try again later.");
+            return;
+        }
+
+        schedule(new UploadTask(url, source, contentType, callback), 0);
+    }
+
+    /** Stops accepting uploads and abandons the pending ones. */
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void schedule(final UploadTask task, final long delayMillis) {
+        try {
+            executor.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (final RejectedExecutionException e) {
+            complete(task, false, "Uploading Blob failed, the uploader has been shut down.");
+        }
+    }
+
+    private void complete(final UploadTask task, final boolean success, final String result) {
+        pendingUploads.decrementAndGet();
+
+        if (success) {
+            Log.debug(Assurance.LOG_TAG, LOG_TAG, "Blob upload successful for id: " + result);
+
+            if (task.callback != null) {
+                task.callback.onSuccess(result);
+            }
+        } else {
+            notifyFailure(task.callback, result);
+        }
+    }
+
+    private static void notifyFailure(
+            final AssuranceBlob.BlobUploadCallback callback, final String reason) {
+        Log.error(Assurance.LOG_TAG, LOG_TAG, reason);
+
+        if (callback != null) {
+            callback.onFailure(reason);
+        }
+    }
+
+    /** A single blob upload, run once per attempt. */
+    private final class UploadTask implements Runnable {
+        private final URL url;
+        private final BlobSource source;
+        private final String contentType;
+        private final AssuranceBlob.BlobUploadCallback callback;
+        private int attempt;
+
+        UploadTask(
+                final URL url,
+                final BlobSource source,
+                final String contentType,
+                final AssuranceBlob.BlobUploadCallback callback) {
+            this.url = url;
+            this.source = source;
+            this.contentType = contentType;
+            this.callback = callback;
+        }
+
+        @Override
+        public void run() {
+            HttpURLConnection connection = null;
+            int responseCode = -1;
+            String response = null;
+            String failure = null;
+
+            try {
+                connection = (HttpURLConnection) url.openConnection();
+                writeRequest(connection);
+                responseCode = connection.getResponseCode();
+                response = readResponse(connection, responseCode);
+            } catch (final IOException ex) {
+                failure = String.format("Uploading Blob failed, IOException %s", ex);
+            } catch (final Exception ex) {
+                complete(
+                        this,
+                        false,
+                        String.format("Uploading Blob failed with Exception : %s", ex));
+                return;
+            } finally {
+                if (connection != null) {
+                    connection.disconnect();
+                }
+            }
+
+            if (failure == null && responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                failure =
+                        String.format(
+                                "Uploading Blob failed, server responded with %d", responseCode);
+
+                if (!isTransient(responseCode)) {
+                    complete(this, false, failure);
+                    return;
+                }
+            }
+
+            if (failure != null) {
+                if (!retry(failure)) {
+                    complete(this, false, failure);
+                }
+
+                return;
+            }
+
+            handleResponse(response);
+        }
+
+        private void writeRequest(final HttpURLConnection connection) throws IOException {
+            final long length = source.length();
+            connection.setDoInput(true);
+            connection.setDoOutput(true);
+            connection.setUseCaches(false);
+            connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            connection.setReadTimeout(READ_TIMEOUT_MS);
+            connection.setRequestMethod(UPLOAD_HTTP_METHOD);
+            connection.setFixedLengthStreamingMode(length);
+            connection.setRequestProperty(
+                    UPLOAD_HEADER_KEY_CONTENT_TYPE, "application/octet-stream");
+            connection.setRequestProperty(UPLOAD_HEADER_KEY_FILE_CONTENT_TYPE, contentType);
+            connection.setRequestProperty(UPLOAD_HEADER_KEY_ACCEPT, "application/json");
+
+            InputStream inputStream = null;
+            OutputStream outputStream = null;
+
+            try {
+                inputStream = source.open();
+                outputStream = connection.getOutputStream();
+                final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                int read;
+
+                while ((read = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, read);
+                }
+
+                outputStream.flush();
+            } finally {
+                AssuranceIOUtils.closeQuietly(inputStream);
+                AssuranceIOUtils.closeQuietly(outputStream);
+            }
+        }
+
+        private String readResponse(final HttpURLConnection connection, final int responseCode)
+                throws IOException {
+            final InputStream inputStream =
+                    responseCode >= HttpURLConnection.HTTP_BAD_REQUEST
+                            ? connection.getErrorStream()
+                            : connection.getInputStream();
+
+            if (inputStream == null) {
+                return "";
+            }
+
+            try {
+                final ByteArrayOutputStream response = new ByteArrayOutputStream();
+                final byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                int read;
+
+                while ((read = inputStream.read(buffer)) != -1) {
+                    response.write(buffer, 0, read);
+                }
+
+                return new String(response.toByteArray(), Charset.forName("UTF-8"));
+            } finally {
+                AssuranceIOUtils.closeQuietly(inputStream);
+            }
+        }
+
+        private void handleResponse(final String response) {
+            try {
+                final JSONObject jsonResponse = new JSONObject(response);
+
+                if (jsonResponse.has(RESPONSE_KEY_ERROR)) {
+                    final String error = jsonResponse.getString(RESPONSE_KEY_ERROR);
+
+                    if (!error.isEmpty()) {
+                        complete(this, false, "Error occurred when posting blob, error - " + error);
+                        return;
+                    }
+                }
+
+                final String blobId = jsonResponse.optString(RESPONSE_KEY_BLOB_ID, "");
+
+                if (blobId.isEmpty()) {
+                    complete(
+                            this,
+                            false,
+                            "Uploading Blob failed, Invalid BlobId returned from the fileStorage"
+                                    + " server");
+                    return;
+                }
+
+                complete(this, true, blobId);
+            } catch (final JSONException ex) {
+                complete(
+                        this,
+                        false,
+                        "Uploading Blob failed, Json exception while parsing response, Error - "
+                                + ex);
+            }
+        }
+
+        /**
+         * Schedules another attempt of this upload after the backoff delay, if retries remain.
+         *
+         * @return true if a retry was scheduled
+         */
+        private boolean retry(final String failure) {
+            if (attempt >= maxRetries) {
+                return false;
+            }
+
+            final long delayMillis = initialBackoffMillis << attempt;
+            attempt++;
+            Log.debug(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "%s. Retrying upload (%d/%d) in %d ms.",
+                    failure,
+                    attempt,
+                    maxRetries,
+                    delayMillis);
+            schedule(this, delayMillis);
+            return true;
+        }
+    }
+
+    private static boolean isTransient(final int responseCode) {
+        return responseCode == HttpURLConnection.HTTP_CLIENT_TIMEOUT
+                || responseCode == 429
+                || responseCode >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+    }
+}
@@ -0,0 +1,459 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/**
+ * Encodes and decodes {@link AssuranceEvent}'s to and from CBOR (RFC 8949). Used as a compact
+ * alternative to the JSON representation of an event when the server has agreed to it at connect
+ * time.
+ *
+ * <p>The encoded event is a CBOR map with the same keys as {@link
+ * AssuranceEvent#getJSONRepresentation()}. Since every encoded event starts with a map header
+ * (0xA0 - 0xBF) and every JSON event starts with '{' (0x7B), the receiver can differentiate the two
+ * formats by the first byte of a frame.
+ */
+final class AssuranceCborCodec {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int MAJOR_TYPE_UNSIGNED_INT = 0;
+    private static final int MAJOR_TYPE_NEGATIVE_INT = 1;
+    private static final int MAJOR_TYPE_BYTE_STRING = 2;
+    private static final int MAJOR_TYPE_TEXT_STRING = 3;
+    private static final int MAJOR_TYPE_ARRAY = 4;
+    private static final int MAJOR_TYPE_MAP = 5;
+    private static final int MAJOR_TYPE_TAG = 6;
+    private static final int MAJOR_TYPE_SIMPLE = 7;
+
+    private static final int ADDITIONAL_INFO_ONE_BYTE = 24;
+    private static final int ADDITIONAL_INFO_TWO_BYTES = 25;
+    private static final int ADDITIONAL_INFO_FOUR_BYTES = 26;
+    private static final int ADDITIONAL_INFO_EIGHT_BYTES = 27;
+
+    private static final int SIMPLE_FALSE = 20;
+    private static final int SIMPLE_TRUE = 21;
+    private static final int SIMPLE_NULL = 22;
+    private static final int SIMPLE_UNDEFINED = 23;
+
+    // deepest nesting of arrays, maps and tags accepted when decoding, so that a hostile frame
+    // cannot overflow the stack of the reading thread
+    static final int MAX_NESTING_DEPTH = 64;
+
+    private AssuranceCborCodec() {}
+
+    /**
+     * Encodes the provided {@link AssuranceEvent} into its CBOR representation.
+     *
+     * @param event the {@code AssuranceEvent} to encode
+     * @return the CBOR representation of {@code event}
+     */
+    static byte[] encode(final AssuranceEvent event) {
+        final Map<String, Object> eventMap = new HashMap<>();
+        eventMap.put(AssuranceConstants.AssuranceEventKeys.EVENT_ID, event.eventID);
+        eventMap.put(AssuranceConstants.AssuranceEventKeys.VENDOR, event.vendor);
+        eventMap.put(AssuranceConstants.AssuranceEventKeys.TYPE, event.type);
+        eventMap.put(AssuranceConstants.AssuranceEventKeys.TIMESTAMP, event.timestamp);
+        eventMap.put(AssuranceConstants.AssuranceEventKeys.EVENT_NUMBER, event.eventNumber);
+
+        if (event.metadata != null) {
+            eventMap.put(AssuranceConstants.AssuranceEventKeys.METADATA, event.metadata);
+        }
+
+        if (event.payload != null) {
+            eventMap.put(AssuranceConstants.AssuranceEventKeys.PAYLOAD, event.payload);
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeValue(out, eventMap);
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes an {@link AssuranceEvent} from its CBOR representation.
+     *
+     * @param data the CBOR representation of an {@code AssuranceEvent}
+     * @return the decoded {@code AssuranceEvent}
+     * @throws IOException when {@code data} is malformed, truncated, nested deeper than {@link
+     *     #MAX_NESTING_DEPTH} or is missing the event id
+     */
+    @SuppressWarnings("unchecked")
+    static AssuranceEvent decode(final byte[] data) throws IOException {
+        final Reader reader = new Reader(data);
+        final Object decoded = reader.readValue(0);
+
+        if (reader.position != data.length) {
+            throw new IOException("Unexpected trailing bytes after the encoded event.");
+        }
+
+        if (!(decoded instanceof Map)) {
+            throw new IOException("Encoded event is not a map.");
+        }
+
+        final Map<String, Object> eventMap = (Map<String, Object>) decoded;
+        final Object metadata = eventMap.get(AssuranceConstants.AssuranceEventKeys.METADATA);
+        final Object payload = eventMap.get(AssuranceConstants.AssuranceEventKeys.PAYLOAD);
+        final Object timestamp = eventMap.get(AssuranceConstants.AssuranceEventKeys.TIMESTAMP);
+        final Object eventNumber = eventMap.get(AssuranceConstants.AssuranceEventKeys.EVENT_NUMBER);
+
+        return new AssuranceEvent(
+                requireString(eventMap, AssuranceConstants.AssuranceEventKeys.EVENT_ID),
+                optString(eventMap, AssuranceConstants.AssuranceEventKeys.VENDOR),
+                optString(eventMap, AssuranceConstants.AssuranceEventKeys.TYPE),
+                metadata instanceof Map ? (Map<String, Object>) metadata : null,
+                payload instanceof Map ? (Map<String, Object>) payload : null,
+                timestamp instanceof Number
+                        ? ((Number) timestamp).longValue()
+                        : System.currentTimeMillis(),
+                eventNumber instanceof Number ? ((Number) eventNumber).intValue() : 0);
+    }
+
+    private static String requireString(final Map<String, Object> map, final String key)
+            throws IOException {
+        final Object value = map.get(key);
+
+        if (!(value instanceof String)) {
+            throw new IOException("Encoded event is missing a valid \"" + key + "\" entry.");
+        }
+
+        return (String) value;
+    }
+
+    private static String optString(final Map<String, Object> map, final String key)
+            throws IOException {
+        final Object value = map.get(key);
+
+        if (value != null && !(value instanceof String)) {
+            throw new IOException("Encoded event has an invalid \"" + key + "\" entry.");
+        }
+
+        return (String) value;
+    }
+
+    // ========================================================================================
+    // Encoding
+    // ========================================================================================
+
+    private static void writeValue(final ByteArrayOutputStream out, final Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            out.write((MAJOR_TYPE_SIMPLE << 5) | SIMPLE_NULL);
+        } else if (value instanceof String) {
+            writeText(out, (String) value);
+        } else if (value instanceof Boolean) {
+            out.write((MAJOR_TYPE_SIMPLE << 5) | ((Boolean) value ? SIMPLE_TRUE : SIMPLE_FALSE));
+        } else if (value instanceof Integer
+                || value instanceof Long
+                || value instanceof Short
+                || value instanceof Byte) {
+            writeInteger(out, ((Number) value).longValue());
+        } else if (value instanceof Number) {
+            writeFloatingPoint(out, ((Number) value).doubleValue());
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            writeHead(out, MAJOR_TYPE_MAP, map.size());
+
+            for (final Map.Entry<?, ?> entry : map.entrySet()) {
+                writeText(out, String.valueOf(entry.getKey()));
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof Collection) {
+            final Collection<?> collection = (Collection<?>) value;
+            writeHead(out, MAJOR_TYPE_ARRAY, collection.size());
+
+            for (final Object item : collection) {
+                writeValue(out, item);
+            }
+        } else if (value instanceof Object[]) {
+            final Object[] array = (Object[]) value;
+            writeHead(out, MAJOR_TYPE_ARRAY, array.length);
+
+            for (final Object item : array) {
+                writeValue(out, item);
+            }
+        } else if (value instanceof byte[]) {
+            final byte[] bytes = (byte[]) value;
+            writeHead(out, MAJOR_TYPE_BYTE_STRING, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        } else if (value instanceof JSONObject) {
+            final JSONObject jsonObject = (JSONObject) value;
+            writeHead(out, MAJOR_TYPE_MAP, jsonObject.length());
+            final Iterator<String> keys = jsonObject.keys();
+
+            while (keys.hasNext()) {
+                final String key = keys.next();
+                writeText(out, key);
+                writeValue(out, jsonObject.opt(key));
+            }
+        } else if (value instanceof JSONArray) {
+            final JSONArray jsonArray = (JSONArray) value;
+            writeHead(out, MAJOR_TYPE_ARRAY, jsonArray.length());
+
+            for (int i = 0; i < jsonArray.length(); i++) {
+                writeValue(out, jsonArray.opt(i));
+            }
+        } else {
+            // Mirror JSONObject which falls back to the string representation of unknown types.
+            writeText(out, value.toString());
+        }
+    }
+
+    private static void writeText(final ByteArrayOutputStream out, final String text) {
+        final byte[] bytes = text.getBytes(UTF_8);
+        writeHead(out, MAJOR_TYPE_TEXT_STRING, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeInteger(final ByteArrayOutputStream out, final long value) {
+        if (value >= 0) {
+            writeHead(out, MAJOR_TYPE_UNSIGNED_INT, value);
+        } else {
+            // Negative integers are encoded as -1 - value
+            writeHead(out, MAJOR_TYPE_NEGATIVE_INT, -1 - value);
+        }
+    }
+
+    private static void writeFloatingPoint(final ByteArrayOutputStream out, final double value) {
+        final float floatValue = (float) value;
+
+        // Use single precision whenever it does not lose information.
+        if ((double) floatValue == value || Double.isNaN(value)) {
+            out.write((MAJOR_TYPE_SIMPLE << 5) | ADDITIONAL_INFO_FOUR_BYTES);
+            writeBigEndian(out, Float.floatToIntBits(floatValue), 4);
+        } else {
+            out.write((MAJOR_TYPE_SIMPLE << 5) | ADDITIONAL_INFO_EIGHT_BYTES);
+            writeBigEndian(out, Double.doubleToLongBits(value), 8);
+        }
+    }
+
+    private static void writeHead(
+            final ByteArrayOutputStream out, final int majorType, final long argument) {
+        final int type = majorType << 5;
+
+        if (argument < ADDITIONAL_INFO_ONE_BYTE) {
+            out.write(type | (int) argument);
+        } else if (argument <= 0xFFL) {
+            out.write(type | ADDITIONAL_INFO_ONE_BYTE);
+            writeBigEndian(out, argument, 1);
+        } else if (argument <= 0xFFFFL) {
+            out.write(type | ADDITIONAL_INFO_TWO_BYTES);
+            writeBigEndian(out, argument, 2);
+        } else if (argument <= 0xFFFFFFFFL) {
+            out.write(type | ADDITIONAL_INFO_FOUR_BYTES);
+            writeBigEndian(out, argument, 4);
+        } else {
+            out.write(type | ADDITIONAL_INFO_EIGHT_BYTES);
+            writeBigEndian(out, argument, 8);
+        }
+    }
+
+    private static void writeBigEndian(
+            final ByteArrayOutputStream out, final long value, final int byteCount) {
+        for (int i = byteCount - 1; i >= 0; i--) {
+            out.write((int) (value >>> (i * 8)) & 0xFF);
+        }
+    }
+
+    // ========================================================================================
+    // Decoding
+    // ========================================================================================
+
+    /** Reads CBOR data items produced by {@link #encode(AssuranceEvent)}. */
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(final byte[] data) {
+            this.data = data;
+            this.position = 0;
+        }
+
+        /**
+         * Reads the next data item.
+         *
+         * @param depth the number of arrays, maps and tags the item is nested in
+         */
+        Object readValue(final int depth) throws IOException {
+            final int initialByte = readByte();
+            final int majorType = initialByte >>> 5;
+            final int additionalInfo = initialByte & 0x1F;
+
+            switch (majorType) {
+                case MAJOR_TYPE_UNSIGNED_INT:
+                    return toNumber(readArgument(additionalInfo));
+
+                case MAJOR_TYPE_NEGATIVE_INT:
+                    return toNumber(-1 - readArgument(additionalInfo));
+
+                case MAJOR_TYPE_BYTE_STRING:
+                    return readBytes(readLength(additionalInfo));
+
+                case MAJOR_TYPE_TEXT_STRING:
+                    return new String(readBytes(readLength(additionalInfo)), UTF_8);
+
+                case MAJOR_TYPE_ARRAY:
+                    checkDepth(depth);
+                    final int itemCount = readLength(additionalInfo);
+                    final List<Object> list = new ArrayList<>(Math.min(itemCount, 256));
+
+                    for (int i = 0; i < itemCount; i++) {
+                        list.add(readValue(depth + 1));
+                    }
+
+                    return list;
+
+                case MAJOR_TYPE_MAP:
+                    checkDepth(depth);
+                    final int entryCount = readLength(additionalInfo);
+                    final Map<String, Object> map = new HashMap<>();
+
+                    for (int i = 0; i < entryCount; i++) {
+                        final Object key = readValue(depth + 1);
+                        map.put(String.valueOf(key), readValue(depth + 1));
+                    }
+
+                    return map;
+
+                case MAJOR_TYPE_TAG:
+                    // Tags carry semantic hints only. Skip them and return the tagged item.
+                    checkDepth(depth);
+                    readArgument(additionalInfo);
+                    return readValue(depth + 1);
+
+                default:
+                    return readSimpleOrFloat(additionalInfo);
+            }
+        }
+
+        private static void checkDepth(final int depth) throws IOException {
+            if (depth >= MAX_NESTING_DEPTH) {
+                throw new IOException(
+                        "Encoded event is nested deeper than " + MAX_NESTING_DEPTH + " levels.");
+            }
+        }
+
+        private Object readSimpleOrFloat(final int additionalInfo) throws IOException {
+            switch (additionalInfo) {
+                case SIMPLE_FALSE:
+                    return Boolean.FALSE;
+                case SIMPLE_TRUE:
+                    return Boolean.TRUE;
+                case SIMPLE_NULL:
+                case SIMPLE_UNDEFINED:
+                    return null;
+                case ADDITIONAL_INFO_TWO_BYTES:
+                    return (double) halfToFloat((int) readBigEndian(2));
+                case ADDITIONAL_INFO_FOUR_BYTES:
+                    return (double) Float.intBitsToFloat((int) readBigEndian(4));
+                case ADDITIONAL_INFO_EIGHT_BYTES:
+                    return Double.longBitsToDouble(readBigEndian(8));
+                default:
+                    throw new IOException("Unsupported simple value: " + additionalInfo);
+            }
+        }
+
+        private long readArgument(final int additionalInfo) throws IOException {
+            if (additionalInfo < ADDITIONAL_INFO_ONE_BYTE) {
+                return additionalInfo;
+            }
+
+            switch (additionalInfo) {
+                case ADDITIONAL_INFO_ONE_BYTE:
+                    return readBigEndian(1);
+                case ADDITIONAL_INFO_TWO_BYTES:
+                    return readBigEndian(2);
+                case ADDITIONAL_INFO_FOUR_BYTES:
+                    return readBigEndian(4);
+                case ADDITIONAL_INFO_EIGHT_BYTES:
+                    return readBigEndian(8);
+                default:
+                    // Indefinite length items are never produced by the encoder.
+                    throw new IOException("Unsupported additional info: " + additionalInfo);
+            }
+        }
+
+        private int readLength(final int additionalInfo) throws IOException {
+            final long length = readArgument(additionalInfo);
+
+            if (length < 0 || length > data.length - position) {
+                throw new IOException("Declared length exceeds the available data.");
+            }
+
+            return (int) length;
+        }
+
+        private byte[] readBytes(final int length) throws IOException {
+            if (length > data.length - position) {
+                throw new IOException("Unexpected end of data.");
+            }
+
+            final byte[] bytes = new byte[length];
+            System.arraycopy(data, position, bytes, 0, length);
+            position += length;
+            return bytes;
+        }
+
+        private long readBigEndian(final int byteCount) throws IOException {
+            long value = 0;
+
+            for (int i = 0; i < byteCount; i++) {
+                value = (value << 8) | readByte();
+            }
+
+            return value;
+        }
+
+        private int readByte() throws IOException {
+            if (position >= data.length) {
+                throw new IOException("Unexpected end of data.");
+            }
+
+            return data[position++] & 0xFF;
+        }
+
+        /** Mirrors JSON parsing by returning an {@code Integer} whenever the value fits. */
+        private static Number toNumber(final long value) {
+            if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                return (int) value;
+            }
+
+            return value;
+        }
+
+        private static float halfToFloat(final int half) {
+            final int sign = (half & 0x8000) << 16;
+            final int exponent = (half >>> 10) & 0x1F;
+            final int mantissa = half & 0x3FF;
+
+            if (exponent == 0) {
+                // zero or subnormal
+                final float magnitude = mantissa * (1f / (1 << 24));
+                return sign == 0 ? magnitude : -magnitude;
+            }
+
+            if (exponent == 0x1F) {
+                return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+            }
+
+            return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+        }
+    }
+}
@@ -31,9 +31,27 @@ import androidx.annotation.VisibleForTesting;
 import androidx.core.app.ActivityCompat;
 import com.adobe.marketing.mobile.Assurance;
 import com.adobe.marketing.mobile.services.ServiceProvider;
+import java.io.File;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -48,16 +66,58 @@ final class AssuranceClientInfo {
     private static final String FALLBACK_KEY_VERSION_CODE = "versionCode";
     private static final String FALLBACK_KEY_APPLICATION = "application";
     private static final String FALLBACK_KEY_APPLICATION_NAME = "name";
+    private static final String MANIFEST_CACHE_FILE_NAME = "com.adobe.assurance.manifest.json";
+
+    // Timeouts for probing the device information, measured from the start of the probes.
+    private static final long SYSTEM_SERVICE_PROBE_TIMEOUT_MS = 200;
+    private static final long PERMISSION_PROBE_TIMEOUT_MS = 300;
+    private static final long SCREEN_SIZE_PROBE_TIMEOUT_MS = 100;
+    private static final int PROBE_THREAD_COUNT = 3;
+    // one queued run of each probe, as a probe is not started again while it is running
+    private static final int PROBE_QUEUE_CAPACITY = 6;
+    private static final long PROBE_THREAD_KEEP_ALIVE_SECONDS = 30;
 
     private final JSONObject manifestData;
+    private final String manifestHash;
+    private final Executor probeExecutor;
+    private final Map<String, Object> lastKnownDeviceInfo = new ConcurrentHashMap<>();
+    private final Map<String, DeviceInfoProbe> runningProbes = new HashMap<>();
 
     AssuranceClientInfo() {
+        this(createProbeExecutor());
+    }
+
+    @VisibleForTesting
+    AssuranceClientInfo(final Executor probeExecutor) {
+        this.probeExecutor = probeExecutor;
+
         // parse the manifest file and store it in a JSONObject for later use as this does not
-        // change during the lifetime of the application
-        final JSONObject parsedManifest =
-                AssuranceIOUtils.parseXMLResourceFileToJson(MANIFEST_FILE_NAME);
-        final boolean isValid = validateManifestData(parsedManifest);
-        manifestData = isValid ? parsedManifest : getFallbackManifestData();
+        // change during the lifetime of the application. The JSON text of the manifest is cached
+        // on disk for the installed version of the app, to avoid parsing it for every session.
+        // The text is hashed and cached as is, so it is parsed only once and never re-serialized.
+        final String cacheKey = getManifestCacheKey();
+        String manifestJson = loadCachedManifest(cacheKey);
+        JSONObject parsedManifest = parseManifest(manifestJson);
+
+        if (parsedManifest == null) {
+            manifestJson = AssuranceIOUtils.readXMLResourceFileAsJSON(MANIFEST_FILE_NAME);
+            parsedManifest = parseManifest(manifestJson);
+
+            if (validateManifestData(parsedManifest)) {
+                storeCachedManifest(cacheKey, manifestJson);
+            }
+        }
+
+        if (validateManifestData(parsedManifest)) {
+            manifestData = parsedManifest;
+            manifestHash = computeHash(manifestJson);
+        } else {
+            manifestData = getFallbackManifestData();
+            manifestHash = computeHash(manifestData.toString());
+        }
+
+        // Warm up the last known device information ahead of the first client info event.
+        startDeviceInfoProbes();
     }
 
     /**
@@ -70,16 +130,48 @@ final class AssuranceClientInfo {
      *   <li>appSettings - Applications Manifest.xml file parsed in JSON format
      *   <li>type = connect, representing that this event is initializing a socket connection with
      *       server
+     *   <li>supportedEncodings - the event encodings, in order of preference, that the client can
+     *       use for events sent after the connection is established
+     *   <li>supportsStateDeltas - whether the client can send shared states as deltas
+     *   <li>supportsLogBatching - whether the client can send batches of structured log entries
+     *   <li>appSettingsHash - SHA-256 hash of the appSettings, identifying its content
      * </ol>
      *
      * @return Returns {@link Map} representing clientInfo event payload
      */
     Map<String, Object> getData() {
+        return getData(true);
+    }
+
+    /**
+     * Returns the payload for assurance ClientInfo event, optionally leaving out the appSettings
+     * for servers that have already received them. The appSettingsHash is always included so that
+     * the server can detect a change and request the full appSettings.
+     *
+     * @param includeAppSettings whether the full appSettings should be included
+     * @return Returns {@link Map} representing clientInfo event payload
+     */
+    Map<String, Object> getData(final boolean includeAppSettings) {
         final Map<String, Object> eventPayload = new HashMap<>();
         eventPayload.put(AssuranceConstants.ClientInfoKeys.VERSION, Assurance.extensionVersion());
         eventPayload.put(AssuranceConstants.ClientInfoKeys.DEVICE_INFO, getDeviceInfo());
         eventPayload.put(AssuranceConstants.PayloadDataKeys.TYPE, EVENT_TYPE_CONNECT);
-        eventPayload.put(AssuranceConstants.ClientInfoKeys.APP_SETTINGS, manifestData);
+
+        if (includeAppSettings || manifestHash == null) {
+            eventPayload.put(AssuranceConstants.ClientInfoKeys.APP_SETTINGS, manifestData);
+        }
+
+        if (manifestHash != null) {
+            eventPayload.put(AssuranceConstants.ClientInfoKeys.APP_SETTINGS_HASH, manifestHash);
+        }
+
+        eventPayload.put(
+                AssuranceConstants.ClientInfoKeys.SUPPORTED_ENCODINGS,
+                Arrays.asList(
+                        AssuranceConstants.EventEncoding.CBOR,
+                        AssuranceConstants.EventEncoding.JSON));
+        eventPayload.put(AssuranceConstants.ClientInfoKeys.SUPPORTS_STATE_DELTAS, true);
+        eventPayload.put(AssuranceConstants.ClientInfoKeys.SUPPORTS_LOG_BATCHING, true);
         return eventPayload;
     }
 
@@ -102,6 +194,11 @@ final class AssuranceClientInfo {
      *   <li>Location service enabled - Returns the current enabled/disabled state of location
      * </ol>
      *
+     * <p>Values that require querying system services are probed in parallel on the probe
+     * executor. A probe that does not complete within its timeout is reported with its last known
+     * value (or a default value), so that a slow system service does not delay the client info
+     * event. The probe keeps running in the background and refreshes the last known value.
+     *
      * @return Returns {@link Map} representing clientInfo event payload
      */
     private HashMap<String, Object> getDeviceInfo() {
@@ -113,19 +210,131 @@ final class AssuranceClientInfo {
         deviceInfo.put(
                 AssuranceConstants.DeviceInfoKeys.OPERATING_SYSTEM,
                 "Android " + Build.VERSION.RELEASE);
-        deviceInfo.put(AssuranceConstants.DeviceInfoKeys.CARRIER_NAME, getMobileCarrierName());
-        deviceInfo.put(AssuranceConstants.DeviceInfoKeys.BATTERY_LEVEL, getBatteryPercentage());
-        deviceInfo.put(AssuranceConstants.DeviceInfoKeys.SCREEN_SIZE, getScreenSize());
-        deviceInfo.put(
-                AssuranceConstants.DeviceInfoKeys.LOCATION_SERVICE_ENABLED, isLocationEnabled());
-        deviceInfo.put(
+
+        final long probeStartTime = System.currentTimeMillis();
+
+        for (final DeviceInfoProbe probe : startDeviceInfoProbes()) {
+            deviceInfo.put(probe.key, awaitProbe(probe, probeStartTime));
+        }
+
+        return deviceInfo;
+    }
+
+    /**
+     * Starts the probes for the device information that requires querying system services. A
+     * probe still running since an earlier call, for ex. blocked on a system service, is returned
+     * rather than started again, so that hung probes do not pile up on the probe threads.
+     *
+     * @return the started or still running probes
+     */
+    private synchronized List<DeviceInfoProbe> startDeviceInfoProbes() {
+        // Resolve the context on the calling thread, the probes only use the context provided.
+        final Context context =
+                ServiceProvider.getInstance().getAppContextService().getApplicationContext();
+        final List<DeviceInfoProbe> probes = new ArrayList<>();
+
+        startDeviceInfoProbe(
+                probes,
+                AssuranceConstants.DeviceInfoKeys.CARRIER_NAME,
+                VALUE_UNKNOWN,
+                SYSTEM_SERVICE_PROBE_TIMEOUT_MS,
+                () -> getMobileCarrierName(context));
+        startDeviceInfoProbe(
+                probes,
+                AssuranceConstants.DeviceInfoKeys.BATTERY_LEVEL,
+                -1,
+                SYSTEM_SERVICE_PROBE_TIMEOUT_MS,
+                () -> getBatteryPercentage(context));
+        startDeviceInfoProbe(
+                probes,
+                AssuranceConstants.DeviceInfoKeys.SCREEN_SIZE,
+                VALUE_UNKNOWN,
+                SCREEN_SIZE_PROBE_TIMEOUT_MS,
+                this::getScreenSize);
+        startDeviceInfoProbe(
+                probes,
+                AssuranceConstants.DeviceInfoKeys.LOCATION_SERVICE_ENABLED,
+                false,
+                SYSTEM_SERVICE_PROBE_TIMEOUT_MS,
+                () -> isLocationEnabled(context));
+        startDeviceInfoProbe(
+                probes,
                 AssuranceConstants.DeviceInfoKeys.LOCATION_AUTHORIZATION_STATUS,
-                getCurrentLocationPermission());
-        deviceInfo.put(
+                VALUE_UNKNOWN,
+                PERMISSION_PROBE_TIMEOUT_MS,
+                () -> getCurrentLocationPermission(context));
+        startDeviceInfoProbe(
+                probes,
                 AssuranceConstants.DeviceInfoKeys.LOW_POWER_BATTERY_ENABLED,
-                isPowerSaveModeEnabled());
+                false,
+                SYSTEM_SERVICE_PROBE_TIMEOUT_MS,
+                () -> isPowerSaveModeEnabled(context));
 
-        return deviceInfo;
+        return probes;
+    }
+
+    /**
+     * Starts the probe of a device information value, unless the previous probe of the value is
+     * still running, and adds the started or running probe to the provided list.
+     */
+    private void startDeviceInfoProbe(
+            final List<DeviceInfoProbe> probes,
+            final String key,
+            final Object defaultValue,
+            final long timeoutMillis,
+            final Callable<Object> callable) {
+        final DeviceInfoProbe runningProbe = runningProbes.get(key);
+
+        if (runningProbe != null && !runningProbe.isDone()) {
+            probes.add(runningProbe);
+            return;
+        }
+
+        final DeviceInfoProbe probe =
+                new DeviceInfoProbe(key, defaultValue, timeoutMillis, callable);
+        runningProbes.put(key, probe);
+        probes.add(probe);
+
+        try {
+            probeExecutor.execute(probe);
+        } catch (final RejectedExecutionException e) {
+            Log.d(Assurance.LOG_TAG, "Unable to start probing " + key + ": " + e);
+            probe.cancel(false);
+        }
+    }
+
+    /**
+     * Waits for the provided probe to complete, for up to the probe's timeout since the probes
+     * were started.
+     *
+     * @param probe the probe to wait for
+     * @param probeStartTime the time in milliseconds at which the probes were started
+     * @return the probed value, or the last known value if the probe did not complete in time
+     */
+    private Object awaitProbe(final DeviceInfoProbe probe, final long probeStartTime) {
+        final long remainingTime =
+                probe.timeoutMillis - (System.currentTimeMillis() - probeStartTime);
+
+        try {
+            final Object value = probe.get(Math.max(0, remainingTime), TimeUnit.MILLISECONDS);
+
+            if (value != null) {
+                return value;
+            }
+        } catch (final TimeoutException e) {
+            Log.d(
+                    Assurance.LOG_TAG,
+                    "Timed out probing " + probe.key + ", using the last known value.");
+        } catch (final ExecutionException e) {
+            Log.d(Assurance.LOG_TAG, "Failed to probe " + probe.key + ": " + e.getCause());
+        } catch (final CancellationException e) {
+            // the probe could not be started, the last known value is used
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final Object lastKnownValue = lastKnownDeviceInfo.get(probe.key);
+        return lastKnownValue != null ? lastKnownValue : probe.defaultValue;
     }
 
     /**
@@ -133,12 +342,10 @@ final class AssuranceClientInfo {
      *
      * <p>Returns nil if unable to retrieve the carrier name.
      *
+     * @param context the application {@link Context}
      * @return Returns {@link String} representing carrier name
      */
-    private String getMobileCarrierName() {
-        final Context context =
-                ServiceProvider.getInstance().getAppContextService().getApplicationContext();
-
+    private String getMobileCarrierName(final Context context) {
         if (context == null) {
             return VALUE_UNKNOWN;
         }
@@ -152,12 +359,10 @@ final class AssuranceClientInfo {
      * The current battery level for the device. This is integer value ranging from 1 to 100. If
      * unable to fetch battery value -1 is returned
      *
+     * @param context the application {@link Context}
      * @return Returns {@code String} representing the deviceType
      */
-    private int getBatteryPercentage() {
-        final Context context =
-                ServiceProvider.getInstance().getAppContextService().getApplicationContext();
-
+    private int getBatteryPercentage(final Context context) {
         if (context == null) {
             return -1;
         }
@@ -199,12 +404,10 @@ final class AssuranceClientInfo {
     /**
      * Returns the current enabled/disabled state of location.
      *
+     * @param context the application {@link Context}
      * @return true if location is enabled and false if location is disabled
      */
-    private Boolean isLocationEnabled() {
-        final Context context =
-                ServiceProvider.getInstance().getAppContextService().getApplicationContext();
-
+    private Boolean isLocationEnabled(final Context context) {
         if (context == null) {
             return false;
         }
@@ -235,16 +438,14 @@ final class AssuranceClientInfo {
      *   <li>Unknown : If the location authorization status is not retrievable. A rare case.
      * </ol>
      *
+     * @param context the application {@link Context}
      * @return A {@link String} representing the current location permission
      */
-    private String getCurrentLocationPermission() {
+    private String getCurrentLocationPermission(final Context context) {
         if (!isRuntimePermissionRequired()) {
             return "Always";
         }
 
-        final Context context =
-                ServiceProvider.getInstance().getAppContextService().getApplicationContext();
-
         if (context == null) {
             // Unable to check location permission, App context is not available. Defaulting
             // acquired permission level to unknown
@@ -266,7 +467,8 @@ final class AssuranceClientInfo {
             // default
             // for android version above API 29. verify if the access to background location is
             // granted specifically
-            if (isBackgroundLocationAccessGrantedByDefault() || isBackgroundPermissionGranted()) {
+            if (isBackgroundLocationAccessGrantedByDefault()
+                    || isBackgroundPermissionGranted(context)) {
                 return "Always";
             } else {
                 return "When in use";
@@ -304,19 +506,17 @@ final class AssuranceClientInfo {
      *       if the app context is null.
      * </ol>
      *
+     * @param context the application {@link Context}
      * @return Returns {@code boolean} representing the permission to monitor fine location in
      *     background
      */
-    private boolean isBackgroundPermissionGranted() {
+    private boolean isBackgroundPermissionGranted(final Context context) {
         // for version below API 23, need not check permissions
         if (!isRuntimePermissionRequired()) {
             return true;
         }
 
-        // get hold of the app context. bail out if null
-        final Context context =
-                ServiceProvider.getInstance().getAppContextService().getApplicationContext();
-
+        // bail out if the app context is not available
         if (context == null) {
             return false;
         }
@@ -352,16 +552,14 @@ final class AssuranceClientInfo {
      * battery as much as possible The API to read PowerSaveMode was introduces in Android API
      * version 21. For Android API versions before 21, this method returns false.
      *
+     * @param context the application {@link Context}
      * @return Returns {@code boolean} if power saving mode is enabled
      */
-    private boolean isPowerSaveModeEnabled() {
+    private boolean isPowerSaveModeEnabled(final Context context) {
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
             return false;
         }
 
-        final Context context =
-                ServiceProvider.getInstance().getAppContextService().getApplicationContext();
-
         if (context == null) {
             return false;
         }
@@ -376,6 +574,107 @@ final class AssuranceClientInfo {
         return powerManager.isPowerSaveMode();
     }
 
+    /**
+     * Returns the key identifying the installed version of the app, which the cached manifest is
+     * associated with. The last update time is included so that rebuilt debug builds, which
+     * usually keep their version code, do not use a stale manifest.
+     *
+     * @return the cache key, or null if the installed version cannot be determined
+     */
+    private String getManifestCacheKey() {
+        try {
+            final Application app =
+                    ServiceProvider.getInstance().getAppContextService().getApplication();
+
+            if (app == null) {
+                return null;
+            }
+
+            final PackageInfo packageInfo =
+                    app.getApplicationContext()
+                            .getPackageManager()
+                            .getPackageInfo(app.getPackageName(), 0);
+            return packageInfo.versionCode + ":" + packageInfo.lastUpdateTime;
+        } catch (final Exception e) {
+            Log.d(Assurance.LOG_TAG, "Unable to determine the app version for manifest caching.");
+            return null;
+        }
+    }
+
+    private File getManifestCacheFile() {
+        final Application app =
+                ServiceProvider.getInstance().getAppContextService().getApplication();
+        final File cacheDir = app == null ? null : app.getCacheDir();
+        return cacheDir == null ? null : new File(cacheDir, MANIFEST_CACHE_FILE_NAME);
+    }
+
+    /**
+     * Loads the manifest cached for the provided key. The cache file holds the key on the first
+     * line, followed by the manifest JSON.
+     *
+     * @param cacheKey the key identifying the installed version of the app
+     * @return the cached manifest JSON, or null if there is no manifest cached for the key
+     */
+    private String loadCachedManifest(final String cacheKey) {
+        if (cacheKey == null) {
+            return null;
+        }
+
+        final String cachedContents = AssuranceIOUtils.readFileAsString(getManifestCacheFile());
+
+        if (cachedContents == null || !cachedContents.startsWith(cacheKey + "\n")) {
+            return null;
+        }
+
+        return cachedContents.substring(cacheKey.length() + 1);
+    }
+
+    private void storeCachedManifest(final String cacheKey, final String manifestJson) {
+        if (cacheKey == null) {
+            return;
+        }
+
+        AssuranceIOUtils.writeStringToFile(getManifestCacheFile(), cacheKey + "\n" + manifestJson);
+    }
+
+    private static JSONObject parseManifest(final String manifestJson) {
+        if (manifestJson == null) {
+            return null;
+        }
+
+        try {
+            return new JSONObject(manifestJson);
+        } catch (final JSONException e) {
+            Log.d(Assurance.LOG_TAG, "Ignoring invalid manifest JSON.");
+            return null;
+        }
+    }
+
+    /**
+     * Computes the hex encoded SHA-256 hash of the provided content.
+     *
+     * @param content the content to hash
+     * @return the hash, or null if SHA-256 is not available
+     */
+    @VisibleForTesting
+    static String computeHash(final String content) {
+        try {
+            final byte[] digest =
+                    MessageDigest.getInstance("SHA-256")
+                            .digest(content.getBytes(Charset.forName("UTF-8")));
+            final StringBuilder hash = new StringBuilder(digest.length * 2);
+
+            for (final byte b : digest) {
+                hash.append(String.format(Locale.US, "%02x", b & 0xff));
+            }
+
+            return hash.toString();
+        } catch (final NoSuchAlgorithmException e) {
+            Log.d(Assurance.LOG_TAG, "SHA-256 is unavailable, appSettings will always be sent.");
+            return null;
+        }
+    }
+
     /**
      * Checks that the manifest data provided is associated with the current application.
      *
@@ -450,4 +749,48 @@ final class AssuranceClientInfo {
 
         return result;
     }
+
+    private static Executor createProbeExecutor() {
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        PROBE_THREAD_COUNT,
+                        PROBE_THREAD_COUNT,
+                        PROBE_THREAD_KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<Runnable>(PROBE_QUEUE_CAPACITY),
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "AssuranceDeviceInfoProbe");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /** Probes a single device information value and records it as the last known value. */
+    private final class DeviceInfoProbe extends FutureTask<Object> {
+        private final String key;
+        private final Object defaultValue;
+        private final long timeoutMillis;
+
+        DeviceInfoProbe(
+                final String key,
+                final Object defaultValue,
+                final long timeoutMillis,
+                final Callable<Object> probe) {
+            super(probe);
+            this.key = key;
+            this.defaultValue = defaultValue;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        @Override
+        protected void set(final Object value) {
+            if (value != null) {
+                lastKnownDeviceInfo.put(key, value);
+            }
+
+            super.set(value);
+        }
+    }
 }
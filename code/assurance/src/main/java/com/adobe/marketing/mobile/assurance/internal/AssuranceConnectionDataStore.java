@@ -13,25 +13,40 @@ package com.adobe.marketing.mobile.assurance.internal;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.Assurance;
 import com.adobe.marketing.mobile.services.Log;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Responsible for storing and retrieving the Assurance connection URL required for connecting to a
  * session. Typically used for storing and auto-reconnecting to a session that has not been
- * explicitly disconnected (by the user disconnection or due to an error).
+ * explicitly disconnected (by the user disconnection or due to an error). The URL is persisted
+ * through an {@link AssuranceWriteBehindStore}, off the calling thread.
  */
 class AssuranceConnectionDataStore {
     private static final String LOG_TAG = "AssuranceConnectionDataStore";
-    private final SharedPreferences sharedPreferences;
+    private final AssuranceWriteBehindStore store;
 
     AssuranceConnectionDataStore(final Context context) {
-        sharedPreferences =
+        this(context, AssuranceWriteBehindStore.getDefaultFlushScheduler());
+    }
+
+    @VisibleForTesting
+    AssuranceConnectionDataStore(
+            final Context context, final ScheduledExecutorService flushScheduler) {
+        final SharedPreferences sharedPreferences =
                 context == null
                         ? null
                         : context.getSharedPreferences(
                                 AssuranceConstants.DataStoreKeys.DATASTORE_NAME,
                                 Context.MODE_PRIVATE);
+        store =
+                sharedPreferences == null
+                        ? null
+                        : new AssuranceWriteBehindStore(
+                                AssuranceWriteBehindStore.forSharedPreferences(sharedPreferences),
+                                flushScheduler);
     }
 
     /**
@@ -40,7 +55,7 @@ class AssuranceConnectionDataStore {
      * @return the previously stored connection URL for the socket if any
      */
     String getStoredConnectionURL() {
-        if (sharedPreferences == null) {
+        if (store == null) {
             Log.error(
                     Assurance.LOG_TAG,
                     LOG_TAG,
@@ -49,7 +64,7 @@ class AssuranceConnectionDataStore {
             return null;
         }
 
-        return sharedPreferences.getString(AssuranceConstants.DataStoreKeys.SESSION_URL, null);
+        return store.getString(AssuranceConstants.DataStoreKeys.SESSION_URL);
     }
 
     /**
@@ -59,7 +74,7 @@ class AssuranceConnectionDataStore {
      *     previously stored value
      */
     void saveConnectionURL(final String url) {
-        if (sharedPreferences == null) {
+        if (store == null) {
             Log.error(
                     Assurance.LOG_TAG,
                     LOG_TAG,
@@ -68,20 +83,8 @@ class AssuranceConnectionDataStore {
             return;
         }
 
-        final SharedPreferences.Editor editor = sharedPreferences.edit();
-
-        if (editor == null) {
-            Log.error(
-                    Assurance.LOG_TAG,
-                    LOG_TAG,
-                    "Unable to get connection URL from persistence, SharedPreference Editor"
-                            + " instance is null");
-            return;
-        }
-
         Log.trace(Assurance.LOG_TAG, LOG_TAG, "Session URL stored is:" + url);
 
-        editor.putString(AssuranceConstants.DataStoreKeys.SESSION_URL, url);
-        editor.apply();
+        store.putString(AssuranceConstants.DataStoreKeys.SESSION_URL, url);
     }
 }
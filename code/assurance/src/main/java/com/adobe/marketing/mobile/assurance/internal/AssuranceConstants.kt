@@ -52,6 +52,8 @@ internal object AssuranceConstants {
 
     internal object SDKConfigurationKey {
         const val ORG_ID = "experienceCloud.org"
+        const val FLOATING_BUTTON_MODE = "assurance.floatingButtonMode"
+        const val QUICK_CONNECT_LONG_POLL_WAIT_MS = "assurance.quickConnectLongPollWaitMs"
     }
 
     internal object AssuranceEventType {
@@ -68,6 +70,10 @@ internal object AssuranceConstants {
         const val LOG_FORWARDING = "logForwarding"
         const val FAKE_EVENT = "fakeEvent"
         const val CONFIG_UPDATE = "configUpdate"
+        const val EVENT_FILTER = "eventFilter"
+        const val CLIENT_INFO_REQUEST = "clientInfoRequest"
+        const val SCREEN_STREAM = "screenStream"
+        const val LOAD_GENERATOR = "loadGenerator"
         const val NONE = "none"
         const val WILDCARD = "wildcard"
     }
@@ -101,6 +107,10 @@ internal object AssuranceConstants {
         const val TOKEN = "token"
     }
 
+    internal object SocketKeys {
+        const val HOST_FORMAT = "connect%s.griffon.adobe.com"
+    }
+
     internal object BlobKeys {
         const val UPLOAD_ENDPOINT_FORMAT = "https://blob%s.griffon.adobe.com"
         const val UPLOAD_PATH_API = "api"
@@ -128,6 +138,145 @@ internal object AssuranceConstants {
         const val VERSION = "version"
         const val DEVICE_INFO = "deviceInfo"
         const val APP_SETTINGS = "appSettings"
+        const val SUPPORTED_ENCODINGS = "supportedEncodings"
+        const val SUPPORTS_STATE_DELTAS = "supportsStateDeltas"
+        const val SUPPORTS_LOG_BATCHING = "supportsLogBatching"
+        const val APP_SETTINGS_HASH = "appSettingsHash"
+    }
+
+    internal object ControlDetailKeys {
+        const val ENCODING = "encoding"
+        const val STATE_DELTAS = "stateDeltas"
+        const val APP_SETTINGS_CACHED = "appSettingsCached"
+    }
+
+    /**
+     * Keys used for shared state events sent as deltas, when the server opts into them via the
+     * [ControlType.START_EVENT_FORWARDING] control event.
+     */
+    internal object StateDeltaKeys {
+        const val PATCH_SUFFIX = ".patch"
+        const val VERSION = "state.version"
+        const val BASE_VERSION = "state.baseVersion"
+        const val OP = "op"
+        const val PATH = "path"
+        const val VALUE = "value"
+        const val OP_ADD = "add"
+        const val OP_REMOVE = "remove"
+        const val OP_REPLACE = "replace"
+    }
+
+    /**
+     * Keys of the [ControlType.LOG_FORWARDING] control event details, and of the log event
+     * payloads. Log entries are batched only when the server opts into it with [BATCH].
+     */
+    internal object LogForwardingKeys {
+        const val ENABLE = "enable"
+        const val BATCH = "batch"
+        const val FLUSH_INTERVAL = "flushIntervalMs"
+        const val MAX_ENTRIES = "maxEntries"
+        const val MAX_BYTES = "maxBytes"
+        const val BUFFERS = "buffers"
+        const val FILTERS = "filters"
+        const val INCLUDE = "include"
+        const val SOURCE = "source"
+        const val SOURCE_LOGCAT = "logcat"
+        const val SOURCE_SDK = "sdk"
+        const val SOURCE_ALL = "all"
+        const val LOGLINE = "logline"
+        const val ENTRIES = "entries"
+        const val TIME = "time"
+        const val PID = "pid"
+        const val TID = "tid"
+        const val LEVEL = "level"
+        const val TAG = "tag"
+        const val MESSAGE = "message"
+    }
+
+    /**
+     * Keys of the [ControlType.LOAD_GENERATOR] control event details, and of the reports sent back
+     * while the load is generated.
+     */
+    internal object LoadGeneratorKeys {
+        const val EVENTS_PER_SECOND = "eventsPerSecond"
+        const val DURATION_SECONDS = "durationSeconds"
+        const val MIN_DATA_SIZE = "minDataSize"
+        const val MAX_DATA_SIZE = "maxDataSize"
+        const val SIZE_DISTRIBUTION = "sizeDistribution"
+        const val SIZE_DISTRIBUTION_UNIFORM = "uniform"
+        const val SIZE_DISTRIBUTION_LOG_UNIFORM = "logUniform"
+        const val SHAPES = "shapes"
+        const val SHAPE_FLAT = "flat"
+        const val SHAPE_NESTED = "nested"
+        const val SHAPE_LIST = "list"
+        const val EVENT_TYPE = "eventType"
+        const val EVENT_SOURCE = "eventSource"
+        const val SEED = "seed"
+        const val STOP = "stop"
+        const val REPORT_TYPE = "loadGeneratorReport"
+        const val TARGET_RATE = "targetRate"
+        const val ACHIEVED_RATE = "achievedRate"
+        const val DISPATCHED_COUNT = "dispatchedCount"
+        const val ELAPSED_MS = "elapsedMs"
+        const val HUB_LAG_AVG_MS = "hubLagAvgMs"
+        const val HUB_LAG_MAX_MS = "hubLagMaxMs"
+        const val OUTBOUND_QUEUE_DEPTH = "outboundQueueDepth"
+        const val EMITTER_BACKLOG = "emitterBacklog"
+        const val DROPPED_REPORTS = "droppedReports"
+        const val COMPLETE = "complete"
+    }
+
+    /** Keys of the [ControlType.SCREENSHOT] control event details. */
+    internal object ScreenshotKeys {
+        const val SCALE = "scale"
+        const val QUALITY = "quality"
+        const val FORMAT = "format"
+        const val FORMAT_JPEG = "jpeg"
+        const val FORMAT_WEBP = "webp"
+    }
+
+    /**
+     * Keys of the [ControlType.SCREEN_STREAM] control event details, and of the frame details
+     * sent with every streamed region.
+     */
+    internal object ScreenStreamKeys {
+        const val ENABLE = "enable"
+        const val FPS = "fps"
+        const val SCALE = "scale"
+        const val QUALITY = "quality"
+        const val TILE_SIZE = "tileSize"
+        const val FRAME = "frame"
+        const val FRAME_NUMBER = "number"
+        const val KEYFRAME = "keyframe"
+        const val REGION_X = "x"
+        const val REGION_Y = "y"
+        const val REGION_WIDTH = "width"
+        const val REGION_HEIGHT = "height"
+        const val FRAME_WIDTH = "frameWidth"
+        const val FRAME_HEIGHT = "frameHeight"
+    }
+
+    internal object EventFilterKeys {
+        const val ALLOW = "allow"
+        const val DENY = "deny"
+        const val EVENT_TYPE = "type"
+        const val EVENT_SOURCE = "source"
+        const val NAMES = "names"
+        const val DATA = "data"
+        const val PATH = "path"
+        const val EQUALS = "equals"
+        const val EXISTS = "exists"
+        const val WILDCARD = "*"
+    }
+
+    /**
+     * Encodings that events sent over the socket can use. JSON is always supported; other
+     * encodings are only used when the server opts into them via the
+     * [ControlType.START_EVENT_FORWARDING] control event.
+     */
+    internal object EventEncoding {
+        const val JSON = "json"
+        const val CBOR = "cbor"
     }
 
     internal object DeviceInfoKeys {
@@ -227,8 +376,12 @@ internal object AssuranceConstants {
         const val KEY_CLIENT_ID = "clientId"
         val CONNECTION_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(5).toInt()
         val READ_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(5).toInt()
-        val STATUS_CHECK_DELAY_MS = TimeUnit.SECONDS.toMillis(2)
-        const val MAX_RETRY_COUNT = 300
+        const val KEY_WAIT_MS = "waitMs"
+        val LONG_POLL_MAX_WAIT_MS = TimeUnit.SECONDS.toMillis(30)
+        const val STATUS_CHECK_INITIAL_DELAY_MS = 500L
+        val STATUS_CHECK_MAX_DELAY_MS = TimeUnit.SECONDS.toMillis(5)
+        const val STATUS_CHECK_BACKOFF_MULTIPLIER = 1.5
+        val STATUS_CHECK_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(10)
     }
 
     internal enum class AssuranceConnectionError(
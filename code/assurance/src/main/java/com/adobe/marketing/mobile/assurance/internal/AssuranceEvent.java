@@ -97,7 +97,7 @@ final class AssuranceEvent {
      * @param timestamp timestamp of the event in milliseconds
      * @param eventNumber sequence number of the AssuranceEvent
      */
-    private AssuranceEvent(
+    AssuranceEvent(
             final String eventID,
             final String vendor,
             final String type,
@@ -117,7 +117,8 @@ final class AssuranceEvent {
     /**
      * Creates a new Event object from a JSON representation.
      *
-     * <p>Intended for internal use only
+     * <p>Intended for internal use only. The payload of the created event is converted into a
+     * {@code Map} only when it is first accessed.
      *
      * @param json {@code String} containing JSON representation of an Event
      * @throws JSONException When issues arise parsing the JSON input
@@ -142,7 +143,9 @@ final class AssuranceEvent {
                 eventMap.optJSONObject(AssuranceConstants.AssuranceEventKeys.PAYLOAD);
 
         if (payloadObj != null) {
-            this.payload = JSONUtils.toMap(payloadObj);
+            // Defer converting the payload until it is needed. Most inbound events are either
+            // dropped or only inspected for their control type.
+            this.payload = new LazyJSONMap(payloadObj);
         } else {
             this.payload = null;
         }
@@ -206,6 +209,11 @@ final class AssuranceEvent {
             return null;
         }
 
+        // look up the type without materializing a lazily parsed payload
+        if (payload instanceof LazyJSONMap) {
+            return ((LazyJSONMap) payload).optString(AssuranceConstants.PayloadDataKeys.TYPE);
+        }
+
         // return null if the payload is null or does not contain "type" key
         if (payload == null
                 || payload.isEmpty()
@@ -0,0 +1,414 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.EventFilterKeys;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * A compiled matcher deciding which SDK events are forwarded to an Assurance session, created from
+ * the details of an {@link AssuranceConstants.ControlType#EVENT_FILTER} control event:
+ *
+ * <pre>
+ * {
+ *   "allow": [{"type": "com.adobe.eventType.edge", "source": "*"}],
+ *   "deny": [{"type": "com.adobe.eventType.hub", "source": "com.adobe.eventSource.sharedState"}],
+ *   "names": ["AEP Request*", "*Response*"],
+ *   "data": [{"path": "xdm.eventType", "equals": "web.webpagedetails.pageViews"},
+ *            {"path": "query.personalization", "exists": true}]
+ * }
+ * </pre>
+ *
+ * An event matches the filter when it is not matched by any of the "deny" rules, and is matched by
+ * at least one of the "allow" rules, at least one of the "names" patterns and all of the "data"
+ * predicates. Omitted sections do not restrict events. Event types and sources are compared
+ * ignoring case, and "*" matches any type or source. Name patterns support "*" as a wildcard for
+ * any sequence of characters and are matched ignoring case. Data paths are dot separated keys into
+ * the event data, with numeric segments indexing into lists.
+ *
+ * <p>Matching does not allocate, so that events that are filtered out cost close to nothing.
+ */
+final class AssuranceEventFilter {
+    private static final String LOG_TAG = "AssuranceEventFilter";
+
+    private final TypeSourceRules allowRules;
+    private final TypeSourceRules denyRules;
+    private final String[] namePatterns;
+    private final DataPredicate[] dataPredicates;
+
+    private AssuranceEventFilter(
+            final TypeSourceRules allowRules,
+            final TypeSourceRules denyRules,
+            final String[] namePatterns,
+            final DataPredicate[] dataPredicates) {
+        this.allowRules = allowRules;
+        this.denyRules = denyRules;
+        this.namePatterns = namePatterns;
+        this.dataPredicates = dataPredicates;
+    }
+
+    /**
+     * Compiles the filter described by the details of an event filter control event. Invalid
+     * entries are ignored.
+     *
+     * @param filterDetails the details of the event filter control event
+     * @return the compiled {@code AssuranceEventFilter}
+     */
+    static AssuranceEventFilter compile(final Map<String, Object> filterDetails) {
+        return new AssuranceEventFilter(
+                TypeSourceRules.compile(filterDetails.get(EventFilterKeys.ALLOW)),
+                TypeSourceRules.compile(filterDetails.get(EventFilterKeys.DENY)),
+                compileNamePatterns(filterDetails.get(EventFilterKeys.NAMES)),
+                compileDataPredicates(filterDetails.get(EventFilterKeys.DATA)));
+    }
+
+    /**
+     * Checks whether the provided event should be forwarded to the session.
+     *
+     * @param event the SDK event to check
+     * @return true if the event matches this filter, false otherwise
+     */
+    boolean matches(final Event event) {
+        final String type = event.getType();
+        final String source = event.getSource();
+
+        if (denyRules != null && denyRules.matches(type, source)) {
+            return false;
+        }
+
+        if (allowRules != null && !allowRules.matches(type, source)) {
+            return false;
+        }
+
+        if (namePatterns != null && !matchesAnyName(event.getName())) {
+            return false;
+        }
+
+        if (dataPredicates != null) {
+            final Map<String, Object> eventData = event.getEventData();
+
+            for (final DataPredicate predicate : dataPredicates) {
+                if (!predicate.matches(eventData)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private boolean matchesAnyName(final String name) {
+        if (name == null) {
+            return false;
+        }
+
+        for (final String pattern : namePatterns) {
+            if (globMatches(pattern, name)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Matches {@code text} against a pattern where "*" matches any sequence of characters. Matching
+     * ignores case.
+     *
+     * @param pattern the pattern to match against
+     * @param text the text to be matched
+     * @return true if {@code text} matches {@code pattern}
+     */
+    static boolean globMatches(final String pattern, final String text) {
+        int patternIndex = 0;
+        int textIndex = 0;
+        int starIndex = -1;
+        int starTextIndex = 0;
+
+        while (textIndex < text.length()) {
+            if (patternIndex < pattern.length() && pattern.charAt(patternIndex) == '*') {
+                starIndex = patternIndex++;
+                starTextIndex = textIndex;
+            } else if (patternIndex < pattern.length()
+                    && equalsIgnoreCase(pattern.charAt(patternIndex), text.charAt(textIndex))) {
+                patternIndex++;
+                textIndex++;
+            } else if (starIndex != -1) {
+                // Backtrack and let the last "*" consume one more character.
+                patternIndex = starIndex + 1;
+                textIndex = ++starTextIndex;
+            } else {
+                return false;
+            }
+        }
+
+        while (patternIndex < pattern.length() && pattern.charAt(patternIndex) == '*') {
+            patternIndex++;
+        }
+
+        return patternIndex == pattern.length();
+    }
+
+    private static boolean equalsIgnoreCase(final char first, final char second) {
+        return first == second
+                || Character.toLowerCase(first) == Character.toLowerCase(second)
+                || Character.toUpperCase(first) == Character.toUpperCase(second);
+    }
+
+    private static String[] compileNamePatterns(final Object names) {
+        if (!(names instanceof List)) {
+            return null;
+        }
+
+        final List<String> patterns = new ArrayList<>();
+
+        for (final Object name : (List<?>) names) {
+            if (name instanceof String && !((String) name).isEmpty()) {
+                patterns.add((String) name);
+            } else {
+                Log.warning(Assurance.LOG_TAG, LOG_TAG, "Ignoring invalid name pattern: %s", name);
+            }
+        }
+
+        return patterns.isEmpty() ? null : patterns.toArray(new String[0]);
+    }
+
+    private static DataPredicate[] compileDataPredicates(final Object data) {
+        if (!(data instanceof List)) {
+            return null;
+        }
+
+        final List<DataPredicate> predicates = new ArrayList<>();
+
+        for (final Object entry : (List<?>) data) {
+            final DataPredicate predicate = DataPredicate.compile(entry);
+
+            if (predicate != null) {
+                predicates.add(predicate);
+            } else {
+                Log.warning(
+                        Assurance.LOG_TAG, LOG_TAG, "Ignoring invalid data predicate: %s", entry);
+            }
+        }
+
+        return predicates.isEmpty() ? null : predicates.toArray(new DataPredicate[0]);
+    }
+
+    /** Event type and source pairs, looked up without allocating. */
+    private static final class TypeSourceRules {
+        /** Sources by event type. A null source set matches any source. */
+        private final TreeMap<String, Set<String>> sourcesByType =
+                new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        private boolean matchesAnyType;
+        private Set<String> anyTypeSources;
+
+        static TypeSourceRules compile(final Object rules) {
+            if (!(rules instanceof List)) {
+                return null;
+            }
+
+            final TypeSourceRules compiled = new TypeSourceRules();
+            boolean hasRules = false;
+
+            for (final Object rule : (List<?>) rules) {
+                if (!(rule instanceof Map)) {
+                    Log.warning(Assurance.LOG_TAG, LOG_TAG, "Ignoring invalid rule: %s", rule);
+                    continue;
+                }
+
+                final Object type = ((Map<?, ?>) rule).get(EventFilterKeys.EVENT_TYPE);
+                final Object source = ((Map<?, ?>) rule).get(EventFilterKeys.EVENT_SOURCE);
+                final String typeValue = type instanceof String ? (String) type : null;
+                final String sourceValue =
+                        source instanceof String ? (String) source : EventFilterKeys.WILDCARD;
+
+                if (typeValue == null || typeValue.isEmpty()) {
+                    Log.warning(Assurance.LOG_TAG, LOG_TAG, "Ignoring invalid rule: %s", rule);
+                    continue;
+                }
+
+                compiled.add(typeValue, sourceValue);
+                hasRules = true;
+            }
+
+            return hasRules ? compiled : null;
+        }
+
+        private void add(final String type, final String source) {
+            final boolean anySource = EventFilterKeys.WILDCARD.equals(source);
+
+            if (EventFilterKeys.WILDCARD.equals(type)) {
+                if (anySource) {
+                    matchesAnyType = true;
+                } else {
+                    if (anyTypeSources == null) {
+                        anyTypeSources = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+                    }
+
+                    anyTypeSources.add(source);
+                }
+
+                return;
+            }
+
+            if (anySource) {
+                sourcesByType.put(type, null);
+                return;
+            }
+
+            if (sourcesByType.containsKey(type) && sourcesByType.get(type) == null) {
+                // Already matches any source for this type.
+                return;
+            }
+
+            Set<String> sources = sourcesByType.get(type);
+
+            if (sources == null) {
+                sources = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+                sourcesByType.put(type, sources);
+            }
+
+            sources.add(source);
+        }
+
+        boolean matches(final String type, final String source) {
+            if (matchesAnyType) {
+                return true;
+            }
+
+            if (anyTypeSources != null && source != null && anyTypeSources.contains(source)) {
+                return true;
+            }
+
+            if (type == null || !sourcesByType.containsKey(type)) {
+                return false;
+            }
+
+            final Set<String> sources = sourcesByType.get(type);
+            return sources == null || (source != null && sources.contains(source));
+        }
+    }
+
+    /** A predicate on the value found at a path in the event data. */
+    private static final class DataPredicate {
+        private final String[] path;
+        private final boolean checkEquals;
+        private final Object expectedValue;
+        private final boolean expectExists;
+
+        private DataPredicate(
+                final String[] path,
+                final boolean checkEquals,
+                final Object expectedValue,
+                final boolean expectExists) {
+            this.path = path;
+            this.checkEquals = checkEquals;
+            this.expectedValue = expectedValue;
+            this.expectExists = expectExists;
+        }
+
+        static DataPredicate compile(final Object entry) {
+            if (!(entry instanceof Map)) {
+                return null;
+            }
+
+            final Map<?, ?> predicate = (Map<?, ?>) entry;
+            final Object path = predicate.get(EventFilterKeys.PATH);
+
+            if (!(path instanceof String) || ((String) path).isEmpty()) {
+                return null;
+            }
+
+            final Object exists = predicate.get(EventFilterKeys.EXISTS);
+
+            return new DataPredicate(
+                    ((String) path).split("\\."),
+                    predicate.containsKey(EventFilterKeys.EQUALS),
+                    predicate.get(EventFilterKeys.EQUALS),
+                    !(exists instanceof Boolean) || (Boolean) exists);
+        }
+
+        boolean matches(final Map<String, Object> eventData) {
+            Object current = eventData;
+            boolean found = eventData != null;
+
+            for (int i = 0; found && i < path.length; i++) {
+                final String segment = path[i];
+
+                if (current instanceof Map) {
+                    final Map<?, ?> map = (Map<?, ?>) current;
+                    found = map.containsKey(segment);
+                    current = map.get(segment);
+                } else if (current instanceof List) {
+                    final List<?> list = (List<?>) current;
+                    final int index = parseIndex(segment);
+                    found = index >= 0 && index < list.size();
+                    current = found ? list.get(index) : null;
+                } else {
+                    found = false;
+                }
+            }
+
+            if (!expectExists) {
+                return !found;
+            }
+
+            if (!found) {
+                return false;
+            }
+
+            return !checkEquals || valuesEqual(expectedValue, current);
+        }
+
+        private static int parseIndex(final String segment) {
+            if (segment.isEmpty() || segment.length() > 9) {
+                return -1;
+            }
+
+            int index = 0;
+
+            for (int i = 0; i < segment.length(); i++) {
+                final char c = segment.charAt(i);
+
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+
+                index = index * 10 + (c - '0');
+            }
+
+            return index;
+        }
+
+        private static boolean valuesEqual(final Object expected, final Object actual) {
+            if (expected == null || actual == null) {
+                return expected == actual;
+            }
+
+            // Numbers may differ in their boxed type depending on how they were parsed.
+            if (expected instanceof Number && actual instanceof Number) {
+                return ((Number) expected).doubleValue() == ((Number) actual).doubleValue();
+            }
+
+            return expected.equals(actual);
+        }
+    }
+}
@@ -55,6 +55,12 @@ public final class AssuranceExtension extends Extension {
     private final AssuranceStateManager assuranceStateManager;
     private final AssuranceSessionOrchestrator assuranceSessionOrchestrator;
     private final AssuranceConnectionDataStore assuranceConnectionDataStore;
+    private final AssurancePluginEventFilter eventFilterPlugin;
+    private final EventCaptureRingBuffer<Event> sdkEventCaptureBuffer;
+    // the drops of the capture buffer reported to the session so far, read on the capture thread
+    private long reportedDroppedEventCount;
+    // assigned by the public constructor only, timing the generated events that reach the hub
+    private AssurancePluginLoadGenerator loadGenerator;
     private static boolean shouldUnregisterOnTimeout =
             true; // keep the unregister timer active on launch
 
@@ -76,12 +82,31 @@ public final class AssuranceExtension extends Extension {
                 extensionApi,
                 new AssuranceStateManager(extensionApi),
                 new AssuranceConnectionDataStore(MobileCore.getApplication()),
+                new AssurancePluginEventFilter(),
+                new AssurancePluginLoadGenerator());
+    }
+
+    private AssuranceExtension(
+            final ExtensionApi extensionApi,
+            final AssuranceStateManager assuranceStateManager,
+            final AssuranceConnectionDataStore assuranceConnectionDataStore,
+            final AssurancePluginEventFilter eventFilterPlugin,
+            final AssurancePluginLoadGenerator loadGenerator) {
+        this(
+                extensionApi,
+                assuranceStateManager,
+                assuranceConnectionDataStore,
                 Collections.unmodifiableList(
                         Arrays.asList(
                                 new AssurancePluginLogForwarder(),
                                 new AssurancePluginScreenshot(),
+                                new AssurancePluginScreenStream(),
                                 new AssurancePluginConfigSwitcher(),
-                                new AssurancePluginFakeEventGenerator())));
+                                new AssurancePluginFakeEventGenerator(),
+                                new AssuranceAsyncPluginAdapter(loadGenerator),
+                                eventFilterPlugin)),
+                eventFilterPlugin);
+        this.loadGenerator = loadGenerator;
     }
 
     /**
@@ -92,7 +117,8 @@ public final class AssuranceExtension extends Extension {
             final ExtensionApi extensionApi,
             final AssuranceStateManager assuranceStateManager,
             final AssuranceConnectionDataStore assuranceConnectionDataStore,
-            final List<AssurancePlugin> plugins) {
+            final List<AssurancePlugin> plugins,
+            final AssurancePluginEventFilter eventFilterPlugin) {
         this(
                 extensionApi,
                 assuranceStateManager,
@@ -101,7 +127,8 @@ public final class AssuranceExtension extends Extension {
                         MobileCore.getApplication(),
                         assuranceStateManager,
                         plugins,
-                        assuranceConnectionDataStore));
+                        assuranceConnectionDataStore),
+                eventFilterPlugin);
     }
 
     /**
@@ -113,11 +140,51 @@ public final class AssuranceExtension extends Extension {
             final AssuranceStateManager assuranceStateManager,
             final AssuranceConnectionDataStore assuranceConnectionDataStore,
             final AssuranceSessionOrchestrator assuranceSessionOrchestrator) {
+        this(
+                extensionApi,
+                assuranceStateManager,
+                assuranceConnectionDataStore,
+                assuranceSessionOrchestrator,
+                new AssurancePluginEventFilter());
+    }
+
+    /**
+     * Cascading constructor for facilitating dependency injection of components needed for tests.
+     */
+    @VisibleForTesting
+    AssuranceExtension(
+            final ExtensionApi extensionApi,
+            final AssuranceStateManager assuranceStateManager,
+            final AssuranceConnectionDataStore assuranceConnectionDataStore,
+            final AssuranceSessionOrchestrator assuranceSessionOrchestrator,
+            final AssurancePluginEventFilter eventFilterPlugin) {
         super(extensionApi);
 
         this.assuranceStateManager = assuranceStateManager;
         this.assuranceConnectionDataStore = assuranceConnectionDataStore;
         this.assuranceSessionOrchestrator = assuranceSessionOrchestrator;
+        this.eventFilterPlugin = eventFilterPlugin;
+        this.sdkEventCaptureBuffer =
+                new EventCaptureRingBuffer<>(
+                        "AssuranceSDKEventCapture",
+                        new EventCaptureRingBuffer.Handler<Event>() {
+                            @Override
+                            public void handle(final Event event, final long timestamp) {
+                                reportDroppedSDKEvents();
+                                processSDKEvent(event, timestamp);
+                            }
+                        });
+
+        if (assuranceSessionOrchestrator != null) {
+            // events captured before the session is terminated must not reach a later session
+            assuranceSessionOrchestrator.setPurgeListener(
+                    new Runnable() {
+                        @Override
+                        public void run() {
+                            sdkEventCaptureBuffer.clear();
+                        }
+                    });
+        }
     }
 
     // ========================================================================================
@@ -316,6 +383,7 @@ public final class AssuranceExtension extends Extension {
     @Override
     protected void onUnregistered() {
         super.onUnregistered();
+        sdkEventCaptureBuffer.stop();
     }
 
     @Override
@@ -330,14 +398,40 @@ public final class AssuranceExtension extends Extension {
     // ========================================================================================
 
     /**
-     * Processes events trapped by AssuranceListenerHubWildcard and converts them into Assurance
-     * Events
+     * Captures events trapped by AssuranceListenerHubWildcard to be converted into Assurance Events
+     * on the capture thread.
      *
      * @param event V5 Event object containing the trapped event.
      */
     void handleWildcardEvent(final Event event) {
         // keep track of the last SDK event to create shared state for Assurance
         assuranceStateManager.onSDKEvent(event);
+
+        if (loadGenerator != null) {
+            loadGenerator.onHubEvent(event);
+        }
+
+        // Drop events excluded by the session's event filter before any work is done on them.
+        if (!eventFilterPlugin.shouldForward(event)) {
+            return;
+        }
+
+        // Hand the event over to the capture thread to keep the time spent on the event hub's
+        // thread to a minimum. Converting the event into an AssuranceEvent and resolving shared
+        // states happens in processSDKEvent().
+        sdkEventCaptureBuffer.publish(event, System.currentTimeMillis());
+    }
+
+    /**
+     * Converts the SDK event captured by {@link #handleWildcardEvent(Event)} into an {@link
+     * AssuranceEvent} and queues it to be sent to the session. Invoked on the capture thread in the
+     * order in which the SDK events were received.
+     *
+     * @param event the SDK event to process
+     * @param timestamp the time at which the SDK event was captured in milliseconds
+     */
+    @VisibleForTesting
+    void processSDKEvent(final Event event, final long timestamp) {
         final Map<String, Object> payload = new HashMap<>();
         payload.put(GenericEventPayloadKey.ACP_EXTENSION_EVENT_NAME, event.getName());
         payload.put(GenericEventPayloadKey.ACP_EXTENSION_EVENT_TYPE, event.getType().toLowerCase());
@@ -355,13 +449,33 @@ public final class AssuranceExtension extends Extension {
 
         // if the event is a shared state change event process differently
         if (EventSource.SHARED_STATE.equalsIgnoreCase(event.getSource())) {
-            processSharedStateEvent(event, payload);
+            processSharedStateEvent(event, payload, timestamp);
             return;
         }
 
-        final AssuranceEvent assuranceEvent =
-                new AssuranceEvent(AssuranceConstants.AssuranceEventType.GENERIC, payload);
-        assuranceSessionOrchestrator.queueEvent(assuranceEvent);
+        assuranceSessionOrchestrator.queueEvent(createGenericEvent(payload, timestamp));
+    }
+
+    /**
+     * Reports to the session the SDK events dropped since the previous report, because they were
+     * captured faster than {@link #processSDKEvent(Event, long)} could handle them. Invoked on the
+     * capture thread.
+     */
+    private void reportDroppedSDKEvents() {
+        final long droppedEventCount = sdkEventCaptureBuffer.getDroppedCount();
+
+        if (droppedEventCount == reportedDroppedEventCount) {
+            return;
+        }
+
+        final long newlyDroppedEventCount = droppedEventCount - reportedDroppedEventCount;
+        reportedDroppedEventCount = droppedEventCount;
+        logLocalUI(
+                AssuranceConstants.UILogColorVisibility.HIGH,
+                String.format(
+                        "Assurance dropped %d SDK events, captured faster than they could be"
+                                + " sent.",
+                        newlyDroppedEventCount));
     }
 
     void handleAssuranceRequestContent(final Event event) {
@@ -412,8 +526,11 @@ public final class AssuranceExtension extends Extension {
      *
      * @param event V5 Event object containing the shared state change event that triggered this
      *     update.
+     * @param payload the payload of the AssuranceEvent to which shared state content is added
+     * @param timestamp the time at which the shared state change event was captured
      */
-    private void processSharedStateEvent(final Event event, Map<String, Object> payload) {
+    private void processSharedStateEvent(
+            final Event event, final Map<String, Object> payload, final long timestamp) {
         final Map<String, Object> eventData = event.getEventData();
 
         if (AssuranceUtil.isNullOrEmpty(eventData)) {
@@ -462,8 +579,7 @@ public final class AssuranceExtension extends Extension {
                     });
 
             // prepare AssuranceEvent with shared state data
-            assuranceSessionOrchestrator.queueEvent(
-                    new AssuranceEvent(AssuranceConstants.AssuranceEventType.GENERIC, payload));
+            assuranceSessionOrchestrator.queueEvent(createGenericEvent(payload, timestamp));
         } catch (final DataReaderException ex) {
             Log.warning(
                     Assurance.LOG_TAG,
@@ -473,6 +589,23 @@ public final class AssuranceExtension extends Extension {
         }
     }
 
+    /**
+     * Creates a generic {@link AssuranceEvent} stamped with the time its SDK event was captured.
+     *
+     * @param payload the payload of the AssuranceEvent
+     * @param timestamp the time at which the SDK event was captured
+     * @return the generic {@code AssuranceEvent}
+     */
+    private AssuranceEvent createGenericEvent(
+            final Map<String, Object> payload, final long timestamp) {
+        return new AssuranceEvent(
+                AssuranceConstants.VENDOR_ASSURANCE_MOBILE,
+                AssuranceConstants.AssuranceEventType.GENERIC,
+                null,
+                payload,
+                timestamp);
+    }
+
     /**
      * Call this methods to Unregsiter Assurance extension with the {@link MobileCore} This method
      * clears the already queued events waiting to be sent on successful session connect. The shared
@@ -17,11 +17,24 @@ import com.adobe.marketing.mobile.Assurance;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.ServiceProvider;
 import com.adobe.marketing.mobile.util.StringUtils;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Stack;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
@@ -31,21 +44,16 @@ final class AssuranceIOUtils {
     private AssuranceIOUtils() {}
 
     /**
-     * Returns the {@link JSONObject} representation of XML file @xmlFileName
+     * Returns the JSON representation of XML file @xmlFileName as a string.
      *
-     * <p>It opens a {@link XmlResourceParser} for @xmlFileName. Use the opened {@code
-     * XmlResourceParser} to reads XML tags and convert them to {@code JSONObject}. for ex:
-     * <manifest><application name="abc"/><manifest/> will convert to {"manifest:
-     * {application:{"name":"abc"}}"}
-     *
-     * <p>Returns an empty {@code JSONObject} if there is an {@code Exception} thrown by {@code
-     * XmlResourceParser}.
+     * <p>It opens a {@link XmlResourceParser} for @xmlFileName and streams its tags as JSON using
+     * {@link #writeXMLAsJSON(XmlPullParser, OutputStream)}. for ex: <manifest><application
+     * name="abc"/><manifest/> will convert to {"manifest":{"application":{"name":"abc"}}}
      *
      * @param xmlFileName name of XML to parse.
-     * @return a {@code JSONObject} mapping of AndroidManifest.xml.
+     * @return the JSON mapping of the XML file, or null if it cannot be read.
      */
-    static JSONObject parseXMLResourceFileToJson(final String xmlFileName) {
-
+    static String readXMLResourceFileAsJSON(final String xmlFileName) {
         XmlResourceParser xmlResParser = null;
 
         try {
@@ -53,7 +61,7 @@ final class AssuranceIOUtils {
                     ServiceProvider.getInstance().getAppContextService().getApplicationContext();
 
             if (appContext == null) {
-                return new JSONObject();
+                return null;
             }
 
             xmlResParser =
@@ -62,11 +70,14 @@ final class AssuranceIOUtils {
                             .getAssets()
                             .openXmlResourceParser(xmlFileName);
             xmlResParser.next(); // Move the parser to XmlPullParser.START_DOCUMENT
-            return convertXMLToJSON(xmlResParser);
+            final ByteArrayOutputStream jsonStream = new ByteArrayOutputStream();
+            writeXMLAsJSON(xmlResParser, jsonStream);
+            return jsonStream.toString("UTF-8");
         } catch (final Exception e) {
             Log.debug(
                     Assurance.LOG_TAG,
-                    "Failed to create parse %s file. Error: %s",
+                    LOG_TAG,
+                    "Failed to parse %s file. Error: %s",
                     xmlFileName,
                     e.getMessage());
         } finally {
@@ -75,79 +86,325 @@ final class AssuranceIOUtils {
             }
         }
 
-        return new JSONObject();
+        return null;
     }
 
     /**
-     * Takes {@link XmlPullParser} as an argument and returns {@code JSONObject} mapping for XML.
+     * Reads the XML from the provided {@link XmlPullParser} and writes its JSON mapping to the
+     * provided {@link OutputStream} as UTF-8.
+     *
+     * <p>Attributes of a tag are mapped to string values, and the text of a tag to a "content"
+     * value. Child tags are mapped to objects keyed by their tag name, and child tags that repeat
+     * within the same parent are grouped into an array in the order they appear. for ex:
+     * <manifest><activity name="a"/><activity name="b"/></manifest> will be written as
+     * {"manifest":{"activity":[{"name":"a"},{"name":"b"}]}}
      *
-     * @param xmlPullParser {@code XmlPullParser}
-     * @return {@code JSONObject} mapping of XML.
-     * @throws IOException
-     * @throws XmlPullParserException
-     * @throws JSONException
+     * <p>Repeated tags can only be grouped once their parent has ended, so the tags are collected
+     * into lightweight nodes holding the parsed strings, and written straight to the sink once the
+     * document ends. Every tag is serialized exactly once.
+     *
+     * @param xmlPullParser {@code XmlPullParser} positioned at {@link XmlPullParser#START_DOCUMENT}
+     * @param sink the {@code OutputStream} to write the JSON to. It is flushed, but not closed.
+     * @throws IOException if the XML cannot be read or the JSON cannot be written
+     * @throws XmlPullParserException if the XML is malformed
      */
-    static JSONObject convertXMLToJSON(final XmlPullParser xmlPullParser)
-            throws IOException, XmlPullParserException, JSONException {
-        final Stack<JSONObject> xmlJsonObjectStack = new Stack<>();
+    static void writeXMLAsJSON(final XmlPullParser xmlPullParser, final OutputStream sink)
+            throws IOException, XmlPullParserException {
+        final ArrayDeque<XmlNode> openNodes = new ArrayDeque<>();
+        XmlNode document = null;
 
         while (xmlPullParser.getEventType() != XmlPullParser.END_DOCUMENT) {
             switch (xmlPullParser.getEventType()) {
                 case XmlPullParser.START_DOCUMENT:
-                    xmlJsonObjectStack.add(new JSONObject());
-                    xmlPullParser.next();
+                    document = new XmlNode(new String[0]);
+                    openNodes.push(document);
                     break;
 
                 case XmlPullParser.START_TAG:
-                    final JSONObject jsonObject = new JSONObject();
-                    int count = xmlPullParser.getAttributeCount();
+                    final int count = xmlPullParser.getAttributeCount();
+                    final String[] attributes = new String[count * 2];
 
                     for (int i = 0; i < count; i++) {
-                        jsonObject.put(
-                                xmlPullParser.getAttributeName(i),
-                                xmlPullParser.getAttributeValue(i));
+                        attributes[i * 2] = xmlPullParser.getAttributeName(i);
+                        attributes[i * 2 + 1] = xmlPullParser.getAttributeValue(i);
                     }
 
-                    xmlJsonObjectStack.push(jsonObject);
-                    xmlPullParser.next();
+                    final XmlNode node = new XmlNode(attributes);
+                    openNodes.peek().addChild(xmlPullParser.getName(), node);
+                    openNodes.push(node);
                     break;
 
                 case XmlPullParser.TEXT:
-                    final JSONObject jsonObj = xmlJsonObjectStack.peek();
                     final String content = xmlPullParser.getText().trim();
 
                     if (!StringUtils.isNullOrEmpty(content)) {
-                        jsonObj.put("content", content);
+                        openNodes.peek().content = content;
                     }
 
-                    xmlPullParser.next();
                     break;
 
                 case XmlPullParser.END_TAG:
-                    final JSONObject jsonObjChild = xmlJsonObjectStack.pop();
-                    final JSONObject jsonObjectParent = xmlJsonObjectStack.peek();
-
-                    if (jsonObjectParent.has(xmlPullParser.getName())) {
-                        if (jsonObjectParent.get(xmlPullParser.getName()) instanceof JSONArray) {
-                            final JSONArray arr =
-                                    (JSONArray) jsonObjectParent.get(xmlPullParser.getName());
-                            arr.put(jsonObjChild);
+                    openNodes.pop();
+                    break;
+
+                default:
+                    break;
+            }
+
+            xmlPullParser.next();
+        }
+
+        final Writer writer =
+                new BufferedWriter(new OutputStreamWriter(sink, Charset.forName("UTF-8")));
+
+        if (document != null) {
+            document.writeTo(writer);
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Appends the provided string to the {@link Appendable} as a quoted and escaped JSON string.
+     */
+    private static void appendQuoted(final Appendable out, final String value) throws IOException {
+        out.append('"');
+
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+
+                switch (c) {
+                    case '"':
+                        out.append("\\\"");
+                        break;
+                    case '\\':
+                        out.append("\\\\");
+                        break;
+                    case '\n':
+                        out.append("\\n");
+                        break;
+                    case '\r':
+                        out.append("\\r");
+                        break;
+                    case '\t':
+                        out.append("\\t");
+                        break;
+                    case '\b':
+                        out.append("\\b");
+                        break;
+                    case '\f':
+                        out.append("\\f");
+                        break;
+                    default:
+                        if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                            out.append(String.format(Locale.US, "\\u%04x", (int) c));
                         } else {
-                            final JSONObject obj =
-                                    (JSONObject) jsonObjectParent.get(xmlPullParser.getName());
-                            final JSONArray jsonArray = new JSONArray();
-                            jsonArray.put(obj).put(jsonObjChild);
-                            jsonObjectParent.put(xmlPullParser.getName(), jsonArray);
+                            out.append(c);
+                        }
+                }
+            }
+        }
+
+        out.append('"');
+    }
+
+    /** An XML tag, with its child tags grouped by name in the order the names first appear. */
+    private static final class XmlNode {
+        private static final String CONTENT_KEY = "content";
+
+        final String[] attributes;
+        final Map<String, List<XmlNode>> children = new LinkedHashMap<>();
+        String content;
+
+        /** @param attributes the names and values of the attributes, alternating */
+        XmlNode(final String[] attributes) {
+            this.attributes = attributes;
+        }
+
+        void addChild(final String name, final XmlNode child) {
+            List<XmlNode> siblings = children.get(name);
+
+            if (siblings == null) {
+                siblings = new ArrayList<>(1);
+                children.put(name, siblings);
+            }
+
+            siblings.add(child);
+        }
+
+        /**
+         * Writes the JSON object for this tag to the {@link Writer}. Every key is written once:
+         * as with the {@code JSONObject} based mapping, child tags replace the content and the
+         * attributes of the same name, and the content replaces an attribute named "content".
+         */
+        void writeTo(final Writer out) throws IOException {
+            out.write('{');
+            boolean hasValues = false;
+
+            for (int i = 0; i < attributes.length; i += 2) {
+                if (isAttributeReplaced(i)) {
+                    continue;
+                }
+
+                if (hasValues) {
+                    out.write(',');
+                }
+
+                appendQuoted(out, attributes[i]);
+                out.write(':');
+                appendQuoted(out, attributes[i + 1]);
+                hasValues = true;
+            }
+
+            if (content != null && !children.containsKey(CONTENT_KEY)) {
+                if (hasValues) {
+                    out.write(',');
+                }
+
+                appendQuoted(out, CONTENT_KEY);
+                out.write(':');
+                appendQuoted(out, content);
+                hasValues = true;
+            }
+
+            for (final Map.Entry<String, List<XmlNode>> entry : children.entrySet()) {
+                if (hasValues) {
+                    out.write(',');
+                }
+
+                final List<XmlNode> siblings = entry.getValue();
+                appendQuoted(out, entry.getKey());
+                out.write(':');
+
+                if (siblings.size() > 1) {
+                    out.write('[');
+
+                    for (int i = 0; i < siblings.size(); i++) {
+                        if (i > 0) {
+                            out.write(',');
                         }
-                    } else {
-                        jsonObjectParent.put(xmlPullParser.getName(), jsonObjChild);
+
+                        siblings.get(i).writeTo(out);
                     }
 
-                    xmlPullParser.next();
-                    break;
+                    out.write(']');
+                } else {
+                    siblings.get(0).writeTo(out);
+                }
+
+                hasValues = true;
+            }
+
+            out.write('}');
+        }
+
+        /** Returns true if a later value of the tag has the name of the attribute at the index. */
+        private boolean isAttributeReplaced(final int index) {
+            final String name = attributes[index];
+
+            if (children.containsKey(name) || (content != null && CONTENT_KEY.equals(name))) {
+                return true;
+            }
+
+            for (int i = index + 2; i < attributes.length; i += 2) {
+                if (name.equals(attributes[i])) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    /**
+     * Reads the contents of the provided file as a UTF-8 string.
+     *
+     * @param file the file to read
+     * @return the contents of the file, or null if the file does not exist or cannot be read
+     */
+    static String readFileAsString(final File file) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+
+        InputStream inputStream = null;
+
+        try {
+            inputStream = new FileInputStream(file);
+            final byte[] contents = new byte[(int) file.length()];
+            int offset = 0;
+            int read;
+
+            while (offset < contents.length
+                    && (read = inputStream.read(contents, offset, contents.length - offset))
+                            != -1) {
+                offset += read;
             }
+
+            return new String(contents, 0, offset, Charset.forName("UTF-8"));
+        } catch (final IOException e) {
+            Log.debug(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Failed to read file %s. Error: %s",
+                    file.getName(),
+                    e.getMessage());
+            return null;
+        } finally {
+            closeQuietly(inputStream);
+        }
+    }
+
+    /**
+     * Writes the provided string to a file as UTF-8, replacing any existing contents. The
+     * contents are written to a temporary file first, so that readers never see a partial file.
+     *
+     * @param file the file to write
+     * @param contents the string to write
+     * @return true if the file was written successfully, false otherwise
+     */
+    static boolean writeStringToFile(final File file, final String contents) {
+        if (file == null || contents == null) {
+            return false;
+        }
+
+        final File tempFile = new File(file.getPath() + ".tmp");
+        OutputStream outputStream = null;
+
+        try {
+            outputStream = new FileOutputStream(tempFile);
+            outputStream.write(contents.getBytes(Charset.forName("UTF-8")));
+            outputStream.close();
+            outputStream = null;
+            return tempFile.renameTo(file);
+        } catch (final IOException e) {
+            Log.debug(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Failed to write file %s. Error: %s",
+                    file.getName(),
+                    e.getMessage());
+            return false;
+        } finally {
+            closeQuietly(outputStream);
+        }
+    }
+
+    /**
+     * Closes the provided {@link Closeable}, ignoring any failure to do so.
+     *
+     * @param closeable the {@code Closeable} to close, may be null
+     */
+    static void closeQuietly(final Closeable closeable) {
+        if (closeable == null) {
+            return;
         }
 
-        return xmlJsonObjectStack.pop();
+        try {
+            closeable.close();
+        } catch (final IOException ignored) {
+            // nothing more to do
+        }
     }
 }
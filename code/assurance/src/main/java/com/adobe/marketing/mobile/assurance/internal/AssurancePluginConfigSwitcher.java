@@ -13,6 +13,7 @@ package com.adobe.marketing.mobile.assurance.internal;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.Assurance;
 import com.adobe.marketing.mobile.MobileCore;
 import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.UILogColorVisibility;
@@ -21,16 +22,34 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 
 class AssurancePluginConfigSwitcher implements AssurancePlugin {
     private static final String LOG_TAG = "AssurancePluginConfigSwitcher";
     private static final String PREF_KEY_MODIFIED_CONFIG_KEYS = "modifiedConfigKeys";
 
     private AssuranceSession session;
-    private SharedPreferences pref =
-            MobileCore.getApplication()
-                    .getSharedPreferences(
-                            AssuranceConstants.DataStoreKeys.DATASTORE_NAME, Context.MODE_PRIVATE);
+    // persists the modified keys off the session threads
+    private final AssuranceWriteBehindStore store;
+
+    AssurancePluginConfigSwitcher() {
+        this(AssuranceWriteBehindStore.getDefaultFlushScheduler());
+    }
+
+    @VisibleForTesting
+    AssurancePluginConfigSwitcher(final ScheduledExecutorService flushScheduler) {
+        final SharedPreferences pref =
+                MobileCore.getApplication()
+                        .getSharedPreferences(
+                                AssuranceConstants.DataStoreKeys.DATASTORE_NAME,
+                                Context.MODE_PRIVATE);
+        store =
+                pref == null
+                        ? null
+                        : new AssuranceWriteBehindStore(
+                                AssuranceWriteBehindStore.forSharedPreferences(pref),
+                                flushScheduler);
+    }
 
     @Override
     public String getVendor() {
@@ -79,11 +98,11 @@ class AssurancePluginConfigSwitcher implements AssurancePlugin {
     @Override
     public void onSessionTerminated() {
         // Get the modified keys from pref
-        if (pref == null) {
+        if (store == null) {
             return;
         }
 
-        final Set<String> savedKeys = pref.getStringSet(PREF_KEY_MODIFIED_CONFIG_KEYS, null);
+        final Set<String> savedKeys = store.getStringSet(PREF_KEY_MODIFIED_CONFIG_KEYS);
 
         if (savedKeys != null) {
             final Map<String, Object> config = new HashMap<>();
@@ -103,7 +122,7 @@ class AssurancePluginConfigSwitcher implements AssurancePlugin {
     }
 
     private void saveModifiedKeys(final Set<String> payload) {
-        if (pref == null) {
+        if (store == null) {
             return;
         }
 
@@ -111,17 +130,15 @@ class AssurancePluginConfigSwitcher implements AssurancePlugin {
         logBuilder.append("ConfigUpdate - Configuration modified for keys");
 
         // Get the stored keys
-        Set<String> savedKeys = pref.getStringSet(PREF_KEY_MODIFIED_CONFIG_KEYS, null);
+        Set<String> savedKeys = store.getStringSet(PREF_KEY_MODIFIED_CONFIG_KEYS);
 
-        // retrieved contents of shared preferences should not be modified - so create a copy
+        // retrieved contents of the store should not be modified - so create a copy
         Set<String> modifiedKeys = savedKeys == null ? new HashSet<>() : new HashSet<>(savedKeys);
 
         // Add the new keys to the savedKeys and update the PREF_KEY_MODIFIED_CONFIG_KEYS
         modifiedKeys.addAll(payload);
 
-        SharedPreferences.Editor editor = pref.edit();
-        editor.putStringSet(PREF_KEY_MODIFIED_CONFIG_KEYS, modifiedKeys);
-        editor.apply();
+        store.putStringSet(PREF_KEY_MODIFIED_CONFIG_KEYS, modifiedKeys);
 
         // Append each modified log
         for (String s : payload) {
@@ -135,8 +152,6 @@ class AssurancePluginConfigSwitcher implements AssurancePlugin {
     }
 
     private void clearModifiedKeys() {
-        SharedPreferences.Editor editor = pref.edit();
-        editor.remove(PREF_KEY_MODIFIED_CONFIG_KEYS);
-        editor.apply();
+        store.remove(PREF_KEY_MODIFIED_CONFIG_KEYS);
     }
 }
@@ -0,0 +1,190 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emits the events of an {@link AssuranceAsyncPlugin} to the Assurance session, with a bounded
+ * number of events in flight.
+ *
+ * <p>The emitter holds a credit for every event it can accept. Emitting an event consumes a
+ * credit, which is returned once the {@link AssurancePluginEventPump} forwarded the event to the
+ * outbound queue of the session. The pump only forwards events while the outbound queue has room,
+ * so a plugin emitting faster than events are sent runs out of credits: {@link
+ * #tryEmit(AssuranceEvent)} then drops the event and returns false without blocking, and the
+ * plugin is expected to slow down or to sample its events.
+ *
+ * <p>This class is thread safe.
+ */
+class AssurancePluginEmitter {
+
+    /** Provides the depth of the outbound queue the events are forwarded to. */
+    interface QueueDepthProvider {
+        /**
+         * Returns the number of events queued and not sent yet.
+         *
+         * @return the depth of the outbound queue
+         */
+        int getQueueDepth();
+    }
+
+    private final String pluginName;
+    private final ArrayBlockingQueue<AssuranceEvent> events;
+    private final Runnable onEmit;
+    private final QueueDepthProvider outboundQueueDepth;
+    private final long createdNanos;
+    private final AtomicLong emittedCount = new AtomicLong();
+    private final AtomicLong forwardedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates an emitter.
+     *
+     * @param pluginName the name of the plugin, used in logs
+     * @param capacity the number of credits, the maximum number of events held
+     * @param onEmit notified every time an event was accepted
+     */
+    AssurancePluginEmitter(final String pluginName, final int capacity, final Runnable onEmit) {
+        this(pluginName, capacity, onEmit, () -> 0);
+    }
+
+    /**
+     * Creates an emitter.
+     *
+     * @param pluginName the name of the plugin, used in logs
+     * @param capacity the number of credits, the maximum number of events held
+     * @param onEmit notified every time an event was accepted
+     * @param outboundQueueDepth provides the depth of the outbound queue of the session
+     */
+    AssurancePluginEmitter(
+            final String pluginName,
+            final int capacity,
+            final Runnable onEmit,
+            final QueueDepthProvider outboundQueueDepth) {
+        this.pluginName = pluginName;
+        this.events = new ArrayBlockingQueue<>(capacity);
+        this.onEmit = onEmit;
+        this.outboundQueueDepth = outboundQueueDepth;
+        this.createdNanos = System.nanoTime();
+    }
+
+    /**
+     * Emits an event if a credit is available, without blocking.
+     *
+     * @param event the {@link AssuranceEvent} to send
+     * @return true if the event was accepted, false if it was dropped because no credit was left
+     *     or the session ended
+     */
+    boolean tryEmit(final AssuranceEvent event) {
+        if (event == null) {
+            return false;
+        }
+
+        if (closed || !events.offer(event)) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+
+        emittedCount.incrementAndGet();
+        onEmit.run();
+        return true;
+    }
+
+    /**
+     * Returns the number of events that can be emitted right now without being dropped.
+     *
+     * @return the available credits
+     */
+    int getCredits() {
+        return closed ? 0 : events.remainingCapacity();
+    }
+
+    /**
+     * Returns the number of events emitted and not forwarded to the session yet.
+     *
+     * @return the number of events held by the emitter
+     */
+    int getBacklog() {
+        return events.size();
+    }
+
+    /**
+     * Returns the number of events queued by the session and not sent yet, by all plugins and SDK
+     * events included.
+     *
+     * @return the depth of the outbound queue of the session
+     */
+    int getOutboundQueueDepth() {
+        return outboundQueueDepth.getQueueDepth();
+    }
+
+    /** Returns the name of the plugin, used in logs. */
+    String getPluginName() {
+        return pluginName;
+    }
+
+    /** Returns the number of events accepted since the emitter was created. */
+    long getEmittedCount() {
+        return emittedCount.get();
+    }
+
+    /** Returns the number of events forwarded to the session since the emitter was created. */
+    long getForwardedCount() {
+        return forwardedCount.get();
+    }
+
+    /** Returns the number of events dropped since the emitter was created. */
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Returns the average number of events forwarded to the session per second, since the emitter
+     * was created.
+     *
+     * @return the throughput in events per second
+     */
+    double getThroughput() {
+        final long elapsedNanos = System.nanoTime() - createdNanos;
+        return elapsedNanos <= 0 ? 0 : forwardedCount.get() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Takes the next event to forward, returning its credit.
+     *
+     * @return the oldest event emitted and not forwarded yet, or null if there is none
+     */
+    AssuranceEvent poll() {
+        final AssuranceEvent event = events.poll();
+
+        if (event != null) {
+            forwardedCount.incrementAndGet();
+        }
+
+        return event;
+    }
+
+    /** Drops the events not forwarded yet, and all events emitted from now on. */
+    void close() {
+        closed = true;
+        int cleared = 0;
+
+        while (events.poll() != null) {
+            cleared++;
+        }
+
+        droppedCount.addAndGet(cleared);
+    }
+}
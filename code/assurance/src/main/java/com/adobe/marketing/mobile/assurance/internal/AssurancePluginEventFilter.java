@@ -0,0 +1,99 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.UILogColorVisibility;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.Map;
+
+/**
+ * Handles the "eventFilter" control event, which allows the Assurance server to narrow down the SDK
+ * events forwarded to the session. The filter is compiled into an {@link AssuranceEventFilter} once
+ * when received and evaluated for every SDK event before it is converted into an {@link
+ * AssuranceEvent}. A control event with empty details removes the filter.
+ */
+class AssurancePluginEventFilter implements AssurancePlugin {
+    private static final String LOG_TAG = "AssurancePluginEventFilter";
+
+    private AssuranceSession session;
+    private volatile AssuranceEventFilter eventFilter;
+
+    @Override
+    public String getVendor() {
+        return AssuranceConstants.VENDOR_ASSURANCE_MOBILE;
+    }
+
+    @Override
+    public String getControlType() {
+        return AssuranceConstants.ControlType.EVENT_FILTER;
+    }
+
+    /** This method will be invoked only if the control event is of type "eventFilter" */
+    @Override
+    public void onEventReceived(final AssuranceEvent event) {
+        final Map<String, Object> controlDetails = event.getControlDetail();
+
+        if (AssuranceUtil.isNullOrEmpty(controlDetails)) {
+            Log.debug(Assurance.LOG_TAG, LOG_TAG, "Event filter removed, forwarding all events.");
+            eventFilter = null;
+            logLocalUI("Event filter removed, forwarding all events.");
+            return;
+        }
+
+        eventFilter = AssuranceEventFilter.compile(controlDetails);
+        Log.debug(Assurance.LOG_TAG, LOG_TAG, "Event filter updated: %s", controlDetails);
+        logLocalUI("Event filter updated, forwarding matching events only.");
+    }
+
+    @Override
+    public void onRegistered(final AssuranceSession parentSession) {
+        session = parentSession;
+    }
+
+    @Override
+    public void onSessionConnected() {
+        /* no-op */
+    }
+
+    @Override
+    public void onSessionDisconnected(final int code) {
+        /* no-op */
+    }
+
+    @Override
+    public void onSessionTerminated() {
+        eventFilter = null;
+        session = null;
+    }
+
+    /**
+     * Checks whether the provided SDK event should be forwarded to the session based on the current
+     * event filter.
+     *
+     * @param event the SDK event to check
+     * @return true if there is no event filter or the event matches the filter, false otherwise
+     */
+    boolean shouldForward(final Event event) {
+        final AssuranceEventFilter filter = eventFilter;
+        return filter == null || filter.matches(event);
+    }
+
+    private void logLocalUI(final String message) {
+        final AssuranceSession currentSession = session;
+
+        if (currentSession != null) {
+            currentSession.logLocalUI(UILogColorVisibility.LOW, message);
+        }
+    }
+}
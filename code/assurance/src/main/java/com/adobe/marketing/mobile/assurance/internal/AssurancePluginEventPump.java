@@ -0,0 +1,178 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Forwards the events of the {@link AssurancePluginEmitter}s to the outbound queue of the session.
+ *
+ * <p>Events are taken from the emitters in turns, so that a plugin emitting at a high rate does
+ * not delay the events of the others, and only while the outbound queue holds fewer than {@link
+ * #HIGH_WATERMARK} events. Once the watermark is reached, forwarding is retried after {@link
+ * #RETRY_DELAY_MS}: events stay in the emitters, whose credits run out if the session cannot keep
+ * up.
+ */
+class AssurancePluginEventPump {
+    private static final String LOG_TAG = "AssurancePluginEventPump";
+    private static final long PUMP_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    /** The number of credits of every emitter. */
+    static final int EMITTER_CAPACITY = 256;
+
+    /** The depth of the outbound queue above which events are no longer forwarded. */
+    static final int HIGH_WATERMARK = 512;
+
+    static final long RETRY_DELAY_MS = 50;
+
+    private final AssuranceSession session;
+    private final ScheduledExecutorService executor;
+    private final List<AssurancePluginEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final Runnable drainTask = this::drain;
+    private volatile boolean stopped;
+
+    AssurancePluginEventPump(final AssuranceSession session) {
+        this(session, createExecutor());
+    }
+
+    @VisibleForTesting
+    AssurancePluginEventPump(
+            final AssuranceSession session, final ScheduledExecutorService executor) {
+        this.session = session;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates an emitter whose events are forwarded by this pump.
+     *
+     * @param pluginName the name of the plugin the emitter is created for, used in logs
+     * @return the {@link AssurancePluginEmitter} of the plugin
+     */
+    AssurancePluginEmitter createEmitter(final String pluginName) {
+        final AssurancePluginEmitter emitter =
+                new AssurancePluginEmitter(
+                        pluginName,
+                        EMITTER_CAPACITY,
+                        this::requestDrain,
+                        session::getOutboundQueueDepth);
+        emitters.add(emitter);
+
+        if (stopped) {
+            emitter.close();
+        }
+
+        return emitter;
+    }
+
+    /**
+     * Forwards the events the emitters hold, as far as the outbound queue has room for them, then
+     * closes the emitters, dropping the other events, and logs their metrics.
+     */
+    void stop() {
+        // queued behind the drains requested so far, on the pump thread
+        executor.execute(
+                () -> {
+                    drain();
+                    stopped = true;
+
+                    for (final AssurancePluginEmitter emitter : emitters) {
+                        emitter.close();
+                    }
+
+                    logMetrics();
+                });
+    }
+
+    /** Logs the throughput and the drops of every emitter. */
+    void logMetrics() {
+        for (final AssurancePluginEmitter emitter : emitters) {
+            Log.debug(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Plugin %s emitted %d events, forwarded %d (%.1f events/s), dropped %d.",
+                    emitter.getPluginName(),
+                    emitter.getEmittedCount(),
+                    emitter.getForwardedCount(),
+                    emitter.getThroughput(),
+                    emitter.getDroppedCount());
+        }
+    }
+
+    private void requestDrain() {
+        if (!stopped && drainScheduled.compareAndSet(false, true)) {
+            executor.execute(drainTask);
+        }
+    }
+
+    /** Forwards events in turns until the emitters are empty or the outbound queue is full. */
+    private void drain() {
+        // cleared first, so that an event emitted while draining schedules another drain
+        drainScheduled.set(false);
+
+        while (!stopped) {
+            int room = HIGH_WATERMARK - session.getOutboundQueueDepth();
+
+            if (room <= 0) {
+                if (drainScheduled.compareAndSet(false, true)) {
+                    executor.schedule(drainTask, RETRY_DELAY_MS, TimeUnit.MILLISECONDS);
+                }
+
+                return;
+            }
+
+            boolean forwarded = false;
+
+            for (final AssurancePluginEmitter emitter : emitters) {
+                final AssuranceEvent event = emitter.poll();
+
+                if (event == null) {
+                    continue;
+                }
+
+                session.queueOutboundEvent(event);
+                forwarded = true;
+
+                if (--room == 0) {
+                    break;
+                }
+            }
+
+            if (!forwarded) {
+                return;
+            }
+        }
+    }
+
+    private static ScheduledExecutorService createExecutor() {
+        final ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(
+                        1,
+                        runnable -> {
+                            final Thread thread =
+                                    new Thread(runnable, "AssurancePluginEventPump");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.setKeepAliveTime(PUMP_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,570 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.MobileCore;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.LoadGeneratorKeys;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.PayloadDataKeys;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Dispatches synthetic events to the event hub at a requested rate, for capacity testing of the
+ * SDK and of the Assurance session, for ex:
+ *
+ * <pre>
+ * {"eventsPerSecond": 200, "durationSeconds": 30, "minDataSize": 64, "maxDataSize": 4096,
+ *  "sizeDistribution": "logUniform", "shapes": {"flat": 3, "nested": 1, "list": 1}, "seed": 42}
+ * </pre>
+ *
+ * Events are dispatched in {@link #TICKS_PER_SECOND} batches per second, the size and shape of
+ * their data being drawn from the requested distributions. A report of the achieved rate, of the
+ * time the events took to reach the Assurance listener of the event hub and of the depth of the
+ * Assurance queues is sent to the session every second, and once the run is complete. A control
+ * event with {"stop": true} ends the current run.
+ */
+class AssurancePluginLoadGenerator implements AssuranceAsyncPlugin {
+    private static final String LOG_TAG = "AssurancePluginLoadGenerator";
+    private static final long SCHEDULER_THREAD_KEEP_ALIVE_SECONDS = 30;
+    static final int TICKS_PER_SECOND = 10;
+    // the events of a tick are dispatched at its end, so that the achieved rate is not overstated
+    static final long TICK_INTERVAL_MS = 1000 / TICKS_PER_SECOND;
+    static final String LOAD_EVENT_NAME = "Assurance Load Generator Event";
+    static final String DEFAULT_EVENT_TYPE = "com.adobe.eventType.assurance.loadGenerator";
+    static final String DEFAULT_EVENT_SOURCE = "com.adobe.eventSource.requestContent";
+    static final String SEQUENCE_KEY = "sequence";
+
+    private final ScheduledExecutorService scheduler;
+    private volatile AssurancePluginEmitter emitter;
+    // written on the scheduler thread, read by the event hub thread in onHubEvent()
+    private volatile LoadRun activeRun;
+
+    AssurancePluginLoadGenerator() {
+        this(createScheduler());
+    }
+
+    @VisibleForTesting
+    AssurancePluginLoadGenerator(final ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public String getVendor() {
+        return AssuranceConstants.VENDOR_ASSURANCE_MOBILE;
+    }
+
+    @Override
+    public String getControlType() {
+        return AssuranceConstants.ControlType.LOAD_GENERATOR;
+    }
+
+    @Override
+    public void onRegistered(final AssurancePluginEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    /** This method will be invoked only if the control event is of type "loadGenerator" */
+    @Override
+    public void onEventReceived(final AssuranceEvent event) {
+        final LoadOptions options = LoadOptions.from(event.getControlDetail());
+        scheduler.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        stopRun();
+
+                        if (!options.stop) {
+                            startRun(options);
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public void onSessionConnected() {
+        /* no-op */
+    }
+
+    @Override
+    public void onSessionDisconnected(final int code) {
+        scheduler.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        stopRun();
+                    }
+                });
+    }
+
+    @Override
+    public void onSessionTerminated() {
+        // waited for, as the emitter drops the final report once this callback returns
+        final FutureTask<Void> stop =
+                new FutureTask<>(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                stopRun();
+                                emitter = null;
+                            }
+                        },
+                        null);
+        scheduler.execute(stop);
+
+        try {
+            stop.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException e) {
+            Log.warning(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Unable to send the final load report. " + e.getLocalizedMessage());
+        }
+    }
+
+    /**
+     * Records the time a generated event took to reach the Assurance listener of the event hub.
+     * Called on the event hub thread for every event, other events are ignored at the cost of a
+     * few comparisons.
+     *
+     * @param event the {@link Event} received by the Assurance listener
+     */
+    void onHubEvent(final Event event) {
+        final LoadRun run = activeRun;
+
+        if (run == null
+                || !LOAD_EVENT_NAME.equals(event.getName())
+                || !run.options.eventType.equals(event.getType())
+                || !run.options.eventSource.equals(event.getSource())) {
+            return;
+        }
+
+        final long lagMs = Math.max(0, System.currentTimeMillis() - event.getTimestamp());
+        run.hubLagSumMs.addAndGet(lagMs);
+        run.hubLagCount.incrementAndGet();
+
+        long maxLagMs;
+
+        do {
+            maxLagMs = run.hubLagMaxMs.get();
+        } while (lagMs > maxLagMs && !run.hubLagMaxMs.compareAndSet(maxLagMs, lagMs));
+    }
+
+    private void startRun(final LoadOptions options) {
+        if (emitter == null) {
+            Log.warning(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "No active session, ignoring the load generator request.");
+            return;
+        }
+
+        Log.debug(
+                Assurance.LOG_TAG,
+                LOG_TAG,
+                "Generating %.1f events per second for %d seconds.",
+                options.eventsPerSecond,
+                options.durationSeconds);
+
+        final LoadRun run = new LoadRun(options);
+        activeRun = run;
+        run.nextTick =
+                scheduler.scheduleAtFixedRate(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                tick(run);
+                            }
+                        },
+                        TICK_INTERVAL_MS,
+                        TICK_INTERVAL_MS,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    /** Ends the active run, if any, sending its final report. */
+    private void stopRun() {
+        final LoadRun run = activeRun;
+
+        if (run == null) {
+            return;
+        }
+
+        activeRun = null;
+        run.nextTick.cancel(false);
+        sendReport(run, true);
+    }
+
+    /** Dispatches the events owed for one tick of the run, on the scheduler thread. */
+    private void tick(final LoadRun run) {
+        if (run != activeRun) {
+            return;
+        }
+
+        run.owedEvents += run.options.eventsPerSecond / TICKS_PER_SECOND;
+        final int count = (int) run.owedEvents;
+        run.owedEvents -= count;
+
+        for (int i = 0; i < count; i++) {
+            MobileCore.dispatchEvent(
+                    new Event.Builder(
+                                    LOAD_EVENT_NAME,
+                                    run.options.eventType,
+                                    run.options.eventSource)
+                            .setEventData(run.nextEventData())
+                            .build());
+        }
+
+        run.tickCount++;
+
+        if (run.tickCount >= run.options.durationSeconds * TICKS_PER_SECOND) {
+            stopRun();
+        } else if (run.tickCount % TICKS_PER_SECOND == 0) {
+            sendReport(run, false);
+        }
+    }
+
+    private void sendReport(final LoadRun run, final boolean complete) {
+        final AssurancePluginEmitter pluginEmitter = emitter;
+
+        if (pluginEmitter == null) {
+            return;
+        }
+
+        final long elapsedMs =
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - run.startNanos);
+        final long lagCount = run.hubLagCount.getAndSet(0);
+        final long lagSumMs = run.hubLagSumMs.getAndSet(0);
+
+        final Map<String, Object> detail = new HashMap<>();
+        detail.put(LoadGeneratorKeys.TARGET_RATE, run.options.eventsPerSecond);
+        detail.put(
+                LoadGeneratorKeys.ACHIEVED_RATE,
+                elapsedMs > 0 ? run.sequence * 1000.0 / elapsedMs : 0.0);
+        detail.put(LoadGeneratorKeys.DISPATCHED_COUNT, run.sequence);
+        detail.put(LoadGeneratorKeys.ELAPSED_MS, elapsedMs);
+        detail.put(LoadGeneratorKeys.HUB_LAG_AVG_MS, lagCount > 0 ? lagSumMs / lagCount : 0L);
+        detail.put(LoadGeneratorKeys.HUB_LAG_MAX_MS, run.hubLagMaxMs.getAndSet(0));
+        detail.put(LoadGeneratorKeys.OUTBOUND_QUEUE_DEPTH, pluginEmitter.getOutboundQueueDepth());
+        detail.put(LoadGeneratorKeys.EMITTER_BACKLOG, pluginEmitter.getBacklog());
+        detail.put(LoadGeneratorKeys.DROPPED_REPORTS, run.droppedReports);
+        detail.put(LoadGeneratorKeys.COMPLETE, complete);
+
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put(PayloadDataKeys.TYPE, LoadGeneratorKeys.REPORT_TYPE);
+        payload.put(PayloadDataKeys.DETAIL, detail);
+
+        if (!pluginEmitter.tryEmit(
+                new AssuranceEvent(AssuranceConstants.AssuranceEventType.CLIENT, payload))) {
+            run.droppedReports++;
+        }
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        final ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(
+                        1,
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "AssuranceLoadGenerator");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.setKeepAliveTime(SCHEDULER_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /** The state of a running load, only modified on the scheduler thread but for the hub lag. */
+    private static final class LoadRun {
+        private static final String FILLER = buildFiller(256);
+
+        final LoadOptions options;
+        final Random random;
+        final long startNanos = System.nanoTime();
+        final AtomicLong hubLagSumMs = new AtomicLong();
+        final AtomicLong hubLagCount = new AtomicLong();
+        final AtomicLong hubLagMaxMs = new AtomicLong();
+        ScheduledFuture<?> nextTick;
+        double owedEvents;
+        int tickCount;
+        long sequence;
+        int droppedReports;
+
+        LoadRun(final LoadOptions options) {
+            this.options = options;
+            this.random = options.seed != null ? new Random(options.seed) : new Random();
+        }
+
+        /** Returns the data of the next event, of a size and shape drawn from the options. */
+        Map<String, Object> nextEventData() {
+            final int size = options.nextDataSize(random);
+            final String shape = options.nextShape(random);
+            final Map<String, Object> data = new HashMap<>();
+            data.put(SEQUENCE_KEY, sequence++);
+
+            if (LoadGeneratorKeys.SHAPE_LIST.equals(shape)) {
+                final List<Object> items = new ArrayList<>();
+
+                for (int remaining = size; remaining > 0; remaining -= FILLER.length()) {
+                    items.add(filler(remaining));
+                }
+
+                data.put("items", items);
+            } else if (LoadGeneratorKeys.SHAPE_NESTED.equals(shape)) {
+                // four levels deep, the values being split among the levels
+                Map<String, Object> level = data;
+
+                for (int depth = 0; depth < 4; depth++) {
+                    final Map<String, Object> child = new HashMap<>();
+                    level.put("level" + depth, child);
+                    level = child;
+                    fill(level, size / 4);
+                }
+            } else {
+                fill(data, size);
+            }
+
+            return data;
+        }
+
+        /** Adds string values totalling about the size, keys included, to the map. */
+        private static void fill(final Map<String, Object> map, final int size) {
+            int remaining = size;
+
+            for (int i = 0; remaining > 0; i++) {
+                final String key = "key" + i;
+                final String value = filler(remaining - key.length());
+                map.put(key, value);
+                remaining -= key.length() + value.length();
+            }
+        }
+
+        private static String filler(final int length) {
+            return FILLER.substring(0, Math.max(1, Math.min(FILLER.length(), length)));
+        }
+
+        private static String buildFiller(final int length) {
+            final StringBuilder builder = new StringBuilder(length);
+
+            for (int i = 0; i < length; i++) {
+                builder.append((char) ('a' + i % 26));
+            }
+
+            return builder.toString();
+        }
+    }
+
+    /** The load options provided in the details of a load generator control event. */
+    @VisibleForTesting
+    static final class LoadOptions {
+        private static final double DEFAULT_EVENTS_PER_SECOND = 10;
+        private static final double MAX_EVENTS_PER_SECOND = 1000;
+        private static final int DEFAULT_DURATION_SECONDS = 10;
+        private static final int MAX_DURATION_SECONDS = 600;
+        private static final int DEFAULT_MIN_DATA_SIZE = 64;
+        private static final int DEFAULT_MAX_DATA_SIZE = 1024;
+        private static final int MAX_DATA_SIZE = 64 * 1024;
+        private static final String[] SHAPES = {
+            LoadGeneratorKeys.SHAPE_FLAT,
+            LoadGeneratorKeys.SHAPE_NESTED,
+            LoadGeneratorKeys.SHAPE_LIST
+        };
+
+        final boolean stop;
+        final double eventsPerSecond;
+        final int durationSeconds;
+        final int minDataSize;
+        final int maxDataSize;
+        final boolean logUniformSizes;
+        // cumulative weights of SHAPES
+        final double[] shapeWeights;
+        final String eventType;
+        final String eventSource;
+        final Long seed;
+
+        private LoadOptions(
+                final boolean stop,
+                final double eventsPerSecond,
+                final int durationSeconds,
+                final int minDataSize,
+                final int maxDataSize,
+                final boolean logUniformSizes,
+                final double[] shapeWeights,
+                final String eventType,
+                final String eventSource,
+                final Long seed) {
+            this.stop = stop;
+            this.eventsPerSecond = eventsPerSecond;
+            this.durationSeconds = durationSeconds;
+            this.minDataSize = minDataSize;
+            this.maxDataSize = maxDataSize;
+            this.logUniformSizes = logUniformSizes;
+            this.shapeWeights = shapeWeights;
+            this.eventType = eventType;
+            this.eventSource = eventSource;
+            this.seed = seed;
+        }
+
+        /**
+         * Reads the options from the control event details, using the defaults for missing values
+         * and clamping out of range values.
+         *
+         * @param details the control event details, may be null
+         * @return the {@code LoadOptions} to generate the load with
+         */
+        static LoadOptions from(final Map<String, Object> details) {
+            final Map<String, Object> values =
+                    details == null ? new HashMap<String, Object>() : details;
+
+            final boolean stop = Boolean.TRUE.equals(values.get(LoadGeneratorKeys.STOP));
+            final double eventsPerSecond =
+                    clamp(
+                            getNumber(
+                                    values,
+                                    LoadGeneratorKeys.EVENTS_PER_SECOND,
+                                    DEFAULT_EVENTS_PER_SECOND),
+                            0,
+                            MAX_EVENTS_PER_SECOND);
+            final int durationSeconds =
+                    (int)
+                            clamp(
+                                    getNumber(
+                                            values,
+                                            LoadGeneratorKeys.DURATION_SECONDS,
+                                            DEFAULT_DURATION_SECONDS),
+                                    1,
+                                    MAX_DURATION_SECONDS);
+            final int minDataSize =
+                    (int)
+                            clamp(
+                                    getNumber(
+                                            values,
+                                            LoadGeneratorKeys.MIN_DATA_SIZE,
+                                            DEFAULT_MIN_DATA_SIZE),
+                                    1,
+                                    MAX_DATA_SIZE);
+            final int maxDataSize =
+                    (int)
+                            clamp(
+                                    getNumber(
+                                            values,
+                                            LoadGeneratorKeys.MAX_DATA_SIZE,
+                                            Math.max(minDataSize, DEFAULT_MAX_DATA_SIZE)),
+                                    minDataSize,
+                                    MAX_DATA_SIZE);
+            final boolean logUniformSizes =
+                    LoadGeneratorKeys.SIZE_DISTRIBUTION_LOG_UNIFORM.equals(
+                            values.get(LoadGeneratorKeys.SIZE_DISTRIBUTION));
+
+            return new LoadOptions(
+                    stop,
+                    eventsPerSecond,
+                    durationSeconds,
+                    minDataSize,
+                    maxDataSize,
+                    logUniformSizes,
+                    getShapeWeights(values.get(LoadGeneratorKeys.SHAPES)),
+                    getString(values, LoadGeneratorKeys.EVENT_TYPE, DEFAULT_EVENT_TYPE),
+                    getString(values, LoadGeneratorKeys.EVENT_SOURCE, DEFAULT_EVENT_SOURCE),
+                    values.get(LoadGeneratorKeys.SEED) instanceof Number
+                            ? ((Number) values.get(LoadGeneratorKeys.SEED)).longValue()
+                            : null);
+        }
+
+        /** Draws the size of the data of an event from the size distribution. */
+        int nextDataSize(final Random random) {
+            if (minDataSize == maxDataSize) {
+                return minDataSize;
+            }
+
+            if (logUniformSizes) {
+                final double logMin = Math.log(minDataSize);
+                final double logMax = Math.log(maxDataSize);
+                final double size = Math.exp(logMin + random.nextDouble() * (logMax - logMin));
+                return (int) Math.min(maxDataSize, Math.round(size));
+            }
+
+            return minDataSize + random.nextInt(maxDataSize - minDataSize + 1);
+        }
+
+        /** Draws the shape of the data of an event from the shape weights. */
+        String nextShape(final Random random) {
+            final double value = random.nextDouble() * shapeWeights[shapeWeights.length - 1];
+
+            for (int i = 0; i < SHAPES.length - 1; i++) {
+                if (value < shapeWeights[i]) {
+                    return SHAPES[i];
+                }
+            }
+
+            return SHAPES[SHAPES.length - 1];
+        }
+
+        /** Reads the {"shape": weight} map, only flat events are generated if it is invalid. */
+        private static double[] getShapeWeights(final Object value) {
+            final double[] weights = new double[SHAPES.length];
+            double total = 0;
+
+            for (int i = 0; i < SHAPES.length; i++) {
+                final Object weight =
+                        value instanceof Map ? ((Map<?, ?>) value).get(SHAPES[i]) : null;
+
+                if (weight instanceof Number && ((Number) weight).doubleValue() > 0) {
+                    total += ((Number) weight).doubleValue();
+                }
+
+                weights[i] = total;
+            }
+
+            if (total == 0) {
+                for (int i = 0; i < SHAPES.length; i++) {
+                    weights[i] = 1;
+                }
+            }
+
+            return weights;
+        }
+
+        private static double getNumber(
+                final Map<String, Object> values, final String key, final double defaultValue) {
+            final Object value = values.get(key);
+            return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+        }
+
+        private static String getString(
+                final Map<String, Object> values, final String key, final String defaultValue) {
+            final Object value = values.get(key);
+            return value instanceof String && !((String) value).isEmpty()
+                    ? (String) value
+                    : defaultValue;
+        }
+
+        private static double clamp(final double value, final double min, final double max) {
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+}
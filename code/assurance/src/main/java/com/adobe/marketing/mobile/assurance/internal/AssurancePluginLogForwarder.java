@@ -11,34 +11,84 @@
 
 package com.adobe.marketing.mobile.assurance.internal;
 
+import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.LogForwardingKeys;
 import com.adobe.marketing.mobile.services.Log;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
+/**
+ * Forwards the logcat entries of the app to the session while the "logForwarding" control event
+ * enables it.
+ *
+ * <p>The logcat process only reads the entries that pass the {@link LogcatFilter} provided with
+ * the control event. It is run by a {@link LogcatReader} on a managed executor thread, which is
+ * stopped as soon as forwarding is disabled or the session disconnects or terminates, and reports
+ * the resources it used once stopped. Its output is parsed by a {@link LogcatParser}, and the
+ * entries are sent through a {@link LogEventBatcher}. Servers that support it can opt into batched
+ * log events with {"enable": true, "batch": true}, optionally with "flushIntervalMs", "maxEntries"
+ * and "maxBytes" windows. Otherwise every entry is sent in its own log event as a "logline".
+ *
+ * <p>With {"source": "sdk"}, the logs of the SDK are captured in process by a {@link SdkLogTap}
+ * instead of logcat, with structured levels and tags and without forking a process. With {"source":
+ * "all"}, the SDK logs are captured in process and the other logs of the app are read from logcat.
+ * The default source is "logcat".
+ */
 @SuppressWarnings("unused")
 class AssurancePluginLogForwarder implements AssurancePlugin {
     private static final String LOG_TAG = "AssurancePluginLogForwarder";
-    private static final Pattern HEADER_MESSAGE =
-            Pattern.compile(
-                    "^\\[ \\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d.\\d\\d\\d {1,}\\d+: {0,}\\d+"
-                            + " [VDIWEAF]/[^ ]+ {1,}]$");
-
-    private volatile boolean backgroundThreadRunning = false;
-    private boolean logEnabled = false;
+    private static final long FLUSH_THREAD_KEEP_ALIVE_SECONDS = 30;
+    private static final long LOG_READER_THREAD_KEEP_ALIVE_SECONDS = 30;
+    private static final long SDK_LOG_DRAIN_INTERVAL_MILLIS = 250;
+    private static final int SDK_LOG_DRAIN_BATCH_SIZE = 256;
+    // the tag of the SDK logs written to logcat by the core logging service
+    private static final String SDK_LOGCAT_TAG = "AdobeExperienceSDK";
+
+    private volatile boolean logEnabled = false;
     private final AtomicReference<AssuranceSession> parentSession;
+    private final ScheduledExecutorService flushScheduler;
+    private final ExecutorService logReaderExecutor;
+    private final SdkLogTap sdkLogTap;
+    private final Object logcatCaptureMutex = new Object();
+    private LogcatReader logcatReader;
+    private Future<?> logcatReaderTask;
+    private final List<LogEntry> drainedSdkLogs = new ArrayList<>();
+    private final Object sdkLogCaptureMutex = new Object();
+    private ScheduledFuture<?> sdkLogDrain;
+    private volatile LogEventBatcher logEventBatcher;
 
     AssurancePluginLogForwarder() {
-        parentSession = new AtomicReference<>(null);
+        this(createFlushScheduler(), createLogReaderExecutor(), new SdkLogTap());
+    }
+
+    @VisibleForTesting
+    AssurancePluginLogForwarder(
+            final ScheduledExecutorService flushScheduler,
+            final ExecutorService logReaderExecutor,
+            final SdkLogTap sdkLogTap) {
+        this.parentSession = new AtomicReference<>(null);
+        this.flushScheduler = flushScheduler;
+        this.logReaderExecutor = logReaderExecutor;
+        this.sdkLogTap = sdkLogTap;
     }
 
     boolean isBackgroundThreadRunning() {
-        return backgroundThreadRunning;
+        synchronized (logcatCaptureMutex) {
+            return logcatReaderTask != null && !logcatReaderTask.isDone();
+        }
     }
 
     @Override
@@ -64,7 +114,7 @@ class AssurancePluginLogForwarder implements AssurancePlugin {
             return;
         }
 
-        final Object enabled = logForwardingDetails.get("enable");
+        final Object enabled = logForwardingDetails.get(LogForwardingKeys.ENABLE);
 
         if (!(enabled instanceof Boolean)) {
             Log.warning(
@@ -76,20 +126,40 @@ class AssurancePluginLogForwarder implements AssurancePlugin {
 
         logEnabled = (Boolean) enabled;
         final AssuranceSession session = parentSession.get();
+        flushLogEvents();
 
         if (logEnabled) {
+            logEventBatcher = createLogEventBatcher(logForwardingDetails);
+            final Object source = logForwardingDetails.get(LogForwardingKeys.SOURCE);
+            final boolean captureSdkLogs =
+                    LogForwardingKeys.SOURCE_SDK.equals(source)
+                            || LogForwardingKeys.SOURCE_ALL.equals(source);
+            final boolean captureLogcat = !LogForwardingKeys.SOURCE_SDK.equals(source);
+            LogcatFilter filter = LogcatFilter.from(logForwardingDetails);
+
+            if (captureSdkLogs) {
+                // the SDK logs are captured in process, do not read them from logcat as well
+                filter = filter.withSilencedTag(SDK_LOGCAT_TAG);
+                startSdkLogCapture();
+            } else {
+                stopSdkLogCapture();
+            }
+
+            if (captureLogcat) {
+                startLogcatCapture(filter);
+            } else {
+                stopLogcatCapture();
+            }
+
             if (session != null) {
                 session.logLocalUI(
                         AssuranceConstants.UILogColorVisibility.HIGH,
                         "Received Assurance command to start forwarding logs");
             }
-
-            if (!backgroundThreadRunning) {
-                backgroundThreadRunning = true;
-                Thread logForwardThread = new Thread(new LogForwardThread());
-                logForwardThread.start();
-            }
         } else {
+            stopLogcatCapture();
+            stopSdkLogCapture();
+
             if (session != null) {
                 session.logLocalUI(
                         AssuranceConstants.UILogColorVisibility.HIGH,
@@ -112,106 +182,243 @@ class AssurancePluginLogForwarder implements AssurancePlugin {
     @Override
     public void onSessionDisconnected(final int code) {
         logEnabled = false;
+        stopLogcatCapture();
+        stopSdkLogCapture();
+        flushLogEvents();
     }
 
     @Override
     public void onSessionTerminated() {
+        logEnabled = false;
+        stopLogcatCapture();
+        // restores the logging service of the SDK
+        stopSdkLogCapture();
         parentSession.set(null);
     }
 
-    private final class LogForwardThread implements Runnable {
-        @Override
-        public void run() {
-            try {
-                final Process procRemoveUnecessaryLogs =
-                        new ProcessBuilder().command("logcat", "-P", "").start();
-                final String processIdCommand =
-                        String.format("--pid=%s", android.os.Process.myPid());
-                final Process proc =
-                        new ProcessBuilder()
-                                .command("logcat", processIdCommand, "-bmain", "-vlong")
-                                .start();
-                final BufferedReader reader =
-                        new BufferedReader(new InputStreamReader(proc.getInputStream()));
-                final StringBuilder logLines = new StringBuilder();
-                boolean isFirstLog = true;
-
-                while (logEnabled && !Thread.interrupted()) {
-                    try {
-                        final String logLine = reader.readLine();
-
-                        // hack to avoid infinite looping on log forwarding.
-                        if (logLine != null && logLine.contains(Assurance.LOG_TAG)) {
-                            continue;
-                        }
-
-                        if (logLine != null && checkIfHeader(logLine)) {
-                            // When the first log is the header log
-                            if (isFirstLog) {
-                                isFirstLog = false;
-                                continue;
-                            }
-
-                            if (checkIfLogLinesAreEmpty(logLines)) {
-                                continue;
-                            }
-
-                            final Map<String, Object> eventPayload = new HashMap<>();
-                            eventPayload.put("logline", logLines.toString());
-                            final AssuranceEvent logEvent =
-                                    new AssuranceEvent(
-                                            AssuranceConstants.AssuranceEventType.LOG,
-                                            eventPayload);
-                            final AssuranceSession session = parentSession.get();
-
-                            if (session != null) {
-                                session.queueOutboundEvent(logEvent);
-                            }
-
-                            logLines.setLength(0);
-                        }
-
-                        if (logLine != null && !logLine.isEmpty()) {
-                            logLines.append(logLine).append("\n");
-                        }
-                    } catch (final Exception ex) {
-                        Log.error(
-                                Assurance.LOG_TAG,
-                                LOG_TAG,
-                                String.format(
-                                        "Log forwarding error reading line: %s",
-                                        ex.getLocalizedMessage()));
-                    }
-                }
-
-                procRemoveUnecessaryLogs.destroy();
-                proc.destroy();
-            } catch (final Exception ex) {
-                // handle exception
-                Log.error(
-                        Assurance.LOG_TAG,
-                        LOG_TAG,
-                        String.format(
-                                "Log forwarding error while sending logs: %s"
-                                        + ex.getLocalizedMessage()));
+    /**
+     * Starts reading logcat with the filter on the log reader executor, or restarts the running
+     * logcat with the filter if it differs from its current one.
+     */
+    private void startLogcatCapture(final LogcatFilter filter) {
+        synchronized (logcatCaptureMutex) {
+            if (logcatReader != null && !logcatReader.isStopped()) {
+                logcatReader.setFilter(filter);
+                return;
             }
 
-            backgroundThreadRunning = false;
+            final LogcatReader reader = new LogcatReader(filter, this::forwardLogEntry);
+            logcatReader = reader;
+            logcatReaderTask =
+                    logReaderExecutor.submit(
+                            () -> {
+                                reader.run();
+                                flushLogEvents();
+                                reportResourceUsage(reader);
+                            });
         }
     }
 
-    private boolean checkIfHeader(String message) {
-        final Matcher matcher = HEADER_MESSAGE.matcher(message);
-        return matcher.matches();
+    /**
+     * Stops reading logcat. The logcat process is destroyed and the reader thread interrupted, so
+     * that the reader completes right away instead of waiting for the next line of output.
+     */
+    private void stopLogcatCapture() {
+        synchronized (logcatCaptureMutex) {
+            if (logcatReader == null) {
+                return;
+            }
+
+            logcatReader.stop();
+            logcatReaderTask.cancel(true);
+            logcatReader = null;
+            logcatReaderTask = null;
+        }
     }
 
-    private boolean checkIfLogLinesAreEmpty(StringBuilder sb) {
-        String[] a = sb.toString().split("\n");
+    /** Reports the resources used by a completed {@link LogcatReader}. */
+    private void reportResourceUsage(final LogcatReader reader) {
+        final String usage =
+                String.format(
+                        Locale.US,
+                        "Log forwarding read %d log entries (%d KB) from %d logcat process(es),"
+                                + " using %d ms of CPU time over %d ms.",
+                        reader.getEntriesRead(),
+                        reader.getBytesRead() / 1024,
+                        reader.getProcessStarts(),
+                        reader.getCpuTimeMillis(),
+                        reader.getRunningTimeMillis());
+        Log.debug(Assurance.LOG_TAG, LOG_TAG, usage);
+        final AssuranceSession session = parentSession.get();
 
-        if (a.length < 2) {
-            return true;
+        if (session != null) {
+            session.logLocalUI(AssuranceConstants.UILogColorVisibility.LOW, usage);
         }
+    }
+
+    /**
+     * Installs the {@link SdkLogTap} and starts forwarding the SDK logs it captures, if not already
+     * started.
+     */
+    private void startSdkLogCapture() {
+        synchronized (sdkLogCaptureMutex) {
+            if (sdkLogDrain != null) {
+                return;
+            }
+
+            sdkLogTap.install();
+            sdkLogDrain =
+                    flushScheduler.scheduleWithFixedDelay(
+                            this::drainSdkLogs,
+                            SDK_LOG_DRAIN_INTERVAL_MILLIS,
+                            SDK_LOG_DRAIN_INTERVAL_MILLIS,
+                            TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** Uninstalls the {@link SdkLogTap}, forwarding the SDK logs it already captured. */
+    private void stopSdkLogCapture() {
+        synchronized (sdkLogCaptureMutex) {
+            if (sdkLogDrain == null) {
+                return;
+            }
+
+            sdkLogDrain.cancel(false);
+            sdkLogDrain = null;
+            sdkLogTap.uninstall();
+        }
+
+        final long droppedCount = sdkLogTap.getDroppedCount();
+
+        if (droppedCount > 0) {
+            Log.warning(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Log forwarding dropped %d SDK logs captured faster than they were forwarded.",
+                    droppedCount);
+        }
+
+        flushScheduler.execute(this::drainSdkLogs);
+    }
+
+    /** Forwards the SDK logs captured by the {@link SdkLogTap}, on the flush scheduler thread. */
+    private void drainSdkLogs() {
+        int drained;
+
+        do {
+            drained = sdkLogTap.drainTo(drainedSdkLogs, SDK_LOG_DRAIN_BATCH_SIZE);
+
+            for (final LogEntry entry : drainedSdkLogs) {
+                forwardLogEntry(entry);
+            }
+
+            drainedSdkLogs.clear();
+        } while (drained == SDK_LOG_DRAIN_BATCH_SIZE);
+    }
+
+    private void forwardLogEntry(final LogEntry entry) {
+        // hack to avoid infinite looping on log forwarding.
+        if (entry.tag.contains(Assurance.LOG_TAG) || entry.message.contains(Assurance.LOG_TAG)) {
+            return;
+        }
+
+        final LogEventBatcher batcher = logEventBatcher;
+
+        if (batcher != null) {
+            batcher.add(entry);
+        }
+    }
+
+    private void flushLogEvents() {
+        final LogEventBatcher batcher = logEventBatcher;
+
+        if (batcher != null) {
+            batcher.flush();
+        }
+    }
+
+    private void queueLogEvent(final AssuranceEvent logEvent) {
+        final AssuranceSession session = parentSession.get();
+
+        if (session != null) {
+            session.queueOutboundEvent(logEvent);
+        }
+    }
+
+    /**
+     * Creates the batcher for the log forwarding options in the control event details, using the
+     * defaults for missing or invalid windows.
+     */
+    @VisibleForTesting
+    LogEventBatcher createLogEventBatcher(final Map<String, Object> details) {
+        final boolean batched = Boolean.TRUE.equals(details.get(LogForwardingKeys.BATCH));
+        final long flushIntervalMillis =
+                getPositiveLong(
+                        details,
+                        LogForwardingKeys.FLUSH_INTERVAL,
+                        LogEventBatcher.DEFAULT_FLUSH_INTERVAL_MILLIS);
+        final int maxEntries =
+                (int)
+                        getPositiveLong(
+                                details,
+                                LogForwardingKeys.MAX_ENTRIES,
+                                LogEventBatcher.DEFAULT_MAX_ENTRIES);
+        final int maxBytes =
+                (int)
+                        getPositiveLong(
+                                details,
+                                LogForwardingKeys.MAX_BYTES,
+                                LogEventBatcher.DEFAULT_MAX_BYTES);
+
+        return new LogEventBatcher(
+                this::queueLogEvent,
+                flushScheduler,
+                batched,
+                flushIntervalMillis,
+                maxEntries,
+                maxBytes);
+    }
+
+    private static long getPositiveLong(
+            final Map<String, Object> details, final String key, final long defaultValue) {
+        final Object value = details.get(key);
+
+        if (value instanceof Number && ((Number) value).longValue() > 0) {
+            return Math.min(((Number) value).longValue(), Integer.MAX_VALUE);
+        }
+
+        return defaultValue;
+    }
+
+    private static ExecutorService createLogReaderExecutor() {
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        LOG_READER_THREAD_KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "AssuranceLogReader");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 
-        return a[1].equals("");
+    private static ScheduledExecutorService createFlushScheduler() {
+        final ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(
+                        1,
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "AssuranceLogFlush");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.setKeepAliveTime(FLUSH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
     }
 }
@@ -11,10 +11,12 @@
 
 package com.adobe.marketing.mobile.assurance.internal;
 
+import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.Assurance;
 import com.adobe.marketing.mobile.services.Log;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manages registration of plugins and notifications to plugins about the {@link AssuranceSession}.
@@ -24,6 +26,7 @@ class AssurancePluginManager {
 
     private final ConcurrentHashMap<String, ConcurrentLinkedQueue<AssurancePlugin>> plugins;
     private final AssuranceSession session;
+    private final AssurancePluginEventPump eventPump;
 
     AssurancePluginManager(final AssuranceSession session) {
         this(session, new ConcurrentHashMap<String, ConcurrentLinkedQueue<AssurancePlugin>>());
@@ -32,8 +35,17 @@ class AssurancePluginManager {
     AssurancePluginManager(
             final AssuranceSession session,
             final ConcurrentHashMap<String, ConcurrentLinkedQueue<AssurancePlugin>> plugins) {
+        this(session, plugins, new AssurancePluginEventPump(session));
+    }
+
+    @VisibleForTesting
+    AssurancePluginManager(
+            final AssuranceSession session,
+            final ConcurrentHashMap<String, ConcurrentLinkedQueue<AssurancePlugin>> plugins,
+            final AssurancePluginEventPump eventPump) {
         this.session = session;
         this.plugins = plugins;
+        this.eventPump = eventPump;
     }
 
     /**
@@ -57,6 +69,11 @@ class AssurancePluginManager {
             existingQueue.add(plugin);
         }
 
+        if (plugin instanceof AssuranceAsyncPluginAdapter) {
+            final AssuranceAsyncPluginAdapter adapter = (AssuranceAsyncPluginAdapter) plugin;
+            adapter.setEmitter(eventPump.createEmitter(adapter.getPluginName()));
+        }
+
         plugin.onRegistered(session);
     }
 
@@ -112,13 +129,33 @@ class AssurancePluginManager {
         }
     }
 
-    /** Notifies registered plugins about {@link AssuranceSession} termination. */
+    /**
+     * Notifies registered plugins about {@link AssuranceSession} termination, and closes the
+     * emitters of the asynchronous plugins once all of them handled it, so that the events they
+     * emit while terminating are still forwarded.
+     */
     void onSessionTerminated() {
+        // one for each asynchronous plugin, and one for this thread
+        final AtomicInteger pendingPlugins = new AtomicInteger(1);
+        final Runnable stopEventPump =
+                () -> {
+                    if (pendingPlugins.decrementAndGet() == 0) {
+                        eventPump.stop();
+                    }
+                };
+
         for (final ConcurrentLinkedQueue<AssurancePlugin> pluginQueue : plugins.values()) {
             for (final AssurancePlugin plugin : pluginQueue) {
-                plugin.onSessionTerminated();
+                if (plugin instanceof AssuranceAsyncPluginAdapter) {
+                    pendingPlugins.incrementAndGet();
+                    ((AssuranceAsyncPluginAdapter) plugin).onSessionTerminated(stopEventPump);
+                } else {
+                    plugin.onSessionTerminated();
+                }
             }
         }
+
+        stopEventPump.run();
     }
 
     /**
@@ -132,5 +169,7 @@ class AssurancePluginManager {
                 plugin.onSessionDisconnected(closeCode);
             }
         }
+
+        eventPump.logMetrics();
     }
 }
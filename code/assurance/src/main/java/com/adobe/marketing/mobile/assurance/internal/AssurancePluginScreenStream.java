@@ -0,0 +1,555 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+import android.os.Build;
+import android.os.PowerManager;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.ScreenStreamKeys;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.ScreenshotKeys;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.UILogColorVisibility;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the screen of the current activity while the "screenStream" control event enables it,
+ * for ex: {"enable": true, "fps": 2, "scale": 0.5, "quality": 70, "tileSize": 32}. Sending the
+ * control event with {"enable": false} stops the stream.
+ *
+ * <p>Every frame is compared tile by tile with the previous frame by a {@link ScreenFrameDiffer}.
+ * Unchanged frames are not uploaded, and only the bounding region of the changed tiles of the
+ * other frames is encoded and uploaded as a blob of the session. The blob event of every frame
+ * carries the position of the region in the frame, so that the frames can be recomposed.
+ *
+ * <p>At most one frame is captured or uploaded at a time. The frame rate and capture scale are
+ * adapted by a {@link ScreenStreamRateController} to the upload throughput, the thermal state of
+ * the device and the time each capture blocks the main thread for.
+ *
+ * <p>The stream state is only accessed on the thread of the scheduler.
+ */
+class AssurancePluginScreenStream implements AssurancePlugin {
+    private static final String LOG_TAG = "AssurancePluginScreenStream";
+    private static final String PAYLOAD_BLOBID = "blobId";
+    private static final String PAYLOAD_MIMETYPE = "mimeType";
+    private static final long SCHEDULER_THREAD_KEEP_ALIVE_SECONDS = 30;
+    private static final long MAIN_THREAD_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(8);
+
+    private final ScheduledExecutorService scheduler;
+    private final AssuranceScreenCapturer screenCapturer;
+    private volatile AssuranceSession parentSession;
+    private ScreenStream activeStream;
+
+    AssurancePluginScreenStream() {
+        this(createScheduler(), new AssuranceScreenCapturer());
+    }
+
+    @VisibleForTesting
+    AssurancePluginScreenStream(
+            final ScheduledExecutorService scheduler,
+            final AssuranceScreenCapturer screenCapturer) {
+        this.scheduler = scheduler;
+        this.screenCapturer = screenCapturer;
+    }
+
+    @Override
+    public String getVendor() {
+        return AssuranceConstants.VENDOR_ASSURANCE_MOBILE;
+    }
+
+    @Override
+    public String getControlType() {
+        return AssuranceConstants.ControlType.SCREEN_STREAM;
+    }
+
+    /** This method will be invoked only if the control event is of type "screenStream" */
+    @Override
+    public void onEventReceived(final AssuranceEvent event) {
+        final StreamOptions options = StreamOptions.from(event.getControlDetail());
+        scheduler.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        stopStream();
+
+                        if (options.enable) {
+                            startStream(options);
+                        }
+                    }
+                });
+    }
+
+    @Override
+    public void onRegistered(final AssuranceSession parentSession) {
+        this.parentSession = parentSession;
+    }
+
+    @Override
+    public void onSessionConnected() {
+        /* no-op */
+    }
+
+    @Override
+    public void onSessionDisconnected(final int code) {
+        scheduler.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        stopStream();
+                    }
+                });
+    }
+
+    @Override
+    public void onSessionTerminated() {
+        parentSession = null;
+        scheduler.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        stopStream();
+                        screenCapturer.clear();
+                    }
+                });
+    }
+
+    private void startStream(final StreamOptions options) {
+        if (parentSession == null) {
+            Log.error(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Unable to start the screen stream, Assurance session instance unavailable.");
+            return;
+        }
+
+        Log.debug(
+                Assurance.LOG_TAG,
+                LOG_TAG,
+                "Starting the screen stream at %.1f fps and scale %.2f.",
+                options.fps,
+                options.scale);
+        activeStream = new ScreenStream(options);
+        captureFrame(activeStream);
+    }
+
+    private void stopStream() {
+        if (activeStream == null) {
+            return;
+        }
+
+        Log.debug(
+                Assurance.LOG_TAG,
+                LOG_TAG,
+                "Stopping the screen stream after %d frames.",
+                activeStream.frameNumber);
+
+        if (activeStream.nextFrame != null) {
+            activeStream.nextFrame.cancel(false);
+        }
+
+        activeStream = null;
+    }
+
+    /** Captures the next frame of the stream, unless the previous one is still in flight. */
+    private void captureFrame(final ScreenStream stream) {
+        if (stream != activeStream) {
+            return;
+        }
+
+        if (stream.frameInFlight) {
+            stream.rateController.onFrameSkipped();
+            scheduleNextFrame(stream);
+            return;
+        }
+
+        stream.rateController.onThermalStatus(getThermalStatus());
+        scheduleNextFrame(stream);
+
+        final Activity currentActivity =
+                ServiceProvider.getInstance().getAppContextService().getCurrentActivity();
+
+        if (currentActivity == null) {
+            return;
+        }
+
+        stream.frameInFlight = true;
+        screenCapturer.capture(
+                currentActivity,
+                stream.rateController.getScale(),
+                new AssuranceScreenCapturer.Callback() {
+                    @Override
+                    public void onCaptured(final Bitmap bitmap) {
+                        // process off the main thread, the callback is called on the main thread
+                        scheduler.execute(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        processFrame(stream, bitmap);
+                                    }
+                                });
+                    }
+
+                    @Override
+                    public void onCaptureFailed(final String reason) {
+                        Log.debug(
+                                Assurance.LOG_TAG,
+                                LOG_TAG,
+                                "Unable to capture a frame of the screen stream. " + reason);
+                        scheduler.execute(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        stream.frameInFlight = false;
+                                    }
+                                });
+                    }
+                });
+    }
+
+    private void scheduleNextFrame(final ScreenStream stream) {
+        stream.nextFrame =
+                scheduler.schedule(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                captureFrame(stream);
+                            }
+                        },
+                        stream.rateController.getFrameIntervalMillis(),
+                        TimeUnit.MILLISECONDS);
+    }
+
+    /** Encodes and uploads the region of the frame that changed since the previous frame. */
+    private void processFrame(final ScreenStream stream, final Bitmap frame) {
+        stream.rateController.onMainThreadTime(screenCapturer.getLastMainThreadBlockingNanos());
+
+        final Rect region;
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final int frameWidth = frame.getWidth();
+        final int frameHeight = frame.getHeight();
+
+        try {
+            if (stream != activeStream) {
+                return;
+            }
+
+            region = stream.differ.findChangedRegion(frame);
+
+            if (region == null) {
+                stream.rateController.onFrameUnchanged();
+                stream.frameInFlight = false;
+                return;
+            }
+
+            final Bitmap regionBitmap =
+                    Bitmap.createBitmap(
+                            frame, region.left, region.top, region.width(), region.height());
+            regionBitmap.compress(stream.options.compressFormat, stream.options.quality, baos);
+        } catch (final RuntimeException | OutOfMemoryError e) {
+            Log.warning(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Unable to encode a frame of the screen stream. " + e.getLocalizedMessage());
+            // the next frame must be complete, as this one never reached the client
+            stream.differ.reset();
+            stream.frameInFlight = false;
+            return;
+        } finally {
+            screenCapturer.releaseBitmap(frame);
+        }
+
+        final AssuranceSession session = parentSession;
+
+        if (session == null) {
+            stream.frameInFlight = false;
+            return;
+        }
+
+        final boolean keyframe = region.width() == frameWidth && region.height() == frameHeight;
+        final long uploadStartTime = System.currentTimeMillis();
+        AssuranceBlob.upload(
+                baos.toByteArray(),
+                stream.options.mimeType,
+                session,
+                new AssuranceBlob.BlobUploadCallback() {
+                    @Override
+                    public void onSuccess(final String blobID) {
+                        final long uploadMillis = System.currentTimeMillis() - uploadStartTime;
+                        scheduler.execute(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        stream.rateController.onFrameUploaded(uploadMillis);
+                                        stream.frameInFlight = false;
+                                        queueFrameEvent(
+                                                stream,
+                                                blobID,
+                                                keyframe,
+                                                region,
+                                                frameWidth,
+                                                frameHeight);
+                                    }
+                                });
+                    }
+
+                    @Override
+                    public void onFailure(final String reason) {
+                        Log.warning(
+                                Assurance.LOG_TAG,
+                                LOG_TAG,
+                                "Unable to upload a frame of the screen stream. " + reason);
+                        scheduler.execute(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        stream.rateController.onUploadFailed();
+                                        // the next frame must be complete to be recomposed
+                                        stream.differ.reset();
+                                        stream.frameInFlight = false;
+                                    }
+                                });
+                    }
+                });
+    }
+
+    private void queueFrameEvent(
+            final ScreenStream stream,
+            final String blobID,
+            final boolean keyframe,
+            final Rect region,
+            final int frameWidth,
+            final int frameHeight) {
+        final AssuranceSession session = parentSession;
+
+        if (session == null || stream != activeStream) {
+            return;
+        }
+
+        final Map<String, Object> frameDetails = new HashMap<>();
+        frameDetails.put(ScreenStreamKeys.FRAME_NUMBER, ++stream.frameNumber);
+        frameDetails.put(ScreenStreamKeys.KEYFRAME, keyframe);
+        frameDetails.put(ScreenStreamKeys.REGION_X, region.left);
+        frameDetails.put(ScreenStreamKeys.REGION_Y, region.top);
+        frameDetails.put(ScreenStreamKeys.REGION_WIDTH, region.width());
+        frameDetails.put(ScreenStreamKeys.REGION_HEIGHT, region.height());
+        frameDetails.put(ScreenStreamKeys.FRAME_WIDTH, frameWidth);
+        frameDetails.put(ScreenStreamKeys.FRAME_HEIGHT, frameHeight);
+
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put(PAYLOAD_BLOBID, blobID);
+        payload.put(PAYLOAD_MIMETYPE, stream.options.mimeType);
+        payload.put(ScreenStreamKeys.FRAME, frameDetails);
+
+        if (stream.frameNumber == 1) {
+            session.logLocalUI(UILogColorVisibility.LOW, "Screen stream started");
+        }
+
+        session.queueOutboundEvent(
+                new AssuranceEvent(AssuranceConstants.AssuranceEventType.BLOB, payload));
+    }
+
+    /**
+     * Returns the current thermal status of the device.
+     *
+     * @return one of the {@code PowerManager.THERMAL_STATUS_*} values, {@code
+     *     THERMAL_STATUS_NONE} if the thermal status is unavailable
+     */
+    private static int getThermalStatus() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return PowerManager.THERMAL_STATUS_NONE;
+        }
+
+        final Context context =
+                ServiceProvider.getInstance().getAppContextService().getApplicationContext();
+
+        if (context == null) {
+            return PowerManager.THERMAL_STATUS_NONE;
+        }
+
+        final PowerManager powerManager =
+                (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return powerManager == null
+                ? PowerManager.THERMAL_STATUS_NONE
+                : powerManager.getCurrentThermalStatus();
+    }
+
+    /**
+     * Returns whether a screen stream is running.
+     *
+     * @return true if a stream is running
+     */
+    @VisibleForTesting
+    boolean isStreaming() {
+        return activeStream != null;
+    }
+
+    /**
+     * Returns the rate controller of the running stream.
+     *
+     * @return the {@link ScreenStreamRateController} of the stream, or null if none is running
+     */
+    @VisibleForTesting
+    ScreenStreamRateController getRateController() {
+        return activeStream == null ? null : activeStream.rateController;
+    }
+
+    private static ScheduledExecutorService createScheduler() {
+        final ScheduledThreadPoolExecutor executor =
+                new ScheduledThreadPoolExecutor(
+                        1,
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "AssuranceScreenStream");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.setKeepAliveTime(SCHEDULER_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+        executor.allowCoreThreadTimeOut(true);
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /** The state of a running screen stream. */
+    private static final class ScreenStream {
+        final StreamOptions options;
+        final ScreenFrameDiffer differ;
+        final ScreenStreamRateController rateController;
+        ScheduledFuture<?> nextFrame;
+        boolean frameInFlight;
+        int frameNumber;
+
+        ScreenStream(final StreamOptions options) {
+            this.options = options;
+            this.differ = new ScreenFrameDiffer(options.tileSize);
+            this.rateController =
+                    new ScreenStreamRateController(
+                            options.fps, options.scale, MAIN_THREAD_BUDGET_NANOS);
+        }
+    }
+
+    /** The stream options provided in the details of a screen stream control event. */
+    @VisibleForTesting
+    static final class StreamOptions {
+        private static final float DEFAULT_FPS = 2f;
+        private static final float MAX_FPS = 10f;
+        private static final float DEFAULT_SCALE = 0.5f;
+        private static final int DEFAULT_QUALITY = 70;
+        private static final int DEFAULT_TILE_SIZE = 32;
+        private static final int MIN_TILE_SIZE = 8;
+        private static final int MAX_TILE_SIZE = 256;
+
+        final boolean enable;
+        final float fps;
+        final float scale;
+        final int quality;
+        final int tileSize;
+        final Bitmap.CompressFormat compressFormat;
+        final String mimeType;
+
+        private StreamOptions(
+                final boolean enable,
+                final float fps,
+                final float scale,
+                final int quality,
+                final int tileSize,
+                final Bitmap.CompressFormat compressFormat,
+                final String mimeType) {
+            this.enable = enable;
+            this.fps = fps;
+            this.scale = scale;
+            this.quality = quality;
+            this.tileSize = tileSize;
+            this.compressFormat = compressFormat;
+            this.mimeType = mimeType;
+        }
+
+        /**
+         * Reads the options from the control event details, using the defaults for missing values
+         * and clamping out of range values.
+         *
+         * @param details the control event details, may be null
+         * @return the {@code StreamOptions} to stream with
+         */
+        @SuppressWarnings("deprecation")
+        static StreamOptions from(final Map<String, Object> details) {
+            final Map<String, Object> values =
+                    details == null ? new HashMap<String, Object>() : details;
+
+            final Object enableValue = values.get(ScreenStreamKeys.ENABLE);
+            final boolean enable = !(enableValue instanceof Boolean) || (Boolean) enableValue;
+
+            final float fps =
+                    clamp(
+                            getFloat(values, ScreenStreamKeys.FPS, DEFAULT_FPS),
+                            ScreenStreamRateController.MIN_FPS,
+                            MAX_FPS);
+            final float requestedScale =
+                    getFloat(values, ScreenStreamKeys.SCALE, DEFAULT_SCALE);
+            final float scale =
+                    requestedScale > 0 && requestedScale <= 1 ? requestedScale : DEFAULT_SCALE;
+            final int quality =
+                    (int)
+                            clamp(
+                                    getFloat(values, ScreenStreamKeys.QUALITY, DEFAULT_QUALITY),
+                                    0,
+                                    100);
+            final int tileSize =
+                    (int)
+                            clamp(
+                                    getFloat(values, ScreenStreamKeys.TILE_SIZE, DEFAULT_TILE_SIZE),
+                                    MIN_TILE_SIZE,
+                                    MAX_TILE_SIZE);
+
+            if (ScreenshotKeys.FORMAT_WEBP.equals(values.get(ScreenshotKeys.FORMAT))) {
+                return new StreamOptions(
+                        enable,
+                        fps,
+                        scale,
+                        quality,
+                        tileSize,
+                        Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                                ? Bitmap.CompressFormat.WEBP_LOSSY
+                                : Bitmap.CompressFormat.WEBP,
+                        "image/webp");
+            }
+
+            return new StreamOptions(
+                    enable,
+                    fps,
+                    scale,
+                    quality,
+                    tileSize,
+                    Bitmap.CompressFormat.JPEG,
+                    "image/jpeg");
+        }
+
+        private static float getFloat(
+                final Map<String, Object> values, final String key, final float defaultValue) {
+            final Object value = values.get(key);
+            return value instanceof Number ? ((Number) value).floatValue() : defaultValue;
+        }
+
+        private static float clamp(final float value, final float min, final float max) {
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+}
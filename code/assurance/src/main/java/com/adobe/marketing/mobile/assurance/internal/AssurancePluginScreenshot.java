@@ -13,25 +13,68 @@ package com.adobe.marketing.mobile.assurance.internal;
 
 import android.app.Activity;
 import android.graphics.Bitmap;
-import android.view.View;
+import android.os.Build;
 import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.ScreenshotKeys;
 import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.UILogColorVisibility;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.ServiceProvider;
 import java.io.ByteArrayOutputStream;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Captures a screenshot of the current activity when the "screenshot" control event is received
+ * and uploads it as a blob of the session.
+ *
+ * <p>The window is captured into a reusable, optionally downscaled bitmap by the {@link
+ * AssuranceScreenCapturer}, so that the main thread is only used to request a copy of the window.
+ * The bitmap is encoded as JPEG or WebP on a background thread. The scale, quality and format can
+ * be provided in the control event details, for ex: {"scale": 0.5, "quality": 80, "format":
+ * "webp"}.
+ *
+ * <p>The pixels of every capture are hashed before encoding. A capture identical to one already
+ * uploaded during the session is neither encoded nor uploaded again; its blob id is reused.
+ */
 class AssurancePluginScreenshot implements AssurancePlugin {
     private static final String LOG_TAG = "AssurancePluginScreenshot";
     private static final String PAYLOAD_BLOBID = "blobId";
     private static final String PAYLOAD_MIMETYPE = "mimeType";
     private static final String PAYLOAD_ERROR = "error";
+    private static final long ENCODER_THREAD_KEEP_ALIVE_SECONDS = 30;
+    private static final int MAX_UPLOADED_BLOB_IDS = 32;
     private AssuranceSession parentSession = null;
 
     private CaptureScreenShotListener listener;
 
+    private final Executor encodeExecutor;
+    private final AssuranceScreenCapturer screenCapturer = new AssuranceScreenCapturer();
+
+    // blob ids of the screenshots uploaded during the session, keyed by their content key
+    private final Map<String, String> uploadedBlobIds =
+            new LinkedHashMap<String, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+                    return size() > MAX_UPLOADED_BLOB_IDS;
+                }
+            };
+
+    AssurancePluginScreenshot() {
+        this(createEncodeExecutor());
+    }
+
+    @VisibleForTesting
+    AssurancePluginScreenshot(final Executor encodeExecutor) {
+        this.encodeExecutor = encodeExecutor;
+    }
+
     @Override
     public String getVendor() {
         return AssuranceConstants.VENDOR_ASSURANCE_MOBILE;
@@ -45,19 +88,23 @@ class AssurancePluginScreenshot implements AssurancePlugin {
     /** This method will be invoked only if the control event is of type "screenshot" */
     @Override
     public void onEventReceived(final AssuranceEvent event) {
-        // we don't need to verify any controlDetails for this event
+        final ScreenshotOptions options = ScreenshotOptions.from(event.getControlDetail());
         listener =
                 new CaptureScreenShotListener() {
                     @Override
-                    public void onCaptureScreenshot(Bitmap bitmap) {
-                        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                        int quality = 100;
-                        bitmap.compress(Bitmap.CompressFormat.JPEG, quality, baos);
-                        sendScreenshot(baos);
+                    public void onCaptureScreenshot(final Bitmap bitmap) {
+                        // encode off the main thread, the listener is called on the main thread
+                        encodeExecutor.execute(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        processScreenshot(bitmap, options);
+                                    }
+                                });
                     }
                 };
 
-        getCurrentScreenShot(listener);
+        getCurrentScreenShot(listener, options.scale);
     }
 
     @Override
@@ -78,9 +125,16 @@ class AssurancePluginScreenshot implements AssurancePlugin {
     @Override
     public void onSessionTerminated() {
         parentSession = null;
+
+        synchronized (uploadedBlobIds) {
+            uploadedBlobIds.clear();
+        }
+
+        screenCapturer.clear();
     }
 
-    private void getCurrentScreenShot(final CaptureScreenShotListener captureScreenShotListener) {
+    private void getCurrentScreenShot(
+            final CaptureScreenShotListener captureScreenShotListener, final float scale) {
         if (parentSession == null) {
             Log.error(
                     Assurance.LOG_TAG,
@@ -94,25 +148,85 @@ class AssurancePluginScreenshot implements AssurancePlugin {
                 ServiceProvider.getInstance().getAppContextService().getCurrentActivity();
 
         if (currentActivity != null) {
-            currentActivity.runOnUiThread(
-                    new Runnable() {
+            screenCapturer.capture(
+                    currentActivity,
+                    scale,
+                    new AssuranceScreenCapturer.Callback() {
                         @Override
-                        public void run() {
-                            View currentWindow =
-                                    currentActivity.getWindow().getDecorView().getRootView();
-                            currentWindow.setDrawingCacheEnabled(true);
-                            Bitmap bitmap = Bitmap.createBitmap(currentWindow.getDrawingCache());
-                            currentWindow.setDrawingCacheEnabled(false);
-
-                            if (captureScreenShotListener != null) {
-                                captureScreenShotListener.onCaptureScreenshot(bitmap);
-                            }
+                        public void onCaptured(final Bitmap bitmap) {
+                            captureScreenShotListener.onCaptureScreenshot(bitmap);
+                        }
+
+                        @Override
+                        public void onCaptureFailed(final String reason) {
+                            Log.warning(
+                                    Assurance.LOG_TAG,
+                                    LOG_TAG,
+                                    "Unable to take screenshot. " + reason);
                         }
                     });
         }
     }
 
-    private void sendScreenshot(final ByteArrayOutputStream baos) {
+    /**
+     * Encodes and uploads the captured bitmap, unless an identical capture was already uploaded
+     * during this session, in which case its blob is reused.
+     */
+    private void processScreenshot(final Bitmap bitmap, final ScreenshotOptions options) {
+        final String contentKey;
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+
+        try {
+            contentKey = getContentKey(bitmap, options);
+            final String uploadedBlobId = getUploadedBlobId(contentKey);
+
+            if (uploadedBlobId != null) {
+                Log.debug(
+                        Assurance.LOG_TAG,
+                        LOG_TAG,
+                        "Screen is unchanged since a previous screenshot, reusing blob %s.",
+                        uploadedBlobId);
+                queueScreenshotEvent(uploadedBlobId, options.mimeType);
+                return;
+            }
+
+            bitmap.compress(options.compressFormat, options.quality, baos);
+        } finally {
+            screenCapturer.releaseBitmap(bitmap);
+        }
+
+        sendScreenshot(baos, options.mimeType, contentKey);
+    }
+
+    /**
+     * Returns a key identifying the encoded contents of the bitmap, made of its dimensions, the
+     * encoding options and a 64-bit FNV-1a hash of its pixels.
+     */
+    @VisibleForTesting
+    static String getContentKey(final Bitmap bitmap, final ScreenshotOptions options) {
+        final int width = bitmap.getWidth();
+        final int height = bitmap.getHeight();
+        final long hash =
+                AssuranceScreenCapturer.hashPixels(bitmap, 0, 0, width, height, new int[width]);
+
+        return String.format(
+                Locale.US,
+                "%dx%d|%s|%d|%016x",
+                width,
+                height,
+                options.mimeType,
+                options.quality,
+                hash);
+    }
+
+    private String getUploadedBlobId(final String contentKey) {
+        synchronized (uploadedBlobIds) {
+            return uploadedBlobIds.get(contentKey);
+        }
+    }
+
+    private void sendScreenshot(
+            final ByteArrayOutputStream baos, final String mimeType, final String contentKey) {
         if (parentSession == null) {
             Log.error(
                     Assurance.LOG_TAG,
@@ -123,30 +237,16 @@ class AssurancePluginScreenshot implements AssurancePlugin {
 
         AssuranceBlob.upload(
                 baos.toByteArray(),
-                "image/jpeg",
+                mimeType,
                 parentSession,
                 new AssuranceBlob.BlobUploadCallback() {
                     @Override
                     public void onSuccess(final String blobID) {
-                        final Map<String, Object> responsePayload = new HashMap<>();
-                        responsePayload.put(PAYLOAD_BLOBID, blobID);
-                        responsePayload.put(PAYLOAD_MIMETYPE, "image/png");
-                        final AssuranceEvent screenshotEvent =
-                                new AssuranceEvent(
-                                        AssuranceConstants.AssuranceEventType.BLOB,
-                                        responsePayload);
-
-                        if (parentSession != null) {
-                            parentSession.logLocalUI(UILogColorVisibility.LOW, "Screenshot taken");
-                            parentSession.queueOutboundEvent(screenshotEvent);
-                        } else {
-                            Log.warning(
-                                    Assurance.LOG_TAG,
-                                    LOG_TAG,
-                                    "Assurance Session instance is null for"
-                                        + " AssurancePluginScreenshot, Cannot send the screenshot"
-                                        + " event.");
+                        synchronized (uploadedBlobIds) {
+                            uploadedBlobIds.put(contentKey, blobID);
                         }
+
+                        queueScreenshotEvent(blobID, mimeType);
                     }
 
                     @Override
@@ -171,6 +271,25 @@ class AssurancePluginScreenshot implements AssurancePlugin {
                 });
     }
 
+    private void queueScreenshotEvent(final String blobID, final String mimeType) {
+        final Map<String, Object> responsePayload = new HashMap<>();
+        responsePayload.put(PAYLOAD_BLOBID, blobID);
+        responsePayload.put(PAYLOAD_MIMETYPE, mimeType);
+        final AssuranceEvent screenshotEvent =
+                new AssuranceEvent(AssuranceConstants.AssuranceEventType.BLOB, responsePayload);
+
+        if (parentSession != null) {
+            parentSession.logLocalUI(UILogColorVisibility.LOW, "Screenshot taken");
+            parentSession.queueOutboundEvent(screenshotEvent);
+        } else {
+            Log.warning(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Assurance Session instance is null for AssurancePluginScreenshot, Cannot send"
+                            + " the screenshot event.");
+        }
+    }
+
     /**
      * Returns the session associated with this plugin.
      *
@@ -191,7 +310,102 @@ class AssurancePluginScreenshot implements AssurancePlugin {
         return listener;
     }
 
+    /**
+     * Returns the time the main thread was blocked by the most recent screenshot capture.
+     *
+     * @return the blocking time in nanoseconds
+     */
+    @VisibleForTesting
+    long getLastMainThreadBlockingNanos() {
+        return screenCapturer.getLastMainThreadBlockingNanos();
+    }
+
+    private static Executor createEncodeExecutor() {
+        final ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        ENCODER_THREAD_KEEP_ALIVE_SECONDS,
+                        TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(),
+                        runnable -> {
+                            final Thread thread = new Thread(runnable, "AssuranceScreenshot");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     interface CaptureScreenShotListener {
         void onCaptureScreenshot(Bitmap bitmap);
     }
+
+    /** The capture options provided in the details of a screenshot control event. */
+    @VisibleForTesting
+    static final class ScreenshotOptions {
+        private static final float DEFAULT_SCALE = 1.0f;
+        private static final int DEFAULT_QUALITY = 100;
+
+        final float scale;
+        final int quality;
+        final Bitmap.CompressFormat compressFormat;
+        final String mimeType;
+
+        private ScreenshotOptions(
+                final float scale,
+                final int quality,
+                final Bitmap.CompressFormat compressFormat,
+                final String mimeType) {
+            this.scale = scale;
+            this.quality = quality;
+            this.compressFormat = compressFormat;
+            this.mimeType = mimeType;
+        }
+
+        /**
+         * Reads the options from the control event details, using the defaults for missing or
+         * invalid values.
+         *
+         * @param details the control event details, may be null
+         * @return the {@code ScreenshotOptions} to capture with
+         */
+        @SuppressWarnings("deprecation")
+        static ScreenshotOptions from(final Map<String, Object> details) {
+            float scale = DEFAULT_SCALE;
+            int quality = DEFAULT_QUALITY;
+            Bitmap.CompressFormat compressFormat = Bitmap.CompressFormat.JPEG;
+            String mimeType = "image/jpeg";
+
+            if (details == null) {
+                return new ScreenshotOptions(scale, quality, compressFormat, mimeType);
+            }
+
+            final Object scaleValue = details.get(ScreenshotKeys.SCALE);
+
+            if (scaleValue instanceof Number) {
+                final float requestedScale = ((Number) scaleValue).floatValue();
+
+                if (requestedScale > 0 && requestedScale <= 1) {
+                    scale = requestedScale;
+                }
+            }
+
+            final Object qualityValue = details.get(ScreenshotKeys.QUALITY);
+
+            if (qualityValue instanceof Number) {
+                quality = Math.max(0, Math.min(100, ((Number) qualityValue).intValue()));
+            }
+
+            if (ScreenshotKeys.FORMAT_WEBP.equals(details.get(ScreenshotKeys.FORMAT))) {
+                compressFormat =
+                        Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                                ? Bitmap.CompressFormat.WEBP_LOSSY
+                                : Bitmap.CompressFormat.WEBP;
+                mimeType = "image/webp";
+            }
+
+            return new ScreenshotOptions(scale, quality, compressFormat, mimeType);
+        }
+    }
 }
@@ -0,0 +1,270 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.PixelCopy;
+import android.view.View;
+import android.view.Window;
+import androidx.annotation.RequiresApi;
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.Locale;
+
+/**
+ * Captures the window of an activity into a downscaled bitmap.
+ *
+ * <p>The window is copied with {@link PixelCopy} (API 26+), so that the main thread is only used
+ * to request the copy. Older devices, or windows without a surface, draw the root view into the
+ * bitmap instead. Bitmaps are reused between captures of the same size: the receiver of a capture
+ * must call {@link #releaseBitmap(Bitmap)} once it is done with the bitmap.
+ */
+class AssuranceScreenCapturer {
+    private static final String LOG_TAG = "AssuranceScreenCapturer";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** Receives the result of a capture on the main thread. */
+    interface Callback {
+        /**
+         * Called with the captured bitmap, which must be released with {@link
+         * #releaseBitmap(Bitmap)} once it is no longer used.
+         *
+         * @param bitmap the captured bitmap
+         */
+        void onCaptured(final Bitmap bitmap);
+
+        /**
+         * Called when the window could not be captured.
+         *
+         * @param reason the reason of the failure
+         */
+        void onCaptureFailed(final String reason);
+    }
+
+    private final Object bitmapLock = new Object();
+    private Bitmap reusableBitmap;
+    private boolean reusableBitmapInUse;
+    private volatile long lastMainThreadBlockingNanos;
+
+    /**
+     * Captures the window of the provided activity, scaled by the provided factor.
+     *
+     * @param activity the {@link Activity} whose window is captured
+     * @param scale the factor to scale the window by, between 0 and 1
+     * @param callback the {@link Callback} to notify on the main thread
+     */
+    void capture(final Activity activity, final float scale, final Callback callback) {
+        activity.runOnUiThread(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        final long startTime = System.nanoTime();
+                        final Bitmap drawnBitmap =
+                                captureWindow(activity.getWindow(), scale, callback);
+                        recordMainThreadBlocking(System.nanoTime() - startTime);
+
+                        if (drawnBitmap != null) {
+                            callback.onCaptured(drawnBitmap);
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Makes a bitmap provided by a capture available for reuse.
+     *
+     * @param bitmap the captured bitmap
+     */
+    void releaseBitmap(final Bitmap bitmap) {
+        synchronized (bitmapLock) {
+            if (bitmap == reusableBitmap) {
+                reusableBitmapInUse = false;
+            }
+        }
+    }
+
+    /** Drops the reusable bitmap, so that its memory can be reclaimed. */
+    void clear() {
+        synchronized (bitmapLock) {
+            reusableBitmap = null;
+            reusableBitmapInUse = false;
+        }
+    }
+
+    /**
+     * Returns the time the main thread was blocked by the most recent capture.
+     *
+     * @return the blocking time in nanoseconds
+     */
+    long getLastMainThreadBlockingNanos() {
+        return lastMainThreadBlockingNanos;
+    }
+
+    /**
+     * Returns a 64-bit FNV-1a hash of the pixels in the provided region of the bitmap.
+     *
+     * @param bitmap the bitmap to hash
+     * @param left the left edge of the region
+     * @param top the top edge of the region
+     * @param width the width of the region
+     * @param height the height of the region
+     * @param rowBuffer a buffer of at least {@code width} pixels used to read the bitmap
+     * @return the hash of the pixels in the region
+     */
+    static long hashPixels(
+            final Bitmap bitmap,
+            final int left,
+            final int top,
+            final int width,
+            final int height,
+            final int[] rowBuffer) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (int y = top; y < top + height; y++) {
+            bitmap.getPixels(rowBuffer, 0, width, left, y, width, 1);
+
+            for (int x = 0; x < width; x++) {
+                hash = (hash ^ rowBuffer[x]) * FNV_PRIME;
+            }
+        }
+
+        return hash;
+    }
+
+    /**
+     * Copies the contents of the window into a bitmap scaled by the provided factor. Must be called
+     * on the main thread.
+     *
+     * @return the bitmap if it was drawn synchronously, or null if a {@link PixelCopy} was
+     *     requested or the window cannot be captured
+     */
+    private Bitmap captureWindow(final Window window, final float scale, final Callback callback) {
+        final View rootView = window.getDecorView().getRootView();
+
+        if (rootView.getWidth() <= 0 || rootView.getHeight() <= 0) {
+            Log.warning(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Unable to capture the screen, the current window has not been laid out.");
+            callback.onCaptureFailed("The current window has not been laid out.");
+            return null;
+        }
+
+        final int width = Math.max(1, Math.round(rootView.getWidth() * scale));
+        final int height = Math.max(1, Math.round(rootView.getHeight() * scale));
+        final Bitmap bitmap = obtainBitmap(width, height);
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O
+                && requestPixelCopy(window, rootView, bitmap, callback)) {
+            return null;
+        }
+
+        drawView(rootView, bitmap);
+        return bitmap;
+    }
+
+    /**
+     * Requests a copy of the window into the bitmap.
+     *
+     * @return true if the copy was requested, false if the window does not have a surface
+     */
+    @RequiresApi(api = Build.VERSION_CODES.O)
+    private boolean requestPixelCopy(
+            final Window window,
+            final View rootView,
+            final Bitmap bitmap,
+            final Callback callback) {
+        try {
+            PixelCopy.request(
+                    window,
+                    bitmap,
+                    new PixelCopy.OnPixelCopyFinishedListener() {
+                        @Override
+                        public void onPixelCopyFinished(final int copyResult) {
+                            if (copyResult != PixelCopy.SUCCESS) {
+                                Log.debug(
+                                        Assurance.LOG_TAG,
+                                        LOG_TAG,
+                                        "PixelCopy failed with result %d, drawing the view"
+                                                + " instead.",
+                                        copyResult);
+                                final long startTime = System.nanoTime();
+                                drawView(rootView, bitmap);
+                                recordMainThreadBlocking(System.nanoTime() - startTime);
+                            }
+
+                            callback.onCaptured(bitmap);
+                        }
+                    },
+                    new Handler(Looper.getMainLooper()));
+            return true;
+        } catch (final IllegalArgumentException e) {
+            // thrown when the window does not have a surface yet
+            Log.debug(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Unable to request PixelCopy, drawing the view instead. Error: %s",
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    /** Draws the view into the provided bitmap, scaled to the size of the bitmap. */
+    private void drawView(final View rootView, final Bitmap bitmap) {
+        bitmap.eraseColor(Color.TRANSPARENT);
+        final Canvas canvas = new Canvas(bitmap);
+        canvas.scale(
+                bitmap.getWidth() / (float) rootView.getWidth(),
+                bitmap.getHeight() / (float) rootView.getHeight());
+        rootView.draw(canvas);
+    }
+
+    /**
+     * Returns the reusable bitmap if it has the requested size and is not in use, or a new bitmap
+     * otherwise.
+     */
+    private Bitmap obtainBitmap(final int width, final int height) {
+        synchronized (bitmapLock) {
+            if (reusableBitmapInUse) {
+                return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            }
+
+            if (reusableBitmap == null
+                    || reusableBitmap.isRecycled()
+                    || reusableBitmap.getWidth() != width
+                    || reusableBitmap.getHeight() != height) {
+                reusableBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            }
+
+            reusableBitmapInUse = true;
+            return reusableBitmap;
+        }
+    }
+
+    private void recordMainThreadBlocking(final long blockingNanos) {
+        lastMainThreadBlockingNanos = blockingNanos;
+        Log.trace(
+                Assurance.LOG_TAG,
+                LOG_TAG,
+                String.format(
+                        Locale.US,
+                        "Screen capture blocked the main thread for %.2f ms.",
+                        blockingNanos / 1_000_000.0));
+    }
+}
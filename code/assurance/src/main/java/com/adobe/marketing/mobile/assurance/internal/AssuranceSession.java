@@ -25,6 +25,7 @@ import java.nio.charset.UnsupportedCharsetException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -41,8 +42,9 @@ import org.json.JSONException;
 class AssuranceSession implements AssuranceWebViewSocketHandler {
     private static final String LOG_TAG = "AssuranceSession";
     private static final String CONNECTION_URL_FORMAT =
-            "wss://connect%s.griffon.adobe.com/client/v1"
-                    + "?sessionId=%s&token=%s&orgId=%s&clientId=%s";
+            "wss://"
+                    + AssuranceConstants.SocketKeys.HOST_FORMAT
+                    + "/client/v1?sessionId=%s&token=%s&orgId=%s&clientId=%s";
     private static final long SOCKET_RECONNECT_TIME_DELAY = TimeUnit.SECONDS.toMillis(5);
 
     private final AssuranceStateManager assuranceStateManager;
@@ -71,7 +73,15 @@ class AssuranceSession implements AssuranceWebViewSocketHandler {
                     // about this event.
                     if (AssuranceConstants.ControlType.START_EVENT_FORWARDING.equals(
                             event.getControlType())) {
-                        onStartForwardingEvent();
+                        onStartForwardingEvent(event);
+                        return;
+                    }
+
+                    // The server does not know the app settings for the hash in the last client
+                    // info event and requests them.
+                    if (AssuranceConstants.ControlType.CLIENT_INFO_REQUEST.equals(
+                            event.getControlType())) {
+                        outboundEventQueueWorker.sendFullClientInfoEvent();
                         return;
                     }
 
@@ -103,7 +113,12 @@ class AssuranceSession implements AssuranceWebViewSocketHandler {
         this.authorizingPresentationType = authorizingPresentationType;
 
         assuranceSessionPresentationManager =
-                new AssuranceSessionPresentationManager(authorizingPresentationType);
+                new AssuranceSessionPresentationManager(
+                        authorizingPresentationType,
+                        FloatingButtonMode.fromConfigValue(
+                                assuranceStateManager.getConfigurationString(
+                                        AssuranceConstants.SDKConfigurationKey
+                                                .FLOATING_BUTTON_MODE)));
 
         this.authorizingPresentationDelegate = authorizingPresentationDelegate;
         registerStatusListener(authorizingPresentationDelegate);
@@ -208,6 +223,15 @@ class AssuranceSession implements AssuranceWebViewSocketHandler {
         }
     }
 
+    /**
+     * Returns the number of events queued in the outbound queue and not sent yet.
+     *
+     * @return the depth of the outbound queue
+     */
+    int getOutboundQueueDepth() {
+        return outboundEventQueueWorker.size();
+    }
+
     void addPlugin(final AssurancePlugin plugin) {
         pluginManager.addPlugin(plugin);
     }
@@ -443,13 +467,37 @@ class AssuranceSession implements AssuranceWebViewSocketHandler {
      * following :
      *
      * <ol>
+     *   <li>Apply the event encoding chosen by the server, if any.
+     *   <li>Enable shared state deltas if the server opted into them.
+     *   <li>Leave the app settings out of later clientInfo events if the server caches them.
      *   <li>Unblock the outbound queue worker.
      *   <li>Remove the WebView UI and display the floating button.
      *   <li>Share the Assurance shared state as necessary.
      *   <li>Notify the client plugins on successful connection.
      * </ol>
+     *
+     * @param event the {@code AssuranceEvent} of control type {@code START_EVENT_FORWARDING}
      */
-    private void onStartForwardingEvent() {
+    private void onStartForwardingEvent(final AssuranceEvent event) {
+        final Map<String, Object> controlDetail = event.getControlDetail();
+        final Object encoding =
+                controlDetail == null
+                        ? null
+                        : controlDetail.get(AssuranceConstants.ControlDetailKeys.ENCODING);
+        outboundEventQueueWorker.setEventEncoding(
+                encoding instanceof String ? (String) encoding : null);
+        final Object stateDeltas =
+                controlDetail == null
+                        ? null
+                        : controlDetail.get(AssuranceConstants.ControlDetailKeys.STATE_DELTAS);
+        outboundEventQueueWorker.setStateDeltasEnabled(Boolean.TRUE.equals(stateDeltas));
+        final Object appSettingsCached =
+                controlDetail == null
+                        ? null
+                        : controlDetail.get(
+                                AssuranceConstants.ControlDetailKeys.APP_SETTINGS_CACHED);
+        outboundEventQueueWorker.setServerCachesAppSettings(
+                Boolean.TRUE.equals(appSettingsCached));
         outboundEventQueueWorker.unblock();
         assuranceSessionPresentationManager.onSessionConnected();
         notifySessionConnection();
@@ -459,10 +507,9 @@ class AssuranceSession implements AssuranceWebViewSocketHandler {
         // then populate the griffon session with all the available shared state details (Both XDM
         // and Regular)
         if (didClearBootEvents) {
-            for (final AssuranceEvent stateEvent :
-                    assuranceStateManager.getAllExtensionStateData()) {
-                queueOutboundEvent(stateEvent);
-            }
+            // queued as they are fetched, so that the first states are sent without waiting for
+            // the complete snapshot
+            assuranceStateManager.forEachExtensionStateData(this::queueOutboundEvent);
         }
 
         pluginManager.onSessionConnected();
@@ -22,7 +22,6 @@ import androidx.annotation.VisibleForTesting;
 import com.adobe.marketing.mobile.Assurance;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.StringUtils;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -46,10 +45,16 @@ class AssuranceSessionOrchestrator {
      * A buffer for holding the events until the initial Assurance session associated with the app
      * launch happens. This is emptied once a session has been connected.
      */
-    private List<AssuranceEvent> outboundEventBuffer;
+    private volatile OutboundEventBuffer outboundEventBuffer;
 
     private final SessionUIOperationHandler sessionUIOperationHandler;
 
+    /**
+     * Invoked when the queued events are purged, to also discard the events captured but not yet
+     * queued with the orchestrator.
+     */
+    private volatile Runnable purgeListener;
+
     /**
      * Responsible for listening to the state of the session connection. Required for releasing
      * resources associated with the session (if any).
@@ -58,13 +63,15 @@ class AssuranceSessionOrchestrator {
             new AssuranceSessionStatusListener() {
                 @Override
                 public void onSessionConnected() {
-                    if (outboundEventBuffer == null) {
+                    final OutboundEventBuffer buffer = outboundEventBuffer;
+
+                    if (buffer == null) {
                         return;
                     }
 
                     // Once a session has been connected, orchestrator is no longer required to
                     // hold the buffer of events.
-                    outboundEventBuffer.clear();
+                    buffer.clear();
                     outboundEventBuffer = null;
                 }
 
@@ -113,7 +120,7 @@ class AssuranceSessionOrchestrator {
         this.plugins = plugins;
         this.connectionURLStore = connectionURLStore;
         this.activityLifecycleObserver = new HostAppActivityLifecycleObserver(this);
-        this.outboundEventBuffer = new ArrayList<>();
+        this.outboundEventBuffer = new OutboundEventBuffer();
         this.sessionCreator = sessionCreator;
         this.sessionUIOperationHandler = new SessionUIOperationHandler(this);
 
@@ -149,6 +156,8 @@ class AssuranceSessionOrchestrator {
             return;
         }
 
+        final OutboundEventBuffer buffer = outboundEventBuffer;
+
         // create a new session
         session =
                 sessionCreator.create(
@@ -158,10 +167,20 @@ class AssuranceSessionOrchestrator {
                         assuranceStateManager,
                         plugins,
                         connectionURLStore,
-                        outboundEventBuffer,
+                        buffer == null ? null : buffer.snapshot(),
                         statusListener,
                         authorizingPresentationType);
 
+        if (buffer != null && buffer.getDroppedCount() > 0) {
+            final String message =
+                    String.format(
+                            "%d events were dropped before the session was created as the buffer"
+                                    + " limit was reached.",
+                            buffer.getDroppedCount());
+            Log.warning(Assurance.LOG_TAG, LOG_TAG, message);
+            session.logLocalUI(AssuranceConstants.UILogColorVisibility.HIGH, message);
+        }
+
         // register the session status listener for orchestrator to manage the outboundEventBuffer.
         session.registerStatusListener(sessionStatusListener);
 
@@ -183,13 +202,21 @@ class AssuranceSessionOrchestrator {
                 LOG_TAG,
                 "Terminating active session purging Assurance shared state");
 
-        if (purgeBuffer && outboundEventBuffer != null) {
+        final OutboundEventBuffer buffer = outboundEventBuffer;
+
+        if (purgeBuffer && buffer != null) {
             Log.debug(Assurance.LOG_TAG, LOG_TAG, "Clearing the queued events.");
 
-            outboundEventBuffer.clear();
+            buffer.clear();
             outboundEventBuffer = null;
         }
 
+        final Runnable listener = purgeListener;
+
+        if (purgeBuffer && listener != null) {
+            listener.run();
+        }
+
         assuranceStateManager.clearAssuranceSharedState();
 
         if (session != null) {
@@ -199,6 +226,15 @@ class AssuranceSessionOrchestrator {
         }
     }
 
+    /**
+     * Sets the listener invoked when the queued events are purged on terminating the session.
+     *
+     * @param listener the listener to be invoked, or null to remove it
+     */
+    void setPurgeListener(@Nullable final Runnable listener) {
+        this.purgeListener = listener;
+    }
+
     /**
      * Attempt to reconnect to a previously connected session that has not been explicitly
      * disconnected by the user via a valid connection url.
@@ -265,8 +301,10 @@ class AssuranceSessionOrchestrator {
         // We still want to queue the events to the buffer until the session is connected.
         // This ensures that even a session cancellation will allow sending the buffered events
         // in forthcoming session that successfully connects.
-        if (outboundEventBuffer != null) {
-            outboundEventBuffer.add(event);
+        final OutboundEventBuffer buffer = outboundEventBuffer;
+
+        if (buffer != null) {
+            buffer.add(event);
         }
 
         // Drop the event otherwise.
@@ -296,11 +334,20 @@ class AssuranceSessionOrchestrator {
     static class HostAppActivityLifecycleObserver
             implements Application.ActivityLifecycleCallbacks {
         private final AssuranceSessionOrchestrator sessionOrchestrator;
+        private final ActivityResumeOverhead resumeOverhead = new ActivityResumeOverhead();
+        // the activities started and not stopped yet, on the main thread
+        private int startedActivityCount;
 
         HostAppActivityLifecycleObserver(final AssuranceSessionOrchestrator sessionOrchestrator) {
             this.sessionOrchestrator = sessionOrchestrator;
         }
 
+        /** Exists ONLY for test convenience. */
+        @VisibleForTesting
+        ActivityResumeOverhead getResumeOverhead() {
+            return resumeOverhead;
+        }
+
         @Override
         public void onActivityCreated(
                 @NonNull Activity activity, @Nullable Bundle savedInstanceState) {
@@ -320,26 +367,39 @@ class AssuranceSessionOrchestrator {
 
         @Override
         public void onActivityResumed(@NonNull Activity activity) {
+            final long startNanos = System.nanoTime();
             Log.trace(
                     Assurance.LOG_TAG,
                     LOG_TAG,
-                    "Session Activity Hook - onActivityResumed called "
-                            + activity.getClass().getCanonicalName());
+                    "Session Activity Hook - onActivityResumed called %s",
+                    activity.getClass().getCanonicalName());
             final AssuranceSession activeSession = sessionOrchestrator.getActiveSession();
 
             if (activeSession != null) {
                 activeSession.onActivityResumed(activity);
             }
+
+            resumeOverhead.record(activeSession != null, System.nanoTime() - startNanos);
         }
 
         @Override
-        public void onActivityStarted(@NonNull Activity activity) {}
+        public void onActivityStarted(@NonNull Activity activity) {
+            startedActivityCount++;
+        }
 
         @Override
         public void onActivityPaused(@NonNull Activity activity) {}
 
         @Override
-        public void onActivityStopped(@NonNull Activity activity) {}
+        public void onActivityStopped(@NonNull Activity activity) {
+            // activities started before the observer was registered are not counted
+            startedActivityCount = Math.max(0, startedActivityCount - 1);
+
+            if (startedActivityCount == 0) {
+                // the app went to the background, where it may be killed at any time
+                AssuranceWriteBehindStore.flushAll();
+            }
+        }
 
         @Override
         public void onActivitySaveInstanceState(
@@ -19,6 +19,8 @@ import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.UILogCol
 import com.adobe.marketing.mobile.assurance.internal.AssuranceWebViewSocket.SocketReadyState
 import com.adobe.marketing.mobile.assurance.internal.ui.AssuranceActivity
 import com.adobe.marketing.mobile.assurance.internal.ui.floatingbutton.AssuranceFloatingButton
+import com.adobe.marketing.mobile.assurance.internal.ui.floatingbutton.AssuranceFloatingButtonOverlay
+import com.adobe.marketing.mobile.assurance.internal.ui.floatingbutton.AssuranceFloatingButtonPresenter
 import com.adobe.marketing.mobile.services.ServiceProvider
 
 /** Manages the UI elements required for an Assurance Session.  */
@@ -29,17 +31,30 @@ internal class AssuranceSessionPresentationManager {
     }
 
     private val authorizingPresentationType: SessionAuthorizingPresentationType
-    private val button: AssuranceFloatingButton
+    private val button: AssuranceFloatingButtonPresenter
 
     constructor(authorizingPresentationType: SessionAuthorizingPresentationType) : this(
         authorizingPresentationType,
-        AssuranceFloatingButton(ServiceProvider.getInstance().appContextService)
+        FloatingButtonMode.PRESENTABLE
+    )
+
+    constructor(
+        authorizingPresentationType: SessionAuthorizingPresentationType,
+        floatingButtonMode: FloatingButtonMode
+    ) : this(
+        authorizingPresentationType,
+        when (floatingButtonMode) {
+            FloatingButtonMode.PRESENTABLE ->
+                AssuranceFloatingButton(ServiceProvider.getInstance().appContextService)
+            FloatingButtonMode.OVERLAY ->
+                AssuranceFloatingButtonOverlay(ServiceProvider.getInstance().appContextService)
+        }
     )
 
     @VisibleForTesting
     constructor(
         authorizingPresentationType: SessionAuthorizingPresentationType,
-        assuranceFloatingButton: AssuranceFloatingButton
+        assuranceFloatingButton: AssuranceFloatingButtonPresenter
     ) {
         this.authorizingPresentationType = authorizingPresentationType
         this.button = assuranceFloatingButton
@@ -138,7 +153,10 @@ internal class AssuranceSessionPresentationManager {
         if (AssuranceUtil.isAssuranceActivity(activity)) {
             if (button.isActive()) button.hide()
         } else {
-            if (button.isActive()) button.show()
+            if (button.isActive()) {
+                button.attach(activity)
+                button.show()
+            }
         }
 
         if (isAuthorizingPresentationActive()) {
@@ -191,3 +209,31 @@ internal class AssuranceSessionPresentationManager {
 internal enum class SessionAuthorizingPresentationType {
     PIN, QUICK_CONNECT
 }
+
+/**
+ * The way the floating button displaying Assurance connectivity is presented, configured with the
+ * [AssuranceConstants.SDKConfigurationKey.FLOATING_BUTTON_MODE] configuration key.
+ */
+internal enum class FloatingButtonMode(internal val configValue: String) {
+    /**
+     * Presented by the UI service of the SDK, re-attached to every activity that resumes.
+     */
+    PRESENTABLE("presentable"),
+
+    /**
+     * A lightweight view attached once to the window of every activity, see
+     * [AssuranceFloatingButtonOverlay].
+     */
+    OVERLAY("overlay");
+
+    companion object {
+        /**
+         * Returns the mode for the given configuration value, [PRESENTABLE] if it is unknown.
+         * @param configValue the value of the configuration key
+         */
+        @JvmStatic
+        fun fromConfigValue(configValue: String?): FloatingButtonMode =
+            values().firstOrNull { it.configValue.equals(configValue, ignoreCase = true) }
+                ?: PRESENTABLE
+    }
+}
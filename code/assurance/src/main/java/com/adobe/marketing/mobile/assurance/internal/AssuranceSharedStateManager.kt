@@ -11,24 +11,40 @@
 
 package com.adobe.marketing.mobile.assurance.internal
 
+import androidx.annotation.VisibleForTesting
 import com.adobe.marketing.mobile.Assurance
 import com.adobe.marketing.mobile.services.DataStoring
 import com.adobe.marketing.mobile.services.Log
 import com.adobe.marketing.mobile.services.NamedCollection
 import java.util.UUID
+import java.util.concurrent.ScheduledExecutorService
 
 /**
- * A class that manages the persistence of Assurance shared state.
+ * A class that manages the persistence of Assurance shared state. The state is loaded once and
+ * persisted through an [AssuranceWriteBehindStore], off the calling thread.
  * @param dataStoreService the data store service to use for persistence.
+ * @param flushScheduler the scheduler of the thread the state is persisted on
  */
-internal class AssuranceSharedStateManager(dataStoreService: DataStoring) {
+internal class AssuranceSharedStateManager @VisibleForTesting internal constructor(
+    dataStoreService: DataStoring,
+    flushScheduler: ScheduledExecutorService
+) {
     internal companion object {
         private const val LOG_TAG = "AssuranceSharedStateManager"
     }
 
+    constructor(dataStoreService: DataStoring) : this(
+        dataStoreService,
+        AssuranceWriteBehindStore.getDefaultFlushScheduler()
+    )
+
     private val assuranceDataStore: NamedCollection? =
         dataStoreService.getNamedCollection(AssuranceConstants.DataStoreKeys.DATASTORE_NAME)
 
+    private val writeBehindStore: AssuranceWriteBehindStore? = assuranceDataStore?.let {
+        AssuranceWriteBehindStore(AssuranceWriteBehindStore.forNamedCollection(it), flushScheduler)
+    }
+
     var assuranceSharedState: AssuranceSharedState
 
     init {
@@ -92,7 +108,7 @@ internal class AssuranceSharedStateManager(dataStoreService: DataStoring) {
      * @param stateToPersist the Assurance shared state to persist
      */
     private fun persist(stateToPersist: AssuranceSharedState) {
-        if (assuranceDataStore == null) {
+        if (writeBehindStore == null) {
             Log.warning(
                 Assurance.LOG_TAG,
                 LOG_TAG,
@@ -101,22 +117,13 @@ internal class AssuranceSharedStateManager(dataStoreService: DataStoring) {
             return
         }
 
-        if (stateToPersist.clientId.isBlank()) {
-            assuranceDataStore.remove(AssuranceConstants.DataStoreKeys.CLIENT_ID)
-        } else {
-            assuranceDataStore.setString(
-                AssuranceConstants.DataStoreKeys.CLIENT_ID,
-                stateToPersist.clientId
-            )
-        }
-
-        if (stateToPersist.sessionId.isBlank()) {
-            assuranceDataStore.remove(AssuranceConstants.DataStoreKeys.SESSION_ID)
-        } else {
-            assuranceDataStore.setString(
-                AssuranceConstants.DataStoreKeys.SESSION_ID,
-                stateToPersist.sessionId
-            )
-        }
+        writeBehindStore.putString(
+            AssuranceConstants.DataStoreKeys.CLIENT_ID,
+            stateToPersist.clientId.ifBlank { null }
+        )
+        writeBehindStore.putString(
+            AssuranceConstants.DataStoreKeys.SESSION_ID,
+            stateToPersist.sessionId.ifBlank { null }
+        )
     }
 }
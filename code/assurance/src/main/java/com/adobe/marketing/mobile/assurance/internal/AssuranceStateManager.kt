@@ -12,6 +12,7 @@
 package com.adobe.marketing.mobile.assurance.internal
 
 import androidx.annotation.VisibleForTesting
+import com.adobe.marketing.mobile.AdobeCallback
 import com.adobe.marketing.mobile.Assurance
 import com.adobe.marketing.mobile.Event
 import com.adobe.marketing.mobile.EventSource
@@ -53,6 +54,7 @@ internal class AssuranceStateManager {
      * Most recent event received from the EventHub. Internally used for fetching states of other
      * extensions.
      */
+    @Volatile
     private var lastSDKEvent: Event? = null
 
     @JvmName("getSessionId")
@@ -144,56 +146,113 @@ internal class AssuranceStateManager {
         }
     }
 
+    /**
+     * Fetches a string value from the latest shared state of the configuration extension.
+     *
+     * @param key the configuration key to read
+     * @return the value configured for the app, null if the configuration or the value is
+     *     unavailable
+     */
+    @JvmName("getConfigurationString")
+    internal fun getConfigurationString(key: String): String? {
+        return DataReader.optString(getLatestConfiguration(), key, null)
+    }
+
+    /**
+     * Fetches a numeric value from the latest shared state of the configuration extension.
+     *
+     * @param key the configuration key to read
+     * @param fallback the value to return if the configuration or the value is unavailable
+     * @return the value configured for the app, [fallback] if the configuration or the value is
+     *     unavailable
+     */
+    @JvmName("getConfigurationLong")
+    internal fun getConfigurationLong(key: String, fallback: Long): Long {
+        return DataReader.optLong(getLatestConfiguration(), key, fallback)
+    }
+
+    private fun getLatestConfiguration(): Map<String, Any?>? {
+        val latestConfigSharedStateResult = extensionApi.getSharedState(
+            AssuranceConstants.SDKSharedStateName.CONFIGURATION,
+            lastSDKEvent,
+            false,
+            SharedStateResolution.ANY
+        )
+        if (!isSharedStateSet(latestConfigSharedStateResult)) {
+            return null
+        }
+
+        return latestConfigSharedStateResult?.value
+    }
+
     /**
      * Retrieves a list of [AssuranceEvent] with payloads containing regular and XDM shared
      * state of registered extension. Extension with null or empty states are ignored.
+     *
+     * @see forEachExtensionStateData
      */
     @JvmName("getAllExtensionStateData")
     internal fun getAllExtensionStateData(): List<AssuranceEvent> {
         val states: MutableList<AssuranceEvent> = mutableListOf()
+        forEachExtensionStateData(AdobeCallback { states.add(it) })
+        return states
+    }
+
+    /**
+     * Passes the [AssuranceEvent]s with payloads containing regular and XDM shared state of
+     * registered extension to [callback], each as soon as it is created, so that the first states
+     * can be sent while the others are still fetched. Extension with null or empty states are
+     * ignored.
+     *
+     * The states of all extensions are fetched relative to the same SDK event, so that the
+     * snapshot is consistent even if more events arrive meanwhile, and are passed in the order
+     * of the registered extensions.
+     *
+     * @param callback the [AdobeCallback] called with every state event
+     */
+    @JvmName("forEachExtensionStateData")
+    internal fun forEachExtensionStateData(callback: AdobeCallback<AssuranceEvent>) {
+        val sdkEvent = lastSDKEvent
         val eventHubSharedStateResult = extensionApi.getSharedState(
             AssuranceConstants.SDKSharedStateName.EVENTHUB,
-            lastSDKEvent,
+            sdkEvent,
             false,
             SharedStateResolution.ANY
         )
         if (!isSharedStateSet(eventHubSharedStateResult)) {
-            return states
+            return
         }
 
         val registeredExtensions: Map<String, Any?>? = eventHubSharedStateResult?.value
         // bail out early if the event hub shared state does not contain any registered extension
         // details
         if (registeredExtensions.isNullOrEmpty()) {
-            return states
+            return
         }
 
         // Add eventHub shared state details
-        states.addAll(
-            getStateForExtension(
-                AssuranceConstants.SDKSharedStateName.EVENTHUB,
-                "EventHub State"
-            )
-        )
+        getStateForExtension(
+            AssuranceConstants.SDKSharedStateName.EVENTHUB,
+            "EventHub State",
+            sdkEvent
+        ).forEach { callback.call(it) }
         val extensionsMap = DataReader.optTypedMap(
             Any::class.java,
             registeredExtensions,
             AssuranceConstants.SDKEventDataKey.EXTENSIONS,
             null
-        ) ?: return states
+        ) ?: return
 
         // loop through the registered extensions and add their states
         extensionsMap.keys.forEach { extensionName ->
             val friendlyName = getFriendlyExtensionName(extensionsMap, extensionName)
-            states.addAll(
-                getStateForExtension(
-                    extensionName,
-                    "$friendlyName State"
-                )
-            ) // an example of AssuranceEvent name is "UserProfile State"
+            // an example of AssuranceEvent name is "UserProfile State"
+            getStateForExtension(
+                extensionName,
+                "$friendlyName State",
+                sdkEvent
+            ).forEach { callback.call(it) }
         }
-
-        return states
     }
 
     /**
@@ -207,18 +266,20 @@ internal class AssuranceStateManager {
      * @param stateOwner [String] representing the shared state owner for which the content
      * has to be fetched
      * @param eventName `String` representing the eventName for the Assurance Event
+     * @param sdkEvent the SDK event relative to which the shared states are fetched
      * @return {@List} of `AssuranceEvents`
      */
     private fun getStateForExtension(
         stateOwner: String,
-        eventName: String
+        eventName: String,
+        sdkEvent: Event?
     ): List<AssuranceEvent> {
         val stateEvents: MutableList<AssuranceEvent> = mutableListOf()
 
         // create an event if the extension has a regular shared state
         val regularSharedState = extensionApi.getSharedState(
             stateOwner,
-            lastSDKEvent,
+            sdkEvent,
             false,
             SharedStateResolution.ANY
         )
@@ -236,7 +297,7 @@ internal class AssuranceStateManager {
         // create an event if the extension has a xdm shared state
         val xdmSharedState = extensionApi.getXDMSharedState(
             stateOwner,
-            lastSDKEvent,
+            sdkEvent,
             false,
             SharedStateResolution.ANY
         )
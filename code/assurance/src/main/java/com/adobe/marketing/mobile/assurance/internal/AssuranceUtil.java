@@ -21,6 +21,7 @@ import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.Assuranc
 import com.adobe.marketing.mobile.assurance.internal.ui.AssuranceActivity;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.UUID;
@@ -240,6 +241,58 @@ final class AssuranceUtil {
         return (activity instanceof AssuranceActivity);
     }
 
+    /**
+     * Estimates the size of the JSON representation of a value without serializing it.
+     *
+     * @param value the value whose size is to be estimated
+     * @return the estimated size in bytes
+     */
+    static long estimateJSONSize(final Object value) {
+        if (value == null) {
+            return 4;
+        }
+
+        if (value instanceof String) {
+            return ((String) value).length() + 2;
+        }
+
+        if (value instanceof Map) {
+            long size = 2;
+
+            for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size +=
+                        estimateJSONSize(String.valueOf(entry.getKey()))
+                                + estimateJSONSize(entry.getValue())
+                                + 2;
+            }
+
+            return size;
+        }
+
+        if (value instanceof Collection) {
+            long size = 2;
+
+            for (final Object item : (Collection<?>) value) {
+                size += estimateJSONSize(item) + 1;
+            }
+
+            return size;
+        }
+
+        if (value instanceof Object[]) {
+            long size = 2;
+
+            for (final Object item : (Object[]) value) {
+                size += estimateJSONSize(item) + 1;
+            }
+
+            return size;
+        }
+
+        // Numbers, booleans and other values are represented by a handful of characters.
+        return 8;
+    }
+
     /**
      * Check if the provided scheme is valid
      *
@@ -92,8 +92,13 @@ final class AssuranceWebViewSocket {
         connectionURL = null;
     }
 
-    /** Use this method to run javascript to disconnect the webSocket. */
-    void sendData(final byte[] data) {
+    /**
+     * Use this method to run javascript to send data over the webSocket.
+     *
+     * @param data the data to be sent
+     * @return true if the data was handed to the webSocket, false if it exceeds the size limit
+     */
+    boolean sendData(final byte[] data) {
         final String encodedData = Base64.encodeToString(data, Base64.NO_WRAP | Base64.NO_PADDING);
 
         if (encodedData.length() > MAX_DATA_LENGTH) {
@@ -105,10 +110,11 @@ final class AssuranceWebViewSocket {
                             + " bytes, maximum is "
                             + MAX_DATA_LENGTH
                             + ".");
-            return;
+            return false;
         }
 
         runJavascript("sendData('" + encodedData + "')");
+        return true;
     }
 
     /**
@@ -0,0 +1,436 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import android.content.SharedPreferences;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind cache of the values Assurance persists, so that persisting never blocks the event
+ * hub or socket threads.
+ *
+ * <p>Values are read from the {@link Backend} on the first read of their key and served from
+ * memory afterwards. Writes update the cache at once and are flushed to the backend on a
+ * background thread shared by all stores, {@link #FLUSH_DELAY_MS} after the first pending write,
+ * so that a key written several times while connecting or disconnecting is persisted once with its
+ * last value.
+ *
+ * <p>A flush hands all the pending writes to the backend at once, in the order they were made with
+ * respect to previous flushes. With a {@link SharedPreferences} backend they are committed
+ * atomically, so that the persisted values are always those of a point in the sequence of writes,
+ * the writes of the last {@link #FLUSH_DELAY_MS} being lost if the app is killed. Writes that
+ * failed to be persisted are retried with the next flush, unless written again in the meantime,
+ * and a flush is rescheduled with a delay doubling after every consecutive failure, up to {@link
+ * #MAX_RETRY_DELAY_MS}.
+ *
+ * <p>As the app may be killed at any time once in the background, {@link #flushAll()} flushes the
+ * pending writes of all the stores at once, when the app goes to the background.
+ *
+ * <p>This class is thread safe.
+ */
+class AssuranceWriteBehindStore {
+    private static final String LOG_TAG = "AssuranceWriteBehindStore";
+    private static final long FLUSHER_THREAD_KEEP_ALIVE_SECONDS = 30;
+    static final long FLUSH_DELAY_MS = 100;
+    static final long MAX_RETRY_DELAY_MS = TimeUnit.SECONDS.toMillis(30);
+
+    // marks keys known to have no value in the cache
+    private static final Object ABSENT = new Object();
+    private static ScheduledExecutorService defaultFlushScheduler;
+    // the stores flushed by flushAll(), guarded by STORES
+    private static final Set<AssuranceWriteBehindStore> STORES =
+            Collections.newSetFromMap(new WeakHashMap<AssuranceWriteBehindStore, Boolean>());
+
+    /** The persistence the values are read from and flushed to. */
+    interface Backend {
+        /**
+         * Reads a string value.
+         *
+         * @param key the key of the value
+         * @return the value, or null if there is none
+         */
+        String getString(final String key);
+
+        /**
+         * Reads a string set value.
+         *
+         * @param key the key of the value
+         * @return the value, or null if there is none
+         */
+        Set<String> getStringSet(final String key);
+
+        /**
+         * Persists the changes, called on the flush thread.
+         *
+         * @param changes the values to persist, {@code String} or {@code Set<String>}, by key. A
+         *     null value removes its key.
+         * @return true if the changes were persisted
+         */
+        boolean write(final Map<String, Object> changes);
+    }
+
+    private final Backend backend;
+    private final ScheduledExecutorService flushScheduler;
+    private final Object lock = new Object();
+    // guarded by lock
+    private final Map<String, Object> cache = new HashMap<>();
+    private final Map<String, Object> pendingWrites = new HashMap<>();
+    private boolean flushScheduled;
+    private int failedFlushes;
+
+    /**
+     * Creates a store flushing on the background thread shared by all stores.
+     *
+     * @param backend the {@link Backend} the values are read from and flushed to
+     */
+    AssuranceWriteBehindStore(final Backend backend) {
+        this(backend, getDefaultFlushScheduler());
+    }
+
+    @VisibleForTesting
+    AssuranceWriteBehindStore(
+            final Backend backend, final ScheduledExecutorService flushScheduler) {
+        this.backend = backend;
+        this.flushScheduler = flushScheduler;
+
+        synchronized (STORES) {
+            STORES.add(this);
+        }
+    }
+
+    /**
+     * Flushes the pending writes of all the stores right away, rather than after their delay.
+     * Called when the app goes to the background.
+     */
+    static void flushAll() {
+        final List<AssuranceWriteBehindStore> stores;
+
+        synchronized (STORES) {
+            stores = new ArrayList<>(STORES);
+        }
+
+        for (final AssuranceWriteBehindStore store : stores) {
+            store.flushNow();
+        }
+    }
+
+    /**
+     * Returns a string value, the value last written if any.
+     *
+     * @param key the key of the value
+     * @return the value, or null if there is none
+     */
+    String getString(final String key) {
+        final Object value = get(key, false);
+        return value instanceof String ? (String) value : null;
+    }
+
+    /**
+     * Returns a string set value, the value last written if any.
+     *
+     * @param key the key of the value
+     * @return the unmodifiable value, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    Set<String> getStringSet(final String key) {
+        final Object value = get(key, true);
+        return value instanceof Set ? (Set<String>) value : null;
+    }
+
+    /**
+     * Writes a string value.
+     *
+     * @param key the key of the value
+     * @param value the value, null removing the key
+     */
+    void putString(final String key, final String value) {
+        put(key, value);
+    }
+
+    /**
+     * Writes a string set value. The set is copied.
+     *
+     * @param key the key of the value
+     * @param value the value, null removing the key
+     */
+    void putStringSet(final String key, final Set<String> value) {
+        put(key, value == null ? null : Collections.unmodifiableSet(new HashSet<>(value)));
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param key the key of the value
+     */
+    void remove(final String key) {
+        put(key, null);
+    }
+
+    private Object get(final String key, final boolean isStringSet) {
+        synchronized (lock) {
+            final Object value = cache.get(key);
+
+            if (value != null) {
+                return value == ABSENT ? null : value;
+            }
+        }
+
+        // read outside the lock, only happens once per key
+        Object persistedValue;
+
+        if (isStringSet) {
+            final Set<String> stringSet = backend.getStringSet(key);
+            // the sets read from shared preferences must not be modified
+            persistedValue =
+                    stringSet == null
+                            ? null
+                            : Collections.unmodifiableSet(new HashSet<>(stringSet));
+        } else {
+            persistedValue = backend.getString(key);
+        }
+
+        synchronized (lock) {
+            // a value written in the meantime wins over the persisted one
+            final Object value = cache.get(key);
+
+            if (value != null) {
+                return value == ABSENT ? null : value;
+            }
+
+            cache.put(key, persistedValue == null ? ABSENT : persistedValue);
+            return persistedValue;
+        }
+    }
+
+    private void put(final String key, final Object value) {
+        synchronized (lock) {
+            cache.put(key, value == null ? ABSENT : value);
+            pendingWrites.put(key, value);
+
+            if (flushScheduled) {
+                return;
+            }
+
+            flushScheduled = true;
+        }
+
+        scheduleFlush(FLUSH_DELAY_MS);
+    }
+
+    /** Hands the pending writes to the backend on the flush thread without waiting, if any. */
+    private void flushNow() {
+        synchronized (lock) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+        }
+
+        // a flush already scheduled finds no pending writes, or the writes made since
+        flushScheduler.execute(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                });
+    }
+
+    private void scheduleFlush(final long delayMs) {
+        flushScheduler.schedule(
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        flush();
+                    }
+                },
+                delayMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /** Hands the pending writes to the backend, on the flush thread. */
+    private void flush() {
+        final Map<String, Object> changes;
+
+        synchronized (lock) {
+            changes = new HashMap<>(pendingWrites);
+            pendingWrites.clear();
+            flushScheduled = false;
+        }
+
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        boolean written;
+
+        try {
+            written = backend.write(changes);
+        } catch (final Exception e) {
+            Log.warning(
+                    Assurance.LOG_TAG,
+                    LOG_TAG,
+                    "Failed to persist %s: %s",
+                    changes.keySet(),
+                    e.getLocalizedMessage());
+            written = false;
+        }
+
+        final long retryDelayMs;
+
+        synchronized (lock) {
+            if (written) {
+                failedFlushes = 0;
+                return;
+            }
+
+            // keys written again since are persisted with their new value
+            for (final Map.Entry<String, Object> change : changes.entrySet()) {
+                if (!pendingWrites.containsKey(change.getKey())) {
+                    pendingWrites.put(change.getKey(), change.getValue());
+                }
+            }
+
+            failedFlushes++;
+
+            if (flushScheduled) {
+                // retried with the flush of the writes made since
+                return;
+            }
+
+            flushScheduled = true;
+            retryDelayMs =
+                    Math.min(FLUSH_DELAY_MS << Math.min(failedFlushes, 16), MAX_RETRY_DELAY_MS);
+        }
+
+        Log.debug(
+                Assurance.LOG_TAG,
+                LOG_TAG,
+                "Unable to persist %s, retrying in %d ms.",
+                changes.keySet(),
+                retryDelayMs);
+        scheduleFlush(retryDelayMs);
+    }
+
+    /**
+     * Returns a {@link Backend} persisting to shared preferences, committing the changes of a
+     * flush atomically.
+     *
+     * @param sharedPreferences the {@link SharedPreferences} to persist to
+     * @return the {@code Backend}
+     */
+    static Backend forSharedPreferences(final SharedPreferences sharedPreferences) {
+        return new Backend() {
+            @Override
+            public String getString(final String key) {
+                return sharedPreferences.getString(key, null);
+            }
+
+            @Override
+            public Set<String> getStringSet(final String key) {
+                return sharedPreferences.getStringSet(key, null);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean write(final Map<String, Object> changes) {
+                final SharedPreferences.Editor editor = sharedPreferences.edit();
+
+                if (editor == null) {
+                    return false;
+                }
+
+                for (final Map.Entry<String, Object> change : changes.entrySet()) {
+                    final Object value = change.getValue();
+
+                    if (value == null) {
+                        editor.remove(change.getKey());
+                    } else if (value instanceof Set) {
+                        editor.putStringSet(change.getKey(), (Set<String>) value);
+                    } else {
+                        editor.putString(change.getKey(), (String) value);
+                    }
+                }
+
+                // on the flush thread, committing reports whether the changes were persisted
+                return editor.commit();
+            }
+        };
+    }
+
+    /**
+     * Returns a {@link Backend} persisting string values to a named collection of the data store
+     * service, where each change is persisted on its own.
+     *
+     * @param namedCollection the {@link NamedCollection} to persist to
+     * @return the {@code Backend}
+     */
+    static Backend forNamedCollection(final NamedCollection namedCollection) {
+        return new Backend() {
+            @Override
+            public String getString(final String key) {
+                return namedCollection.getString(key, null);
+            }
+
+            @Override
+            public Set<String> getStringSet(final String key) {
+                return null;
+            }
+
+            @Override
+            public boolean write(final Map<String, Object> changes) {
+                for (final Map.Entry<String, Object> change : changes.entrySet()) {
+                    if (change.getValue() instanceof String) {
+                        namedCollection.setString(change.getKey(), (String) change.getValue());
+                    } else {
+                        namedCollection.remove(change.getKey());
+                    }
+                }
+
+                return true;
+            }
+        };
+    }
+
+    /** Returns the scheduler of the background thread shared by all stores. */
+    static synchronized ScheduledExecutorService getDefaultFlushScheduler() {
+        if (defaultFlushScheduler == null) {
+            final ScheduledThreadPoolExecutor executor =
+                    new ScheduledThreadPoolExecutor(
+                            1,
+                            runnable -> {
+                                final Thread thread =
+                                        new Thread(runnable, "AssurancePersistence");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+            executor.setKeepAliveTime(FLUSHER_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS);
+            executor.allowCoreThreadTimeOut(true);
+            defaultFlushScheduler = executor;
+        }
+
+        return defaultFlushScheduler;
+    }
+}
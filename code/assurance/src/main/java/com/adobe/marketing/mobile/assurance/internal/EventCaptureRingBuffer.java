@@ -0,0 +1,244 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A pre-allocated, single-producer single-consumer ring buffer that hands items captured on a
+ * latency sensitive thread (such as the thread delivering SDK events to Assurance) over to a
+ * dedicated consumer thread.
+ *
+ * <p>Publishing an item only stores the item reference and its capture timestamp into pre-allocated
+ * slots. All processing of the item happens on the consumer thread via the {@link Handler}, in the
+ * order in which items were published. When the buffer is full, newly published items are dropped
+ * rather than blocking the producer, and are accounted for in {@link #getDroppedCount()}.
+ *
+ * <p>{@link #publish(Object, long)} must only be invoked from one thread at a time. Items pending
+ * in the buffer can be discarded with {@link #clear()}, and the consumer thread is stopped for good
+ * with {@link #stop()}.
+ *
+ * @param <T> the type of the items captured
+ */
+final class EventCaptureRingBuffer<T> {
+    private static final String LOG_TAG = "EventCaptureRingBuffer";
+
+    @VisibleForTesting static final int DEFAULT_CAPACITY = 2048;
+
+    /** Processes items published into the {@link EventCaptureRingBuffer}. */
+    interface Handler<T> {
+        /**
+         * Invoked on the consumer thread for every published item.
+         *
+         * @param item the item that was published
+         * @param timestamp the timestamp in milliseconds at which the item was published
+         */
+        void handle(final T item, final long timestamp);
+    }
+
+    private final Object[] items;
+    private final long[] timestamps;
+    private final int mask;
+    private final Handler<T> handler;
+    private final String consumerThreadName;
+
+    /** Sequence of the next slot to be read. Only advanced by the consumer thread. */
+    private final AtomicLong head = new AtomicLong(0);
+
+    /** Sequence of the next slot to be written. Only advanced by the producer thread. */
+    private final AtomicLong tail = new AtomicLong(0);
+
+    private final AtomicLong droppedCount = new AtomicLong(0);
+
+    /** Items published before this sequence are discarded rather than handled. */
+    private volatile long discardBefore;
+
+    private volatile Thread consumerThread;
+    private volatile boolean consumerParked;
+    private volatile boolean stopped;
+    private boolean isOverflowing;
+
+    EventCaptureRingBuffer(final String consumerThreadName, final Handler<T> handler) {
+        this(DEFAULT_CAPACITY, consumerThreadName, handler);
+    }
+
+    @VisibleForTesting
+    EventCaptureRingBuffer(
+            final int capacity, final String consumerThreadName, final Handler<T> handler) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a positive power of two.");
+        }
+
+        this.items = new Object[capacity];
+        this.timestamps = new long[capacity];
+        this.mask = capacity - 1;
+        this.consumerThreadName = consumerThreadName;
+        this.handler = handler;
+    }
+
+    /**
+     * Publishes an item to be handled on the consumer thread. The consumer thread is started on the
+     * first invocation.
+     *
+     * @param item the item to be published
+     * @param timestamp the capture timestamp of the item in milliseconds
+     * @return true if the item was published, false if it was dropped because the buffer is full
+     *     or has been stopped
+     */
+    boolean publish(final T item, final long timestamp) {
+        if (stopped) {
+            return false;
+        }
+
+        if (consumerThread == null) {
+            startConsumer();
+        }
+
+        final long sequence = tail.get();
+
+        if (sequence - head.get() >= items.length) {
+            droppedCount.incrementAndGet();
+
+            if (!isOverflowing) {
+                isOverflowing = true;
+                Log.warning(
+                        Assurance.LOG_TAG,
+                        LOG_TAG,
+                        "Capture buffer is full, dropping items until the consumer catches up.");
+            }
+
+            return false;
+        }
+
+        isOverflowing = false;
+        final int index = (int) (sequence & mask);
+        items[index] = item;
+        timestamps[index] = timestamp;
+        // Volatile write publishes the slot contents to the consumer, and orders the write before
+        // the read of consumerParked below.
+        tail.set(sequence + 1);
+
+        if (consumerParked) {
+            LockSupport.unpark(consumerThread);
+        }
+
+        return true;
+    }
+
+    /**
+     * Discards the items published so far that have not been handled yet. Items published after
+     * this call are handled as usual. An item being handled when this is called is not interrupted.
+     */
+    void clear() {
+        discardBefore = tail.get();
+    }
+
+    /**
+     * Discards the pending items and stops the consumer thread. Items published afterwards are
+     * dropped. A stopped buffer cannot be restarted.
+     */
+    void stop() {
+        stopped = true;
+        clear();
+
+        final Thread thread = consumerThread;
+
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Returns the number of items dropped so far because the buffer was full.
+     *
+     * @return the number of items dropped
+     */
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Returns the number of items published but not yet handled.
+     *
+     * @return the number of pending items
+     */
+    int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    private synchronized void startConsumer() {
+        if (consumerThread != null || stopped) {
+            return;
+        }
+
+        final Thread thread =
+                new Thread(
+                        new Runnable() {
+                            @Override
+                            public void run() {
+                                consume();
+                            }
+                        },
+                        consumerThreadName);
+        thread.setDaemon(true);
+        consumerThread = thread;
+        thread.start();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consume() {
+        while (!stopped) {
+            final long sequence = head.get();
+
+            if (sequence == tail.get()) {
+                consumerParked = true;
+
+                // Re-check after announcing the park to avoid missing a concurrent publish or stop.
+                if (sequence == tail.get() && !stopped) {
+                    LockSupport.park(this);
+                }
+
+                consumerParked = false;
+                continue;
+            }
+
+            final int index = (int) (sequence & mask);
+            final T item = (T) items[index];
+            final long timestamp = timestamps[index];
+            // Release the reference so that the item can be garbage collected once handled.
+            items[index] = null;
+            head.set(sequence + 1);
+
+            if (sequence < discardBefore) {
+                continue;
+            }
+
+            try {
+                handler.handle(item, timestamp);
+            } catch (final Exception e) {
+                Log.error(
+                        Assurance.LOG_TAG,
+                        LOG_TAG,
+                        "Failed to handle captured item: %s",
+                        e.getLocalizedMessage());
+            }
+        }
+
+        // Release the references to the items that were not handled.
+        Arrays.fill(items, null);
+    }
+}
@@ -86,6 +86,15 @@ abstract class EventQueueWorker<T> implements Runnable {
         return result;
     }
 
+    /**
+     * Returns the number of items waiting in the {@link #workQueue}.
+     *
+     * @return the number of items that are not processed yet
+     */
+    int size() {
+        return workQueue.size();
+    }
+
     /**
      * Puts the {@link EventQueueWorker} in active state and starts processing the {@link
      * #workQueue} if not already active.
@@ -15,7 +15,6 @@ import androidx.annotation.VisibleForTesting
 import com.adobe.marketing.mobile.AdobeCallback
 import com.adobe.marketing.mobile.Assurance
 import com.adobe.marketing.mobile.services.Log
-import com.adobe.marketing.mobile.util.JSONUtils
 import org.json.JSONException
 import org.json.JSONObject
 
@@ -116,23 +115,17 @@ internal class EventStitcher {
         // The payload for the intended event is a concatenation of all the chunk data of chunked events
         val payload: StringBuilder = StringBuilder()
         chunkedEvents.forEach { chunkedEvent ->
-            val chunkData =
-                chunkedEvent.payload[AssuranceConstants.AssuranceEventKeys.CHUNK_DATA] as String?
-            chunkData?.let {
-                val utf8ChunkData = String(it.toByteArray(), Charsets.UTF_8)
-                payload.append(utf8ChunkData)
-            }
+            getChunkData(chunkedEvent)?.let { payload.append(it) }
         }
 
         return try {
             val payloadJson = JSONObject(payload.toString())
-            val payloadMap = JSONUtils.toMap(payloadJson)
             Response.Success(
                 AssuranceEvent(
                     eventVendor,
                     eventType,
                     null,
-                    payloadMap,
+                    LazyJSONMap(payloadJson),
                     eventTimeStamp
                 )
             )
@@ -140,4 +133,19 @@ internal class EventStitcher {
             Response.Failure(e)
         }
     }
+
+    /**
+     * Retrieves the chunk data of a chunked event. Chunk data of inbound events is read as is,
+     * without converting the rest of the payload.
+     * @param chunkedEvent the chunked event to read the chunk data from
+     * @return the chunk data of the event or null if the event has no chunk data
+     */
+    private fun getChunkData(chunkedEvent: AssuranceEvent): String? {
+        val payload = chunkedEvent.payload ?: return null
+        return if (payload is LazyJSONMap) {
+            payload.optString(AssuranceConstants.AssuranceEventKeys.CHUNK_DATA)
+        } else {
+            payload[AssuranceConstants.AssuranceEventKeys.CHUNK_DATA] as String?
+        }
+    }
 }
@@ -0,0 +1,151 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.JSONUtils;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A {@link Map} backed by a parsed {@link JSONObject} that defers converting the JSON tree into
+ * nested {@code HashMap}'s until the contents of the map are first accessed.
+ *
+ * <p>Used for the payload of inbound {@link AssuranceEvent}'s, most of which are either dropped or
+ * only inspected for their top level string entries (control type, chunk data). Such lookups can
+ * be answered via {@link #optString(String)} without materializing the map. All {@code Map}
+ * operations materialize the map exactly once and behave like the {@code HashMap} returned by
+ * {@link JSONUtils#toMap(JSONObject)} from then on.
+ */
+final class LazyJSONMap extends AbstractMap<String, Object> {
+    private static final String LOG_TAG = "LazyJSONMap";
+
+    private final Object mutex = new Object();
+    private JSONObject source;
+    private volatile Map<String, Object> materialized;
+
+    LazyJSONMap(final JSONObject source) {
+        this.source = source;
+    }
+
+    /**
+     * Returns the top level {@code String} value associated with {@code key} without materializing
+     * the map.
+     *
+     * @param key the key whose value is to be returned
+     * @return the {@code String} value for {@code key}; null if there is no such entry or if the
+     *     value is not a {@code String}
+     */
+    String optString(final String key) {
+        final Map<String, Object> map = materialized;
+
+        if (map != null) {
+            final Object value = map.get(key);
+            return value instanceof String ? (String) value : null;
+        }
+
+        synchronized (mutex) {
+            if (materialized != null) {
+                final Object value = materialized.get(key);
+                return value instanceof String ? (String) value : null;
+            }
+
+            final Object value = source.opt(key);
+            return value instanceof String ? (String) value : null;
+        }
+    }
+
+    /**
+     * Returns whether the contents of this map have been converted from the backing {@code
+     * JSONObject}.
+     *
+     * @return true if the map has been materialized, false otherwise
+     */
+    boolean isMaterialized() {
+        return materialized != null;
+    }
+
+    private Map<String, Object> materialize() {
+        Map<String, Object> map = materialized;
+
+        if (map != null) {
+            return map;
+        }
+
+        synchronized (mutex) {
+            if (materialized == null) {
+                Map<String, Object> converted = null;
+
+                try {
+                    converted = JSONUtils.toMap(source);
+                } catch (final JSONException e) {
+                    Log.warning(
+                            Assurance.LOG_TAG,
+                            LOG_TAG,
+                            "Failed to convert payload to map: %s",
+                            e.getLocalizedMessage());
+                }
+
+                materialized = converted != null ? converted : new HashMap<String, Object>();
+                // The JSON tree is no longer needed once converted.
+                source = null;
+            }
+
+            return materialized;
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return materialize().entrySet();
+    }
+
+    @Override
+    public int size() {
+        return materialize().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return materialize().isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return materialize().containsKey(key);
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return materialize().get(key);
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void clear() {
+        materialize().clear();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.LogForwardingKeys;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/** A single log entry forwarded to the Assurance session. */
+final class LogEntry {
+    // approximate size of the keys and punctuation of an entry once serialized
+    private static final int SERIALIZED_OVERHEAD_BYTES = 64;
+
+    final String time;
+    final int pid;
+    final int tid;
+    final char level;
+    final String tag;
+    final String message;
+
+    /**
+     * Creates a log entry.
+     *
+     * @param time the time of the entry, in the logcat "MM-dd HH:mm:ss.SSS" format
+     * @param pid the id of the process that logged the entry
+     * @param tid the id of the thread that logged the entry
+     * @param level the priority of the entry, one of V, D, I, W, E, A or F
+     * @param tag the tag of the entry
+     * @param message the message of the entry, lines separated by '\n'
+     */
+    LogEntry(
+            final String time,
+            final int pid,
+            final int tid,
+            final char level,
+            final String tag,
+            final String message) {
+        this.time = time;
+        this.pid = pid;
+        this.tid = tid;
+        this.level = level;
+        this.tag = tag;
+        this.message = message;
+    }
+
+    /**
+     * Returns the approximate size of the entry once serialized in a log event.
+     *
+     * @return the size in bytes
+     */
+    int getEstimatedSize() {
+        return SERIALIZED_OVERHEAD_BYTES + time.length() + tag.length() + message.length();
+    }
+
+    /**
+     * Returns the entry as the structured map sent in the entries of a batched log event.
+     *
+     * @return a {@link Map} with the time, pid, tid, level, tag and message of the entry
+     */
+    Map<String, Object> toMap() {
+        final Map<String, Object> entry = new HashMap<>();
+        entry.put(LogForwardingKeys.TIME, time);
+        entry.put(LogForwardingKeys.PID, pid);
+        entry.put(LogForwardingKeys.TID, tid);
+        entry.put(LogForwardingKeys.LEVEL, String.valueOf(level));
+        entry.put(LogForwardingKeys.TAG, tag);
+        entry.put(LogForwardingKeys.MESSAGE, message);
+        return entry;
+    }
+
+    /**
+     * Returns the entry in the logcat "long" format, as sent in the "logline" of a log event to
+     * servers that do not support batched log events.
+     *
+     * @return the header line of the entry followed by its message lines
+     */
+    String toLogline() {
+        return String.format(
+                Locale.US,
+                "[ %s %5d:%5d %c/%-8s ]\n%s\n",
+                time,
+                pid,
+                tid,
+                level,
+                tag,
+                message);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.LogForwardingKeys;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups log entries into log events.
+ *
+ * <p>In batched mode, entries are collected into a single log event carrying an array of
+ * structured entries. The batch is flushed when it holds the maximum number of entries, when it
+ * reaches the maximum size, or when the flush interval has elapsed since its first entry, whichever
+ * comes first.
+ *
+ * <p>Otherwise every entry is sent right away in its own log event, as a "logline" in the logcat
+ * long format, for servers that do not support batched log events.
+ */
+class LogEventBatcher {
+    static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 500;
+    static final int DEFAULT_MAX_ENTRIES = 200;
+    static final int DEFAULT_MAX_BYTES = 64 * 1024;
+
+    /** Receives the log events created by the batcher. */
+    interface Sink {
+        /**
+         * Called with a log event ready to be sent.
+         *
+         * @param logEvent the {@link AssuranceEvent} of type log
+         */
+        void onLogEvent(final AssuranceEvent logEvent);
+    }
+
+    private final Sink sink;
+    private final ScheduledExecutorService flushScheduler;
+    private final boolean batched;
+    private final long flushIntervalMillis;
+    private final int maxEntries;
+    private final int maxBytes;
+
+    private final Object batchMutex = new Object();
+    private List<Map<String, Object>> entries = new ArrayList<>();
+    private int batchBytes;
+    private ScheduledFuture<?> scheduledFlush;
+
+    /**
+     * Creates a batcher.
+     *
+     * @param sink the {@link Sink} to send the log events to
+     * @param flushScheduler the scheduler used to flush batches after the flush interval
+     * @param batched whether entries are batched, or sent as a "logline" one at a time
+     * @param flushIntervalMillis the maximum time an entry waits in a batch
+     * @param maxEntries the maximum number of entries in a batch
+     * @param maxBytes the maximum approximate size of a batch
+     */
+    LogEventBatcher(
+            final Sink sink,
+            final ScheduledExecutorService flushScheduler,
+            final boolean batched,
+            final long flushIntervalMillis,
+            final int maxEntries,
+            final int maxBytes) {
+        this.sink = sink;
+        this.flushScheduler = flushScheduler;
+        this.batched = batched;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Adds an entry to the current batch, flushing the batch if it is full.
+     *
+     * @param entry the {@link LogEntry} to send
+     */
+    void add(final LogEntry entry) {
+        if (!batched) {
+            final Map<String, Object> payload = new HashMap<>();
+            payload.put(LogForwardingKeys.LOGLINE, entry.toLogline());
+            sink.onLogEvent(
+                    new AssuranceEvent(AssuranceConstants.AssuranceEventType.LOG, payload));
+            return;
+        }
+
+        synchronized (batchMutex) {
+            entries.add(entry.toMap());
+            batchBytes += entry.getEstimatedSize();
+
+            if (entries.size() >= maxEntries || batchBytes >= maxBytes) {
+                sendBatch();
+            } else if (scheduledFlush == null) {
+                scheduledFlush =
+                        flushScheduler.schedule(
+                                new Runnable() {
+                                    @Override
+                                    public void run() {
+                                        flush();
+                                    }
+                                },
+                                flushIntervalMillis,
+                                TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /** Sends the entries of the current batch, if any. */
+    void flush() {
+        synchronized (batchMutex) {
+            sendBatch();
+        }
+    }
+
+    /**
+     * Sends the current batch and starts a new one. Called holding the batchMutex, so that batches
+     * are sent in order.
+     */
+    private void sendBatch() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put(LogForwardingKeys.ENTRIES, entries);
+        entries = new ArrayList<>();
+        batchBytes = 0;
+        sink.onLogEvent(new AssuranceEvent(AssuranceConstants.AssuranceEventType.LOG, payload));
+    }
+}
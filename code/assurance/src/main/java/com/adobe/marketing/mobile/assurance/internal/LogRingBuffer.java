@@ -0,0 +1,129 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, lock-free ring buffer with many producers and a single consumer.
+ *
+ * <p>Every slot carries a sequence number telling whether it is free for the producer claiming
+ * it, or holds an item published for the consumer. Producers claim slots with a compare-and-set
+ * on the tail, so {@link #offer(Object)} never blocks the logging thread. When the buffer is full
+ * the new item is dropped and counted, rather than waiting for the consumer.
+ *
+ * @param <T> the type of the items
+ */
+class LogRingBuffer<T> {
+    private final int mask;
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    // only accessed by the consumer
+    private long head;
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity the maximum number of items held, rounded up to a power of two
+     */
+    LogRingBuffer(final int capacity) {
+        int size = 1;
+
+        while (size < capacity) {
+            size <<= 1;
+        }
+
+        this.mask = size - 1;
+        this.items = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an item, unless the buffer is full. May be called from any thread.
+     *
+     * @param item the item to add
+     * @return true if the item was added, false if it was dropped
+     */
+    boolean offer(final T item) {
+        long position = tail.get();
+
+        while (true) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    items[index] = item;
+                    // publishes the item to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+
+                position = tail.get();
+            } else if (difference < 0) {
+                droppedCount.incrementAndGet();
+                return false;
+            } else {
+                // another producer claimed the slot
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes the published items, oldest first. Must only be called from a single thread at a
+     * time.
+     *
+     * @param collection the collection to add the items to
+     * @param maxItems the maximum number of items to remove
+     * @return the number of items removed
+     */
+    @SuppressWarnings("unchecked")
+    int drainTo(final Collection<? super T> collection, final int maxItems) {
+        int count = 0;
+
+        while (count < maxItems) {
+            final int index = (int) (head & mask);
+
+            if (sequences.get(index) != head + 1) {
+                // empty, or the producer of the next slot has not published it yet
+                break;
+            }
+
+            collection.add((T) items[index]);
+            items[index] = null;
+            // frees the slot for the producers of the next round
+            sequences.set(index, head + items.length);
+            head++;
+            count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Returns the number of items dropped because the buffer was full.
+     *
+     * @return the dropped items count
+     */
+    long getDroppedCount() {
+        return droppedCount.get();
+    }
+}
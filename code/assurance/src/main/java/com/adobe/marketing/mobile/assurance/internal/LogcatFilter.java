@@ -0,0 +1,257 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.LogForwardingKeys;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The filters of the logcat process that reads the logs to forward, provided in the details of
+ * the "logForwarding" control event, for ex:
+ *
+ * <pre>
+ * {"enable": true, "buffers": ["main", "crash"], "filters": ["MyTag:D", "AdobeExperienceSDK:W"],
+ *  "include": ["purchase", "order [0-9]+"]}
+ * </pre>
+ *
+ * <ul>
+ *   <li>buffers - the logcat buffers to read, among main, system and crash. Defaults to main.
+ *   <li>filters - logcat filter specs in the "tag:level" format, where level is one of V, D, I, W,
+ *       E, F or S. Unless a spec for the "*" tag is provided, all other tags are silenced.
+ *   <li>include - regular expressions, only entries whose message matches one of them are read.
+ * </ul>
+ *
+ * All filters are passed to the logcat command line, so that filtered entries are never read by
+ * the app. Invalid values are ignored.
+ */
+final class LogcatFilter {
+    private static final String LOG_TAG = "LogcatFilter";
+    private static final List<String> SUPPORTED_BUFFERS = Arrays.asList("main", "system", "crash");
+    private static final String DEFAULT_BUFFER = "main";
+    private static final String FILTER_LEVELS = "VDIWEFS";
+    private static final String WILDCARD_TAG = "*";
+    private static final String SILENCE_OTHER_TAGS = "*:S";
+    private static final int MAX_FILTER_SPECS = 64;
+
+    /** Reads the main buffer of the app without any filter. */
+    static final LogcatFilter DEFAULT =
+            new LogcatFilter(
+                    Collections.singletonList(DEFAULT_BUFFER),
+                    Collections.<String>emptyList(),
+                    null);
+
+    private final List<String> buffers;
+    private final List<String> filterSpecs;
+    private final String includeRegex;
+
+    private LogcatFilter(
+            final List<String> buffers,
+            final List<String> filterSpecs,
+            final String includeRegex) {
+        this.buffers = buffers;
+        this.filterSpecs = filterSpecs;
+        this.includeRegex = includeRegex;
+    }
+
+    /**
+     * Reads the filters from the control event details, ignoring invalid values.
+     *
+     * @param details the control event details
+     * @return the {@code LogcatFilter} to read the logs with
+     */
+    static LogcatFilter from(final Map<String, Object> details) {
+        final List<String> buffers = new ArrayList<>();
+
+        for (final String buffer : getStrings(details, LogForwardingKeys.BUFFERS)) {
+            if (SUPPORTED_BUFFERS.contains(buffer) && !buffers.contains(buffer)) {
+                buffers.add(buffer);
+            } else {
+                warnIgnored("buffer", buffer);
+            }
+        }
+
+        if (buffers.isEmpty()) {
+            buffers.add(DEFAULT_BUFFER);
+        }
+
+        final List<String> filterSpecs = new ArrayList<>();
+        boolean hasWildcardSpec = false;
+
+        for (final String spec : getStrings(details, LogForwardingKeys.FILTERS)) {
+            if (!isValidFilterSpec(spec) || filterSpecs.size() >= MAX_FILTER_SPECS) {
+                warnIgnored("filter spec", spec);
+                continue;
+            }
+
+            filterSpecs.add(spec);
+            hasWildcardSpec |= spec.startsWith(WILDCARD_TAG + ":");
+        }
+
+        if (!filterSpecs.isEmpty() && !hasWildcardSpec) {
+            filterSpecs.add(SILENCE_OTHER_TAGS);
+        }
+
+        final StringBuilder includeRegex = new StringBuilder();
+
+        for (final String regex : getStrings(details, LogForwardingKeys.INCLUDE)) {
+            if (regex.isEmpty() || !isValidRegex(regex)) {
+                warnIgnored("include regex", regex);
+                continue;
+            }
+
+            // logcat accepts a single regex, the include list is read as alternatives
+            if (includeRegex.length() > 0) {
+                includeRegex.append('|');
+            }
+
+            includeRegex.append("(?:").append(regex).append(')');
+        }
+
+        return new LogcatFilter(
+                buffers, filterSpecs, includeRegex.length() > 0 ? includeRegex.toString() : null);
+    }
+
+    /**
+     * Returns a copy of this filter that also silences the provided tag, for entries that are
+     * captured in another way.
+     *
+     * @param tag the tag to silence
+     * @return the {@code LogcatFilter} silencing the tag
+     */
+    LogcatFilter withSilencedTag(final String tag) {
+        final List<String> specs = new ArrayList<>();
+
+        // the last spec of a tag wins in logcat, the specs of the tag are replaced by the silence
+        for (final String spec : filterSpecs) {
+            if (!spec.startsWith(tag + ":")) {
+                specs.add(spec);
+            }
+        }
+
+        specs.add(tag + ":S");
+        return new LogcatFilter(buffers, specs, includeRegex);
+    }
+
+    /**
+     * Returns the logcat command line reading the entries of the process in the long format.
+     *
+     * @param pid the id of the process whose entries are read
+     * @return the command and its arguments
+     */
+    List<String> toCommand(final int pid) {
+        final List<String> command = new ArrayList<>();
+        command.add("logcat");
+        command.add("--pid=" + pid);
+
+        for (final String buffer : buffers) {
+            command.add("-b");
+            command.add(buffer);
+        }
+
+        command.add("-v");
+        command.add("long");
+
+        if (includeRegex != null) {
+            command.add("-e");
+            command.add(includeRegex);
+        }
+
+        command.addAll(filterSpecs);
+        return command;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+
+        if (!(other instanceof LogcatFilter)) {
+            return false;
+        }
+
+        final LogcatFilter filter = (LogcatFilter) other;
+        return buffers.equals(filter.buffers)
+                && filterSpecs.equals(filter.filterSpecs)
+                && (includeRegex == null
+                        ? filter.includeRegex == null
+                        : includeRegex.equals(filter.includeRegex));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(new Object[] {buffers, filterSpecs, includeRegex});
+    }
+
+    /** Returns whether the spec is a valid "tag:level" logcat filter spec. */
+    private static boolean isValidFilterSpec(final String spec) {
+        final int separator = spec.lastIndexOf(':');
+
+        if (separator <= 0 || separator != spec.length() - 2) {
+            return false;
+        }
+
+        for (int i = 0; i < separator; i++) {
+            final char c = spec.charAt(i);
+
+            if (Character.isWhitespace(c) || c == ':') {
+                return false;
+            }
+        }
+
+        return FILTER_LEVELS.indexOf(spec.charAt(separator + 1)) >= 0;
+    }
+
+    private static boolean isValidRegex(final String regex) {
+        try {
+            Pattern.compile(regex);
+            return true;
+        } catch (final PatternSyntaxException e) {
+            return false;
+        }
+    }
+
+    private static List<String> getStrings(final Map<String, Object> details, final String key) {
+        final Object value = details == null ? null : details.get(key);
+
+        if (!(value instanceof List)) {
+            return Collections.emptyList();
+        }
+
+        final List<String> strings = new ArrayList<>();
+
+        for (final Object item : (List<?>) value) {
+            if (item instanceof String) {
+                strings.add((String) item);
+            }
+        }
+
+        return strings;
+    }
+
+    private static void warnIgnored(final String kind, final String value) {
+        Log.warning(
+                Assurance.LOG_TAG,
+                LOG_TAG,
+                "Ignoring the invalid log forwarding %s \"%s\".",
+                kind,
+                value);
+    }
+}
@@ -0,0 +1,341 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+/**
+ * Incrementally parses the output of {@code logcat -v long} into {@link LogEntry} instances.
+ *
+ * <p>The long format prints every entry as a header line, the lines of the message and an empty
+ * line:
+ *
+ * <pre>
+ * [ 01-02 03:04:05.678  1234: 5678 D/Tag      ]
+ * message line 1
+ * message line 2
+ *
+ * </pre>
+ *
+ * Characters are fed in chunks of any size, and are copied once: lines that may be a header (they
+ * start with '[') are collected until the end of the line and parsed by hand, other lines are
+ * appended to the message of the current entry as they arrive. An entry is complete when the next
+ * header is parsed, or when {@link #flush()} is called because no more output arrived for a while.
+ * Message lines that continue an entry after it was flushed are not lost, they are parsed as
+ * another entry with the same header. Message lines seen before the first header are ignored.
+ *
+ * <p>This class is not thread safe.
+ */
+class LogcatParser {
+    private static final int TIME_LENGTH = "01-02 03:04:05.678".length();
+    private static final String LEVELS = "VDIWEAF";
+
+    /** Receives the entries parsed by a {@link LogcatParser}. */
+    interface Listener {
+        /**
+         * Called with every complete entry.
+         *
+         * @param entry the parsed {@link LogEntry}
+         */
+        void onLogEntry(final LogEntry entry);
+    }
+
+    private enum State {
+        /** At the start of a line. */
+        LINE_START,
+        /** In a line that may be a header. */
+        HEADER_CANDIDATE,
+        /** In a message line of the current entry. */
+        MESSAGE_LINE,
+        /** In a line that is ignored, because it precedes the first header. */
+        IGNORED_LINE,
+    }
+
+    private final Listener listener;
+    private final StringBuilder headerLine = new StringBuilder(128);
+    private final StringBuilder message = new StringBuilder(256);
+    private State state = State.LINE_START;
+    // empty lines are only added to the message when followed by another message line
+    private int pendingEmptyLines;
+
+    // header fields of the current entry, entryTime is null when there is no current entry
+    private String entryTime;
+    private int entryPid;
+    private int entryTid;
+    private char entryLevel;
+    private String entryTag;
+
+    /**
+     * Creates a parser.
+     *
+     * @param listener the {@link Listener} notified of every complete entry
+     */
+    LogcatParser(final Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Parses a chunk of logcat output.
+     *
+     * @param chars the buffer containing the output
+     * @param offset the offset of the chunk in the buffer
+     * @param length the length of the chunk
+     */
+    void feed(final char[] chars, final int offset, final int length) {
+        final int end = offset + length;
+        int i = offset;
+
+        while (i < end) {
+            if (state == State.LINE_START) {
+                final char c = chars[i++];
+
+                if (c == '\n') {
+                    pendingEmptyLines++;
+                } else if (c == '[') {
+                    headerLine.setLength(0);
+                    headerLine.append(c);
+                    state = State.HEADER_CANDIDATE;
+                } else if (entryTime == null) {
+                    state = State.IGNORED_LINE;
+                } else if (c != '\r') {
+                    startMessageLine();
+                    message.append(c);
+                    state = State.MESSAGE_LINE;
+                }
+
+                continue;
+            }
+
+            // copy the rest of the line, or of the chunk, at once
+            int lineEnd = i;
+
+            while (lineEnd < end && chars[lineEnd] != '\n') {
+                lineEnd++;
+            }
+
+            if (state == State.HEADER_CANDIDATE) {
+                headerLine.append(chars, i, lineEnd - i);
+            } else if (state == State.MESSAGE_LINE) {
+                message.append(chars, i, lineEnd - i);
+            }
+
+            if (lineEnd < end) {
+                endLine();
+                state = State.LINE_START;
+                i = lineEnd + 1;
+            } else {
+                i = end;
+            }
+        }
+    }
+
+    /**
+     * Completes the current entry, for when no more output arrived for a while. Output that
+     * continues a line that is not yet terminated is still parsed as part of that line, and an
+     * entry whose message was not read yet remains the current entry. The header of a completed
+     * entry is kept, so that message lines arriving after the flush form another entry with the
+     * same header instead of being ignored.
+     */
+    void flush() {
+        if ((state == State.LINE_START || state == State.IGNORED_LINE) && message.length() > 0) {
+            notifyEntry();
+            message.setLength(0);
+            pendingEmptyLines = 0;
+        }
+    }
+
+    /** Called at the start of a message line, adds the empty lines that preceded it. */
+    private void startMessageLine() {
+        if (message.length() > 0) {
+            message.append('\n');
+
+            for (int i = 0; i < pendingEmptyLines; i++) {
+                message.append('\n');
+            }
+        }
+
+        pendingEmptyLines = 0;
+    }
+
+    /** Called at the end of a line that is not empty. */
+    private void endLine() {
+        if (state == State.MESSAGE_LINE) {
+            removeTrailingCarriageReturn(message);
+        } else if (state == State.HEADER_CANDIDATE) {
+            removeTrailingCarriageReturn(headerLine);
+            endHeaderCandidate();
+        }
+    }
+
+    /** Starts a new entry if the complete line is a header, or adds it to the message otherwise. */
+    private void endHeaderCandidate() {
+        if (parseHeader()) {
+            return;
+        }
+
+        if (entryTime != null) {
+            startMessageLine();
+            message.append(headerLine);
+        }
+    }
+
+    /**
+     * Parses the header line, for ex: "[ 01-02 03:04:05.678  1234: 5678 D/Tag      ]", completing
+     * the current entry and starting a new one if it is valid.
+     *
+     * @return true if the line is a header
+     */
+    private boolean parseHeader() {
+        final StringBuilder line = headerLine;
+        final int length = line.length();
+
+        // "[ " + time + " " + pid + ":" + tid + " " + level + "/" + tag + "]" at the least
+        if (length < 2 + TIME_LENGTH + 9
+                || line.charAt(1) != ' '
+                || line.charAt(length - 1) != ']'
+                || !isTime(line, 2)) {
+            return false;
+        }
+
+        int i = skipSpaces(line, 2 + TIME_LENGTH);
+
+        if (i == 2 + TIME_LENGTH) {
+            return false;
+        }
+
+        final int pidStart = i;
+        int pid = 0;
+
+        for (; i < length && isDigit(line.charAt(i)); i++) {
+            pid = pid * 10 + (line.charAt(i) - '0');
+        }
+
+        if (i == pidStart || i >= length || line.charAt(i) != ':') {
+            return false;
+        }
+
+        i = skipSpaces(line, i + 1);
+        final int tidStart = i;
+        int tid = 0;
+
+        for (; i < length && isDigit(line.charAt(i)); i++) {
+            tid = tid * 10 + (line.charAt(i) - '0');
+        }
+
+        // " L/" follows the tid
+        if (i == tidStart
+                || i + 3 > length
+                || line.charAt(i) != ' '
+                || LEVELS.indexOf(line.charAt(i + 1)) < 0
+                || line.charAt(i + 2) != '/') {
+            return false;
+        }
+
+        final char level = line.charAt(i + 1);
+        final int tagStart = i + 3;
+        int tagEnd = length - 1;
+
+        while (tagEnd > tagStart && line.charAt(tagEnd - 1) == ' ') {
+            tagEnd--;
+        }
+
+        emitEntry();
+        entryTime = line.substring(2, 2 + TIME_LENGTH);
+        entryPid = pid;
+        entryTid = tid;
+        entryLevel = level;
+        entryTag = line.substring(tagStart, tagEnd);
+        return true;
+    }
+
+    /** Completes the current entry, notifying the listener unless its message is empty. */
+    private void emitEntry() {
+        if (entryTime != null && message.length() > 0) {
+            notifyEntry();
+        }
+
+        entryTime = null;
+        message.setLength(0);
+        pendingEmptyLines = 0;
+    }
+
+    private void notifyEntry() {
+        listener.onLogEntry(
+                new LogEntry(
+                        entryTime, entryPid, entryTid, entryLevel, entryTag, message.toString()));
+    }
+
+    /** Returns whether the time in the "MM-dd HH:mm:ss.SSS" format starts at the offset. */
+    private static boolean isTime(final CharSequence line, final int offset) {
+        for (int i = 0; i < TIME_LENGTH; i++) {
+            final char c = line.charAt(offset + i);
+
+            switch (i) {
+                case 2:
+                    if (c != '-') {
+                        return false;
+                    }
+
+                    break;
+
+                case 5:
+                    if (c != ' ') {
+                        return false;
+                    }
+
+                    break;
+
+                case 8:
+                case 11:
+                    if (c != ':') {
+                        return false;
+                    }
+
+                    break;
+
+                case 14:
+                    if (c != '.') {
+                        return false;
+                    }
+
+                    break;
+
+                default:
+                    if (!isDigit(c)) {
+                        return false;
+                    }
+            }
+        }
+
+        return true;
+    }
+
+    private static void removeTrailingCarriageReturn(final StringBuilder builder) {
+        final int length = builder.length();
+
+        if (length > 0 && builder.charAt(length - 1) == '\r') {
+            builder.setLength(length - 1);
+        }
+    }
+
+    private static int skipSpaces(final CharSequence line, final int offset) {
+        int i = offset;
+
+        while (i < line.length() && line.charAt(i) == ' ') {
+            i++;
+        }
+
+        return i;
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+}
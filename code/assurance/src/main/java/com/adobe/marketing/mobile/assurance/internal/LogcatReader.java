@@ -0,0 +1,333 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import android.os.SystemClock;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.Assurance;
+import com.adobe.marketing.mobile.services.Log;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs logcat with a {@link LogcatFilter} and parses its output with a {@link LogcatParser}, until
+ * {@link #stop()} is called.
+ *
+ * <p>The output is read through an interruptible channel. Stopping the reader, or changing its
+ * filter, destroys the logcat process, which ends a read blocked on its output right away rather
+ * than when logcat writes its next line. The reader is meant to run on a managed executor thread,
+ * interrupting that thread also ends a blocked read.
+ *
+ * <p>The reader counts the resources it uses, to be reported once it completes.
+ */
+class LogcatReader implements Runnable {
+    private static final String LOG_TAG = "LogcatReader";
+    private static final int READ_BUFFER_SIZE = 8192;
+    // the time without output after which the last entry read is complete
+    private static final long ENTRY_IDLE_TIMEOUT_MILLIS = 100;
+    private static final long IDLE_POLL_INTERVAL_MILLIS = 10;
+    private static final List<String> PRUNE_COMMAND = Arrays.asList("logcat", "-P", "");
+
+    /** Starts the logcat processes. */
+    interface ProcessLauncher {
+        /**
+         * Starts a process.
+         *
+         * @param command the command and its arguments
+         * @return the started {@link Process}
+         * @throws IOException if the process cannot be started
+         */
+        Process start(final List<String> command) throws IOException;
+    }
+
+    private final LogcatParser.Listener listener;
+    private final ProcessLauncher processLauncher;
+    private final int pid;
+    private final Object processMutex = new Object();
+    private volatile LogcatFilter filter;
+    private volatile boolean stopped;
+    private Process logcatProcess;
+
+    // resource usage, only written by the reader thread
+    private volatile long bytesRead;
+    private volatile long entriesRead;
+    private volatile int processStarts;
+    private volatile long cpuTimeMillis;
+    private volatile long runningTimeMillis;
+
+    /**
+     * Creates a reader.
+     *
+     * @param filter the {@link LogcatFilter} to start logcat with
+     * @param listener the {@link LogcatParser.Listener} notified of every entry read
+     */
+    LogcatReader(final LogcatFilter filter, final LogcatParser.Listener listener) {
+        this(
+                filter,
+                listener,
+                command -> new ProcessBuilder().command(command).start(),
+                android.os.Process.myPid());
+    }
+
+    @VisibleForTesting
+    LogcatReader(
+            final LogcatFilter filter,
+            final LogcatParser.Listener listener,
+            final ProcessLauncher processLauncher,
+            final int pid) {
+        this.filter = filter;
+        this.listener = listener;
+        this.processLauncher = processLauncher;
+        this.pid = pid;
+    }
+
+    /**
+     * Restarts logcat with another filter, if it differs from the current one.
+     *
+     * @param filter the {@link LogcatFilter} to read the logs with
+     */
+    void setFilter(final LogcatFilter filter) {
+        if (filter.equals(this.filter)) {
+            return;
+        }
+
+        this.filter = filter;
+        destroyLogcatProcess();
+    }
+
+    /** Stops reading, the reader completes once the entries already read are parsed. */
+    void stop() {
+        stopped = true;
+        destroyLogcatProcess();
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    @Override
+    public void run() {
+        final long startCpuTimeMillis = SystemClock.currentThreadTimeMillis();
+        final long startTimeMillis = SystemClock.elapsedRealtime();
+        final LogcatParser parser = new LogcatParser(this::onLogEntry);
+        Process pruneProcess = null;
+
+        try {
+            pruneProcess = processLauncher.start(PRUNE_COMMAND);
+
+            while (!stopped && !Thread.currentThread().isInterrupted()) {
+                final LogcatFilter readFilter = filter;
+                final Process process = startLogcatProcess(readFilter);
+
+                if (process == null) {
+                    break;
+                }
+
+                try {
+                    read(process.getInputStream(), parser);
+                } catch (final IOException ex) {
+                    // destroying logcat to stop the reader or change the filter closes its output
+                    if (!stopped && readFilter == filter) {
+                        throw ex;
+                    }
+                } finally {
+                    synchronized (processMutex) {
+                        process.destroy();
+                        logcatProcess = null;
+                    }
+                }
+
+                parser.flush();
+
+                if (readFilter == filter) {
+                    // logcat exited, or the reader was stopped
+                    break;
+                }
+            }
+        } catch (final ClosedByInterruptException ex) {
+            // the reader thread was interrupted to stop reading
+        } catch (final IOException ex) {
+            if (!stopped) {
+                Log.error(
+                        Assurance.LOG_TAG,
+                        LOG_TAG,
+                        String.format(
+                                "Log forwarding error reading logs: %s",
+                                ex.getLocalizedMessage()));
+            }
+        } finally {
+            parser.flush();
+
+            if (pruneProcess != null) {
+                pruneProcess.destroy();
+            }
+
+            stopped = true;
+            cpuTimeMillis = SystemClock.currentThreadTimeMillis() - startCpuTimeMillis;
+            runningTimeMillis = SystemClock.elapsedRealtime() - startTimeMillis;
+        }
+    }
+
+    /**
+     * Returns the number of bytes of logcat output read.
+     *
+     * @return the bytes read
+     */
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Returns the number of entries read.
+     *
+     * @return the entries read
+     */
+    long getEntriesRead() {
+        return entriesRead;
+    }
+
+    /**
+     * Returns the number of logcat processes launched, one per filter.
+     *
+     * @return the logcat process starts
+     */
+    int getProcessStarts() {
+        return processStarts;
+    }
+
+    /**
+     * Returns the CPU time used by the reader thread, once the reader completed.
+     *
+     * @return the CPU time in milliseconds
+     */
+    long getCpuTimeMillis() {
+        return cpuTimeMillis;
+    }
+
+    /**
+     * Returns the time the reader ran for, once it completed.
+     *
+     * @return the running time in milliseconds
+     */
+    long getRunningTimeMillis() {
+        return runningTimeMillis;
+    }
+
+    /**
+     * Reads the output of logcat until it exits or the reader is stopped.
+     *
+     * @param input the output of the logcat process
+     * @param parser the {@link LogcatParser} to parse the output with
+     * @throws IOException if the output cannot be read
+     */
+    private void read(final InputStream input, final LogcatParser parser) throws IOException {
+        final ReadableByteChannel channel = Channels.newChannel(input);
+        final CharsetDecoder decoder =
+                StandardCharsets.UTF_8
+                        .newDecoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final ByteBuffer bytes = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        final CharBuffer chars = CharBuffer.allocate(READ_BUFFER_SIZE);
+
+        while (!stopped) {
+            final int read = channel.read(bytes);
+
+            if (read < 0) {
+                break;
+            }
+
+            bytesRead += read;
+            bytes.flip();
+            // an incomplete character at the end of the bytes is decoded with the next read
+            decoder.decode(bytes, chars, false);
+            bytes.compact();
+            chars.flip();
+            parser.feed(chars.array(), chars.arrayOffset(), chars.remaining());
+            chars.clear();
+
+            // the last entry is only complete at the next header, but logcat may not write one
+            // for a long time. Complete it once no more output arrived for a while, rather than
+            // as soon as the pipe is drained, which may be in the middle of the entry.
+            if (input.available() == 0 && !awaitOutput(input)) {
+                parser.flush();
+            }
+        }
+    }
+
+    /**
+     * Waits for more output, up to the idle timeout of an entry.
+     *
+     * @param input the output of the logcat process
+     * @return true if more output is available
+     * @throws IOException if the output cannot be read
+     */
+    private boolean awaitOutput(final InputStream input) throws IOException {
+        for (int i = 0; i < ENTRY_IDLE_TIMEOUT_MILLIS / IDLE_POLL_INTERVAL_MILLIS; i++) {
+            if (stopped) {
+                return false;
+            }
+
+            try {
+                Thread.sleep(IDLE_POLL_INTERVAL_MILLIS);
+            } catch (final InterruptedException ex) {
+                // the next read ends with a ClosedByInterruptException
+                Thread.currentThread().interrupt();
+                return false;
+            }
+
+            if (input.available() > 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /** Starts logcat with the filter, unless the reader was stopped. */
+    private Process startLogcatProcess(final LogcatFilter readFilter) throws IOException {
+        synchronized (processMutex) {
+            if (stopped) {
+                return null;
+            }
+
+            processStarts++;
+            logcatProcess = processLauncher.start(readFilter.toCommand(pid));
+            return logcatProcess;
+        }
+    }
+
+    /** Destroys the running logcat process, ending the read of its output. */
+    private void destroyLogcatProcess() {
+        synchronized (processMutex) {
+            if (logcatProcess != null) {
+                logcatProcess.destroy();
+            }
+        }
+    }
+
+    private void onLogEntry(final LogEntry entry) {
+        entriesRead++;
+        listener.onLogEntry(entry);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import androidx.annotation.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bounded, thread-safe buffer for holding {@link AssuranceEvent}'s until the first Assurance
+ * session is connected.
+ *
+ * <p>The buffer retains the earliest {@code launchEventCapacity} events seen after launch along with
+ * the most recent {@code recentEventCapacity} events, which are the events most relevant for
+ * debugging the app launch. Events in between are dropped, oldest first. Additionally, the total
+ * estimated size of the retained events is capped at {@code maxBytes}. The number of events dropped
+ * due to these limits is available via {@link #getDroppedCount()}.
+ */
+class OutboundEventBuffer {
+    @VisibleForTesting static final int DEFAULT_LAUNCH_EVENT_CAPACITY = 200;
+    @VisibleForTesting static final int DEFAULT_RECENT_EVENT_CAPACITY = 300;
+    @VisibleForTesting static final long DEFAULT_MAX_BYTES = 2 * 1024 * 1024;
+
+    /** Approximate size of the event envelope (id, vendor, type, timestamp, number and keys). */
+    private static final int EVENT_ENVELOPE_SIZE = 128;
+
+    private final int launchEventCapacity;
+    private final long maxBytes;
+
+    private final List<AssuranceEvent> launchEvents;
+
+    private final AssuranceEvent[] recentEvents;
+    private final long[] recentEventSizes;
+    private int recentStart;
+    private int recentCount;
+
+    private boolean launchEventsSealed;
+    private long totalBytes;
+    private long droppedCount;
+
+    OutboundEventBuffer() {
+        this(DEFAULT_LAUNCH_EVENT_CAPACITY, DEFAULT_RECENT_EVENT_CAPACITY, DEFAULT_MAX_BYTES);
+    }
+
+    @VisibleForTesting
+    OutboundEventBuffer(
+            final int launchEventCapacity, final int recentEventCapacity, final long maxBytes) {
+        this.launchEventCapacity = launchEventCapacity;
+        this.maxBytes = maxBytes;
+        this.launchEvents = new ArrayList<>(launchEventCapacity);
+        this.recentEvents = new AssuranceEvent[recentEventCapacity];
+        this.recentEventSizes = new long[recentEventCapacity];
+    }
+
+    /**
+     * Adds an event to the buffer, evicting the oldest of the recent events if necessary.
+     *
+     * @param event the event to be buffered
+     * @return true if the event was buffered, false if it was dropped
+     */
+    synchronized boolean add(final AssuranceEvent event) {
+        if (event == null) {
+            return false;
+        }
+
+        final long eventSize = estimateSize(event);
+
+        if (eventSize > maxBytes) {
+            droppedCount++;
+            return false;
+        }
+
+        if (!launchEventsSealed) {
+            if (launchEvents.size() < launchEventCapacity && totalBytes + eventSize <= maxBytes) {
+                launchEvents.add(event);
+                totalBytes += eventSize;
+                return true;
+            }
+
+            // Launch events are retained as is from here on.
+            launchEventsSealed = true;
+        }
+
+        if (recentEvents.length == 0) {
+            droppedCount++;
+            return false;
+        }
+
+        // Make room for the new event by evicting the oldest recent events.
+        while (recentCount > 0
+                && (recentCount == recentEvents.length || totalBytes + eventSize > maxBytes)) {
+            evictOldestRecentEvent();
+        }
+
+        if (totalBytes + eventSize > maxBytes) {
+            droppedCount++;
+            return false;
+        }
+
+        final int index = (recentStart + recentCount) % recentEvents.length;
+        recentEvents[index] = event;
+        recentEventSizes[index] = eventSize;
+        recentCount++;
+        totalBytes += eventSize;
+        return true;
+    }
+
+    /**
+     * Returns the buffered events in the order in which they were added.
+     *
+     * @return a copy of the buffered events
+     */
+    synchronized List<AssuranceEvent> snapshot() {
+        final List<AssuranceEvent> events = new ArrayList<>(launchEvents.size() + recentCount);
+        events.addAll(launchEvents);
+
+        for (int i = 0; i < recentCount; i++) {
+            events.add(recentEvents[(recentStart + i) % recentEvents.length]);
+        }
+
+        return events;
+    }
+
+    /** Removes all the buffered events. The dropped count is retained. */
+    synchronized void clear() {
+        launchEvents.clear();
+
+        for (int i = 0; i < recentEvents.length; i++) {
+            recentEvents[i] = null;
+        }
+
+        recentStart = 0;
+        recentCount = 0;
+        totalBytes = 0;
+    }
+
+    /**
+     * Returns the number of events dropped because of the buffer limits.
+     *
+     * @return the number of dropped events
+     */
+    synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns the number of events currently buffered.
+     *
+     * @return the number of buffered events
+     */
+    synchronized int size() {
+        return launchEvents.size() + recentCount;
+    }
+
+    /**
+     * Returns the estimated size in bytes of the events currently buffered.
+     *
+     * @return the estimated size of the buffered events
+     */
+    synchronized long getEstimatedBytes() {
+        return totalBytes;
+    }
+
+    private void evictOldestRecentEvent() {
+        totalBytes -= recentEventSizes[recentStart];
+        recentEvents[recentStart] = null;
+        recentStart = (recentStart + 1) % recentEvents.length;
+        recentCount--;
+        droppedCount++;
+    }
+
+    /**
+     * Estimates the size of the JSON representation of an event without serializing it.
+     *
+     * @param event the event whose size is to be estimated
+     * @return the estimated size in bytes
+     */
+    @VisibleForTesting
+    static long estimateSize(final AssuranceEvent event) {
+        return EVENT_ENVELOPE_SIZE
+                + AssuranceUtil.estimateJSONSize(event.type)
+                + AssuranceUtil.estimateJSONSize(event.vendor)
+                + (event.metadata == null ? 0 : AssuranceUtil.estimateJSONSize(event.metadata))
+                + (event.payload == null ? 0 : AssuranceUtil.estimateJSONSize(event.payload));
+    }
+}
@@ -73,6 +73,10 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
     private final AssuranceClientInfo clientInfo;
     private final OutboundEventChunker outboundEventChunker;
     private volatile boolean canStartForwarding;
+    private volatile String eventEncoding;
+    private final SharedStateDeltaEncoder stateDeltaEncoder;
+    private volatile boolean stateDeltasEnabled;
+    private volatile boolean serverCachesAppSettings;
 
     OutboundEventQueueWorker(
             final ExecutorService executorService,
@@ -83,7 +87,8 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
                 socket,
                 clientInfo,
                 new LinkedBlockingQueue<AssuranceEvent>(),
-                new OutboundEventChunker(MAX_PAYLOAD_CHUNK_SIZE));
+                new OutboundEventChunker(MAX_PAYLOAD_CHUNK_SIZE),
+                new SharedStateDeltaEncoder());
     }
 
     @VisibleForTesting
@@ -93,11 +98,32 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
             final AssuranceClientInfo clientInfo,
             final LinkedBlockingQueue<AssuranceEvent> queue,
             final OutboundEventChunker outboundEventChunker) {
+        this(
+                executorService,
+                socket,
+                clientInfo,
+                queue,
+                outboundEventChunker,
+                new SharedStateDeltaEncoder());
+    }
+
+    @VisibleForTesting
+    OutboundEventQueueWorker(
+            final ExecutorService executorService,
+            final AssuranceWebViewSocket socket,
+            final AssuranceClientInfo clientInfo,
+            final LinkedBlockingQueue<AssuranceEvent> queue,
+            final OutboundEventChunker outboundEventChunker,
+            final SharedStateDeltaEncoder stateDeltaEncoder) {
         super(executorService, queue);
         this.socket = socket;
         this.clientInfo = clientInfo;
         this.outboundEventChunker = outboundEventChunker;
+        this.stateDeltaEncoder = stateDeltaEncoder;
         canStartForwarding = false;
+        eventEncoding = AssuranceConstants.EventEncoding.JSON;
+        stateDeltasEnabled = false;
+        stateDeltaEncoder.reset();
     }
 
     @Override
@@ -118,7 +144,13 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
 
     @Override
     protected void doWork(AssuranceEvent assuranceEvent) {
-        sendEventToSocket(assuranceEvent);
+        if (!stateDeltasEnabled) {
+            sendEventToSocket(assuranceEvent);
+            return;
+        }
+
+        final AssuranceEvent encodedEvent = stateDeltaEncoder.encode(assuranceEvent);
+        stateDeltaEncoder.onSendCompleted(encodedEvent, sendEventToSocket(encodedEvent));
     }
 
     /** Pauses any further events being sent by blocking queue processing. */
@@ -132,6 +164,44 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
         resume();
     }
 
+    /**
+     * Sets the encoding to be used for the events sent after this call. Unknown encodings are
+     * ignored and the events continue to be sent as JSON.
+     *
+     * @param encoding the encoding agreed upon with the server, one of {@link
+     *     AssuranceConstants.EventEncoding}
+     */
+    void setEventEncoding(final String encoding) {
+        if (AssuranceConstants.EventEncoding.CBOR.equals(encoding)) {
+            eventEncoding = AssuranceConstants.EventEncoding.CBOR;
+        } else {
+            eventEncoding = AssuranceConstants.EventEncoding.JSON;
+        }
+
+        Log.debug(Assurance.LOG_TAG, LOG_TAG, "Using %s encoding for events.", eventEncoding);
+    }
+
+    /**
+     * Sets whether shared state events sent after this call are sent as deltas of the previously
+     * sent state of the same owner. See {@link SharedStateDeltaEncoder}.
+     *
+     * @param enabled true if the server opted into shared state deltas
+     */
+    void setStateDeltasEnabled(final boolean enabled) {
+        stateDeltasEnabled = enabled;
+        Log.debug(Assurance.LOG_TAG, LOG_TAG, "Shared state deltas enabled: %s", enabled);
+    }
+
+    /**
+     * Sets whether the server keeps the app settings of this client, so that the clientInfo events
+     * sent on reconnects only need to carry the hash of the app settings.
+     *
+     * @param cached true if the server opted into caching the app settings
+     */
+    void setServerCachesAppSettings(final boolean cached) {
+        serverCachesAppSettings = cached;
+    }
+
     /**
      * Creates and sends the clientInfo event to Assurance only if the the worker is blocked.
      * Invocation will be a no-op if the worker is already unblocked to prevent unnecessary client
@@ -142,7 +212,8 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
      *
      * <ul>
      *   <li>Version : Representing the version of the Assurance SDK
-     *   <li>AppSettings : A json representing AndroidManifest file
+     *   <li>AppSettings : A json representing AndroidManifest file. Left out on reconnects to a
+     *       server that caches it, where only its hash is sent.
      *   <li>DeviceInfo : A map representing device information and current device state
      * </ul>
      */
@@ -151,22 +222,52 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
             return;
         }
 
+        // Encoding is negotiated afresh for every connection. Client info is always sent as JSON.
+        eventEncoding = AssuranceConstants.EventEncoding.JSON;
+        // The server starts from full states on every connection.
+        stateDeltasEnabled = false;
+        stateDeltaEncoder.reset();
         Log.debug(Assurance.LOG_TAG, LOG_TAG, "Sending client info event to Assurance");
         final AssuranceEvent clientInfoEvent =
                 new AssuranceEvent(
-                        AssuranceConstants.AssuranceEventType.CLIENT, clientInfo.getData());
+                        AssuranceConstants.AssuranceEventType.CLIENT,
+                        serverCachesAppSettings
+                                ? clientInfo.getData(false)
+                                : clientInfo.getData());
         sendEventToSocket(clientInfoEvent);
     }
 
+    /**
+     * Re-sends the clientInfo event with the full app settings, in response to the server not
+     * recognizing the app settings hash of the previous clientInfo event. Like {@link
+     * #sendClientInfoEvent()}, this is a no-op if the worker is already unblocked.
+     */
+    void sendFullClientInfoEvent() {
+        serverCachesAppSettings = false;
+        sendClientInfoEvent();
+    }
+
     /**
      * Sends the provided {@link AssuranceEvent} to Assurance via the connected socket connection.
      *
      * @param event the {@link AssuranceEvent} the needs to be sent.
+     * @return true if the event was handed to the socket, false if it, or one of its chunks, was
+     *     dropped
      */
-    private void sendEventToSocket(final AssuranceEvent event) {
+    private boolean sendEventToSocket(final AssuranceEvent event) {
         if (event == null) {
             Log.error(Assurance.LOG_TAG, LOG_TAG, "Cannot send null event.");
-            return;
+            return false;
+        }
+
+        if (AssuranceConstants.EventEncoding.CBOR.equals(eventEncoding)) {
+            final byte[] encodedEvent = AssuranceCborCodec.encode(event);
+
+            // Events that do not fit into a single frame fall back to JSON chunking below, which
+            // the server reassembles using the chunk metadata.
+            if (encodedEvent.length < MAX_EVENT_SIZE) {
+                return socket.sendData(encodedEvent);
+            }
         }
 
         try {
@@ -176,7 +277,7 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
             // Check if the AssuranceEvent is within transportable limits, if not, perform chunking
             // and resend resulting chunks.
             if (eventData.length < MAX_EVENT_SIZE) {
-                socket.sendData(eventData);
+                return socket.sendData(eventData);
             } else {
                 if (event.getPayload() == null) {
                     // The payload is null and the event size exceeds MAX_EVENT_SIZE. This implies
@@ -199,17 +300,21 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
                             "Cannot send eventId: %s that exceeds permitted limit"
                                     + "but has an empty payload!",
                             event.eventID);
-                    return;
+                    return false;
                 }
 
                 final List<AssuranceEvent> chunkedEvents = outboundEventChunker.chunk(event);
+                boolean sent = true;
 
                 for (final AssuranceEvent chunkedEvent : chunkedEvents) {
-                    socket.sendData(
-                            chunkedEvent
-                                    .getJSONRepresentation()
-                                    .getBytes(Charset.forName("UTF-8")));
+                    sent &=
+                            socket.sendData(
+                                    chunkedEvent
+                                            .getJSONRepresentation()
+                                            .getBytes(Charset.forName("UTF-8")));
                 }
+
+                return sent;
             }
         } catch (final UnsupportedCharsetException ex) {
             // This can be thrown by Charset.forName(*). However, it is unlikely to reach here
@@ -221,6 +326,7 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
                             "UnsupportedCharsetException while converting Assurance event object"
                                     + " to bytes representation: %s",
                             ex.getLocalizedMessage()));
+            return false;
         }
     }
 
@@ -228,6 +334,9 @@ class OutboundEventQueueWorker extends EventQueueWorker<AssuranceEvent> {
     void stop() {
         super.stop();
         canStartForwarding = false;
+        eventEncoding = AssuranceConstants.EventEncoding.JSON;
+        stateDeltasEnabled = false;
+        stateDeltaEncoder.reset();
     }
 
     /**
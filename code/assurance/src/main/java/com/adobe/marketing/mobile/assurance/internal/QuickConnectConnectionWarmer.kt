@@ -0,0 +1,55 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+
+package com.adobe.marketing.mobile.assurance.internal
+
+import com.adobe.marketing.mobile.Assurance.LOG_TAG
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.AssuranceEnvironment
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.SocketKeys
+import com.adobe.marketing.mobile.services.Log
+import java.net.InetAddress
+
+/**
+ * Resolves the host of the Assurance socket while the QuickConnect device status is being polled,
+ * so that the socket connection that follows a successful QuickConnect does not wait on DNS.
+ *
+ * The socket is connected through a WebView, whose network stack does not share TLS sessions
+ * with the app, but which resolves hosts through the system resolver and its cache.
+ *
+ * @param environment the [AssuranceEnvironment] of the session to connect to
+ * @param resolver resolves the addresses of a host
+ */
+internal class QuickConnectConnectionWarmer(
+    environment: AssuranceEnvironment,
+    private val resolver: (String) -> Unit = { host -> InetAddress.getAllByName(host) }
+) : Runnable {
+
+    companion object {
+        private const val LOG_SOURCE = "QuickConnectConnectionWarmer"
+    }
+
+    /**
+     * The host of the socket to connect to.
+     */
+    internal val host: String =
+        String.format(SocketKeys.HOST_FORMAT, AssuranceUtil.getURLFormatForEnvironment(environment))
+
+    override fun run() {
+        try {
+            resolver(host)
+            Log.trace(LOG_TAG, LOG_SOURCE, "Resolved socket host $host ahead of connection.")
+        } catch (e: Exception) {
+            // the socket connection resolves the host again
+            Log.trace(LOG_TAG, LOG_SOURCE, "Unable to resolve socket host $host. ${e.message}")
+        }
+    }
+}
@@ -32,11 +32,14 @@ import javax.net.ssl.HttpsURLConnection
  * @param orgId orgId that was used for the the device creation/registration
  * @param clientId clientId that was used for the the device creation/registration
  * @param callback a callback to be notified of the response to the network request
+ * @param longPollWaitMs when positive, the time the server is asked to hold the request for until
+ *        the session is ready, in which case the read timeout of the request is extended by it
  */
 internal class QuickConnectDeviceStatusChecker(
     private val orgId: String,
     private val clientId: String,
-    private val callback: AdobeCallback<Response<HttpConnecting, AssuranceConnectionError>>
+    private val callback: AdobeCallback<Response<HttpConnecting, AssuranceConnectionError>>,
+    private val longPollWaitMs: Long = 0
 ) : Runnable {
 
     companion object {
@@ -65,11 +68,15 @@ internal class QuickConnectDeviceStatusChecker(
     private fun buildRequest(): NetworkRequest {
         val url = "${QuickConnect.BASE_DEVICE_API_URL}/${QuickConnect.DEVICE_API_PATH_STATUS}"
 
-        val body: Map<String, String> = mapOf(
+        val body: MutableMap<String, Any> = mutableMapOf(
             QuickConnect.KEY_ORG_ID to orgId,
             QuickConnect.KEY_CLIENT_ID to clientId
         )
 
+        if (longPollWaitMs > 0) {
+            body[QuickConnect.KEY_WAIT_MS] = longPollWaitMs
+        }
+
         val headers: Map<String, String> = mapOf(
             NetworkingConstants.Headers.ACCEPT to NetworkingConstants.HeaderValues.CONTENT_TYPE_JSON_APPLICATION,
             NetworkingConstants.Headers.CONTENT_TYPE to NetworkingConstants.HeaderValues.CONTENT_TYPE_JSON_APPLICATION
@@ -82,7 +89,7 @@ internal class QuickConnectDeviceStatusChecker(
             bodyBytes,
             headers,
             QuickConnect.CONNECTION_TIMEOUT_MS,
-            QuickConnect.READ_TIMEOUT_MS
+            QuickConnect.READ_TIMEOUT_MS + longPollWaitMs.coerceAtLeast(0).toInt()
         )
     }
 
@@ -14,6 +14,7 @@ package com.adobe.marketing.mobile.assurance.internal
 import androidx.annotation.VisibleForTesting
 import com.adobe.marketing.mobile.Assurance.LOG_TAG
 import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.AssuranceConnectionError
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.AssuranceEnvironment
 import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.QuickConnect
 import com.adobe.marketing.mobile.services.HttpConnecting
 import com.adobe.marketing.mobile.services.Log
@@ -31,11 +32,24 @@ import java.util.concurrent.TimeUnit
 /**
  * Responsible for manging the workflow that registers the device as one capable of initiating a QuickConnect session.
  * A typical flow includes device creation, status checks with retries, success / failure notifications.
+ *
+ * The status is polled on a [QuickConnectPollingSchedule], quickly at first and then backing off. In long-poll mode,
+ * the server is asked to hold every status request until the session is ready, and the status is checked again as
+ * soon as a request returns without session details. A server that answers without holding the request does not
+ * support long polling, in which case the schedule is used instead. The host of the session socket is resolved while
+ * polling, by a [QuickConnectConnectionWarmer].
+ *
+ * @param longPollWaitMs when positive, enables long-poll mode with the server holding requests for up to this time,
+ *        at most [QuickConnect.LONG_POLL_MAX_WAIT_MS]. It is configured for the app with the
+ *        `assurance.quickConnectLongPollWaitMs` configuration key, long polling is disabled by default.
  */
 internal class QuickConnectManager(
     private val assuranceSharedStateManager: AssuranceStateManager,
     private val executorService: ScheduledExecutorService,
-    private val quickConnectCallback: QuickConnectCallback
+    private val quickConnectCallback: QuickConnectCallback,
+    private val environment: AssuranceEnvironment = AssuranceEnvironment.PROD,
+    private val pollingSchedule: QuickConnectPollingSchedule = QuickConnectPollingSchedule(),
+    longPollWaitMs: Long = 0
 ) {
 
     companion object {
@@ -53,6 +67,20 @@ internal class QuickConnectManager(
     @Volatile
     private var retryCount = 0
 
+    /**
+     * The time the server is asked to hold status requests for, 0 when not long polling.
+     */
+    @VisibleForTesting
+    @Volatile
+    internal var longPollWaitMs = longPollWaitMs.coerceIn(0, QuickConnect.LONG_POLL_MAX_WAIT_MS)
+        private set
+
+    /**
+     * The time at which the pending status check is due to start.
+     */
+    @Volatile
+    private var statusCheckStartTimeMs = 0L
+
     /**
      * Represents if there is an active attempt to initiate a QuickConnect session.
      */
@@ -101,6 +129,9 @@ internal class QuickConnectManager(
         }
 
         deviceCreationTaskHandle = executorService.submit(quickConnectDeviceCreator)
+
+        // resolve the socket host while the device is registered and its status polled
+        executorService.execute(QuickConnectConnectionWarmer(environment))
     }
 
     /**
@@ -111,11 +142,27 @@ internal class QuickConnectManager(
      */
     @VisibleForTesting
     internal fun checkDeviceStatus(orgId: String, clientId: String) {
-        val statusCheckerTask = QuickConnectDeviceStatusChecker(orgId, clientId) { response ->
-            handleStatusCheckResponse(orgId, clientId, response)
-        }
+        val delayMs = pollingSchedule.start()
+        scheduleStatusCheck(orgId, clientId, if (longPollWaitMs > 0) 0 else delayMs)
+    }
 
-        deviceStatusTaskHandle = executorService.schedule(statusCheckerTask, QuickConnect.STATUS_CHECK_DELAY_MS, TimeUnit.MILLISECONDS)
+    /**
+     * Schedules a status check after the provided delay.
+     *
+     * @param orgId the orgId for which quick connect was initiated
+     * @param clientId the clientId for which quick connect was initiated
+     * @param delayMs the delay before the status check
+     */
+    private fun scheduleStatusCheck(orgId: String, clientId: String, delayMs: Long) {
+        val statusCheckerTask = QuickConnectDeviceStatusChecker(
+            orgId,
+            clientId,
+            { response -> handleStatusCheckResponse(orgId, clientId, response) },
+            longPollWaitMs
+        )
+
+        statusCheckStartTimeMs = pollingSchedule.now() + delayMs
+        deviceStatusTaskHandle = executorService.schedule(statusCheckerTask, delayMs, TimeUnit.MILLISECONDS)
     }
 
     /**
@@ -154,15 +201,24 @@ internal class QuickConnectManager(
                     return
                 }
 
-                if (++retryCount < QuickConnect.MAX_RETRY_COUNT) {
-                    Log.trace(LOG_TAG, LOG_SOURCE, "Will retry device status check.")
-                    checkDeviceStatus(orgId, clientId)
-                } else {
-                    // Maximum allowed retries for checking the status has been reached.
-                    Log.trace(LOG_TAG, LOG_SOURCE, "Will not retry. Maximum allowed retries for status check have been reached.")
+                val delayMs = pollingSchedule.nextDelayMs()
+                if (delayMs == null) {
+                    // The time allowed for checking the status has elapsed.
+                    Log.trace(LOG_TAG, LOG_SOURCE, "Will not retry. Maximum allowed time for status check has been reached.")
                     quickConnectCallback.onError(AssuranceConnectionError.RETRY_LIMIT_REACHED)
                     cleanup()
+                    return
                 }
+
+                if (longPollWaitMs > 0 && pollingSchedule.now() - statusCheckStartTimeMs < longPollWaitMs / 2) {
+                    // The server answered without holding the request, it does not support long polling.
+                    Log.debug(LOG_TAG, LOG_SOURCE, "Status check was not held by the server. Falling back to polling.")
+                    longPollWaitMs = 0
+                }
+
+                retryCount++
+                Log.trace(LOG_TAG, LOG_SOURCE, "Will retry device status check (retry $retryCount).")
+                scheduleStatusCheck(orgId, clientId, if (longPollWaitMs > 0) 0 else delayMs)
             }
 
             is Response.Failure -> {
@@ -0,0 +1,71 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+
+package com.adobe.marketing.mobile.assurance.internal
+
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.QuickConnect
+
+/**
+ * Computes the delays between the QuickConnect device status checks. The status is checked quickly
+ * at first, while the user is likely completing the connection in the browser, and the delay then
+ * backs off exponentially up to [maxDelayMs]. Polling gives up once [timeoutMs] have elapsed since
+ * it started.
+ *
+ * @param initialDelayMs the delay before the first status check
+ * @param maxDelayMs the maximum delay between two status checks
+ * @param timeoutMs the time after which polling gives up
+ * @param clock the source of the current time in milliseconds
+ */
+internal class QuickConnectPollingSchedule(
+    private val initialDelayMs: Long = QuickConnect.STATUS_CHECK_INITIAL_DELAY_MS,
+    private val maxDelayMs: Long = QuickConnect.STATUS_CHECK_MAX_DELAY_MS,
+    private val timeoutMs: Long = QuickConnect.STATUS_CHECK_TIMEOUT_MS,
+    private val clock: () -> Long = { System.currentTimeMillis() }
+) {
+    private var startTimeMs = 0L
+    private var nextDelayMs = initialDelayMs
+
+    /**
+     * Starts polling, or restarts it from the initial delay.
+     *
+     * @return the delay before the first status check
+     */
+    internal fun start(): Long {
+        startTimeMs = clock()
+        nextDelayMs = initialDelayMs
+        return advance()
+    }
+
+    /**
+     * Returns the delay before the next status check.
+     *
+     * @return the delay in milliseconds, or null if polling timed out
+     */
+    internal fun nextDelayMs(): Long? {
+        if (clock() - startTimeMs >= timeoutMs) {
+            return null
+        }
+
+        return advance()
+    }
+
+    /**
+     * Returns the current time of the schedule's clock.
+     */
+    internal fun now(): Long = clock()
+
+    private fun advance(): Long {
+        val delayMs = nextDelayMs
+        nextDelayMs = minOf(maxDelayMs, (delayMs * QuickConnect.STATUS_CHECK_BACKOFF_MULTIPLIER).toLong())
+        return delayMs
+    }
+}
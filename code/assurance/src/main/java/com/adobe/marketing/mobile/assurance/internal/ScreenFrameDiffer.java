@@ -0,0 +1,100 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import android.graphics.Bitmap;
+import android.graphics.Rect;
+
+/**
+ * Finds the region of a frame that changed since the previous frame.
+ *
+ * <p>Frames are divided into square tiles, and a hash of the pixels of every tile is kept for the
+ * previous frame. The changed region is the bounding box of the tiles whose hash changed. The
+ * first frame, and every frame with a different size than the previous one, is changed as a whole.
+ */
+class ScreenFrameDiffer {
+    private final int tileSize;
+    private final int[] rowBuffer;
+    private long[] tileHashes;
+    private int frameWidth;
+    private int frameHeight;
+
+    /**
+     * Creates a differ that compares frames in tiles of the provided size.
+     *
+     * @param tileSize the width and height of a tile in pixels
+     */
+    ScreenFrameDiffer(final int tileSize) {
+        this.tileSize = tileSize;
+        this.rowBuffer = new int[tileSize];
+    }
+
+    /**
+     * Compares the frame with the previous frame, and remembers it as the previous frame.
+     *
+     * @param frame the new frame
+     * @return the region of the frame that changed, or null if the frame is unchanged
+     */
+    Rect findChangedRegion(final Bitmap frame) {
+        final int width = frame.getWidth();
+        final int height = frame.getHeight();
+        final int columns = (width + tileSize - 1) / tileSize;
+        final int rows = (height + tileSize - 1) / tileSize;
+        final boolean isKeyframe =
+                tileHashes == null || width != frameWidth || height != frameHeight;
+
+        if (isKeyframe) {
+            tileHashes = new long[columns * rows];
+            frameWidth = width;
+            frameHeight = height;
+        }
+
+        int left = Integer.MAX_VALUE;
+        int top = Integer.MAX_VALUE;
+        int right = -1;
+        int bottom = -1;
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                final int x = column * tileSize;
+                final int y = row * tileSize;
+                final int tileWidth = Math.min(tileSize, width - x);
+                final int tileHeight = Math.min(tileSize, height - y);
+                final long hash =
+                        AssuranceScreenCapturer.hashPixels(
+                                frame, x, y, tileWidth, tileHeight, rowBuffer);
+                final int index = row * columns + column;
+
+                if (!isKeyframe && tileHashes[index] == hash) {
+                    continue;
+                }
+
+                tileHashes[index] = hash;
+                left = Math.min(left, x);
+                top = Math.min(top, y);
+                right = Math.max(right, x + tileWidth);
+                bottom = Math.max(bottom, y + tileHeight);
+            }
+        }
+
+        if (isKeyframe) {
+            return new Rect(0, 0, width, height);
+        }
+
+        return right < 0 ? null : new Rect(left, top, right, bottom);
+    }
+
+    /** Forgets the previous frame, so that the next frame is changed as a whole. */
+    void reset() {
+        tileHashes = null;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import android.os.PowerManager;
+
+/**
+ * Adapts the frame rate and capture scale of a screen stream.
+ *
+ * <ul>
+ *   <li>The frame rate grows additively towards the requested rate while frames are uploaded in
+ *       time, and is cut multiplicatively when a frame has to be skipped because the previous one
+ *       is still being uploaded, or when an upload fails.
+ *   <li>The frame rate never exceeds the rate at which frames have recently been uploaded.
+ *   <li>The thermal state of the device caps the frame rate: to half of the requested rate from
+ *       {@link PowerManager#THERMAL_STATUS_MODERATE}, and to the minimum rate from {@link
+ *       PowerManager#THERMAL_STATUS_SEVERE}.
+ *   <li>A capture that blocks the main thread for longer than the budget reduces the capture scale
+ *       and the frame rate.
+ * </ul>
+ *
+ * <p>This class is not thread safe, it is used from the stream's worker thread only.
+ */
+class ScreenStreamRateController {
+    static final float MIN_FPS = 0.2f;
+    static final float MIN_SCALE = 0.25f;
+    private static final float FPS_INCREASE_STEP = 0.25f;
+    private static final float SKIP_DECREASE_FACTOR = 0.75f;
+    private static final float FAILURE_DECREASE_FACTOR = 0.5f;
+    private static final float SCALE_DECREASE_FACTOR = 0.75f;
+    private static final float UPLOAD_TIME_SMOOTHING = 0.3f;
+
+    private final float requestedFps;
+    private final long mainThreadBudgetNanos;
+    private float fps;
+    private float scale;
+    private float thermalFpsCap;
+    private float averageUploadMillis = -1;
+
+    /**
+     * Creates a controller for a stream.
+     *
+     * @param requestedFps the frame rate requested for the stream
+     * @param requestedScale the capture scale requested for the stream
+     * @param mainThreadBudgetNanos the time a capture may block the main thread for
+     */
+    ScreenStreamRateController(
+            final float requestedFps,
+            final float requestedScale,
+            final long mainThreadBudgetNanos) {
+        this.requestedFps = Math.max(MIN_FPS, requestedFps);
+        this.mainThreadBudgetNanos = mainThreadBudgetNanos;
+        this.fps = this.requestedFps;
+        this.scale = Math.max(MIN_SCALE, requestedScale);
+        this.thermalFpsCap = this.requestedFps;
+    }
+
+    /**
+     * Returns the delay until the next frame is captured.
+     *
+     * @return the frame interval in milliseconds
+     */
+    long getFrameIntervalMillis() {
+        return Math.round(1000 / fps);
+    }
+
+    /**
+     * Returns the current frame rate.
+     *
+     * @return the frames per second
+     */
+    float getFps() {
+        return fps;
+    }
+
+    /**
+     * Returns the scale to capture the next frame with.
+     *
+     * @return the capture scale, between {@link #MIN_SCALE} and the requested scale
+     */
+    float getScale() {
+        return scale;
+    }
+
+    /** Called when a frame is skipped because the previous frame is still being processed. */
+    void onFrameSkipped() {
+        fps = Math.max(MIN_FPS, fps * SKIP_DECREASE_FACTOR);
+    }
+
+    /**
+     * Called when the upload of a frame completes.
+     *
+     * @param uploadMillis the time taken to upload the frame
+     */
+    void onFrameUploaded(final long uploadMillis) {
+        averageUploadMillis =
+                averageUploadMillis < 0
+                        ? uploadMillis
+                        : averageUploadMillis
+                                + UPLOAD_TIME_SMOOTHING * (uploadMillis - averageUploadMillis);
+        fps = Math.min(getFpsCeiling(), fps + FPS_INCREASE_STEP);
+    }
+
+    /** Called when a frame is unchanged, and therefore not uploaded. */
+    void onFrameUnchanged() {
+        fps = Math.min(getFpsCeiling(), fps + FPS_INCREASE_STEP);
+    }
+
+    /** Called when the upload of a frame fails. */
+    void onUploadFailed() {
+        fps = Math.max(MIN_FPS, fps * FAILURE_DECREASE_FACTOR);
+    }
+
+    /**
+     * Called with the thermal status of the device before a frame is captured.
+     *
+     * @param thermalStatus one of the {@code PowerManager.THERMAL_STATUS_*} values
+     */
+    void onThermalStatus(final int thermalStatus) {
+        if (thermalStatus >= PowerManager.THERMAL_STATUS_SEVERE) {
+            thermalFpsCap = MIN_FPS;
+        } else if (thermalStatus >= PowerManager.THERMAL_STATUS_MODERATE) {
+            thermalFpsCap = Math.max(MIN_FPS, requestedFps / 2);
+        } else {
+            thermalFpsCap = requestedFps;
+        }
+
+        fps = Math.min(fps, thermalFpsCap);
+    }
+
+    /**
+     * Called with the time a capture blocked the main thread for.
+     *
+     * @param blockingNanos the main thread blocking time in nanoseconds
+     */
+    void onMainThreadTime(final long blockingNanos) {
+        if (blockingNanos <= mainThreadBudgetNanos) {
+            return;
+        }
+
+        scale = Math.max(MIN_SCALE, scale * SCALE_DECREASE_FACTOR);
+        fps = Math.max(MIN_FPS, fps * SKIP_DECREASE_FACTOR);
+    }
+
+    private float getFpsCeiling() {
+        float ceiling = Math.min(requestedFps, thermalFpsCap);
+
+        if (averageUploadMillis > 0) {
+            // only one frame is uploaded at a time
+            ceiling = Math.min(ceiling, 1000 / averageUploadMillis);
+        }
+
+        return Math.max(MIN_FPS, ceiling);
+    }
+}
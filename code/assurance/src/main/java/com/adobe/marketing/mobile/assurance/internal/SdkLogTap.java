@@ -0,0 +1,206 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.Logging;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Captures the logs of the SDK in process, by wrapping the {@link Logging} service of the {@link
+ * ServiceProvider}.
+ *
+ * <p>Every log call is passed on to the wrapped service, and a record of it is added to a {@link
+ * LogRingBuffer}, without locking or formatting on the logging thread. The records are turned into
+ * {@link LogEntry} instances when drained. Records are dropped while the buffer is full.
+ */
+class SdkLogTap implements Logging {
+    static final int DEFAULT_CAPACITY = 4096;
+
+    /** A log call, as recorded on the logging thread. */
+    private static final class LogRecord {
+        final long timeMillis;
+        final int tid;
+        final char level;
+        final String tag;
+        final String message;
+
+        LogRecord(
+                final long timeMillis,
+                final int tid,
+                final char level,
+                final String tag,
+                final String message) {
+            this.timeMillis = timeMillis;
+            this.tid = tid;
+            this.level = level;
+            this.tag = tag;
+            this.message = message;
+        }
+    }
+
+    private final LogRingBuffer<LogRecord> records;
+    private final int pid;
+    private final List<LogRecord> drainedRecords = new ArrayList<>();
+    private final SimpleDateFormat timeFormat =
+            new SimpleDateFormat("MM-dd HH:mm:ss.SSS", Locale.US);
+    private volatile Logging delegate;
+    private boolean installed;
+
+    SdkLogTap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    @VisibleForTesting
+    SdkLogTap(final int capacity) {
+        this.records = new LogRingBuffer<>(capacity);
+        this.pid = android.os.Process.myPid();
+    }
+
+    /**
+     * Replaces the logging service of the {@link ServiceProvider} with this tap, which passes log
+     * calls on to the replaced service. Does nothing if the tap is already installed.
+     */
+    synchronized void install() {
+        if (installed) {
+            return;
+        }
+
+        final ServiceProvider serviceProvider = ServiceProvider.getInstance();
+        delegate = serviceProvider.getLoggingService();
+        serviceProvider.setLoggingService(this);
+        installed = true;
+    }
+
+    /**
+     * Restores the logging service replaced by {@link #install()}, unless another service was set
+     * since.
+     */
+    synchronized void uninstall() {
+        if (!installed) {
+            return;
+        }
+
+        final ServiceProvider serviceProvider = ServiceProvider.getInstance();
+
+        if (serviceProvider.getLoggingService() == this) {
+            serviceProvider.setLoggingService(delegate);
+        }
+
+        installed = false;
+    }
+
+    /**
+     * Returns whether the tap is installed.
+     *
+     * @return true if SDK log calls are captured
+     */
+    synchronized boolean isInstalled() {
+        return installed;
+    }
+
+    /**
+     * Removes the captured log calls as {@link LogEntry} instances, oldest first. Must only be
+     * called from a single thread at a time.
+     *
+     * @param entries the collection to add the entries to
+     * @param maxEntries the maximum number of entries to remove
+     * @return the number of entries removed
+     */
+    int drainTo(final Collection<LogEntry> entries, final int maxEntries) {
+        drainedRecords.clear();
+        final int count = records.drainTo(drainedRecords, maxEntries);
+
+        for (final LogRecord record : drainedRecords) {
+            entries.add(
+                    new LogEntry(
+                            timeFormat.format(new Date(record.timeMillis)),
+                            pid,
+                            record.tid,
+                            record.level,
+                            record.tag,
+                            record.message));
+        }
+
+        drainedRecords.clear();
+        return count;
+    }
+
+    /**
+     * Returns the number of log calls dropped because the buffer was full.
+     *
+     * @return the dropped log calls count
+     */
+    long getDroppedCount() {
+        return records.getDroppedCount();
+    }
+
+    @Override
+    public void trace(final String tag, final String message) {
+        final Logging logging = delegate;
+
+        if (logging != null) {
+            logging.trace(tag, message);
+        }
+
+        record('V', tag, message);
+    }
+
+    @Override
+    public void debug(final String tag, final String message) {
+        final Logging logging = delegate;
+
+        if (logging != null) {
+            logging.debug(tag, message);
+        }
+
+        record('D', tag, message);
+    }
+
+    @Override
+    public void warning(final String tag, final String message) {
+        final Logging logging = delegate;
+
+        if (logging != null) {
+            logging.warning(tag, message);
+        }
+
+        record('W', tag, message);
+    }
+
+    @Override
+    public void error(final String tag, final String message) {
+        final Logging logging = delegate;
+
+        if (logging != null) {
+            logging.error(tag, message);
+        }
+
+        record('E', tag, message);
+    }
+
+    private void record(final char level, final String tag, final String message) {
+        records.offer(
+                new LogRecord(
+                        System.currentTimeMillis(),
+                        android.os.Process.myTid(),
+                        level,
+                        tag == null ? "" : tag,
+                        message == null ? "" : message));
+    }
+}
@@ -0,0 +1,309 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.StateDeltaKeys;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Rewrites shared state {@link AssuranceEvent}'s sent during a session so that only the changes
+ * since the previously sent state of the same owner and type are transmitted.
+ *
+ * <p>The first state of every owner and type, and every {@code keyframeInterval}'th state after
+ * that, is sent in full (a keyframe) along with a version number:
+ *
+ * <pre>
+ * "metadata": {"state.data": {...}, "state.version": 1}
+ * </pre>
+ *
+ * All other states are sent as a JSON Patch (RFC 6902) style list of "add", "remove" and "replace"
+ * operations to be applied to the state with the base version:
+ *
+ * <pre>
+ * "metadata": {"state.data.patch": [{"op": "replace", "path": "/a/b", "value": 2}],
+ *              "state.baseVersion": 1, "state.version": 2}
+ * </pre>
+ *
+ * Nested maps are diffed key by key, while lists and other values are replaced as a whole. A
+ * keyframe is also sent when the patch would not be smaller than the full state. {@link
+ * #applyPatch(Map, List)} reconstructs a state from its base state and a patch.
+ *
+ * <p>Deltas are only used when the server opts into them, and the cache is reset for every
+ * connection so that the server always starts from a keyframe. A state only becomes the base of
+ * later patches once {@link #onSendCompleted(AssuranceEvent, boolean)} confirms that it was sent.
+ */
+class SharedStateDeltaEncoder {
+    @VisibleForTesting static final int DEFAULT_KEYFRAME_INTERVAL = 20;
+
+    private final int keyframeInterval;
+    private final Map<String, SentState> sentStates = new HashMap<>();
+
+    /** States encoded but not confirmed as sent yet, keyed by the id of the encoded event. */
+    private final Map<String, SentState> pendingStates = new HashMap<>();
+
+    SharedStateDeltaEncoder() {
+        this(DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    @VisibleForTesting
+    SharedStateDeltaEncoder(final int keyframeInterval) {
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    /**
+     * Returns the event to be sent in place of the provided event. Events that are not shared
+     * state events are returned as is. The outcome of sending the returned event must be reported
+     * through {@link #onSendCompleted(AssuranceEvent, boolean)}.
+     *
+     * @param event the {@link AssuranceEvent} about to be sent
+     * @return the provided event, or an event with the same identity carrying a keyframe or patch
+     */
+    synchronized AssuranceEvent encode(final AssuranceEvent event) {
+        final Map<String, Object> payload = event.getPayload();
+
+        if (payload == null) {
+            return event;
+        }
+
+        final Object metadata = payload.get(AssuranceConstants.PayloadDataKeys.METADATA);
+        final Object eventData =
+                payload.get(AssuranceConstants.GenericEventPayloadKey.ACP_EXTENSION_EVENT_DATA);
+
+        if (!(metadata instanceof Map) || !(eventData instanceof Map)) {
+            return event;
+        }
+
+        final Map<?, ?> stateMetadata = (Map<?, ?>) metadata;
+        final String stateType;
+
+        if (stateMetadata.containsKey(AssuranceConstants.PayloadDataKeys.STATE_DATA)) {
+            stateType = AssuranceConstants.PayloadDataKeys.STATE_DATA;
+        } else if (stateMetadata.containsKey(AssuranceConstants.PayloadDataKeys.XDM_STATE_DATA)) {
+            stateType = AssuranceConstants.PayloadDataKeys.XDM_STATE_DATA;
+        } else {
+            return event;
+        }
+
+        final Object owner =
+                ((Map<?, ?>) eventData).get(AssuranceConstants.SDKEventDataKey.STATE_OWNER);
+        final Object state = stateMetadata.get(stateType);
+
+        if (!(owner instanceof String) || !(state instanceof Map)) {
+            return event;
+        }
+
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> currentState = (Map<String, Object>) state;
+        final String cacheKey = owner + "|" + stateType;
+        final SentState previous = sentStates.get(cacheKey);
+        final Map<String, Object> newMetadata = new HashMap<>();
+
+        List<Map<String, Object>> patch = null;
+
+        if (previous != null && previous.deltasSinceKeyframe + 1 < keyframeInterval) {
+            patch = new ArrayList<>();
+            diff("", previous.state, currentState, patch);
+
+            if (AssuranceUtil.estimateJSONSize(patch)
+                    >= AssuranceUtil.estimateJSONSize(currentState)) {
+                patch = null;
+            }
+        }
+
+        final int version = previous == null ? 1 : previous.version + 1;
+
+        if (patch == null) {
+            newMetadata.put(stateType, currentState);
+            pendingStates.put(event.eventID, new SentState(cacheKey, currentState, version, 0));
+        } else {
+            newMetadata.put(stateType + StateDeltaKeys.PATCH_SUFFIX, patch);
+            newMetadata.put(StateDeltaKeys.BASE_VERSION, previous.version);
+            pendingStates.put(
+                    event.eventID,
+                    new SentState(
+                            cacheKey, currentState, version, previous.deltasSinceKeyframe + 1));
+        }
+
+        newMetadata.put(StateDeltaKeys.VERSION, version);
+
+        final Map<String, Object> newPayload = new HashMap<>(payload);
+        newPayload.put(AssuranceConstants.PayloadDataKeys.METADATA, newMetadata);
+        return new AssuranceEvent(
+                event.eventID,
+                event.vendor,
+                event.type,
+                event.metadata,
+                newPayload,
+                event.timestamp,
+                event.eventNumber);
+    }
+
+    /**
+     * Reports whether an event returned by {@link #encode(AssuranceEvent)} was sent. A sent state
+     * becomes the base of the next patch for its owner. When a keyframe or patch could not be sent,
+     * the next state of its owner is sent as a keyframe, as the server may now be missing the base
+     * version of a later patch.
+     *
+     * @param encodedEvent the event returned by {@link #encode(AssuranceEvent)}
+     * @param sent true if the event was sent, false if it was dropped
+     */
+    synchronized void onSendCompleted(final AssuranceEvent encodedEvent, final boolean sent) {
+        final SentState pendingState = pendingStates.remove(encodedEvent.eventID);
+
+        if (pendingState == null) {
+            return;
+        }
+
+        if (sent) {
+            sentStates.put(pendingState.cacheKey, pendingState);
+        } else {
+            // Versions keep increasing, but the next state of the owner cannot be a patch.
+            sentStates.put(
+                    pendingState.cacheKey,
+                    new SentState(
+                            pendingState.cacheKey, null, pendingState.version, keyframeInterval));
+        }
+    }
+
+    /** Forgets all the states sent so far, so that the next state of every owner is a keyframe. */
+    synchronized void reset() {
+        sentStates.clear();
+        pendingStates.clear();
+    }
+
+    /**
+     * Reconstructs a state by applying a patch created by this encoder to its base state. The base
+     * state is not modified.
+     *
+     * @param baseState the state with the base version of the patch
+     * @param patch the list of patch operations
+     * @return the reconstructed state
+     */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> applyPatch(
+            final Map<String, Object> baseState, final List<Map<String, Object>> patch) {
+        final Map<String, Object> result = copyMaps(baseState);
+
+        for (final Map<String, Object> operation : patch) {
+            final String[] tokens = ((String) operation.get(StateDeltaKeys.PATH)).split("/", -1);
+            Map<String, Object> target = result;
+
+            // tokens[0] is the empty string preceding the leading "/"
+            for (int i = 1; i < tokens.length - 1; i++) {
+                target = (Map<String, Object>) target.get(unescape(tokens[i]));
+            }
+
+            final String key = unescape(tokens[tokens.length - 1]);
+
+            if (StateDeltaKeys.OP_REMOVE.equals(operation.get(StateDeltaKeys.OP))) {
+                target.remove(key);
+            } else {
+                target.put(key, operation.get(StateDeltaKeys.VALUE));
+            }
+        }
+
+        return result;
+    }
+
+    private static void diff(
+            final String path,
+            final Map<String, Object> previous,
+            final Map<String, Object> current,
+            final List<Map<String, Object>> patch) {
+        for (final String key : previous.keySet()) {
+            if (!current.containsKey(key)) {
+                patch.add(operation(StateDeltaKeys.OP_REMOVE, path + "/" + escape(key), null));
+            }
+        }
+
+        for (final Map.Entry<String, Object> entry : current.entrySet()) {
+            final String key = entry.getKey();
+            final Object value = entry.getValue();
+            final String childPath = path + "/" + escape(key);
+
+            if (!previous.containsKey(key)) {
+                patch.add(operation(StateDeltaKeys.OP_ADD, childPath, value));
+                continue;
+            }
+
+            final Object previousValue = previous.get(key);
+
+            if (previousValue instanceof Map && value instanceof Map) {
+                @SuppressWarnings("unchecked")
+                final Map<String, Object> previousMap = (Map<String, Object>) previousValue;
+                @SuppressWarnings("unchecked")
+                final Map<String, Object> currentMap = (Map<String, Object>) value;
+                diff(childPath, previousMap, currentMap, patch);
+            } else if (!Objects.equals(previousValue, value)) {
+                patch.add(operation(StateDeltaKeys.OP_REPLACE, childPath, value));
+            }
+        }
+    }
+
+    private static Map<String, Object> operation(
+            final String op, final String path, final Object value) {
+        final Map<String, Object> operation = new HashMap<>();
+        operation.put(StateDeltaKeys.OP, op);
+        operation.put(StateDeltaKeys.PATH, path);
+
+        if (!StateDeltaKeys.OP_REMOVE.equals(op)) {
+            operation.put(StateDeltaKeys.VALUE, value);
+        }
+
+        return operation;
+    }
+
+    private static String escape(final String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static String unescape(final String token) {
+        return token.replace("~1", "/").replace("~0", "~");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> copyMaps(final Map<String, Object> map) {
+        final Map<String, Object> copy = new HashMap<>();
+
+        for (final Map.Entry<String, Object> entry : map.entrySet()) {
+            final Object value = entry.getValue();
+            copy.put(
+                    entry.getKey(),
+                    value instanceof Map ? copyMaps((Map<String, Object>) value) : value);
+        }
+
+        return copy;
+    }
+
+    private static final class SentState {
+        final String cacheKey;
+        final Map<String, Object> state;
+        final int version;
+        final int deltasSinceKeyframe;
+
+        SentState(
+                final String cacheKey,
+                final Map<String, Object> state,
+                final int version,
+                final int deltasSinceKeyframe) {
+            this.cacheKey = cacheKey;
+            this.state = state;
+            this.version = version;
+            this.deltasSinceKeyframe = deltasSinceKeyframe;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal
+
+import androidx.annotation.VisibleForTesting
+import com.adobe.marketing.mobile.assurance.internal.AssuranceAppState.StatusLog
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledThreadPoolExecutor
+import java.util.concurrent.TimeUnit
+
+/**
+ * A bounded store of the Assurance status UI logs.
+ *
+ * Logs are appended to fixed size chunks that are never modified once written, so that a
+ * [StatusLogSnapshot] shares the chunks with the store instead of copying the logs: taking a
+ * snapshot only copies the references to the chunks. Once the store holds [capacity] logs, the
+ * oldest ones are evicted, a whole chunk at a time being released once all its logs are evicted.
+ *
+ * Changes are published to [onChange] at most once every [publishIntervalMs], the last change of a
+ * burst being published once the interval elapsed.
+ *
+ * @param capacity the maximum number of logs held
+ * @param publishIntervalMs the minimum interval between two change notifications
+ * @param scheduler the executor on which delayed change notifications are run
+ * @param clock the source of the current time in milliseconds
+ * @param onChange notified when logs were appended or cleared
+ */
+internal class StatusLogStore @VisibleForTesting internal constructor(
+    private val capacity: Int,
+    private val publishIntervalMs: Long,
+    private val scheduler: Lazy<ScheduledExecutorService>,
+    private val clock: () -> Long,
+    private val onChange: () -> Unit
+) {
+    companion object {
+        internal const val CHUNK_SIZE = 256
+        internal const val DEFAULT_CAPACITY = 20_000
+        internal const val DEFAULT_PUBLISH_INTERVAL_MS = 100L
+        private const val PUBLISH_THREAD_KEEP_ALIVE_SECONDS = 30L
+
+        private fun createScheduler(): ScheduledExecutorService {
+            return ScheduledThreadPoolExecutor(1) { runnable ->
+                Thread(runnable, "AssuranceStatusLogs").apply { isDaemon = true }
+            }.apply {
+                setKeepAliveTime(PUBLISH_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS)
+                allowCoreThreadTimeOut(true)
+            }
+        }
+    }
+
+    constructor(onChange: () -> Unit) : this(
+        DEFAULT_CAPACITY,
+        DEFAULT_PUBLISH_INTERVAL_MS,
+        lazy { createScheduler() },
+        { System.nanoTime() / 1_000_000 },
+        onChange
+    )
+
+    private val lock = Any()
+    private val chunks = ArrayList<Array<StatusLog?>>()
+
+    // the sequence number of the first log of the first chunk
+    private var baseSequence = 0L
+
+    // the sequence numbers of the first log held, and of the next log to be appended
+    private var startSequence = 0L
+    private var endSequence = 0L
+
+    private var cachedSnapshot: StatusLogSnapshot? = StatusLogSnapshot.EMPTY
+    private var lastPublishTimeMs = Long.MIN_VALUE / 2
+    private var publishPending = false
+
+    /**
+     * Appends a log, evicting the oldest log if the store is full.
+     *
+     * @param log the [StatusLog] to append
+     */
+    internal fun append(log: StatusLog) {
+        synchronized(lock) {
+            val offset = (endSequence - baseSequence).toInt()
+
+            if (offset == chunks.size * CHUNK_SIZE) {
+                chunks.add(arrayOfNulls(CHUNK_SIZE))
+            }
+
+            chunks[offset / CHUNK_SIZE][offset % CHUNK_SIZE] = log
+            endSequence++
+
+            if (endSequence - startSequence > capacity) {
+                startSequence++
+
+                if (startSequence - baseSequence == CHUNK_SIZE.toLong()) {
+                    chunks.removeAt(0)
+                    baseSequence += CHUNK_SIZE
+                }
+            }
+
+            cachedSnapshot = null
+            requestPublish()
+        }
+    }
+
+    /**
+     * Removes all the logs. The change is published right away.
+     */
+    internal fun clear() {
+        synchronized(lock) {
+            // snapshots keep the chunks they share, new logs are appended to new chunks
+            chunks.clear()
+            baseSequence = endSequence
+            startSequence = endSequence
+            cachedSnapshot = null
+            publish()
+        }
+    }
+
+    /**
+     * Returns the logs currently held, oldest first.
+     *
+     * @return an immutable [StatusLogSnapshot] of the logs
+     */
+    internal fun snapshot(): StatusLogSnapshot {
+        synchronized(lock) {
+            return cachedSnapshot ?: StatusLogSnapshot(
+                chunks.toTypedArray(),
+                baseSequence,
+                startSequence,
+                endSequence
+            ).also { cachedSnapshot = it }
+        }
+    }
+
+    /**
+     * Publishes the change right away if the publish interval elapsed since the last change was
+     * published, or schedules it at the end of the interval otherwise.
+     */
+    private fun requestPublish() {
+        if (publishPending) {
+            return
+        }
+
+        val waitMs = lastPublishTimeMs + publishIntervalMs - clock()
+
+        if (waitMs <= 0) {
+            publish()
+            return
+        }
+
+        publishPending = true
+        scheduler.value.schedule(
+            Runnable {
+                synchronized(lock) {
+                    publishPending = false
+                    publish()
+                }
+            },
+            waitMs,
+            TimeUnit.MILLISECONDS
+        )
+    }
+
+    private fun publish() {
+        lastPublishTimeMs = clock()
+        onChange()
+    }
+}
+
+/**
+ * An immutable view of the logs of a [StatusLogStore], sharing its chunks.
+ *
+ * Every log has a key that is unique within the store and stable across snapshots, for lists to
+ * keep the state of the items that remain visible when logs are appended or evicted.
+ */
+internal class StatusLogSnapshot internal constructor(
+    private val chunks: Array<Array<StatusLog?>>,
+    private val baseSequence: Long,
+    private val startSequence: Long,
+    private val endSequence: Long
+) : AbstractList<StatusLog>() {
+
+    companion object {
+        internal val EMPTY = StatusLogSnapshot(emptyArray(), 0, 0, 0)
+    }
+
+    override val size: Int
+        get() = (endSequence - startSequence).toInt()
+
+    override fun get(index: Int): StatusLog {
+        if (index < 0 || index >= size) {
+            throw IndexOutOfBoundsException("Index: $index, size: $size")
+        }
+
+        val offset = (startSequence + index - baseSequence).toInt()
+        return chunks[offset / StatusLogStore.CHUNK_SIZE][offset % StatusLogStore.CHUNK_SIZE]!!
+    }
+
+    /**
+     * Returns the stable key of the log at the provided index.
+     *
+     * @param index the index of the log in this snapshot
+     * @return the key of the log
+     */
+    internal fun keyAt(index: Int): Long = startSequence + index
+}
@@ -35,7 +35,8 @@ import com.adobe.marketing.mobile.util.DefaultPresentationUtilityProvider
  * Floating button for displaying Assurance connectivity.
  * @param appContextService [AppContextService] to use for the application context
  */
-internal class AssuranceFloatingButton(appContextService: AppContextService) {
+internal class AssuranceFloatingButton(appContextService: AppContextService) :
+    AssuranceFloatingButtonPresenter {
 
     private companion object {
         private const val LOG_TAG = "AssuranceFloatingButton"
@@ -80,19 +81,7 @@ internal class AssuranceFloatingButton(appContextService: AppContextService) {
             override fun onPanDetected(presentable: Presentable<FloatingButton>) {}
             override fun onShow(presentable: Presentable<FloatingButton>) {}
             override fun onTapDetected(presentable: Presentable<FloatingButton>) {
-                val hostApplication: Context? = MobileCore.getApplication()
-                val intent = Intent(hostApplication, AssuranceActivity::class.java)
-                intent.addFlags(Intent.FLAG_ACTIVITY_NO_ANIMATION)
-                intent.addFlags(Intent.FLAG_ACTIVITY_REORDER_TO_FRONT)
-                intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
-                hostApplication?.startActivity(intent) ?: run {
-                    Log.debug(
-                        Assurance.LOG_TAG,
-                        LOG_TAG,
-                        "Failed to launch Assurance activity on floating button tap. " +
-                            "Host application is null"
-                    )
-                }
+                launchAssuranceActivity(LOG_TAG)
             }
         }
 
@@ -108,29 +97,29 @@ internal class AssuranceFloatingButton(appContextService: AppContextService) {
     /**
      * Makes the floating button visible on the screen.
      */
-    internal fun show() = floatingButtonPresentable.show()
+    override fun show() = floatingButtonPresentable.show()
 
     /**
      * Hides the floating button from the screen.
      */
-    internal fun hide() = floatingButtonPresentable.hide()
+    override fun hide() = floatingButtonPresentable.hide()
 
     /**
      * Detaches the floating button from the view hierarchy.
      */
-    internal fun remove() = floatingButtonPresentable.dismiss()
+    override fun remove() = floatingButtonPresentable.dismiss()
 
     /**
      * Returns true if the floating button is currently visible or hidden.
      */
-    internal fun isActive(): Boolean =
+    override fun isActive(): Boolean =
         floatingButtonPresentable.getState() != Presentable.State.DETACHED
 
     /**
      * Updates the graphic of the floating button to reflect the current Assurance connectivity.
      * @param connected true if Assurance is connected, false otherwise
      */
-    internal fun updateGraphic(connected: Boolean) {
+    override fun updateGraphic(connected: Boolean) {
         val context = ServiceProvider.getInstance().appContextService.applicationContext
         context?.let {
             val bitmap = getGraphic(
@@ -177,3 +166,23 @@ internal class AssuranceFloatingButton(appContextService: AppContextService) {
         return drawable.toBitmap()
     }
 }
+
+/**
+ * Launches the Assurance activity on a tap of the floating button.
+ * @param logSource the source of the log message if the activity cannot be launched
+ */
+internal fun launchAssuranceActivity(logSource: String) {
+    val hostApplication: Context? = MobileCore.getApplication()
+    val intent = Intent(hostApplication, AssuranceActivity::class.java)
+    intent.addFlags(Intent.FLAG_ACTIVITY_NO_ANIMATION)
+    intent.addFlags(Intent.FLAG_ACTIVITY_REORDER_TO_FRONT)
+    intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
+    hostApplication?.startActivity(intent) ?: run {
+        Log.debug(
+            Assurance.LOG_TAG,
+            logSource,
+            "Failed to launch Assurance activity on floating button tap. " +
+                "Host application is null"
+        )
+    }
+}
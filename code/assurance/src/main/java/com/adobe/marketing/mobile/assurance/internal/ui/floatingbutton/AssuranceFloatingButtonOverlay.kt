@@ -0,0 +1,249 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal.ui.floatingbutton
+
+import android.app.Activity
+import android.content.Context
+import android.graphics.Bitmap
+import android.os.Handler
+import android.os.Looper
+import android.view.Gravity
+import android.view.View
+import android.view.ViewGroup
+import android.widget.FrameLayout
+import androidx.annotation.VisibleForTesting
+import androidx.appcompat.content.res.AppCompatResources
+import androidx.core.graphics.drawable.toBitmap
+import com.adobe.marketing.mobile.Assurance
+import com.adobe.marketing.mobile.assurance.R
+import com.adobe.marketing.mobile.assurance.internal.ui.AssuranceActivity
+import com.adobe.marketing.mobile.services.AppContextService
+import com.adobe.marketing.mobile.services.Log
+import java.lang.ref.WeakReference
+
+/**
+ * Floating button for displaying Assurance connectivity, attached directly to the windows of the
+ * host app activities.
+ *
+ * Unlike [AssuranceFloatingButton], which is re-attached to every activity that resumes, a single
+ * lightweight [FloatingButtonOverlayView] is attached once to the window of an activity, the first
+ * time it resumes, and kept attached for the lifetime of the window. Its graphic and position are
+ * shared by all the windows. Showing and hiding the button only changes the visibility of the
+ * views between visible and invisible, so activity transitions cause neither a layout nor a
+ * recomposition of the host app windows.
+ *
+ * The views are only referenced weakly, so that the destroyed activities are not retained. The
+ * view attached to a window is found among the children of its decor view.
+ *
+ * @param appContextService [AppContextService] to use for the application context and the current
+ *     activity
+ * @param mainHandler the [Handler] of the main thread on which the views are updated
+ */
+internal class AssuranceFloatingButtonOverlay @VisibleForTesting internal constructor(
+    private val appContextService: AppContextService,
+    private val mainHandler: Handler
+) : AssuranceFloatingButtonPresenter {
+
+    private companion object {
+        private const val LOG_TAG = "AssuranceFloatingButtonOverlay"
+        private const val GRAPHIC_SIZE_DP = 80
+        private const val GRAPHIC_CORNER_RADIUS_DP = 10f
+        private const val GRAPHIC_MARGIN_DP = 16
+    }
+
+    constructor(appContextService: AppContextService) : this(
+        appContextService,
+        Handler(Looper.getMainLooper())
+    )
+
+    // accessed on the main thread only. The views reference their activity, so they are held
+    // weakly to be released with it.
+    private val views = ArrayList<WeakReference<FloatingButtonOverlayView>>()
+    private val graphics = HashMap<Int, Bitmap>()
+    private var graphic: Bitmap? = null
+    private var translationX = 0f
+    private var translationY = 0f
+
+    @Volatile
+    private var active = false
+
+    @Volatile
+    private var visible = false
+
+    override fun show() {
+        active = true
+        visible = true
+        runOnMainThread {
+            if (attachedViews().isEmpty()) {
+                appContextService.currentActivity?.let { attachView(it) }
+            }
+
+            updateVisibility()
+        }
+    }
+
+    override fun hide() {
+        visible = false
+        runOnMainThread { updateVisibility() }
+    }
+
+    override fun remove() {
+        active = false
+        visible = false
+        runOnMainThread {
+            for (view in attachedViews()) {
+                (view.parent as? ViewGroup)?.removeView(view)
+            }
+
+            views.clear()
+        }
+    }
+
+    override fun isActive(): Boolean = active
+
+    override fun updateGraphic(connected: Boolean) {
+        runOnMainThread {
+            val bitmap = getGraphic(
+                if (connected) R.drawable.ic_assurance_active else R.drawable.ic_assurance_inactive
+            )
+            graphic = bitmap
+
+            for (view in attachedViews()) {
+                view.graphic = bitmap
+            }
+        }
+    }
+
+    override fun attach(activity: Activity) {
+        runOnMainThread { attachView(activity) }
+    }
+
+    /**
+     * Returns the number of windows the floating button is attached to.
+     */
+    @VisibleForTesting
+    internal fun getAttachedWindowCount(): Int = attachedViews().size
+
+    /**
+     * Attaches a view to the window of the activity, unless the button was removed, the activity
+     * is the Assurance activity or a view is already attached to its window.
+     */
+    private fun attachView(activity: Activity) {
+        if (!active || activity is AssuranceActivity) {
+            return
+        }
+
+        val decorView = activity.window?.decorView as? ViewGroup ?: return
+
+        for (i in 0 until decorView.childCount) {
+            if (decorView.getChildAt(i) is FloatingButtonOverlayView) {
+                return
+            }
+        }
+
+        val density = activity.resources.displayMetrics.density
+        val sizePx = (GRAPHIC_SIZE_DP * density).toInt()
+        val marginPx = (GRAPHIC_MARGIN_DP * density).toInt()
+
+        val view = FloatingButtonOverlayView(
+            activity,
+            sizePx,
+            GRAPHIC_CORNER_RADIUS_DP * density,
+            onTap = { launchAssuranceActivity(LOG_TAG) },
+            onDragged = ::onDragged
+        )
+        view.graphic = graphic ?: getGraphic(R.drawable.ic_assurance_active).also { graphic = it }
+        view.translationX = translationX
+        view.translationY = translationY
+        view.visibility = if (visible) View.VISIBLE else View.INVISIBLE
+
+        val layoutParams = FrameLayout.LayoutParams(sizePx, sizePx, Gravity.TOP or Gravity.END)
+        layoutParams.topMargin = marginPx * 4
+        layoutParams.marginEnd = marginPx
+        decorView.addView(view, layoutParams)
+        views.add(WeakReference(view))
+    }
+
+    /**
+     * Moves the views attached to the other windows to the position the button was dragged to.
+     */
+    private fun onDragged(translationX: Float, translationY: Float) {
+        this.translationX = translationX
+        this.translationY = translationY
+
+        for (view in attachedViews()) {
+            view.translationX = translationX
+            view.translationY = translationY
+        }
+    }
+
+    private fun updateVisibility() {
+        val visibility = if (visible) View.VISIBLE else View.INVISIBLE
+
+        for (view in attachedViews()) {
+            if (view.visibility != visibility) {
+                view.visibility = visibility
+            }
+        }
+    }
+
+    /**
+     * Returns the views that are still referenced, forgetting the views released with their
+     * activity.
+     */
+    private fun attachedViews(): List<FloatingButtonOverlayView> {
+        val attached = ArrayList<FloatingButtonOverlayView>(views.size)
+        val iterator = views.iterator()
+
+        while (iterator.hasNext()) {
+            val view = iterator.next().get()
+
+            if (view == null) {
+                iterator.remove()
+            } else {
+                attached.add(view)
+            }
+        }
+
+        return attached
+    }
+
+    /**
+     * Returns the [Bitmap] for the given resource, loaded once, or null if it cannot be loaded.
+     */
+    private fun getGraphic(resource: Int): Bitmap? {
+        graphics[resource]?.let { return it }
+
+        val context: Context? = appContextService.applicationContext
+        val bitmap = context?.let { AppCompatResources.getDrawable(it, resource)?.toBitmap() }
+
+        if (bitmap == null) {
+            Log.debug(
+                Assurance.LOG_TAG,
+                LOG_TAG,
+                "Failed to get Assurance floating button graphic."
+            )
+            return null
+        }
+
+        graphics[resource] = bitmap
+        return bitmap
+    }
+
+    private fun runOnMainThread(block: () -> Unit) {
+        if (Looper.myLooper() == mainHandler.looper) {
+            block()
+        } else {
+            mainHandler.post(block)
+        }
+    }
+}
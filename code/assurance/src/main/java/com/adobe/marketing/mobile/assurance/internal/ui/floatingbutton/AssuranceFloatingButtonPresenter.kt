@@ -0,0 +1,53 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal.ui.floatingbutton
+
+import android.app.Activity
+
+/**
+ * Presents the floating button displaying Assurance connectivity on the activities of the host app.
+ */
+internal interface AssuranceFloatingButtonPresenter {
+
+    /**
+     * Makes the floating button visible on the screen.
+     */
+    fun show()
+
+    /**
+     * Hides the floating button from the screen.
+     */
+    fun hide()
+
+    /**
+     * Detaches the floating button from the view hierarchy.
+     */
+    fun remove()
+
+    /**
+     * Returns true if the floating button is currently visible or hidden.
+     */
+    fun isActive(): Boolean
+
+    /**
+     * Updates the graphic of the floating button to reflect the current Assurance connectivity.
+     * @param connected true if Assurance is connected, false otherwise
+     */
+    fun updateGraphic(connected: Boolean)
+
+    /**
+     * Attaches the floating button to the window of the given activity if it is not attached to it
+     * yet. Called before [show] when an activity of the host app resumes.
+     * @param activity the activity of the host app that has resumed
+     */
+    fun attach(activity: Activity) {}
+}
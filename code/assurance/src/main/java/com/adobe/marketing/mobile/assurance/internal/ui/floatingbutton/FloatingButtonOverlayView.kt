@@ -0,0 +1,135 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal.ui.floatingbutton
+
+import android.annotation.SuppressLint
+import android.content.Context
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import android.graphics.Outline
+import android.graphics.Paint
+import android.graphics.Rect
+import android.view.MotionEvent
+import android.view.View
+import android.view.ViewConfiguration
+import android.view.ViewOutlineProvider
+
+/**
+ * The view of the floating button displayed by [AssuranceFloatingButtonOverlay].
+ *
+ * A plain view drawing a bitmap, with a fixed size. Changing its graphic only redraws it, and
+ * dragging it only changes its translation, so neither requests a layout of the window.
+ *
+ * @param context the context of the window the view is attached to
+ * @param sizePx the width and height of the view in pixels
+ * @param cornerRadiusPx the radius of the corners of the view in pixels
+ * @param onTap called when the view is tapped
+ * @param onDragged called with the translation of the view when it was dragged
+ */
+@SuppressLint("ViewConstructor")
+internal class FloatingButtonOverlayView(
+    context: Context,
+    private val sizePx: Int,
+    cornerRadiusPx: Float,
+    private val onTap: () -> Unit,
+    private val onDragged: (translationX: Float, translationY: Float) -> Unit
+) : View(context) {
+
+    private val touchSlop = ViewConfiguration.get(context).scaledTouchSlop
+    private val paint = Paint(Paint.FILTER_BITMAP_FLAG)
+    private val bounds = Rect()
+    private var downRawX = 0f
+    private var downRawY = 0f
+    private var downTranslationX = 0f
+    private var downTranslationY = 0f
+    private var dragging = false
+
+    /**
+     * The graphic drawn by the view.
+     */
+    internal var graphic: Bitmap? = null
+        set(value) {
+            if (field !== value) {
+                field = value
+                invalidate()
+            }
+        }
+
+    init {
+        outlineProvider = object : ViewOutlineProvider() {
+            override fun getOutline(view: View, outline: Outline) {
+                outline.setRoundRect(0, 0, view.width, view.height, cornerRadiusPx)
+            }
+        }
+        clipToOutline = true
+        isClickable = true
+    }
+
+    override fun onMeasure(widthMeasureSpec: Int, heightMeasureSpec: Int) {
+        setMeasuredDimension(sizePx, sizePx)
+    }
+
+    override fun onDraw(canvas: Canvas) {
+        val bitmap = graphic ?: return
+        bounds.set(0, 0, width, height)
+        canvas.drawBitmap(bitmap, null, bounds, paint)
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    override fun onTouchEvent(event: MotionEvent): Boolean {
+        when (event.actionMasked) {
+            MotionEvent.ACTION_DOWN -> {
+                downRawX = event.rawX
+                downRawY = event.rawY
+                downTranslationX = translationX
+                downTranslationY = translationY
+                dragging = false
+            }
+
+            MotionEvent.ACTION_MOVE -> {
+                val dx = event.rawX - downRawX
+                val dy = event.rawY - downRawY
+
+                if (!dragging && dx * dx + dy * dy > touchSlop * touchSlop) {
+                    dragging = true
+                }
+
+                if (dragging) {
+                    translationX = downTranslationX + dx
+                    translationY = downTranslationY + dy
+                }
+            }
+
+            MotionEvent.ACTION_UP -> {
+                if (dragging) {
+                    onDragged(translationX, translationY)
+                } else {
+                    performClick()
+                }
+            }
+
+            MotionEvent.ACTION_CANCEL -> {
+                if (dragging) {
+                    onDragged(translationX, translationY)
+                }
+            }
+        }
+
+        return true
+    }
+
+    override fun performClick(): Boolean {
+        super.performClick()
+        onTap()
+        return true
+    }
+}
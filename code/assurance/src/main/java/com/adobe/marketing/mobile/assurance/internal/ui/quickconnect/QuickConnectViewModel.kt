@@ -103,7 +103,12 @@ internal class QuickConnectViewModel : ViewModel {
                         authorizingPresentationType = SessionAuthorizingPresentationType.QUICK_CONNECT
                     )
                 }
-            }
+            },
+            environment,
+            longPollWaitMs = assuranceStateManager.getConfigurationLong(
+                AssuranceConstants.SDKConfigurationKey.QUICK_CONNECT_LONG_POLL_WAIT_MS,
+                0
+            )
         ),
         environment = AssuranceConstants.AssuranceEnvironment.PROD
     )
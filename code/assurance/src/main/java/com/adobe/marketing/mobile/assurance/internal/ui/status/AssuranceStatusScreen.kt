@@ -102,9 +102,11 @@ internal fun AssuranceStatusScreen() {
                     .padding(AssuranceTheme.dimensions.padding.small)
                     .testTag(AssuranceUiTestTags.StatusScreen.LOGS_CONTENT)
             ) {
-                items(logs.value.size) {
-                    val message = logs.value[it].message
-                    val color = logs.value[it].level.toColor()
+                // read the snapshot once, for the count and the items to be consistent
+                val snapshot = logs.value
+                items(snapshot.size, key = { snapshot.keyAt(it) }) {
+                    val message = snapshot[it].message
+                    val color = snapshot[it].level.toColor()
                     Text(
                         modifier = Modifier.testTag(AssuranceUiTestTags.StatusScreen.LOG_ENTRY),
                         text = message,
@@ -12,6 +12,7 @@
 package com.adobe.marketing.mobile.assurance.internal
 
 import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotEquals
 import org.junit.Test
 
 class AssuranceAppStateTest {
@@ -61,4 +62,23 @@ class AssuranceAppStateTest {
             assertEquals(anotherMessage, it[1].message)
         }
     }
+
+    @Test
+    fun `Test #clearLogs`() {
+        val assuranceAppState = AssuranceAppState()
+        assuranceAppState.logStatus(AssuranceConstants.UILogColorVisibility.HIGH, "Test message")
+        val logs = assuranceAppState.statusLogs.value
+
+        assuranceAppState.clearLogs()
+
+        assertEquals(emptyList<AssuranceAppState.StatusLog>(), assuranceAppState.statusLogs.value)
+        assertEquals(1, logs.size)
+
+        assuranceAppState.logStatus(AssuranceConstants.UILogColorVisibility.LOW, "Another test message")
+        assuranceAppState.statusLogs.value.let {
+            assertEquals(1, it.size)
+            assertEquals("Another test message", it[0].message)
+            assertNotEquals(logs.keyAt(0), it.keyAt(0))
+        }
+    }
 }
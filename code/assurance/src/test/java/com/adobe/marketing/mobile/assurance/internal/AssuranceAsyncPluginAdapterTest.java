@@ -0,0 +1,145 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+public class AssuranceAsyncPluginAdapterTest {
+    private final AssuranceAsyncPlugin mockPlugin = mock(AssuranceAsyncPlugin.class);
+    private final ExecutorService mockExecutor = mock(ExecutorService.class);
+    private final AssurancePluginEmitter emitter =
+            new AssurancePluginEmitter("Plugin", 1, () -> {});
+    private AssuranceAsyncPluginAdapter adapter;
+
+    @Before
+    public void setUp() {
+        // runs the callbacks on the test thread
+        doAnswer(
+                        invocation -> {
+                            ((Runnable) invocation.getArgument(0)).run();
+                            return null;
+                        })
+                .when(mockExecutor)
+                .execute(any(Runnable.class));
+        when(mockPlugin.getVendor()).thenReturn(AssuranceConstants.VENDOR_ASSURANCE_MOBILE);
+        when(mockPlugin.getControlType()).thenReturn(AssuranceConstants.ControlType.WILDCARD);
+        adapter = new AssuranceAsyncPluginAdapter(mockPlugin, mockExecutor);
+    }
+
+    @Test
+    public void test_vendorAndControlType_fromPlugin() {
+        assertEquals(AssuranceConstants.VENDOR_ASSURANCE_MOBILE, adapter.getVendor());
+        assertEquals(AssuranceConstants.ControlType.WILDCARD, adapter.getControlType());
+    }
+
+    @Test
+    public void test_onRegistered_deliversEmitter() {
+        adapter.setEmitter(emitter);
+
+        adapter.onRegistered(mock(AssuranceSession.class));
+
+        verify(mockPlugin).onRegistered(emitter);
+    }
+
+    @Test
+    public void test_onRegistered_withoutEmitter_isIgnored() {
+        adapter.onRegistered(mock(AssuranceSession.class));
+
+        verify(mockPlugin, never()).onRegistered(any(AssurancePluginEmitter.class));
+    }
+
+    @Test
+    public void test_callbacks_deliveredOnExecutorInOrder() {
+        final AssuranceEvent event = new AssuranceEvent("control", new HashMap<String, Object>());
+
+        adapter.onSessionConnected();
+        adapter.onEventReceived(event);
+        adapter.onSessionDisconnected(1000);
+        adapter.onSessionTerminated();
+
+        final InOrder inOrder = Mockito.inOrder(mockPlugin);
+        inOrder.verify(mockPlugin).onSessionConnected();
+        inOrder.verify(mockPlugin).onEventReceived(event);
+        inOrder.verify(mockPlugin).onSessionDisconnected(1000);
+        inOrder.verify(mockPlugin).onSessionTerminated();
+    }
+
+    @Test
+    public void test_onSessionTerminated_keepsExecutorForNextSession() {
+        adapter.setEmitter(emitter);
+        adapter.onSessionTerminated();
+        adapter.onRegistered(mock(AssuranceSession.class));
+
+        verify(mockExecutor, never()).shutdown();
+        verify(mockPlugin).onRegistered(emitter);
+    }
+
+    @Test
+    public void test_onSessionTerminated_runsCallbackAfterPlugin() {
+        final Runnable mockOnTerminated = mock(Runnable.class);
+
+        adapter.onSessionTerminated(mockOnTerminated);
+
+        final InOrder inOrder = Mockito.inOrder(mockPlugin, mockOnTerminated);
+        inOrder.verify(mockPlugin).onSessionTerminated();
+        inOrder.verify(mockOnTerminated).run();
+    }
+
+    @Test
+    public void test_onSessionTerminated_afterShutdown_runsCallback() {
+        final Runnable mockOnTerminated = mock(Runnable.class);
+        doThrow(new RejectedExecutionException())
+                .when(mockExecutor)
+                .execute(any(Runnable.class));
+
+        adapter.onSessionTerminated(mockOnTerminated);
+
+        verify(mockPlugin, never()).onSessionTerminated();
+        verify(mockOnTerminated).run();
+    }
+
+    @Test
+    public void test_callback_failure_isContained() {
+        doThrow(new IllegalStateException("failure")).when(mockPlugin).onSessionConnected();
+
+        adapter.onSessionConnected();
+        adapter.onSessionDisconnected(1000);
+
+        verify(mockPlugin).onSessionDisconnected(1000);
+    }
+
+    @Test
+    public void test_callback_afterShutdown_isIgnored() {
+        doThrow(new RejectedExecutionException())
+                .when(mockExecutor)
+                .execute(any(Runnable.class));
+
+        adapter.onSessionConnected();
+
+        verify(mockPlugin, never()).onSessionConnected();
+    }
+}
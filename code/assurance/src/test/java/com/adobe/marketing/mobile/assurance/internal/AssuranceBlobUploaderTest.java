@@ -0,0 +1,326 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AssuranceBlobUploaderTest {
+    private static final String CONTENT_TYPE = "image/jpeg";
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private URL uploadUrl;
+    private AssuranceBlobUploader uploader;
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final List<byte[]> receivedBodies = Collections.synchronizedList(new ArrayList<>());
+    private volatile String receivedContentLength;
+    private volatile String receivedFileContentType;
+    private volatile ResponseProvider responseProvider;
+
+    /** Provides the status code and body of the stand-in server's response to a request. */
+    private interface ResponseProvider {
+        Response respond(int requestNumber) throws Exception;
+    }
+
+    private static final class Response {
+        final int statusCode;
+        final String body;
+
+        Response(final int statusCode, final String body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+    }
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext(
+                "/api/FileUpload",
+                new HttpHandler() {
+                    @Override
+                    public void handle(final HttpExchange exchange) throws IOException {
+                        final int requestNumber = requestCount.incrementAndGet();
+                        receivedContentLength =
+                                exchange.getRequestHeaders().getFirst("Content-Length");
+                        receivedFileContentType =
+                                exchange.getRequestHeaders().getFirst("File-Content-Type");
+                        receivedBodies.add(readFully(exchange.getRequestBody()));
+
+                        Response response;
+
+                        try {
+                            response = responseProvider.respond(requestNumber);
+                        } catch (final Exception e) {
+                            response = new Response(500, "");
+                        }
+
+                        final byte[] body = response.body.getBytes(Charset.forName("UTF-8"));
+                        exchange.sendResponseHeaders(
+                                response.statusCode, body.length == 0 ? -1 : body.length);
+                        final OutputStream responseBody = exchange.getResponseBody();
+                        responseBody.write(body);
+                        responseBody.close();
+                    }
+                });
+        server.start();
+        uploadUrl =
+                new URL(
+                        "http://127.0.0.1:"
+                                + server.getAddress().getPort()
+                                + "/api/FileUpload?validationSessionId=session");
+        uploader = new AssuranceBlobUploader(2, 4, 2, 10);
+    }
+
+    @After
+    public void teardown() {
+        uploader.shutdown();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    public void test_upload_streamsFileAndReturnsBlobId() throws Exception {
+        responseProvider = respondWith(200, "{\"id\":\"blob1\"}");
+        final byte[] data = new byte[100 * 1024];
+
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+
+        final File file = File.createTempFile("assurance_blob", ".jpg");
+        file.deleteOnExit();
+        final FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(data);
+        outputStream.close();
+
+        final TestCallback callback = new TestCallback();
+        uploader.upload(uploadUrl, AssuranceBlobUploader.fromFile(file), CONTENT_TYPE, callback);
+
+        assertTrue(callback.await());
+        assertEquals("blob1", callback.blobId);
+        assertArrayEquals(data, receivedBodies.get(0));
+        assertEquals(String.valueOf(data.length), receivedContentLength);
+        assertEquals(CONTENT_TYPE, receivedFileContentType);
+    }
+
+    @Test
+    public void test_upload_retriesTransientErrors() throws Exception {
+        responseProvider =
+                new ResponseProvider() {
+                    @Override
+                    public Response respond(final int requestNumber) {
+                        return requestNumber < 3
+                                ? new Response(503, "")
+                                : new Response(200, "{\"id\":\"blob2\"}");
+                    }
+                };
+
+        final TestCallback callback = new TestCallback();
+        uploader.upload(uploadUrl, bytes("data"), CONTENT_TYPE, callback);
+
+        assertTrue(callback.await());
+        assertEquals("blob2", callback.blobId);
+        assertEquals(3, requestCount.get());
+
+        // every attempt sends the complete body
+        for (final byte[] body : receivedBodies) {
+            assertEquals("data", new String(body, Charset.forName("UTF-8")));
+        }
+    }
+
+    @Test
+    public void test_upload_failsAfterMaxRetries() throws Exception {
+        responseProvider = respondWith(500, "");
+
+        final TestCallback callback = new TestCallback();
+        uploader.upload(uploadUrl, bytes("data"), CONTENT_TYPE, callback);
+
+        assertTrue(callback.await());
+        assertNull(callback.blobId);
+        assertTrue(callback.failure.contains("500"));
+        assertEquals(3, requestCount.get());
+    }
+
+    @Test
+    public void test_upload_doesNotRetryClientErrors() throws Exception {
+        responseProvider = respondWith(400, "");
+
+        final TestCallback callback = new TestCallback();
+        uploader.upload(uploadUrl, bytes("data"), CONTENT_TYPE, callback);
+
+        assertTrue(callback.await());
+        assertTrue(callback.failure.contains("400"));
+        assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void test_upload_errorResponse() throws Exception {
+        responseProvider = respondWith(200, "{\"error\":\"quota exceeded\"}");
+
+        final TestCallback callback = new TestCallback();
+        uploader.upload(uploadUrl, bytes("data"), CONTENT_TYPE, callback);
+
+        assertTrue(callback.await());
+        assertTrue(callback.failure.contains("quota exceeded"));
+        assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void test_upload_limitsConcurrentUploads() throws Exception {
+        final CountDownLatch releaseResponses = new CountDownLatch(1);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        responseProvider =
+                new ResponseProvider() {
+                    @Override
+                    public Response respond(final int requestNumber) throws Exception {
+                        final int current = inFlight.incrementAndGet();
+                        maxInFlight.accumulateAndGet(current, Math::max);
+                        releaseResponses.await(5, TimeUnit.SECONDS);
+                        inFlight.decrementAndGet();
+                        return new Response(200, "{\"id\":\"blob" + requestNumber + "\"}");
+                    }
+                };
+
+        final List<TestCallback> callbacks = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            final TestCallback callback = new TestCallback();
+            callbacks.add(callback);
+            uploader.upload(uploadUrl, bytes("data" + i), CONTENT_TYPE, callback);
+        }
+
+        Thread.sleep(200);
+        releaseResponses.countDown();
+
+        for (final TestCallback callback : callbacks) {
+            assertTrue(callback.await());
+            assertTrue(callback.blobId.startsWith("blob"));
+        }
+
+        assertEquals(2, maxInFlight.get());
+        assertEquals(4, requestCount.get());
+    }
+
+    @Test
+    public void test_upload_rejectedWhenTooManyUploadsArePending() throws Exception {
+        final CountDownLatch releaseResponses = new CountDownLatch(1);
+        responseProvider =
+                new ResponseProvider() {
+                    @Override
+                    public Response respond(final int requestNumber) throws Exception {
+                        releaseResponses.await(5, TimeUnit.SECONDS);
+                        return new Response(200, "{\"id\":\"blob\"}");
+                    }
+                };
+
+        final List<TestCallback> accepted = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++) {
+            final TestCallback callback = new TestCallback();
+            accepted.add(callback);
+            uploader.upload(uploadUrl, bytes("data"), CONTENT_TYPE, callback);
+        }
+
+        final TestCallback rejected = new TestCallback();
+        uploader.upload(uploadUrl, bytes("data"), CONTENT_TYPE, rejected);
+
+        // rejected immediately, without waiting for the pending uploads
+        assertTrue(rejected.latch.await(0, TimeUnit.MILLISECONDS));
+        assertTrue(rejected.failure.contains("too many uploads"));
+
+        releaseResponses.countDown();
+
+        for (final TestCallback callback : accepted) {
+            assertTrue(callback.await());
+            assertEquals("blob", callback.blobId);
+        }
+    }
+
+    private static AssuranceBlobUploader.BlobSource bytes(final String data) {
+        return AssuranceBlobUploader.fromBytes(data.getBytes(Charset.forName("UTF-8")));
+    }
+
+    private static ResponseProvider respondWith(final int statusCode, final String body) {
+        return new ResponseProvider() {
+            @Override
+            public Response respond(final int requestNumber) {
+                return new Response(statusCode, body);
+            }
+        };
+    }
+
+    private static byte[] readFully(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    private static final class TestCallback implements AssuranceBlob.BlobUploadCallback {
+        final CountDownLatch latch = new CountDownLatch(1);
+        volatile String blobId;
+        volatile String failure;
+
+        @Override
+        public void onSuccess(final String blobID) {
+            blobId = blobID;
+            latch.countDown();
+        }
+
+        @Override
+        public void onFailure(final String reason) {
+            failure = reason;
+            latch.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return latch.await(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.adobe.marketing.mobile.util.JSONUtils;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class AssuranceCborCodecTest {
+
+    @Test
+    public void test_encode_decode_roundTrip() throws IOException {
+        final Map<String, Object> nested = new HashMap<>();
+        nested.put("string", "value");
+        nested.put("int", 42);
+        nested.put("negativeInt", -500);
+        nested.put("long", 5_000_000_000L);
+        nested.put("double", 3.14159);
+        nested.put("float", 1.5);
+        nested.put("boolean", true);
+        nested.put("null", null);
+        nested.put("list", Arrays.asList("a", 1, false));
+
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put("ACPExtensionEventType", "com.adobe.eventtype.generic.track");
+        payload.put("ACPExtensionEventData", nested);
+
+        final Map<String, Object> metadata = new HashMap<>();
+        metadata.put("key", "value");
+
+        final AssuranceEvent event =
+                new AssuranceEvent(
+                        AssuranceTestConstants.VENDOR_ASSURANCE_MOBILE,
+                        AssuranceConstants.AssuranceEventType.GENERIC,
+                        metadata,
+                        payload,
+                        1234567890123L);
+
+        final AssuranceEvent decoded = AssuranceCborCodec.decode(AssuranceCborCodec.encode(event));
+
+        assertEquals(event.eventID, decoded.eventID);
+        assertEquals(event.vendor, decoded.vendor);
+        assertEquals(event.type, decoded.type);
+        assertEquals(event.timestamp, decoded.timestamp);
+        assertEquals(event.eventNumber, decoded.eventNumber);
+        assertEquals(event.metadata, decoded.metadata);
+        assertEquals(event.payload, decoded.payload);
+    }
+
+    @Test
+    public void test_encode_nullPayloadAndType() throws IOException {
+        final AssuranceEvent event = new AssuranceEvent(null, null);
+
+        final AssuranceEvent decoded = AssuranceCborCodec.decode(AssuranceCborCodec.encode(event));
+
+        assertEquals(event.eventID, decoded.eventID);
+        assertNull(decoded.type);
+        assertNull(decoded.payload);
+        assertNull(decoded.metadata);
+    }
+
+    @Test
+    public void test_encode_usesShortestIntegerHeads() throws IOException {
+        // RFC 8949 Appendix A examples
+        assertArrayEquals(new byte[] {0x0A}, encodeValue(10));
+        assertArrayEquals(new byte[] {0x18, 0x64}, encodeValue(100));
+        assertArrayEquals(new byte[] {0x19, 0x03, (byte) 0xE8}, encodeValue(1000));
+        assertArrayEquals(
+                new byte[] {0x1A, 0x00, 0x0F, 0x42, 0x40}, encodeValue(1000000));
+        assertArrayEquals(new byte[] {0x20}, encodeValue(-1));
+        assertArrayEquals(new byte[] {0x38, 0x63}, encodeValue(-100));
+        assertArrayEquals(new byte[] {(byte) 0xF5}, encodeValue(true));
+        assertArrayEquals(new byte[] {(byte) 0xF6}, encodeValue(null));
+        assertArrayEquals(new byte[] {0x61, 0x61}, encodeValue("a"));
+        assertArrayEquals(
+                new byte[] {(byte) 0xFA, 0x47, (byte) 0xC3, 0x50, 0x00}, encodeValue(100000.0));
+        assertArrayEquals(
+                new byte[] {
+                    (byte) 0xFB, 0x3F, (byte) 0xF1, (byte) 0x99, (byte) 0x99, (byte) 0x99,
+                    (byte) 0x99, (byte) 0x99, (byte) 0x9A
+                },
+                encodeValue(1.1));
+    }
+
+    @Test
+    public void test_encode_startsWithMapHeader() {
+        final byte[] encoded =
+                AssuranceCborCodec.encode(new AssuranceEvent("type", Collections.EMPTY_MAP));
+
+        // Allows the receiver to differentiate CBOR frames from JSON frames that start with '{'
+        assertEquals(0xA0, encoded[0] & 0xE0);
+    }
+
+    @Test
+    public void test_decode_truncatedData() {
+        final byte[] encoded =
+                AssuranceCborCodec.encode(new AssuranceEvent("type", Collections.EMPTY_MAP));
+
+        try {
+            AssuranceCborCodec.decode(Arrays.copyOf(encoded, encoded.length - 1));
+            fail("Expected decoding truncated data to fail.");
+        } catch (final IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void test_decode_notAMap() {
+        try {
+            AssuranceCborCodec.decode(new byte[] {(byte) 0x83, 0x01, 0x02, 0x03});
+            fail("Expected decoding a non map value to fail.");
+        } catch (final IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void test_decode_halfPrecisionFloat() throws IOException {
+        // {"eventID": "id", "payload": {"value": 1.5 (half precision)}}
+        final byte[] data = {
+            (byte) 0xA2, 0x67, 'e', 'v', 'e', 'n', 't', 'I', 'D', 0x62, 'i', 'd', 0x67, 'p', 'a',
+            'y', 'l', 'o', 'a', 'd', (byte) 0xA1, 0x65, 'v', 'a', 'l', 'u', 'e', (byte) 0xF9, 0x3E,
+            0x00
+        };
+
+        final AssuranceEvent decoded = AssuranceCborCodec.decode(data);
+
+        assertEquals("id", decoded.eventID);
+        assertEquals(1.5, decoded.getPayload().get("value"));
+    }
+
+    @Test
+    public void test_encode_matchesJsonRepresentation_forCapturedEvent()
+            throws IOException, JSONException {
+        final AssuranceEvent event =
+                new AssuranceEvent(readFromResource("assurance_large_full_event_outbound_flow.txt"));
+
+        final byte[] cborData = AssuranceCborCodec.encode(event);
+        final byte[] jsonData = event.getJSONRepresentation().getBytes(Charset.forName("UTF-8"));
+
+        // Verify that the decoded event matches what a JSON receiver would see.
+        final AssuranceEvent decoded = AssuranceCborCodec.decode(cborData);
+        final AssuranceEvent fromJson =
+                new AssuranceEvent(new String(jsonData, Charset.forName("UTF-8")));
+        assertEquals(fromJson.payload, decoded.payload);
+        assertTrue(cborData.length <= jsonData.length);
+    }
+
+    @Test
+    public void test_encode_isSmallerThanJson_forStructuredPayload() throws IOException {
+        final List<Object> items = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            final Map<String, Object> item = new HashMap<>();
+            item.put("index", i);
+            item.put("enabled", i % 2 == 0);
+            item.put("score", i * 0.25);
+            item.put("name", "item" + i);
+            items.add(item);
+        }
+
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put("items", items);
+        final AssuranceEvent event = new AssuranceEvent("type", payload);
+
+        final byte[] cborData = AssuranceCborCodec.encode(event);
+        final byte[] jsonData = event.getJSONRepresentation().getBytes(Charset.forName("UTF-8"));
+
+        assertTrue(cborData.length < jsonData.length);
+    }
+
+    @Test
+    public void test_encode_jsonObjectValues() throws IOException, JSONException {
+        final JSONObject manifest = new JSONObject(readFromResource("AndroidManifest_Test.json"));
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put(AssuranceConstants.ClientInfoKeys.APP_SETTINGS, manifest);
+        final AssuranceEvent event =
+                new AssuranceEvent(AssuranceConstants.AssuranceEventType.CLIENT, payload);
+
+        final AssuranceEvent decoded = AssuranceCborCodec.decode(AssuranceCborCodec.encode(event));
+
+        assertEquals(
+                JSONUtils.toMap(manifest),
+                decoded.getPayload().get(AssuranceConstants.ClientInfoKeys.APP_SETTINGS));
+    }
+
+    @Test
+    public void test_decode_nestingDepthLimit() throws IOException {
+        // a payload of MAX_NESTING_DEPTH - 2 nested arrays, the event and payload maps included
+        final int allowedArrays = AssuranceCborCodec.MAX_NESTING_DEPTH - 2;
+        Object value = "leaf";
+
+        for (int i = 0; i < allowedArrays; i++) {
+            value = Collections.singletonList(value);
+        }
+
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put("v", value);
+        final byte[] allowed = AssuranceCborCodec.encode(new AssuranceEvent("type", payload));
+
+        assertEquals(payload, AssuranceCborCodec.decode(allowed).getPayload());
+
+        // one more level
+        payload.put("v", Collections.singletonList(value));
+        final byte[] tooDeep = AssuranceCborCodec.encode(new AssuranceEvent("type", payload));
+
+        try {
+            AssuranceCborCodec.decode(tooDeep);
+            fail("Expected decoding a too deeply nested event to fail.");
+        } catch (final IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void test_decode_hostileNesting_failsWithoutOverflow() {
+        // {"eventID": [[[[...]]]]} nested far deeper than any stack allows
+        final byte[] data = new byte[1_000_000];
+        data[0] = (byte) 0xA1;
+        data[1] = 0x67;
+        System.arraycopy("eventID".getBytes(Charset.forName("UTF-8")), 0, data, 2, 7);
+        Arrays.fill(data, 9, data.length, (byte) 0x81);
+
+        try {
+            AssuranceCborCodec.decode(data);
+            fail("Expected decoding a hostile frame to fail.");
+        } catch (final IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void test_benchmark_encode_fasterThanJson() throws Exception {
+        Benchmarks.assumeEnabled();
+        final AssuranceEvent event =
+                new AssuranceEvent(
+                        readFromResource("assurance_large_full_event_outbound_flow.txt"));
+        // resolve the lazily parsed payload before measuring
+        event.getPayload().size();
+
+        final long cborNanos =
+                Benchmarks.bestOfNanos(
+                        10,
+                        () -> {
+                            for (int i = 0; i < 100; i++) {
+                                AssuranceCborCodec.encode(event);
+                            }
+                        });
+        final long jsonNanos =
+                Benchmarks.bestOfNanos(
+                        10,
+                        () -> {
+                            for (int i = 0; i < 100; i++) {
+                                event.getJSONRepresentation().getBytes(Charset.forName("UTF-8"));
+                            }
+                        });
+
+        assertTrue(
+                "CBOR encoding took " + cborNanos + "ns, JSON encoding " + jsonNanos + "ns",
+                cborNanos < jsonNanos);
+    }
+
+    @Test
+    public void test_benchmark_decode_fasterThanJson() throws Exception {
+        Benchmarks.assumeEnabled();
+        final AssuranceEvent event =
+                new AssuranceEvent(
+                        readFromResource("assurance_large_full_event_outbound_flow.txt"));
+        final byte[] cborData = AssuranceCborCodec.encode(event);
+        final String json = event.getJSONRepresentation();
+
+        final long cborNanos =
+                Benchmarks.bestOfNanos(
+                        10,
+                        () -> {
+                            for (int i = 0; i < 100; i++) {
+                                AssuranceCborCodec.decode(cborData);
+                            }
+                        });
+        // the JSON baseline converts the whole event, as the CBOR decoder does
+        final long jsonNanos =
+                Benchmarks.bestOfNanos(
+                        10,
+                        () -> {
+                            for (int i = 0; i < 100; i++) {
+                                JSONUtils.toMap(new JSONObject(json));
+                            }
+                        });
+
+        assertTrue(
+                "CBOR decoding took " + cborNanos + "ns, JSON decoding " + jsonNanos + "ns",
+                cborNanos < jsonNanos);
+    }
+
+    private byte[] encodeValue(final Object value) throws IOException {
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put("v", value);
+        final AssuranceEvent event = new AssuranceEvent("t", payload);
+        final byte[] encoded = AssuranceCborCodec.encode(event);
+
+        // The value is the last data item in the payload map, locate it by its key "v".
+        final byte[] keyMarker = {(byte) 0xA1, 0x61, 'v'};
+
+        for (int i = 0; i <= encoded.length - keyMarker.length; i++) {
+            if (encoded[i] == keyMarker[0]
+                    && encoded[i + 1] == keyMarker[1]
+                    && encoded[i + 2] == keyMarker[2]) {
+                final int start = i + keyMarker.length;
+                final byte[] valueBytes = new byte[valueLength(encoded, start)];
+                System.arraycopy(encoded, start, valueBytes, 0, valueBytes.length);
+                return valueBytes;
+            }
+        }
+
+        throw new IOException("Encoded value not found.");
+    }
+
+    private int valueLength(final byte[] encoded, final int start) {
+        final int initialByte = encoded[start] & 0xFF;
+        final int majorType = initialByte >>> 5;
+        final int additionalInfo = initialByte & 0x1F;
+        final int headLength =
+                additionalInfo < 24 ? 1 : 1 + (1 << (additionalInfo - 24));
+
+        if (majorType == 7) {
+            return headLength;
+        }
+
+        if (majorType == 3 || majorType == 2) {
+            return headLength + (additionalInfo < 24 ? additionalInfo : 0);
+        }
+
+        return headLength;
+    }
+
+    private String readFromResource(final String resourceName) throws IOException {
+        final InputStream resourceStream =
+                this.getClass().getClassLoader().getResourceAsStream(resourceName);
+        final BufferedReader bufferedReader =
+                new BufferedReader(new InputStreamReader(resourceStream));
+        final StringBuilder resourceContent = new StringBuilder();
+
+        String currentLine;
+
+        while ((currentLine = bufferedReader.readLine()) != null) {
+            resourceContent.append(currentLine);
+        }
+
+        return resourceContent.toString();
+    }
+}
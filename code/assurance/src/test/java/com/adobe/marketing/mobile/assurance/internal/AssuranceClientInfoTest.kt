@@ -41,6 +41,14 @@ import org.mockito.MockitoAnnotations
 import org.mockito.kotlin.any
 import org.robolectric.RobolectricTestRunner
 import org.robolectric.annotation.Config
+import java.io.File
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executor
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import kotlin.test.assertEquals
 
 @RunWith(RobolectricTestRunner::class)
@@ -74,6 +82,9 @@ class AssuranceClientInfoTest {
     private lateinit var mockedStaticServiceProvider: MockedStatic<ServiceProvider>
     private lateinit var mockedStaticActivityCompat: MockedStatic<ActivityCompat>
 
+    // Runs the device info probes on the test thread, where the static mocks are in effect.
+    private val directExecutor = Executor { it.run() }
+
     companion object {
         private const val TEST_APP_PACKAGE_NAME = "com.assurance.testapp"
         private const val TEST_APP_NAME = "TestApp"
@@ -104,7 +115,7 @@ class AssuranceClientInfoTest {
         mockLocationManager(true, true)
         mockPowerManager(false)
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val data = assuranceClientInfo.data
 
         // Check "version" key
@@ -161,7 +172,7 @@ class AssuranceClientInfoTest {
             "1.0"
         )
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val data = assuranceClientInfo.data
 
         // Check version key
@@ -214,7 +225,7 @@ class AssuranceClientInfoTest {
         mockLocationManager(false, false)
         mockPowerManager(false)
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val data = assuranceClientInfo.data
 
         // Check "version" key
@@ -267,7 +278,7 @@ class AssuranceClientInfoTest {
         mockLocationManager(false, false)
         mockPowerManager(true)
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val data = assuranceClientInfo.data
 
         // Check "version" key
@@ -320,7 +331,7 @@ class AssuranceClientInfoTest {
         `when`(mockAppContextService.applicationContext).thenReturn(mockAppContext)
         `when`(mockAppContextService.application).thenReturn(null)
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val fallbackManifestData = assuranceClientInfo.getFallbackManifestData()
         assertEquals(0, fallbackManifestData.length())
     }
@@ -350,7 +361,7 @@ class AssuranceClientInfoTest {
             )
         ).thenThrow(PackageManager.NameNotFoundException())
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val fallbackManifestData = assuranceClientInfo.getFallbackManifestData()
 
         val expectedFallbackManifestData = JSONObject(
@@ -391,7 +402,7 @@ class AssuranceClientInfoTest {
         // Simulate null app info
         `when`(mockApp.applicationInfo).thenReturn(null)
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val fallbackManifestData = assuranceClientInfo.getFallbackManifestData()
 
         val expectedFallbackManifestData = JSONObject(
@@ -418,7 +429,7 @@ class AssuranceClientInfoTest {
             1,
             "1.0"
         )
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val fallbackManifestData = assuranceClientInfo.getFallbackManifestData()
         val expectedFallbackManifestData = createManifestJson(TEST_APP_PACKAGE_NAME, TEST_APP_NAME)
         assertEquals(JSONUtils.toMap(expectedFallbackManifestData), JSONUtils.toMap(fallbackManifestData))
@@ -429,7 +440,7 @@ class AssuranceClientInfoTest {
         mockAppContextService(TEST_APP_PACKAGE_NAME)
         mockAppDetails(TEST_APP_PACKAGE_NAME, TEST_APP_NAME, 1, "1.0")
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val result = assuranceClientInfo.validateManifestData(null)
 
         assertEquals(false, result)
@@ -440,7 +451,7 @@ class AssuranceClientInfoTest {
         mockAppContextService(TEST_APP_PACKAGE_NAME)
         mockAppDetails(TEST_APP_PACKAGE_NAME, TEST_APP_NAME, 1, "1.0")
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val result = assuranceClientInfo.validateManifestData(JSONObject())
 
         assertEquals(false, result)
@@ -462,7 +473,7 @@ class AssuranceClientInfoTest {
             }
             """.trimIndent()
         )
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val result = assuranceClientInfo.validateManifestData(manifestData)
         assertEquals(false, result)
     }
@@ -484,7 +495,7 @@ class AssuranceClientInfoTest {
         mockAppContextService(TEST_APP_PACKAGE_NAME)
         mockAppDetails(TEST_APP_PACKAGE_NAME, TEST_APP_NAME, 1, "1.0")
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val result = assuranceClientInfo.validateManifestData(manifestData)
         assertEquals(false, result)
     }
@@ -506,11 +517,196 @@ class AssuranceClientInfoTest {
         mockAppContextService(TEST_APP_PACKAGE_NAME)
         mockAppDetails(TEST_APP_PACKAGE_NAME, TEST_APP_NAME, 1, "1.0")
 
-        val assuranceClientInfo = AssuranceClientInfo()
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
         val result = assuranceClientInfo.validateManifestData(manifestData)
         assertEquals(true, result)
     }
 
+    @Test
+    fun `Test #getData without app settings sends the app settings hash only`() {
+        mockAppContextService(TEST_APP_PACKAGE_NAME)
+        val appSettings = mockManifestData(TEST_APP_PACKAGE_NAME, TEST_APP_NAME)
+        mockTelephonyManager(TEST_NETWORK_CARRIER)
+        mockBatteryLevel(TEST_BATTERY_LEVEL)
+        mockLocationManager(true, true)
+        mockPowerManager(false)
+
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
+        val fullData = assuranceClientInfo.getData(true)
+        val hashOnlyData = assuranceClientInfo.getData(false)
+
+        val expectedHash = AssuranceClientInfo.computeHash(appSettings.toString())
+        assertEquals(expectedHash, fullData[AssuranceConstants.ClientInfoKeys.APP_SETTINGS_HASH])
+        assertEquals(expectedHash, hashOnlyData[AssuranceConstants.ClientInfoKeys.APP_SETTINGS_HASH])
+        Assert.assertFalse(hashOnlyData.containsKey(AssuranceConstants.ClientInfoKeys.APP_SETTINGS))
+        Assert.assertNotNull(hashOnlyData[AssuranceConstants.ClientInfoKeys.DEVICE_INFO])
+    }
+
+    @Test
+    fun `Test #computeHash returns the hex encoded SHA-256 hash`() {
+        assertEquals(
+            "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+            AssuranceClientInfo.computeHash("abc")
+        )
+    }
+
+    @Test
+    fun `Test parsed manifest is cached for the installed app version`() {
+        mockAppContextService(TEST_APP_PACKAGE_NAME)
+        mockAppDetails(TEST_APP_PACKAGE_NAME, TEST_APP_NAME, 7, "1.0")
+        `when`(mockApp.cacheDir).thenReturn(File("cache"))
+        val appSettings = mockManifestData(TEST_APP_PACKAGE_NAME, TEST_APP_NAME)
+
+        AssuranceClientInfo(directExecutor)
+
+        mockedStaticAssuranceIOUtils.verify {
+            AssuranceIOUtils.writeStringToFile(
+                File("cache", "com.adobe.assurance.manifest.json"),
+                "7:0\n$appSettings"
+            )
+        }
+    }
+
+    @Test
+    fun `Test cached manifest is used instead of parsing the manifest`() {
+        mockAppContextService(TEST_APP_PACKAGE_NAME)
+        mockAppDetails(TEST_APP_PACKAGE_NAME, TEST_APP_NAME, 7, "1.0")
+        `when`(mockApp.cacheDir).thenReturn(File("cache"))
+        val cachedManifest = createManifestJson(TEST_APP_PACKAGE_NAME, "CachedApp")
+        mockedStaticAssuranceIOUtils.`when`<Any> { AssuranceIOUtils.readFileAsString(any()) }
+            .thenReturn("7:0\n$cachedManifest")
+        mockTelephonyManager(TEST_NETWORK_CARRIER)
+        mockBatteryLevel(TEST_BATTERY_LEVEL)
+        mockLocationManager(true, true)
+        mockPowerManager(false)
+
+        val assuranceClientInfo = AssuranceClientInfo(directExecutor)
+
+        mockedStaticAssuranceIOUtils.verify(
+            { AssuranceIOUtils.readXMLResourceFileAsJSON(any()) },
+            Mockito.never()
+        )
+        assertEquals(
+            AssuranceClientInfo.computeHash(cachedManifest.toString()),
+            assuranceClientInfo.getData(false)[AssuranceConstants.ClientInfoKeys.APP_SETTINGS_HASH]
+        )
+    }
+
+    @Test
+    fun `Test cached manifest of another app version is not used`() {
+        mockAppContextService(TEST_APP_PACKAGE_NAME)
+        mockAppDetails(TEST_APP_PACKAGE_NAME, TEST_APP_NAME, 8, "1.1")
+        `when`(mockApp.cacheDir).thenReturn(File("cache"))
+        mockManifestData(TEST_APP_PACKAGE_NAME, TEST_APP_NAME)
+        mockedStaticAssuranceIOUtils.`when`<Any> { AssuranceIOUtils.readFileAsString(any()) }
+            .thenReturn("7:0\n${createManifestJson(TEST_APP_PACKAGE_NAME, "CachedApp")}")
+
+        AssuranceClientInfo(directExecutor)
+
+        mockedStaticAssuranceIOUtils.verify { AssuranceIOUtils.readXMLResourceFileAsJSON(any()) }
+    }
+
+    @Test
+    fun `Test #getData uses the last known value when a device info probe times out`() {
+        mockAppContextService(TEST_APP_PACKAGE_NAME)
+        mockManifestData(TEST_APP_PACKAGE_NAME, TEST_APP_NAME)
+        mockBatteryLevel(TEST_BATTERY_LEVEL)
+        mockLocationManager(true, true)
+        mockPowerManager(false)
+        `when`(mockAppContext.getSystemService(Application.TELEPHONY_SERVICE))
+            .thenReturn(mockTelephonyManager)
+
+        var carrierLatch = CountDownLatch(1)
+        `when`(mockTelephonyManager.networkOperatorName).thenAnswer {
+            carrierLatch.await(5, TimeUnit.SECONDS)
+            TEST_NETWORK_CARRIER
+        }
+
+        val pool = Executors.newCachedThreadPool()
+        val probes = mutableListOf<Future<*>>()
+        val probeExecutor = Executor {
+            synchronized(probes) { probes.add(it as Future<*>) }
+            pool.execute(it)
+        }
+
+        try {
+            val assuranceClientInfo = AssuranceClientInfo(probeExecutor)
+
+            // the carrier probe is blocked, so the default value is reported
+            val startTime = System.currentTimeMillis()
+            var deviceInfo =
+                assuranceClientInfo.data[AssuranceConstants.ClientInfoKeys.DEVICE_INFO] as Map<*, *>
+            Assert.assertTrue(System.currentTimeMillis() - startTime < 2000)
+            assertEquals("Unknown", deviceInfo[AssuranceConstants.DeviceInfoKeys.CARRIER_NAME])
+
+            // the timed out probes complete in the background and update the last known value
+            val firstLatch = carrierLatch
+            carrierLatch = CountDownLatch(1)
+            firstLatch.countDown()
+            synchronized(probes) { probes.toList() }.forEach { it.get(5, TimeUnit.SECONDS) }
+
+            deviceInfo =
+                assuranceClientInfo.data[AssuranceConstants.ClientInfoKeys.DEVICE_INFO] as Map<*, *>
+            assertEquals(
+                TEST_NETWORK_CARRIER,
+                deviceInfo[AssuranceConstants.DeviceInfoKeys.CARRIER_NAME]
+            )
+        } finally {
+            carrierLatch.countDown()
+            pool.shutdownNow()
+        }
+    }
+
+    @Test
+    fun `Test #getData does not start a device info probe again while it is running`() {
+        mockAppContextService(TEST_APP_PACKAGE_NAME)
+        mockManifestData(TEST_APP_PACKAGE_NAME, TEST_APP_NAME)
+        mockBatteryLevel(TEST_BATTERY_LEVEL)
+        mockLocationManager(true, true)
+        mockPowerManager(false)
+        `when`(mockAppContext.getSystemService(Application.TELEPHONY_SERVICE))
+            .thenReturn(mockTelephonyManager)
+
+        val carrierLatch = CountDownLatch(1)
+        val carrierProbeCount = AtomicInteger()
+        `when`(mockTelephonyManager.networkOperatorName).thenAnswer {
+            carrierProbeCount.incrementAndGet()
+            carrierLatch.await(5, TimeUnit.SECONDS)
+            TEST_NETWORK_CARRIER
+        }
+
+        val pool = Executors.newCachedThreadPool()
+
+        try {
+            val assuranceClientInfo = AssuranceClientInfo(pool)
+
+            // the carrier probe started by the constructor is hung during both client info events
+            assuranceClientInfo.data
+            val deviceInfo =
+                assuranceClientInfo.data[AssuranceConstants.ClientInfoKeys.DEVICE_INFO] as Map<*, *>
+
+            assertEquals("Unknown", deviceInfo[AssuranceConstants.DeviceInfoKeys.CARRIER_NAME])
+            assertEquals(1, carrierProbeCount.get())
+        } finally {
+            carrierLatch.countDown()
+            pool.shutdownNow()
+        }
+    }
+
+    @Test
+    fun `Test #getData uses the default values when the device info probes are rejected`() {
+        mockAppContextService(TEST_APP_PACKAGE_NAME)
+        mockManifestData(TEST_APP_PACKAGE_NAME, TEST_APP_NAME)
+
+        val assuranceClientInfo = AssuranceClientInfo(Executor { throw RejectedExecutionException() })
+        val deviceInfo =
+            assuranceClientInfo.data[AssuranceConstants.ClientInfoKeys.DEVICE_INFO] as Map<*, *>
+
+        assertEquals("Unknown", deviceInfo[AssuranceConstants.DeviceInfoKeys.CARRIER_NAME])
+        assertEquals(-1, deviceInfo[AssuranceConstants.DeviceInfoKeys.BATTERY_LEVEL])
+        assertEquals(false, deviceInfo[AssuranceConstants.DeviceInfoKeys.LOCATION_SERVICE_ENABLED])
+    }
+
     @After
     fun teardown() {
         mockedStaticServiceProvider.close()
@@ -520,8 +716,8 @@ class AssuranceClientInfoTest {
 
     private fun mockManifestData(packageName: String, appName: String): JSONObject {
         val appSettings = createManifestJson(packageName, appName)
-        mockedStaticAssuranceIOUtils.`when`<Any> { AssuranceIOUtils.parseXMLResourceFileToJson(any()) }
-            ?.thenReturn(appSettings)
+        mockedStaticAssuranceIOUtils.`when`<Any> { AssuranceIOUtils.readXMLResourceFileAsJSON(any()) }
+            ?.thenReturn(appSettings.toString())
         return appSettings
     }
 
@@ -0,0 +1,163 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class AssuranceEventFilterTest {
+
+    @Test
+    public void test_emptyFilter_matchesAllEvents() {
+        final AssuranceEventFilter filter =
+                AssuranceEventFilter.compile(new HashMap<String, Object>());
+
+        assertTrue(filter.matches(createEvent("Any", EventType.EDGE, EventSource.OS, null)));
+    }
+
+    @Test
+    public void test_allowRules() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put(
+                "allow",
+                Arrays.asList(
+                        rule("com.adobe.eventType.EDGE", "*"),
+                        rule(EventType.CONFIGURATION, EventSource.RESPONSE_CONTENT)));
+        final AssuranceEventFilter filter = AssuranceEventFilter.compile(details);
+
+        assertTrue(filter.matches(createEvent("e", EventType.EDGE, EventSource.OS, null)));
+        assertTrue(
+                filter.matches(
+                        createEvent(
+                                "e", EventType.CONFIGURATION, EventSource.RESPONSE_CONTENT, null)));
+        assertFalse(
+                filter.matches(
+                        createEvent(
+                                "e", EventType.CONFIGURATION, EventSource.REQUEST_CONTENT, null)));
+        assertFalse(filter.matches(createEvent("e", EventType.HUB, EventSource.OS, null)));
+    }
+
+    @Test
+    public void test_denyRules_takePrecedenceOverAllowRules() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("allow", Collections.singletonList(rule("*", "*")));
+        details.put("deny", Collections.singletonList(rule("*", EventSource.SHARED_STATE)));
+        final AssuranceEventFilter filter = AssuranceEventFilter.compile(details);
+
+        assertTrue(filter.matches(createEvent("e", EventType.HUB, EventSource.OS, null)));
+        assertFalse(
+                filter.matches(createEvent("e", EventType.HUB, EventSource.SHARED_STATE, null)));
+    }
+
+    @Test
+    public void test_namePatterns() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("names", Arrays.asList("AEP Request*", "*response*", "Exact"));
+        final AssuranceEventFilter filter = AssuranceEventFilter.compile(details);
+
+        assertTrue(filter.matches(createEvent("AEP Request Event", EventType.EDGE, "s", null)));
+        assertTrue(filter.matches(createEvent("Edge Response Handle", EventType.EDGE, "s", null)));
+        assertTrue(filter.matches(createEvent("exact", EventType.EDGE, "s", null)));
+        assertFalse(filter.matches(createEvent("Exactly", EventType.EDGE, "s", null)));
+        assertFalse(filter.matches(createEvent("Lifecycle Start", EventType.EDGE, "s", null)));
+    }
+
+    @Test
+    public void test_globMatches() {
+        assertTrue(AssuranceEventFilter.globMatches("*", ""));
+        assertTrue(AssuranceEventFilter.globMatches("a*b*c", "aXXbYYc"));
+        assertTrue(AssuranceEventFilter.globMatches("a*c", "abcbc"));
+        assertTrue(AssuranceEventFilter.globMatches("**a", "bba"));
+        assertFalse(AssuranceEventFilter.globMatches("a*c", "abcb"));
+        assertFalse(AssuranceEventFilter.globMatches("", "a"));
+    }
+
+    @Test
+    public void test_dataPredicates() {
+        final Map<String, Object> equalsPredicate = new HashMap<>();
+        equalsPredicate.put("path", "xdm.eventType");
+        equalsPredicate.put("equals", "web.webpagedetails.pageViews");
+
+        final Map<String, Object> numberPredicate = new HashMap<>();
+        numberPredicate.put("path", "items.1.count");
+        numberPredicate.put("equals", 2);
+
+        final Map<String, Object> existsPredicate = new HashMap<>();
+        existsPredicate.put("path", "query");
+
+        final Map<String, Object> notExistsPredicate = new HashMap<>();
+        notExistsPredicate.put("path", "debug");
+        notExistsPredicate.put("exists", false);
+
+        final Map<String, Object> details = new HashMap<>();
+        details.put(
+                "data",
+                Arrays.asList(
+                        equalsPredicate, numberPredicate, existsPredicate, notExistsPredicate));
+        final AssuranceEventFilter filter = AssuranceEventFilter.compile(details);
+
+        final Map<String, Object> xdm = new HashMap<>();
+        xdm.put("eventType", "web.webpagedetails.pageViews");
+        final Map<String, Object> item = new HashMap<>();
+        item.put("count", 2.0);
+        final Map<String, Object> data = new HashMap<>();
+        data.put("xdm", xdm);
+        data.put("items", Arrays.asList(new HashMap<String, Object>(), item));
+        data.put("query", null);
+
+        assertTrue(filter.matches(createEvent("e", EventType.EDGE, "s", data)));
+
+        data.put("debug", true);
+        assertFalse(filter.matches(createEvent("e", EventType.EDGE, "s", data)));
+
+        data.remove("debug");
+        item.put("count", 3L);
+        assertFalse(filter.matches(createEvent("e", EventType.EDGE, "s", data)));
+
+        assertFalse(filter.matches(createEvent("e", EventType.EDGE, "s", null)));
+    }
+
+    @Test
+    public void test_invalidEntries_areIgnored() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("allow", Arrays.asList("invalid", rule("", "*")));
+        details.put("names", Arrays.asList(5, ""));
+        details.put("data", Collections.singletonList(new HashMap<String, Object>()));
+        final AssuranceEventFilter filter = AssuranceEventFilter.compile(details);
+
+        assertTrue(filter.matches(createEvent("Any", EventType.EDGE, EventSource.OS, null)));
+    }
+
+    private static Map<String, Object> rule(final String type, final String source) {
+        final Map<String, Object> rule = new HashMap<>();
+        rule.put("type", type);
+        rule.put("source", source);
+        return rule;
+    }
+
+    private static Event createEvent(
+            final String name,
+            final String type,
+            final String source,
+            final Map<String, Object> data) {
+        return new Event.Builder(name, type, source).setEventData(data).build();
+    }
+}
@@ -34,15 +34,20 @@ import org.mockito.ArgumentMatchers
 import org.mockito.Mock
 import org.mockito.MockedStatic
 import org.mockito.Mockito
+import org.mockito.Mockito.after
 import org.mockito.Mockito.any
 import org.mockito.Mockito.eq
 import org.mockito.Mockito.mockStatic
+import org.mockito.Mockito.timeout
 import org.mockito.Mockito.`when`
 import org.mockito.MockitoAnnotations
 import org.mockito.kotlin.KArgumentCaptor
 import org.mockito.kotlin.argumentCaptor
 import org.mockito.kotlin.never
 import org.mockito.kotlin.verify
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
 import kotlin.test.assertTrue
@@ -505,7 +510,7 @@ class AssuranceExtensionTest {
         verify(mockAssuranceStateManager).onSDKEvent(event)
 
         val assuranceEventCaptor: KArgumentCaptor<AssuranceEvent> = argumentCaptor()
-        verify(mockAssuranceSessionOrchestrator).queueEvent(assuranceEventCaptor.capture())
+        verify(mockAssuranceSessionOrchestrator, timeout(1000)).queueEvent(assuranceEventCaptor.capture())
 
         val capturedAssuranceEvent = assuranceEventCaptor.firstValue
 
@@ -546,7 +551,7 @@ class AssuranceExtensionTest {
         verify(mockAssuranceStateManager).onSDKEvent(event)
 
         val assuranceEventCaptor: KArgumentCaptor<AssuranceEvent> = argumentCaptor()
-        verify(mockAssuranceSessionOrchestrator).queueEvent(assuranceEventCaptor.capture())
+        verify(mockAssuranceSessionOrchestrator, timeout(1000)).queueEvent(assuranceEventCaptor.capture())
 
         val capturedAssuranceEvent = assuranceEventCaptor.firstValue
 
@@ -602,7 +607,7 @@ class AssuranceExtensionTest {
         assuranceExtension.handleWildcardEvent(event)
 
         val assuranceEventCaptor: KArgumentCaptor<AssuranceEvent> = argumentCaptor()
-        verify(mockAssuranceSessionOrchestrator).queueEvent(assuranceEventCaptor.capture())
+        verify(mockAssuranceSessionOrchestrator, timeout(1000)).queueEvent(assuranceEventCaptor.capture())
 
         val capturedAssuranceEvent = assuranceEventCaptor.firstValue
         assertEquals(
@@ -660,7 +665,7 @@ class AssuranceExtensionTest {
 
         // Verify than an event is queued and capture it
         val assuranceEventCaptor: KArgumentCaptor<AssuranceEvent> = argumentCaptor()
-        verify(mockAssuranceSessionOrchestrator).queueEvent(assuranceEventCaptor.capture())
+        verify(mockAssuranceSessionOrchestrator, timeout(1000)).queueEvent(assuranceEventCaptor.capture())
 
         // Verify that the event is queued with the correct payload
         val capturedAssuranceEvent = assuranceEventCaptor.firstValue
@@ -705,7 +710,180 @@ class AssuranceExtensionTest {
         assuranceExtension.handleWildcardEvent(event)
 
         // Verify than event is never queued
-        verify(mockAssuranceSessionOrchestrator, never()).queueEvent(any())
+        verify(mockAssuranceSessionOrchestrator, after(500).never()).queueEvent(any())
+    }
+
+    @Test
+    fun `Test #handleWildCardEvent preserves the order of captured events`() {
+        val events = (0 until 50).map {
+            Event.Builder("Event $it", EventType.EDGE, EventSource.OS).build()
+        }
+
+        events.forEach { assuranceExtension.handleWildcardEvent(it) }
+
+        val assuranceEventCaptor: KArgumentCaptor<AssuranceEvent> = argumentCaptor()
+        verify(mockAssuranceSessionOrchestrator, timeout(1000).times(events.size))
+            .queueEvent(assuranceEventCaptor.capture())
+        assertEquals(
+            events.map { it.uniqueIdentifier },
+            assuranceEventCaptor.allValues.map {
+                it.payload[AssuranceConstants.GenericEventPayloadKey.ACP_EXTENSION_EVENT_UNIQUE_IDENTIFIER]
+            }
+        )
+    }
+
+    @Test
+    fun `Test #handleWildCardEvent drops events excluded by the event filter`() {
+        val mockEventFilterPlugin = Mockito.mock(AssurancePluginEventFilter::class.java)
+        val filteredExtension = AssuranceExtension(
+            mockExtensionApi,
+            mockAssuranceStateManager,
+            mockAssuranceConnectionDataStore,
+            mockAssuranceSessionOrchestrator,
+            mockEventFilterPlugin
+        )
+        val event = Event.Builder("Event", EventType.EDGE, EventSource.OS).build()
+        `when`(mockEventFilterPlugin.shouldForward(event)).thenReturn(false)
+
+        filteredExtension.handleWildcardEvent(event)
+
+        // the last SDK event is still tracked for the Assurance shared state
+        verify(mockAssuranceStateManager).onSDKEvent(event)
+        verify(mockAssuranceSessionOrchestrator, after(500).never()).queueEvent(any())
+    }
+
+    @Test
+    fun `Test #processSDKEvent stamps the AssuranceEvent with the capture time`() {
+        val event = Event.Builder("Event", EventType.EDGE, EventSource.OS).build()
+
+        assuranceExtension.processSDKEvent(event, 1234L)
+
+        val assuranceEventCaptor: KArgumentCaptor<AssuranceEvent> = argumentCaptor()
+        verify(mockAssuranceSessionOrchestrator).queueEvent(assuranceEventCaptor.capture())
+        assertEquals(1234L, assuranceEventCaptor.firstValue.timestamp)
+        assertEquals(AssuranceConstants.AssuranceEventType.GENERIC, assuranceEventCaptor.firstValue.type)
+    }
+
+    @Test
+    fun `Test #handleWildCardEvent reports the events dropped by the capture buffer`() {
+        `when`(mockAssuranceSessionOrchestrator.activeSession).thenReturn(mockSession)
+
+        // Block the capture thread while it queues the first event, until the buffer overflows.
+        val queueingStarted = CountDownLatch(1)
+        val releaseQueueing = CountDownLatch(1)
+        Mockito.doAnswer {
+            queueingStarted.countDown()
+            releaseQueueing.await(5, TimeUnit.SECONDS)
+        }.`when`(mockAssuranceSessionOrchestrator).queueEvent(any())
+
+        val events = (0 until EventCaptureRingBuffer.DEFAULT_CAPACITY + 6).map {
+            Event.Builder("Event $it", EventType.EDGE, EventSource.OS).build()
+        }
+        assuranceExtension.handleWildcardEvent(events[0])
+        assertTrue(queueingStarted.await(5, TimeUnit.SECONDS))
+        events.drop(1).forEach { assuranceExtension.handleWildcardEvent(it) }
+        releaseQueueing.countDown()
+
+        val queuedCount = EventCaptureRingBuffer.DEFAULT_CAPACITY + 1
+        verify(mockAssuranceSessionOrchestrator, timeout(5000).times(queuedCount))
+            .queueEvent(any())
+        verify(mockSession).logLocalUI(
+            AssuranceConstants.UILogColorVisibility.HIGH,
+            "Assurance dropped 5 SDK events, captured faster than they could be sent."
+        )
+    }
+
+    @Test
+    fun `Test #onUnregistered stops the capture of SDK events`() {
+        assuranceExtension.onUnregistered()
+
+        assuranceExtension.handleWildcardEvent(
+            Event.Builder("Event", EventType.EDGE, EventSource.OS).build()
+        )
+
+        verify(mockAssuranceSessionOrchestrator, after(500).never()).queueEvent(any())
+    }
+
+    @Test
+    fun `Test purging the session discards captured events that are not queued yet`() {
+        val purgeListenerCaptor: KArgumentCaptor<Runnable> = argumentCaptor()
+        verify(mockAssuranceSessionOrchestrator).setPurgeListener(purgeListenerCaptor.capture())
+
+        // Block the capture thread while it queues the first event.
+        val queueingStarted = CountDownLatch(1)
+        val releaseQueueing = CountDownLatch(1)
+        Mockito.doAnswer {
+            queueingStarted.countDown()
+            releaseQueueing.await(5, TimeUnit.SECONDS)
+        }.`when`(mockAssuranceSessionOrchestrator).queueEvent(any())
+
+        val events = (0 until 3).map {
+            Event.Builder("Event $it", EventType.EDGE, EventSource.OS).build()
+        }
+        assuranceExtension.handleWildcardEvent(events[0])
+        assertTrue(queueingStarted.await(5, TimeUnit.SECONDS))
+        assuranceExtension.handleWildcardEvent(events[1])
+        assuranceExtension.handleWildcardEvent(events[2])
+
+        purgeListenerCaptor.firstValue.run()
+        releaseQueueing.countDown()
+
+        verify(mockAssuranceSessionOrchestrator, after(500).times(1)).queueEvent(any())
+    }
+
+    @Test
+    fun `Benchmark #handleWildcardEvent spends less time per event on the hub thread`() {
+        Benchmarks.assumeEnabled()
+
+        val queuedCount = AtomicInteger()
+        val orchestrator = Mockito.mock(
+            AssuranceSessionOrchestrator::class.java,
+            Mockito.withSettings().stubOnly()
+        )
+        Mockito.doAnswer { queuedCount.incrementAndGet() }
+            .`when`(orchestrator).queueEvent(any())
+        val extension = AssuranceExtension(
+            mockExtensionApi,
+            Mockito.mock(AssuranceStateManager::class.java, Mockito.withSettings().stubOnly()),
+            mockAssuranceConnectionDataStore,
+            orchestrator
+        )
+        val events = (0 until 1000).map {
+            Event.Builder("Event $it", EventType.EDGE, EventSource.RESPONSE_CONTENT)
+                .setEventData(mapOf("index" to it, "xdm" to mapOf("eventType" to "commerce.view")))
+                .build()
+        }
+
+        // the processing that used to run on the hub thread for every event
+        val inlineNanos = Benchmarks.bestOfNanos(10) {
+            events.forEach { extension.processSDKEvent(it, System.currentTimeMillis()) }
+        }
+
+        // the hub thread time only, the capture thread drains the buffer between the runs
+        var capturedNanos = Long.MAX_VALUE
+        repeat(13) { run ->
+            val expectedCount = queuedCount.get() + events.size
+            val start = System.nanoTime()
+            events.forEach { extension.handleWildcardEvent(it) }
+            val elapsed = System.nanoTime() - start
+
+            val deadline = System.currentTimeMillis() + 5000
+            while (queuedCount.get() < expectedCount && System.currentTimeMillis() < deadline) {
+                Thread.sleep(1)
+            }
+            assertEquals(expectedCount, queuedCount.get())
+
+            if (run >= 3) {
+                capturedNanos = minOf(capturedNanos, elapsed)
+            }
+        }
+        extension.onUnregistered()
+
+        assertTrue(
+            capturedNanos < inlineNanos,
+            "hub thread time per event: captured ${capturedNanos / events.size}ns, " +
+                "inline ${inlineNanos / events.size}ns"
+        )
     }
 
     @Test
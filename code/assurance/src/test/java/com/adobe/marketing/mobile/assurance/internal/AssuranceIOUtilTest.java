@@ -11,12 +11,16 @@
 
 package com.adobe.marketing.mobile.assurance.internal;
 
+import com.adobe.marketing.mobile.util.JSONUtils;
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.Stack;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.Assert;
 import org.junit.Test;
@@ -35,7 +39,9 @@ public class AssuranceIOUtilTest {
 
         try {
             xmlPullParser.setInput(reader);
-            final JSONObject jsonObj = AssuranceIOUtils.convertXMLToJSON(xmlPullParser);
+            final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+            AssuranceIOUtils.writeXMLAsJSON(xmlPullParser, sink);
+            final JSONObject jsonObj = new JSONObject(sink.toString("UTF-8"));
             Assert.assertEquals(
                     new JSONObject(readResourceFile("AndroidManifest_Test.json").replace("\n", ""))
                             .toString(),
@@ -49,6 +55,184 @@ public class AssuranceIOUtilTest {
         }
     }
 
+    @Test
+    public void testWriteXmlAsJson_escapesStrings() throws Exception {
+        final String xmlString =
+                "<manifest package=\"a&quot;b\\c\"><meta-data value=\"line1&#10;line2&#9;\u00e9\"/>"
+                        + "<label>  text &lt;/b&gt;  </label></manifest>";
+        final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        AssuranceIOUtils.writeXMLAsJSON(createParser(xmlString), sink);
+
+        final JSONObject manifest =
+                new JSONObject(sink.toString("UTF-8")).getJSONObject("manifest");
+        Assert.assertEquals("a\"b\\c", manifest.getString("package"));
+        Assert.assertEquals(
+                "line1\nline2\t\u00e9", manifest.getJSONObject("meta-data").getString("value"));
+        Assert.assertEquals("text </b>", manifest.getJSONObject("label").getString("content"));
+    }
+
+    @Test
+    public void testWriteXmlAsJson_collidingNames_writeOneValuePerKey() throws Exception {
+        final String xmlString =
+                "<manifest label=\"attribute\" content=\"attribute\" package=\"a\">"
+                        + "text<label name=\"child\"/></manifest>";
+        final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        AssuranceIOUtils.writeXMLAsJSON(createParser(xmlString), sink);
+
+        Assert.assertEquals(
+                "{\"manifest\":{\"package\":\"a\",\"content\":\"text\","
+                        + "\"label\":{\"name\":\"child\"}}}",
+                sink.toString("UTF-8"));
+    }
+
+    @Test
+    public void testWriteXmlAsJson_largeManifest_matchesTreeConversion() throws Exception {
+        final String xmlString = createManifestXml(2000);
+        final JSONObject expected = convertXMLToJSONTree(createParser(xmlString));
+        final ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        AssuranceIOUtils.writeXMLAsJSON(createParser(xmlString), sink);
+
+        final JSONObject actual = new JSONObject(sink.toString("UTF-8"));
+        Assert.assertEquals(JSONUtils.toMap(expected), JSONUtils.toMap(actual));
+
+        final JSONObject application =
+                actual.getJSONObject("manifest").getJSONObject("application");
+        Assert.assertEquals(500, application.getJSONArray("activity").length());
+        Assert.assertEquals(500, application.getJSONArray("service").length());
+        Assert.assertEquals(500, application.getJSONArray("receiver").length());
+        Assert.assertEquals(500, application.getJSONArray("meta-data").length());
+    }
+
+    @Test
+    public void testBenchmark_writeXmlAsJson_fasterThanTreeConversion() throws Exception {
+        Benchmarks.assumeEnabled();
+        final String xmlString = createManifestXml(2000);
+
+        final long streamingNanos =
+                Benchmarks.bestOfNanos(
+                        5,
+                        () ->
+                                AssuranceIOUtils.writeXMLAsJSON(
+                                        createParser(xmlString), new ByteArrayOutputStream()));
+        // the tree baseline serializes its result, as the manifest is hashed and cached as text
+        final long treeNanos =
+                Benchmarks.bestOfNanos(
+                        5, () -> convertXMLToJSONTree(createParser(xmlString)).toString());
+
+        Assert.assertTrue(
+                "Streaming conversion took "
+                        + streamingNanos
+                        + "ns, tree conversion "
+                        + treeNanos
+                        + "ns",
+                streamingNanos < treeNanos);
+    }
+
+    /**
+     * Creates a manifest with the given number of components, split evenly between activities,
+     * services, receivers and meta-data entries.
+     */
+    private static String createManifestXml(final int componentCount) {
+        final StringBuilder xml = new StringBuilder();
+        xml.append("<manifest xmlns:android=\"http://schemas.android.com/apk/res/android\"")
+                .append(" package=\"com.adobe.assurance.benchmark\">")
+                .append("<uses-permission android:name=\"android.permission.INTERNET\"/>")
+                .append("<application android:name=\".BenchmarkApp\">");
+
+        for (int i = 0; i < componentCount / 4; i++) {
+            xml.append("<activity android:name=\".Activity")
+                    .append(i)
+                    .append("\" android:exported=\"true\"><intent-filter>")
+                    .append("<action android:name=\"android.intent.action.VIEW\"/>")
+                    .append("<category android:name=\"android.intent.category.DEFAULT\"/>")
+                    .append("<category android:name=\"android.intent.category.BROWSABLE\"/>")
+                    .append("<data android:scheme=\"app")
+                    .append(i)
+                    .append("\"/></intent-filter></activity>")
+                    .append("<service android:name=\".Service")
+                    .append(i)
+                    .append("\" android:exported=\"false\"/>")
+                    .append("<receiver android:name=\".Receiver")
+                    .append(i)
+                    .append("\"><intent-filter><action android:name=\"action.")
+                    .append(i)
+                    .append("\"/></intent-filter></receiver>")
+                    .append("<meta-data android:name=\"key.")
+                    .append(i)
+                    .append("\" android:value=\"value ")
+                    .append(i)
+                    .append("\"/>");
+        }
+
+        return xml.append("</application></manifest>").toString();
+    }
+
+    private static XmlPullParser createParser(final String xmlString) throws Exception {
+        final XmlPullParser xmlPullParser = new KXmlParser();
+        xmlPullParser.setInput(new StringReader(xmlString));
+        return xmlPullParser;
+    }
+
+    /**
+     * The {@code JSONObject} tree based mapping of XML, used as the reference for the streaming
+     * conversion.
+     */
+    private static JSONObject convertXMLToJSONTree(final XmlPullParser xmlPullParser)
+            throws Exception {
+        final Stack<JSONObject> xmlJsonObjectStack = new Stack<>();
+
+        while (xmlPullParser.getEventType() != XmlPullParser.END_DOCUMENT) {
+            switch (xmlPullParser.getEventType()) {
+                case XmlPullParser.START_DOCUMENT:
+                    xmlJsonObjectStack.add(new JSONObject());
+                    break;
+
+                case XmlPullParser.START_TAG:
+                    final JSONObject jsonObject = new JSONObject();
+
+                    for (int i = 0; i < xmlPullParser.getAttributeCount(); i++) {
+                        jsonObject.put(
+                                xmlPullParser.getAttributeName(i),
+                                xmlPullParser.getAttributeValue(i));
+                    }
+
+                    xmlJsonObjectStack.push(jsonObject);
+                    break;
+
+                case XmlPullParser.TEXT:
+                    final String content = xmlPullParser.getText().trim();
+
+                    if (!content.isEmpty()) {
+                        xmlJsonObjectStack.peek().put("content", content);
+                    }
+
+                    break;
+
+                case XmlPullParser.END_TAG:
+                    final JSONObject child = xmlJsonObjectStack.pop();
+                    final JSONObject parent = xmlJsonObjectStack.peek();
+                    final String name = xmlPullParser.getName();
+
+                    if (!parent.has(name)) {
+                        parent.put(name, child);
+                    } else if (parent.get(name) instanceof JSONArray) {
+                        ((JSONArray) parent.get(name)).put(child);
+                    } else {
+                        parent.put(name, new JSONArray().put(parent.get(name)).put(child));
+                    }
+
+                    break;
+            }
+
+            xmlPullParser.next();
+        }
+
+        return xmlJsonObjectStack.pop();
+    }
+
     /**
      * Helper function to read resource file as text.
      *
@@ -15,8 +15,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -28,6 +30,8 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -52,6 +56,8 @@ public class AssurancePluginConfigSwitcherTest {
 
     @Mock AssuranceSession mockSession;
 
+    @Mock ScheduledExecutorService inlineFlushScheduler;
+
     private MockedStatic<MobileCore> mockedStaticMobileCore;
 
     @Before
@@ -65,9 +71,19 @@ public class AssurancePluginConfigSwitcherTest {
         Mockito.when(application.getSharedPreferences(anyString(), ArgumentMatchers.anyInt()))
                 .thenReturn(preferences);
         Mockito.when(preferences.edit()).thenReturn(editor);
+        Mockito.when(editor.commit()).thenReturn(true);
+
+        // flush the persisted keys on the test thread
+        doAnswer(
+                        invocation -> {
+                            ((Runnable) invocation.getArgument(0)).run();
+                            return null;
+                        })
+                .when(inlineFlushScheduler)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
 
         // create plugin instance to test
-        assurancePluginConfigSwitcher = new AssurancePluginConfigSwitcher();
+        assurancePluginConfigSwitcher = new AssurancePluginConfigSwitcher(inlineFlushScheduler);
         assurancePluginConfigSwitcher.onRegistered(mockSession);
     }
 
@@ -145,7 +161,7 @@ public class AssurancePluginConfigSwitcherTest {
 
         Mockito.when(application.getSharedPreferences(anyString(), ArgumentMatchers.anyInt()))
                 .thenReturn(null);
-        assurancePluginConfigSwitcher = new AssurancePluginConfigSwitcher();
+        assurancePluginConfigSwitcher = new AssurancePluginConfigSwitcher(inlineFlushScheduler);
         AssuranceEvent event =
                 new AssuranceEvent(AssuranceConstants.AssuranceEventType.CONTROL, payload);
 
@@ -226,7 +242,7 @@ public class AssurancePluginConfigSwitcherTest {
         // setup
         Mockito.when(application.getSharedPreferences(anyString(), ArgumentMatchers.anyInt()))
                 .thenReturn(null);
-        assurancePluginConfigSwitcher = new AssurancePluginConfigSwitcher();
+        assurancePluginConfigSwitcher = new AssurancePluginConfigSwitcher(inlineFlushScheduler);
 
         // test
         assurancePluginConfigSwitcher.onSessionTerminated();
@@ -0,0 +1,95 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class AssurancePluginEmitterTest {
+    private final AtomicInteger emitNotifications = new AtomicInteger();
+    private final AssurancePluginEmitter emitter =
+            new AssurancePluginEmitter("TestPlugin", 2, emitNotifications::incrementAndGet);
+
+    @Test
+    public void test_tryEmit_consumesCredits() {
+        assertEquals(2, emitter.getCredits());
+
+        assertTrue(emitter.tryEmit(createEvent()));
+        assertEquals(1, emitter.getCredits());
+        assertTrue(emitter.tryEmit(createEvent()));
+        assertEquals(0, emitter.getCredits());
+
+        assertEquals(2, emitter.getEmittedCount());
+        assertEquals(0, emitter.getDroppedCount());
+        assertEquals(2, emitNotifications.get());
+    }
+
+    @Test
+    public void test_tryEmit_withoutCredits_dropsEvent() {
+        emitter.tryEmit(createEvent());
+        emitter.tryEmit(createEvent());
+
+        assertFalse(emitter.tryEmit(createEvent()));
+
+        assertEquals(2, emitter.getEmittedCount());
+        assertEquals(1, emitter.getDroppedCount());
+        assertEquals(2, emitNotifications.get());
+    }
+
+    @Test
+    public void test_tryEmit_nullEvent() {
+        assertFalse(emitter.tryEmit(null));
+
+        assertEquals(0, emitter.getEmittedCount());
+        assertEquals(0, emitNotifications.get());
+    }
+
+    @Test
+    public void test_poll_returnsEventsInOrderAndCredits() {
+        final AssuranceEvent first = createEvent();
+        final AssuranceEvent second = createEvent();
+        emitter.tryEmit(first);
+        emitter.tryEmit(second);
+
+        assertSame(first, emitter.poll());
+        assertEquals(1, emitter.getCredits());
+        assertSame(second, emitter.poll());
+        assertNull(emitter.poll());
+
+        assertEquals(2, emitter.getForwardedCount());
+        assertEquals(2, emitter.getCredits());
+        assertTrue(emitter.getThroughput() > 0);
+    }
+
+    @Test
+    public void test_close_dropsPendingAndNewEvents() {
+        emitter.tryEmit(createEvent());
+
+        emitter.close();
+
+        assertNull(emitter.poll());
+        assertEquals(0, emitter.getCredits());
+        assertFalse(emitter.tryEmit(createEvent()));
+        assertEquals(2, emitter.getDroppedCount());
+    }
+
+    private static AssuranceEvent createEvent() {
+        return new AssuranceEvent("generic", new HashMap<String, Object>());
+    }
+}
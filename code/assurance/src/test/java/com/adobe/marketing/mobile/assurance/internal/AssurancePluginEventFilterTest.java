@@ -0,0 +1,101 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.EventSource;
+import com.adobe.marketing.mobile.EventType;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+public class AssurancePluginEventFilterTest {
+
+    @Mock private AssuranceSession mockSession;
+
+    private AssurancePluginEventFilter plugin;
+    private Event edgeEvent;
+    private Event hubEvent;
+
+    @Before
+    public void setup() {
+        MockitoAnnotations.openMocks(this);
+        plugin = new AssurancePluginEventFilter();
+        plugin.onRegistered(mockSession);
+        edgeEvent = new Event.Builder("edge", EventType.EDGE, EventSource.REQUEST_CONTENT).build();
+        hubEvent = new Event.Builder("hub", EventType.HUB, EventSource.SHARED_STATE).build();
+    }
+
+    @Test
+    public void test_getVendorAndControlType() {
+        assertEquals(AssuranceConstants.VENDOR_ASSURANCE_MOBILE, plugin.getVendor());
+        assertEquals(AssuranceConstants.ControlType.EVENT_FILTER, plugin.getControlType());
+    }
+
+    @Test
+    public void test_shouldForward_withoutFilter() {
+        assertTrue(plugin.shouldForward(edgeEvent));
+        assertTrue(plugin.shouldForward(hubEvent));
+    }
+
+    @Test
+    public void test_onEventReceived_appliesFilter() {
+        plugin.onEventReceived(createFilterEvent(edgeOnlyFilter()));
+
+        assertTrue(plugin.shouldForward(edgeEvent));
+        assertFalse(plugin.shouldForward(hubEvent));
+        Mockito.verify(mockSession)
+                .logLocalUI(eq(AssuranceConstants.UILogColorVisibility.LOW), anyString());
+    }
+
+    @Test
+    public void test_onEventReceived_emptyDetails_removesFilter() {
+        plugin.onEventReceived(createFilterEvent(edgeOnlyFilter()));
+        plugin.onEventReceived(createFilterEvent(new HashMap<String, Object>()));
+
+        assertTrue(plugin.shouldForward(hubEvent));
+    }
+
+    @Test
+    public void test_onSessionTerminated_removesFilter() {
+        plugin.onEventReceived(createFilterEvent(edgeOnlyFilter()));
+        plugin.onSessionTerminated();
+
+        assertTrue(plugin.shouldForward(hubEvent));
+    }
+
+    private static Map<String, Object> edgeOnlyFilter() {
+        final Map<String, Object> rule = new HashMap<>();
+        rule.put("type", EventType.EDGE);
+        final Map<String, Object> details = new HashMap<>();
+        details.put("allow", Collections.singletonList(rule));
+        return details;
+    }
+
+    private static AssuranceEvent createFilterEvent(final Map<String, Object> details) {
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put("type", AssuranceConstants.ControlType.EVENT_FILTER);
+        payload.put("detail", details);
+        return new AssuranceEvent(AssuranceConstants.AssuranceEventType.CONTROL, payload);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+public class AssurancePluginEventPumpTest {
+    private final AssuranceSession mockSession = mock(AssuranceSession.class);
+    private final ScheduledExecutorService mockExecutor = mock(ScheduledExecutorService.class);
+    private final List<Runnable> queuedTasks = new ArrayList<>();
+    private AssurancePluginEventPump pump;
+
+    @Before
+    public void setUp() {
+        doAnswer(
+                        invocation -> {
+                            queuedTasks.add(invocation.getArgument(0));
+                            return null;
+                        })
+                .when(mockExecutor)
+                .execute(any(Runnable.class));
+        pump = new AssurancePluginEventPump(mockSession, mockExecutor);
+    }
+
+    @Test
+    public void test_drain_forwardsEventsInTurns() {
+        final AssurancePluginEmitter first = pump.createEmitter("First");
+        final AssurancePluginEmitter second = pump.createEmitter("Second");
+        final AssuranceEvent first1 = createEvent();
+        final AssuranceEvent first2 = createEvent();
+        final AssuranceEvent second1 = createEvent();
+        first.tryEmit(first1);
+        first.tryEmit(first2);
+        second.tryEmit(second1);
+
+        runQueuedTasks();
+
+        final InOrder inOrder = Mockito.inOrder(mockSession);
+        inOrder.verify(mockSession).queueOutboundEvent(first1);
+        inOrder.verify(mockSession).queueOutboundEvent(second1);
+        inOrder.verify(mockSession).queueOutboundEvent(first2);
+        assertEquals(AssurancePluginEventPump.EMITTER_CAPACITY, first.getCredits());
+    }
+
+    @Test
+    public void test_emit_schedulesSingleDrain() {
+        final AssurancePluginEmitter emitter = pump.createEmitter("Plugin");
+
+        emitter.tryEmit(createEvent());
+        emitter.tryEmit(createEvent());
+
+        verify(mockExecutor, times(1)).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void test_drain_aboveHighWatermark_retriesLater() {
+        final AssurancePluginEmitter emitter = pump.createEmitter("Plugin");
+        final AssuranceEvent event = createEvent();
+        when(mockSession.getOutboundQueueDepth())
+                .thenReturn(AssurancePluginEventPump.HIGH_WATERMARK);
+
+        emitter.tryEmit(event);
+        runQueuedTasks();
+
+        verify(mockSession, never()).queueOutboundEvent(any(AssuranceEvent.class));
+        assertEquals(AssurancePluginEventPump.EMITTER_CAPACITY - 1, emitter.getCredits());
+        final ArgumentCaptor<Runnable> retryCaptor = ArgumentCaptor.forClass(Runnable.class);
+        verify(mockExecutor)
+                .schedule(
+                        retryCaptor.capture(),
+                        eq(AssurancePluginEventPump.RETRY_DELAY_MS),
+                        eq(TimeUnit.MILLISECONDS));
+
+        when(mockSession.getOutboundQueueDepth()).thenReturn(0);
+        retryCaptor.getValue().run();
+
+        verify(mockSession).queueOutboundEvent(event);
+    }
+
+    @Test
+    public void test_emit_withoutCredits_dropsEvents() {
+        final AssurancePluginEmitter emitter = pump.createEmitter("Plugin");
+        when(mockSession.getOutboundQueueDepth())
+                .thenReturn(AssurancePluginEventPump.HIGH_WATERMARK);
+
+        for (int i = 0; i < AssurancePluginEventPump.EMITTER_CAPACITY + 10; i++) {
+            emitter.tryEmit(createEvent());
+        }
+
+        assertEquals(AssurancePluginEventPump.EMITTER_CAPACITY, emitter.getEmittedCount());
+        assertEquals(10, emitter.getDroppedCount());
+    }
+
+    @Test
+    public void test_stop_forwardsPendingEventsThenClosesEmitters() {
+        final AssurancePluginEmitter emitter = pump.createEmitter("Plugin");
+        final AssuranceEvent event = createEvent();
+        emitter.tryEmit(event);
+
+        pump.stop();
+        runQueuedTasks();
+
+        verify(mockSession).queueOutboundEvent(event);
+        assertFalse(emitter.tryEmit(createEvent()));
+        assertFalse(pump.createEmitter("Late").tryEmit(createEvent()));
+        verify(mockExecutor, never()).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void test_stop_aboveHighWatermark_dropsPendingEvents() {
+        final AssurancePluginEmitter emitter = pump.createEmitter("Plugin");
+        when(mockSession.getOutboundQueueDepth())
+                .thenReturn(AssurancePluginEventPump.HIGH_WATERMARK);
+        emitter.tryEmit(createEvent());
+
+        pump.stop();
+        runQueuedTasks();
+
+        verify(mockSession, never()).queueOutboundEvent(any(AssuranceEvent.class));
+        assertEquals(1, emitter.getDroppedCount());
+    }
+
+    private void runQueuedTasks() {
+        while (!queuedTasks.isEmpty()) {
+            queuedTasks.remove(0).run();
+        }
+    }
+
+    private static AssuranceEvent createEvent() {
+        return new AssuranceEvent("generic", new HashMap<String, Object>());
+    }
+}
@@ -0,0 +1,326 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.adobe.marketing.mobile.Event;
+import com.adobe.marketing.mobile.MobileCore;
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.LoadGeneratorKeys;
+import com.adobe.marketing.mobile.assurance.internal.AssurancePluginLoadGenerator.LoadOptions;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+
+@SuppressWarnings("unchecked")
+public class AssurancePluginLoadGeneratorTest {
+    private MockedStatic<MobileCore> mockedStaticMobileCore;
+    private ScheduledExecutorService mockScheduler;
+    private ScheduledFuture<?> mockScheduledFuture;
+    private AssurancePluginEmitter emitter;
+    private AssurancePluginLoadGenerator plugin;
+
+    // the tick scheduled on the mock scheduler, run by the tests
+    private Runnable scheduledTick;
+
+    @Before
+    public void setup() {
+        mockedStaticMobileCore = Mockito.mockStatic(MobileCore.class);
+        mockScheduler = mock(ScheduledExecutorService.class);
+        mockScheduledFuture = mock(ScheduledFuture.class);
+        doAnswer(
+                        invocation -> {
+                            ((Runnable) invocation.getArgument(0)).run();
+                            return null;
+                        })
+                .when(mockScheduler)
+                .execute(any(Runnable.class));
+        doAnswer(
+                        invocation -> {
+                            scheduledTick = invocation.getArgument(0);
+                            return mockScheduledFuture;
+                        })
+                .when(mockScheduler)
+                .scheduleAtFixedRate(
+                        any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+
+        emitter = new AssurancePluginEmitter("LoadGenerator", 64, () -> {}, () -> 7);
+        plugin = new AssurancePluginLoadGenerator(mockScheduler);
+        plugin.onRegistered(emitter);
+    }
+
+    @After
+    public void teardown() {
+        mockedStaticMobileCore.close();
+    }
+
+    @Test
+    public void test_vendorAndControlType() {
+        assertEquals(AssuranceConstants.VENDOR_ASSURANCE_MOBILE, plugin.getVendor());
+        assertEquals(AssuranceConstants.ControlType.LOAD_GENERATOR, plugin.getControlType());
+    }
+
+    @Test
+    public void test_run_dispatchesRequestedRateAndReports() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put(LoadGeneratorKeys.EVENTS_PER_SECOND, 15);
+        details.put(LoadGeneratorKeys.DURATION_SECONDS, 2);
+        plugin.onEventReceived(controlEvent(details));
+
+        verify(mockScheduler)
+                .scheduleAtFixedRate(
+                        any(Runnable.class),
+                        eq(AssurancePluginLoadGenerator.TICK_INTERVAL_MS),
+                        eq(AssurancePluginLoadGenerator.TICK_INTERVAL_MS),
+                        eq(TimeUnit.MILLISECONDS));
+
+        runTicks(AssurancePluginLoadGenerator.TICKS_PER_SECOND);
+
+        // 1.5 events per tick, the fractions being carried over
+        mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(any(Event.class)), times(15));
+        final Map<String, Object> firstReport = pollReport();
+        assertEquals(15L, firstReport.get(LoadGeneratorKeys.DISPATCHED_COUNT));
+        assertEquals(15.0, firstReport.get(LoadGeneratorKeys.TARGET_RATE));
+        assertEquals(7, firstReport.get(LoadGeneratorKeys.OUTBOUND_QUEUE_DEPTH));
+        assertEquals(false, firstReport.get(LoadGeneratorKeys.COMPLETE));
+
+        runTicks(AssurancePluginLoadGenerator.TICKS_PER_SECOND);
+
+        mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(any(Event.class)), times(30));
+        final Map<String, Object> finalReport = pollReport();
+        assertEquals(30L, finalReport.get(LoadGeneratorKeys.DISPATCHED_COUNT));
+        assertEquals(true, finalReport.get(LoadGeneratorKeys.COMPLETE));
+        verify(mockScheduledFuture).cancel(false);
+        assertNull(emitter.poll());
+
+        // ticks that still run after the cancellation are ignored
+        scheduledTick.run();
+        mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(any(Event.class)), times(30));
+    }
+
+    @Test
+    public void test_run_dispatchesEventsOfRequestedTypeAndShape() {
+        final Map<String, Object> shapes = new HashMap<>();
+        shapes.put(LoadGeneratorKeys.SHAPE_LIST, 1);
+        final Map<String, Object> details = new HashMap<>();
+        details.put(LoadGeneratorKeys.EVENTS_PER_SECOND, 10);
+        details.put(LoadGeneratorKeys.EVENT_TYPE, "loadType");
+        details.put(LoadGeneratorKeys.EVENT_SOURCE, "loadSource");
+        details.put(LoadGeneratorKeys.SHAPES, shapes);
+        plugin.onEventReceived(controlEvent(details));
+
+        runTicks(1);
+
+        final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+        mockedStaticMobileCore.verify(() -> MobileCore.dispatchEvent(eventCaptor.capture()));
+        final Event event = eventCaptor.getValue();
+        assertEquals(AssurancePluginLoadGenerator.LOAD_EVENT_NAME, event.getName());
+        assertEquals("loadType", event.getType());
+        assertEquals("loadSource", event.getSource());
+        assertEquals(0L, event.getEventData().get(AssurancePluginLoadGenerator.SEQUENCE_KEY));
+        assertTrue(event.getEventData().get("items") instanceof List);
+    }
+
+    @Test
+    public void test_stop_endsRunWithFinalReport() {
+        plugin.onEventReceived(controlEvent(new HashMap<String, Object>()));
+        runTicks(3);
+
+        final Map<String, Object> details = new HashMap<>();
+        details.put(LoadGeneratorKeys.STOP, true);
+        plugin.onEventReceived(controlEvent(details));
+
+        verify(mockScheduledFuture).cancel(false);
+        verify(mockScheduler, times(1))
+                .scheduleAtFixedRate(
+                        any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+        final Map<String, Object> report = pollReport();
+        assertEquals(3L, report.get(LoadGeneratorKeys.DISPATCHED_COUNT));
+        assertEquals(true, report.get(LoadGeneratorKeys.COMPLETE));
+    }
+
+    @Test
+    public void test_sessionDisconnected_endsRun() {
+        plugin.onEventReceived(controlEvent(new HashMap<String, Object>()));
+
+        plugin.onSessionDisconnected(1006);
+
+        verify(mockScheduledFuture).cancel(false);
+        assertEquals(true, pollReport().get(LoadGeneratorKeys.COMPLETE));
+    }
+
+    @Test
+    public void test_sessionTerminated_sendsFinalReport() {
+        plugin.onEventReceived(controlEvent(new HashMap<String, Object>()));
+
+        plugin.onSessionTerminated();
+
+        verify(mockScheduledFuture).cancel(false);
+        assertEquals(true, pollReport().get(LoadGeneratorKeys.COMPLETE));
+    }
+
+    @Test
+    public void test_run_withoutSession_isIgnored() {
+        plugin.onSessionTerminated();
+
+        plugin.onEventReceived(controlEvent(new HashMap<String, Object>()));
+
+        verify(mockScheduler, never())
+                .scheduleAtFixedRate(
+                        any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void test_onHubEvent_recordsLagOfGeneratedEvents() throws InterruptedException {
+        plugin.onEventReceived(controlEvent(new HashMap<String, Object>()));
+        final Event generatedEvent =
+                new Event.Builder(
+                                AssurancePluginLoadGenerator.LOAD_EVENT_NAME,
+                                AssurancePluginLoadGenerator.DEFAULT_EVENT_TYPE,
+                                AssurancePluginLoadGenerator.DEFAULT_EVENT_SOURCE)
+                        .build();
+        final Event otherEvent = new Event.Builder("Other", "otherType", "otherSource").build();
+        Thread.sleep(20);
+
+        plugin.onHubEvent(generatedEvent);
+        plugin.onHubEvent(otherEvent);
+        plugin.onSessionDisconnected(1000);
+
+        final Map<String, Object> report = pollReport();
+        assertTrue((Long) report.get(LoadGeneratorKeys.HUB_LAG_MAX_MS) >= 20);
+        assertTrue((Long) report.get(LoadGeneratorKeys.HUB_LAG_AVG_MS) >= 20);
+    }
+
+    @Test
+    public void test_reportDropped_whenEmitterFull() {
+        emitter = new AssurancePluginEmitter("LoadGenerator", 1, () -> {});
+        plugin.onRegistered(emitter);
+        final Map<String, Object> details = new HashMap<>();
+        details.put(LoadGeneratorKeys.DURATION_SECONDS, 3);
+        plugin.onEventReceived(controlEvent(details));
+
+        runTicks(3 * AssurancePluginLoadGenerator.TICKS_PER_SECOND);
+
+        // the first report was held, the others were dropped
+        assertEquals(0, pollReport().get(LoadGeneratorKeys.DROPPED_REPORTS));
+        assertNull(emitter.poll());
+        assertEquals(2L, emitter.getDroppedCount());
+    }
+
+    @Test
+    public void test_loadOptions_defaultsAndClamping() {
+        final LoadOptions defaults = LoadOptions.from(null);
+        assertFalse(defaults.stop);
+        assertEquals(10.0, defaults.eventsPerSecond, 0);
+        assertEquals(10, defaults.durationSeconds);
+        assertEquals(64, defaults.minDataSize);
+        assertEquals(1024, defaults.maxDataSize);
+        assertFalse(defaults.logUniformSizes);
+        assertEquals(AssurancePluginLoadGenerator.DEFAULT_EVENT_TYPE, defaults.eventType);
+
+        final Map<String, Object> details = new HashMap<>();
+        details.put(LoadGeneratorKeys.EVENTS_PER_SECOND, 100_000);
+        details.put(LoadGeneratorKeys.DURATION_SECONDS, -5);
+        details.put(LoadGeneratorKeys.MIN_DATA_SIZE, 2048);
+        details.put(LoadGeneratorKeys.MAX_DATA_SIZE, 100);
+        details.put(LoadGeneratorKeys.EVENT_TYPE, "");
+        final LoadOptions clamped = LoadOptions.from(details);
+        assertEquals(1000.0, clamped.eventsPerSecond, 0);
+        assertEquals(1, clamped.durationSeconds);
+        assertEquals(2048, clamped.minDataSize);
+        assertEquals(2048, clamped.maxDataSize);
+        assertEquals(AssurancePluginLoadGenerator.DEFAULT_EVENT_TYPE, clamped.eventType);
+    }
+
+    @Test
+    public void test_loadOptions_drawsSizesAndShapesFromDistributions() {
+        final Map<String, Object> shapes = new HashMap<>();
+        shapes.put(LoadGeneratorKeys.SHAPE_NESTED, 1);
+        shapes.put(LoadGeneratorKeys.SHAPE_LIST, 1);
+        final Map<String, Object> details = new HashMap<>();
+        details.put(LoadGeneratorKeys.MIN_DATA_SIZE, 10);
+        details.put(LoadGeneratorKeys.MAX_DATA_SIZE, 10_000);
+        details.put(
+                LoadGeneratorKeys.SIZE_DISTRIBUTION,
+                LoadGeneratorKeys.SIZE_DISTRIBUTION_LOG_UNIFORM);
+        details.put(LoadGeneratorKeys.SHAPES, shapes);
+        final LoadOptions options = LoadOptions.from(details);
+        final Random random = new Random(42);
+        final List<String> drawnShapes = new ArrayList<>();
+        int smallSizes = 0;
+
+        for (int i = 0; i < 1000; i++) {
+            final int size = options.nextDataSize(random);
+            assertTrue(size >= 10 && size <= 10_000);
+            smallSizes += size < 100 ? 1 : 0;
+            drawnShapes.add(options.nextShape(random));
+        }
+
+        // a third of log uniform sizes are within the first decade
+        assertTrue(smallSizes > 250 && smallSizes < 420);
+        assertFalse(drawnShapes.contains(LoadGeneratorKeys.SHAPE_FLAT));
+        assertTrue(drawnShapes.contains(LoadGeneratorKeys.SHAPE_NESTED));
+        assertTrue(drawnShapes.contains(LoadGeneratorKeys.SHAPE_LIST));
+    }
+
+    private void runTicks(final int count) {
+        for (int i = 0; i < count; i++) {
+            scheduledTick.run();
+        }
+    }
+
+    private Map<String, Object> pollReport() {
+        AssuranceEvent report = null;
+
+        for (AssuranceEvent event = emitter.poll(); event != null; event = emitter.poll()) {
+            report = event;
+        }
+
+        assertEquals(AssuranceConstants.AssuranceEventType.CLIENT, report.type);
+        final Map<String, Object> payload = report.getPayload();
+        assertEquals(
+                LoadGeneratorKeys.REPORT_TYPE,
+                payload.get(AssuranceConstants.PayloadDataKeys.TYPE));
+        return (Map<String, Object>) payload.get(AssuranceConstants.PayloadDataKeys.DETAIL);
+    }
+
+    private static AssuranceEvent controlEvent(final Map<String, Object> details) {
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put(
+                AssuranceConstants.PayloadDataKeys.TYPE,
+                AssuranceConstants.ControlType.LOAD_GENERATOR);
+        payload.put(AssuranceConstants.PayloadDataKeys.DETAIL, details);
+        return new AssuranceEvent(AssuranceConstants.AssuranceEventType.CONTROL, payload);
+    }
+}
@@ -12,17 +12,32 @@
 package com.adobe.marketing.mobile.assurance.internal;
 
 import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+@SuppressWarnings("unchecked")
 public class AssurancePluginManagerTest {
     @Mock private AssuranceSession mockAssuranceSession;
     @Mock private AssurancePlugin mockPlugin1;
@@ -123,4 +138,98 @@ public class AssurancePluginManagerTest {
 
         verify(mockPlugin1, times(1)).onSessionTerminated();
     }
+
+    @Test
+    public void test_addPlugin_asyncPlugin_receivesEmitter() {
+        final AssurancePluginEventPump mockEventPump = mock(AssurancePluginEventPump.class);
+        final AssurancePluginEmitter mockEmitter = mock(AssurancePluginEmitter.class);
+        final AssuranceAsyncPluginAdapter mockAdapter = mock(AssuranceAsyncPluginAdapter.class);
+        when(mockAdapter.getVendor()).thenReturn(AssuranceConstants.VENDOR_ASSURANCE_MOBILE);
+        when(mockAdapter.getPluginName()).thenReturn("AsyncPlugin");
+        when(mockEventPump.createEmitter("AsyncPlugin")).thenReturn(mockEmitter);
+        assurancePluginManager =
+                new AssurancePluginManager(
+                        mockAssuranceSession, new ConcurrentHashMap<>(), mockEventPump);
+
+        assurancePluginManager.addPlugin(mockAdapter);
+
+        verify(mockAdapter).setEmitter(mockEmitter);
+        verify(mockAdapter).onRegistered(mockAssuranceSession);
+    }
+
+    @Test
+    public void test_onSessionTerminated_stopsEventPump() {
+        final AssurancePluginEventPump mockEventPump = mock(AssurancePluginEventPump.class);
+        assurancePluginManager =
+                new AssurancePluginManager(
+                        mockAssuranceSession, new ConcurrentHashMap<>(), mockEventPump);
+        assurancePluginManager.addPlugin(mockPlugin1);
+
+        assurancePluginManager.onSessionTerminated();
+
+        verify(mockPlugin1).onSessionTerminated();
+        verify(mockEventPump).stop();
+    }
+
+    @Test
+    public void test_onSessionTerminated_asyncPlugin_finalEventsAreForwarded() {
+        final List<Runnable> pumpTasks = new ArrayList<>();
+        final ScheduledExecutorService mockPumpExecutor = mock(ScheduledExecutorService.class);
+        doAnswer(invocation -> pumpTasks.add(invocation.getArgument(0)))
+                .when(mockPumpExecutor)
+                .execute(any(Runnable.class));
+        final List<Runnable> pluginTasks = new ArrayList<>();
+        final ExecutorService mockPluginExecutor = mock(ExecutorService.class);
+        doAnswer(invocation -> pluginTasks.add(invocation.getArgument(0)))
+                .when(mockPluginExecutor)
+                .execute(any(Runnable.class));
+        final ScheduledExecutorService mockLoadScheduler = mock(ScheduledExecutorService.class);
+        doAnswer(
+                        invocation -> {
+                            ((Runnable) invocation.getArgument(0)).run();
+                            return null;
+                        })
+                .when(mockLoadScheduler)
+                .execute(any(Runnable.class));
+        doReturn(mock(ScheduledFuture.class))
+                .when(mockLoadScheduler)
+                .scheduleAtFixedRate(
+                        any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+        assurancePluginManager =
+                new AssurancePluginManager(
+                        mockAssuranceSession,
+                        new ConcurrentHashMap<>(),
+                        new AssurancePluginEventPump(mockAssuranceSession, mockPumpExecutor));
+        assurancePluginManager.addPlugin(
+                new AssuranceAsyncPluginAdapter(
+                        new AssurancePluginLoadGenerator(mockLoadScheduler),
+                        mockPluginExecutor));
+        final AssuranceEvent mockControlEvent = mock(AssuranceEvent.class);
+        when(mockControlEvent.getVendor()).thenReturn(AssuranceConstants.VENDOR_ASSURANCE_MOBILE);
+        when(mockControlEvent.getControlType())
+                .thenReturn(AssuranceConstants.ControlType.LOAD_GENERATOR);
+        when(mockControlEvent.getControlDetail()).thenReturn(new HashMap<String, Object>());
+
+        assurancePluginManager.onAssuranceEvent(mockControlEvent);
+        assurancePluginManager.onSessionTerminated();
+
+        // the pump is not stopped before the plugin handled the termination
+        assertTrue(pumpTasks.isEmpty());
+        runTasks(pluginTasks);
+        runTasks(pumpTasks);
+
+        final ArgumentCaptor<AssuranceEvent> eventCaptor =
+                ArgumentCaptor.forClass(AssuranceEvent.class);
+        verify(mockAssuranceSession).queueOutboundEvent(eventCaptor.capture());
+        final Map<String, Object> payload = eventCaptor.getValue().payload;
+        final Map<String, Object> detail =
+                (Map<String, Object>) payload.get(AssuranceConstants.PayloadDataKeys.DETAIL);
+        assertEquals(true, detail.get(AssuranceConstants.LoadGeneratorKeys.COMPLETE));
+    }
+
+    private static void runTasks(final List<Runnable> tasks) {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
 }
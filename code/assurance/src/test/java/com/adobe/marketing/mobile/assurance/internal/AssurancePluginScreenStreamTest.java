@@ -0,0 +1,356 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.app.Activity;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import com.adobe.marketing.mobile.services.AppContextService;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+@SuppressWarnings("unchecked")
+public class AssurancePluginScreenStreamTest {
+    private MockedStatic<AssuranceBlob> mockedStaticAssuranceBlob;
+    private MockedStatic<ServiceProvider> mockedStaticServiceProvider;
+    private ScheduledExecutorService mockScheduler;
+    private ScheduledFuture<?> mockScheduledFuture;
+    private AssuranceScreenCapturer mockScreenCapturer;
+    private AssuranceSession mockSession;
+    private AssurancePluginScreenStream plugin;
+
+    // the frames scheduled on the mock scheduler, run by the tests
+    private final List<Runnable> scheduledFrames = new ArrayList<>();
+    private Bitmap nextFrame;
+
+    @Before
+    public void setup() {
+        mockedStaticAssuranceBlob = Mockito.mockStatic(AssuranceBlob.class);
+        mockedStaticServiceProvider = Mockito.mockStatic(ServiceProvider.class);
+        final ServiceProvider mockServiceProvider = mock(ServiceProvider.class);
+        final AppContextService mockAppContextService = mock(AppContextService.class);
+        mockedStaticServiceProvider
+                .when(ServiceProvider::getInstance)
+                .thenReturn(mockServiceProvider);
+        when(mockServiceProvider.getAppContextService()).thenReturn(mockAppContextService);
+        when(mockAppContextService.getCurrentActivity()).thenReturn(mock(Activity.class));
+
+        mockScheduler = mock(ScheduledExecutorService.class);
+        mockScheduledFuture = mock(ScheduledFuture.class);
+        doAnswer(
+                        invocation -> {
+                            ((Runnable) invocation.getArgument(0)).run();
+                            return null;
+                        })
+                .when(mockScheduler)
+                .execute(any(Runnable.class));
+        doAnswer(
+                        invocation -> {
+                            scheduledFrames.add(invocation.getArgument(0));
+                            return mockScheduledFuture;
+                        })
+                .when(mockScheduler)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        mockScreenCapturer = mock(AssuranceScreenCapturer.class);
+        doAnswer(
+                        invocation -> {
+                            final AssuranceScreenCapturer.Callback callback =
+                                    invocation.getArgument(2);
+                            callback.onCaptured(nextFrame);
+                            return null;
+                        })
+                .when(mockScreenCapturer)
+                .capture(any(Activity.class), anyFloat(), any());
+
+        mockSession = mock(AssuranceSession.class);
+        plugin = new AssurancePluginScreenStream(mockScheduler, mockScreenCapturer);
+        plugin.onRegistered(mockSession);
+        nextFrame = frame(Color.WHITE);
+    }
+
+    @After
+    public void teardown() {
+        mockedStaticAssuranceBlob.close();
+        mockedStaticServiceProvider.close();
+    }
+
+    @Test
+    public void test_getVendorAndControlType() {
+        assertEquals(AssuranceTestConstants.VENDOR_ASSURANCE_MOBILE, plugin.getVendor());
+        assertEquals("screenStream", plugin.getControlType());
+    }
+
+    @Test
+    public void test_enable_uploadsCompleteFirstFrame() {
+        plugin.onEventReceived(streamEvent(true));
+
+        assertTrue(plugin.isStreaming());
+        final AssuranceBlob.BlobUploadCallback callback = verifyUpload(1);
+        callback.onSuccess("blob1");
+
+        final Map<String, Object> payload = verifyFrameEvent(1);
+        assertEquals("blob1", payload.get("blobId"));
+        assertEquals("image/jpeg", payload.get("mimeType"));
+        final Map<String, Object> frameDetails = (Map<String, Object>) payload.get("frame");
+        assertEquals(1, frameDetails.get("number"));
+        assertEquals(true, frameDetails.get("keyframe"));
+        assertEquals(0, frameDetails.get("x"));
+        assertEquals(0, frameDetails.get("y"));
+        assertEquals(64, frameDetails.get("width"));
+        assertEquals(48, frameDetails.get("height"));
+        assertEquals(64, frameDetails.get("frameWidth"));
+        assertEquals(48, frameDetails.get("frameHeight"));
+    }
+
+    @Test
+    public void test_unchangedFrame_isNotUploaded() {
+        plugin.onEventReceived(streamEvent(true));
+        verifyUpload(1).onSuccess("blob1");
+
+        runNextFrame();
+
+        verifyUpload(1);
+        assertTrue(plugin.isStreaming());
+    }
+
+    @Test
+    public void test_changedFrame_uploadsChangedRegionOnly() {
+        plugin.onEventReceived(streamEvent(true));
+        verifyUpload(1).onSuccess("blob1");
+
+        nextFrame = frame(Color.WHITE);
+        nextFrame.setPixel(40, 20, Color.RED);
+        runNextFrame();
+        verifyUpload(2).onSuccess("blob2");
+
+        final Map<String, Object> frameDetails =
+                (Map<String, Object>) verifyFrameEvent(2).get("frame");
+        assertEquals(2, frameDetails.get("number"));
+        assertEquals(false, frameDetails.get("keyframe"));
+        assertEquals(32, frameDetails.get("x"));
+        assertEquals(16, frameDetails.get("y"));
+        assertEquals(16, frameDetails.get("width"));
+        assertEquals(16, frameDetails.get("height"));
+    }
+
+    @Test
+    public void test_frameInFlight_nextFrameIsSkipped() {
+        plugin.onEventReceived(streamEvent(true));
+        final float initialFps = plugin.getRateController().getFps();
+
+        // the upload of the first frame has not completed
+        runNextFrame();
+
+        verify(mockScreenCapturer, times(1)).capture(any(Activity.class), anyFloat(), any());
+        assertTrue(plugin.getRateController().getFps() < initialFps);
+    }
+
+    @Test
+    public void test_uploadFailure_nextFrameIsComplete() {
+        plugin.onEventReceived(streamEvent(true));
+        verifyUpload(1).onFailure("network error");
+
+        runNextFrame();
+        verifyUpload(2).onSuccess("blob2");
+
+        final Map<String, Object> frameDetails =
+                (Map<String, Object>) verifyFrameEvent(1).get("frame");
+        assertEquals(true, frameDetails.get("keyframe"));
+    }
+
+    @Test
+    public void test_encodingFailure_nextFrameIsCaptured() {
+        final Bitmap badFrame = mock(Bitmap.class);
+        when(badFrame.getWidth()).thenReturn(64);
+        when(badFrame.getHeight()).thenReturn(48);
+        doThrow(new OutOfMemoryError("no memory"))
+                .when(badFrame)
+                .getPixels(
+                        any(int[].class),
+                        anyInt(),
+                        anyInt(),
+                        anyInt(),
+                        anyInt(),
+                        anyInt(),
+                        anyInt());
+        nextFrame = badFrame;
+        plugin.onEventReceived(streamEvent(true));
+
+        verify(mockScreenCapturer).releaseBitmap(badFrame);
+        mockedStaticAssuranceBlob.verify(
+                () -> AssuranceBlob.upload(any(byte[].class), anyString(), any(), any()),
+                never());
+
+        nextFrame = frame(Color.WHITE);
+        runNextFrame();
+        verifyUpload(1).onSuccess("blob1");
+
+        verify(mockScreenCapturer, times(2)).capture(any(Activity.class), anyFloat(), any());
+        final Map<String, Object> frameDetails =
+                (Map<String, Object>) verifyFrameEvent(1).get("frame");
+        assertEquals(true, frameDetails.get("keyframe"));
+    }
+
+    @Test
+    public void test_disable_stopsStream() {
+        plugin.onEventReceived(streamEvent(true));
+        verifyUpload(1).onSuccess("blob1");
+
+        plugin.onEventReceived(streamEvent(false));
+
+        assertFalse(plugin.isStreaming());
+        verify(mockScheduledFuture).cancel(false);
+
+        // a frame that was already scheduled does nothing
+        runNextFrame();
+        verify(mockScreenCapturer, times(1)).capture(any(Activity.class), anyFloat(), any());
+    }
+
+    @Test
+    public void test_sessionDisconnected_stopsStream() {
+        plugin.onEventReceived(streamEvent(true));
+
+        plugin.onSessionDisconnected(0);
+
+        assertFalse(plugin.isStreaming());
+    }
+
+    @Test
+    public void test_sessionTerminated_stopsStreamAndClearsCapturer() {
+        plugin.onEventReceived(streamEvent(true));
+
+        plugin.onSessionTerminated();
+
+        assertFalse(plugin.isStreaming());
+        verify(mockScreenCapturer).clear();
+    }
+
+    @Test
+    public void test_enableWithoutSession_doesNotStream() {
+        plugin = new AssurancePluginScreenStream(mockScheduler, mockScreenCapturer);
+
+        plugin.onEventReceived(streamEvent(true));
+
+        assertFalse(plugin.isStreaming());
+        verify(mockScreenCapturer, never()).capture(any(Activity.class), anyFloat(), any());
+    }
+
+    @Test
+    public void test_streamOptions_defaults() {
+        final AssurancePluginScreenStream.StreamOptions options =
+                AssurancePluginScreenStream.StreamOptions.from(null);
+
+        assertTrue(options.enable);
+        assertEquals(2f, options.fps, 0.001f);
+        assertEquals(0.5f, options.scale, 0.001f);
+        assertEquals(70, options.quality);
+        assertEquals(32, options.tileSize);
+        assertEquals(Bitmap.CompressFormat.JPEG, options.compressFormat);
+    }
+
+    @Test
+    public void test_streamOptions_clampsValues() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("enable", true);
+        details.put("fps", 60);
+        details.put("scale", 3);
+        details.put("quality", 150);
+        details.put("tileSize", 1);
+        details.put("format", "webp");
+
+        final AssurancePluginScreenStream.StreamOptions options =
+                AssurancePluginScreenStream.StreamOptions.from(details);
+
+        assertEquals(10f, options.fps, 0.001f);
+        assertEquals(0.5f, options.scale, 0.001f);
+        assertEquals(100, options.quality);
+        assertEquals(8, options.tileSize);
+        assertEquals("image/webp", options.mimeType);
+    }
+
+    private AssuranceEvent streamEvent(final boolean enable) {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("enable", enable);
+        details.put("tileSize", 16);
+        final AssuranceEvent event = mock(AssuranceEvent.class);
+        when(event.getControlDetail()).thenReturn(new HashMap<>(details));
+        return event;
+    }
+
+    private void runNextFrame() {
+        final Runnable frame = scheduledFrames.remove(scheduledFrames.size() - 1);
+        frame.run();
+    }
+
+    private AssuranceBlob.BlobUploadCallback verifyUpload(final int count) {
+        final ArgumentCaptor<AssuranceBlob.BlobUploadCallback> callbackCaptor =
+                ArgumentCaptor.forClass(AssuranceBlob.BlobUploadCallback.class);
+        mockedStaticAssuranceBlob.verify(
+                () ->
+                        AssuranceBlob.upload(
+                                any(byte[].class),
+                                anyString(),
+                                eq(mockSession),
+                                callbackCaptor.capture()),
+                times(count));
+        return callbackCaptor.getValue();
+    }
+
+    private Map<String, Object> verifyFrameEvent(final int count) {
+        final ArgumentCaptor<AssuranceEvent> eventCaptor =
+                ArgumentCaptor.forClass(AssuranceEvent.class);
+        verify(mockSession, times(count)).queueOutboundEvent(eventCaptor.capture());
+        assertEquals(AssuranceConstants.AssuranceEventType.BLOB, eventCaptor.getValue().type);
+        return eventCaptor.getValue().payload;
+    }
+
+    private static Bitmap frame(final int color) {
+        final Bitmap bitmap = Bitmap.createBitmap(64, 48, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(color);
+        return bitmap;
+    }
+}
@@ -16,6 +16,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -23,6 +24,8 @@ import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -52,8 +55,8 @@ public class AssurancePluginScreenshotTest {
         mockAssuranceEvent = Mockito.mock(AssuranceEvent.class);
         mockedStaticAssuranceBlob = Mockito.mockStatic(AssuranceBlob.class);
 
-        // create plugin instance to test
-        assurancePluginScreenshot = new AssurancePluginScreenshot();
+        // create plugin instance to test, encoding the screenshots on the test thread
+        assurancePluginScreenshot = new AssurancePluginScreenshot(Runnable::run);
         assurancePluginScreenshot.onRegistered(mockSession);
     }
 
@@ -154,7 +157,7 @@ public class AssurancePluginScreenshotTest {
         assertNotNull(queuedEvent);
         assertEquals(AssuranceTestConstants.AssuranceEventType.BLOB, queuedEvent.type);
         assertEquals("sampleBlobID", queuedEvent.payload.get(PAYLOAD_BLOBID));
-        assertEquals("image/png", queuedEvent.payload.get(PAYLOAD_MIMETYPE));
+        assertEquals("image/jpeg", queuedEvent.payload.get(PAYLOAD_MIMETYPE));
     }
 
     @Test
@@ -198,11 +201,202 @@ public class AssurancePluginScreenshotTest {
         assertEquals("give no reason", queuedEvent.payload.get(PAYLOAD_ERROR));
     }
 
+    @Test
+    public void test_onTakeScreenShotEventReceived_withWebpFormat() {
+        // prepare
+        final HashMap<String, Object> details = new HashMap<>();
+        details.put("format", "webp");
+        details.put("quality", 60);
+        final ArgumentCaptor<AssuranceBlob.BlobUploadCallback> assuranceBlobCallbackCaptor =
+                ArgumentCaptor.forClass(AssuranceBlob.BlobUploadCallback.class);
+        final ArgumentCaptor<AssuranceEvent> assuranceEventCaptor =
+                ArgumentCaptor.forClass(AssuranceEvent.class);
+
+        // test
+        assurancePluginScreenshot.onEventReceived(createScreenshotEvent(details));
+        assurancePluginScreenshot
+                .getCaptureScreenShotListener()
+                .onCaptureScreenshot(sampleBitMapImage());
+
+        // verify
+        mockedStaticAssuranceBlob.verify(
+                () ->
+                        AssuranceBlob.upload(
+                                any(byte[].class),
+                                eq("image/webp"),
+                                any(AssuranceSession.class),
+                                assuranceBlobCallbackCaptor.capture()),
+                times(1));
+        assuranceBlobCallbackCaptor.getValue().onSuccess("sampleBlobID");
+        verify(mockSession, times(1)).queueOutboundEvent(assuranceEventCaptor.capture());
+        assertEquals("image/webp", assuranceEventCaptor.getValue().payload.get(PAYLOAD_MIMETYPE));
+    }
+
+    @Test
+    public void test_identicalScreenshot_reusesUploadedBlob() {
+        final ArgumentCaptor<AssuranceBlob.BlobUploadCallback> assuranceBlobCallbackCaptor =
+                ArgumentCaptor.forClass(AssuranceBlob.BlobUploadCallback.class);
+        final ArgumentCaptor<AssuranceEvent> assuranceEventCaptor =
+                ArgumentCaptor.forClass(AssuranceEvent.class);
+
+        // test - first capture is uploaded
+        assurancePluginScreenshot.onEventReceived(mockAssuranceEvent);
+        assurancePluginScreenshot
+                .getCaptureScreenShotListener()
+                .onCaptureScreenshot(sampleBitMapImage());
+        mockedStaticAssuranceBlob.verify(
+                () ->
+                        AssuranceBlob.upload(
+                                any(byte[].class),
+                                anyString(),
+                                any(AssuranceSession.class),
+                                assuranceBlobCallbackCaptor.capture()),
+                times(1));
+        assuranceBlobCallbackCaptor.getValue().onSuccess("sampleBlobID");
+
+        // test - identical capture reuses the blob
+        assurancePluginScreenshot.onEventReceived(mockAssuranceEvent);
+        assurancePluginScreenshot
+                .getCaptureScreenShotListener()
+                .onCaptureScreenshot(sampleBitMapImage());
+
+        // verify
+        mockedStaticAssuranceBlob.verify(
+                () ->
+                        AssuranceBlob.upload(
+                                any(byte[].class),
+                                anyString(),
+                                any(AssuranceSession.class),
+                                any(AssuranceBlob.BlobUploadCallback.class)),
+                times(1));
+        verify(mockSession, times(2)).queueOutboundEvent(assuranceEventCaptor.capture());
+        assertEquals("sampleBlobID", assuranceEventCaptor.getValue().payload.get(PAYLOAD_BLOBID));
+    }
+
+    @Test
+    public void test_changedScreenshot_isUploaded() {
+        final ArgumentCaptor<AssuranceBlob.BlobUploadCallback> assuranceBlobCallbackCaptor =
+                ArgumentCaptor.forClass(AssuranceBlob.BlobUploadCallback.class);
+
+        assurancePluginScreenshot.onEventReceived(mockAssuranceEvent);
+        assurancePluginScreenshot
+                .getCaptureScreenShotListener()
+                .onCaptureScreenshot(sampleBitMapImage());
+        mockedStaticAssuranceBlob.verify(
+                () ->
+                        AssuranceBlob.upload(
+                                any(byte[].class),
+                                anyString(),
+                                any(AssuranceSession.class),
+                                assuranceBlobCallbackCaptor.capture()),
+                times(1));
+        assuranceBlobCallbackCaptor.getValue().onSuccess("sampleBlobID");
+
+        final Bitmap changedBitmap = sampleBitMapImage();
+        changedBitmap.setPixel(0, 0, Color.RED);
+        assurancePluginScreenshot.onEventReceived(mockAssuranceEvent);
+        assurancePluginScreenshot.getCaptureScreenShotListener().onCaptureScreenshot(changedBitmap);
+
+        mockedStaticAssuranceBlob.verify(
+                () ->
+                        AssuranceBlob.upload(
+                                any(byte[].class),
+                                anyString(),
+                                any(AssuranceSession.class),
+                                any(AssuranceBlob.BlobUploadCallback.class)),
+                times(2));
+    }
+
+    @Test
+    public void test_sessionTerminated_forgetsUploadedBlobs() {
+        final ArgumentCaptor<AssuranceBlob.BlobUploadCallback> assuranceBlobCallbackCaptor =
+                ArgumentCaptor.forClass(AssuranceBlob.BlobUploadCallback.class);
+
+        assurancePluginScreenshot.onEventReceived(mockAssuranceEvent);
+        assurancePluginScreenshot
+                .getCaptureScreenShotListener()
+                .onCaptureScreenshot(sampleBitMapImage());
+        mockedStaticAssuranceBlob.verify(
+                () ->
+                        AssuranceBlob.upload(
+                                any(byte[].class),
+                                anyString(),
+                                any(AssuranceSession.class),
+                                assuranceBlobCallbackCaptor.capture()),
+                times(1));
+        assuranceBlobCallbackCaptor.getValue().onSuccess("sampleBlobID");
+
+        assurancePluginScreenshot.onSessionTerminated();
+        assurancePluginScreenshot.onRegistered(mockSession);
+        assurancePluginScreenshot.onEventReceived(mockAssuranceEvent);
+        assurancePluginScreenshot
+                .getCaptureScreenShotListener()
+                .onCaptureScreenshot(sampleBitMapImage());
+
+        mockedStaticAssuranceBlob.verify(
+                () ->
+                        AssuranceBlob.upload(
+                                any(byte[].class),
+                                anyString(),
+                                any(AssuranceSession.class),
+                                any(AssuranceBlob.BlobUploadCallback.class)),
+                times(2));
+    }
+
+    @Test
+    public void test_screenshotOptions_defaults() {
+        final AssurancePluginScreenshot.ScreenshotOptions options =
+                AssurancePluginScreenshot.ScreenshotOptions.from(null);
+
+        assertEquals(1.0f, options.scale, 0f);
+        assertEquals(100, options.quality);
+        assertEquals(Bitmap.CompressFormat.JPEG, options.compressFormat);
+        assertEquals("image/jpeg", options.mimeType);
+    }
+
+    @Test
+    public void test_screenshotOptions_fromDetails() {
+        final HashMap<String, Object> details = new HashMap<>();
+        details.put("scale", 0.5);
+        details.put("quality", 80);
+        details.put("format", "webp");
+
+        final AssurancePluginScreenshot.ScreenshotOptions options =
+                AssurancePluginScreenshot.ScreenshotOptions.from(details);
+
+        assertEquals(0.5f, options.scale, 0f);
+        assertEquals(80, options.quality);
+        assertEquals(Bitmap.CompressFormat.WEBP, options.compressFormat);
+        assertEquals("image/webp", options.mimeType);
+    }
+
+    @Test
+    public void test_screenshotOptions_invalidDetails_useDefaults() {
+        final HashMap<String, Object> details = new HashMap<>();
+        details.put("scale", 2);
+        details.put("quality", 500);
+        details.put("format", "gif");
+
+        final AssurancePluginScreenshot.ScreenshotOptions options =
+                AssurancePluginScreenshot.ScreenshotOptions.from(details);
+
+        assertEquals(1.0f, options.scale, 0f);
+        assertEquals(100, options.quality);
+        assertEquals(Bitmap.CompressFormat.JPEG, options.compressFormat);
+    }
+
     @After
     public void teardown() {
         mockedStaticAssuranceBlob.close();
     }
 
+    private static AssuranceEvent createScreenshotEvent(final HashMap<String, Object> details) {
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put("type", AssuranceTestConstants.ControlType.SCREENSHOT);
+        payload.put("detail", details);
+        return new AssuranceEvent(AssuranceTestConstants.AssuranceEventType.CONTROL, payload);
+    }
+
     private Bitmap sampleBitMapImage() {
         int width = 200;
         int height = 100;
@@ -11,10 +11,13 @@
 
 package com.adobe.marketing.mobile.assurance.internal
 
+import android.app.Activity
 import android.app.Application
 import com.adobe.marketing.mobile.assurance.internal.AssuranceSessionOrchestrator.AssuranceSessionCreator
 import com.adobe.marketing.mobile.assurance.internal.AssuranceSessionOrchestrator.HostAppActivityLifecycleObserver
 import com.adobe.marketing.mobile.assurance.internal.AssuranceTestUtils.setInternalState
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
 import org.junit.Before
 import org.junit.Test
 import org.junit.runner.RunWith
@@ -22,6 +25,7 @@ import org.mockito.Mock
 import org.mockito.Mockito.any
 import org.mockito.Mockito.anyString
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.mockStatic
 import org.mockito.Mockito.times
 import org.mockito.Mockito.verifyNoInteractions
 import org.mockito.Mockito.`when`
@@ -53,7 +57,7 @@ class AssuranceSessionOrchestratorTest {
     private lateinit var mockAssuranceSession: AssuranceSession
 
     @Mock
-    private lateinit var mockBufferedEvents: MutableList<AssuranceEvent>
+    private lateinit var mockBufferedEvents: OutboundEventBuffer
 
     private lateinit var assuranceSessionOrchestrator: AssuranceSessionOrchestrator
     private lateinit var activityLifecycleObserver: HostAppActivityLifecycleObserver
@@ -182,6 +186,26 @@ class AssuranceSessionOrchestratorTest {
         verify(mockAssuranceSession).disconnect()
     }
 
+    @Test
+    fun `Test AssuranceSessionOrchestrator#terminateSession with purged buffer notifies the purge listener`() {
+        val purgeListener = mock(Runnable::class.java)
+        assuranceSessionOrchestrator.setPurgeListener(purgeListener)
+
+        assuranceSessionOrchestrator.terminateSession(true)
+
+        verify(purgeListener).run()
+    }
+
+    @Test
+    fun `Test AssuranceSessionOrchestrator#terminateSession without purging does not notify the purge listener`() {
+        val purgeListener = mock(Runnable::class.java)
+        assuranceSessionOrchestrator.setPurgeListener(purgeListener)
+
+        assuranceSessionOrchestrator.terminateSession(false)
+
+        verify(purgeListener, never()).run()
+    }
+
     @Test
     fun `Test AssuranceSessionOrchestrator#reconnectToStoredSession() when stored session is not available`() {
         `when`(mockAssuranceConnectionDataStore.storedConnectionURL).thenReturn(null)
@@ -410,4 +434,70 @@ class AssuranceSessionOrchestratorTest {
 
         verify(mockAssuranceSession, never()).queueOutboundEvent(any())
     }
+
+    @Test
+    fun `Test AssuranceSessionOrchestrator#createSession reports dropped buffered events`() {
+        val bufferedEvents = listOf(AssuranceEvent("EventName", mapOf("key" to "value")))
+        `when`(mockBufferedEvents.snapshot()).thenReturn(bufferedEvents)
+        `when`(mockBufferedEvents.droppedCount).thenReturn(5L)
+        val sessionStatusListener = mock(AssuranceSessionStatusListener::class.java)
+        `when`(
+            mockAssuranceSessionCreator.create(
+                anyString(),
+                anyString(),
+                any(),
+                eq(mockAssuranceStateManager),
+                any(),
+                eq(mockAssuranceConnectionDataStore),
+                eq(bufferedEvents),
+                eq(sessionStatusListener),
+                any()
+            )
+        ).thenReturn(mockAssuranceSession)
+
+        assuranceSessionOrchestrator.createSession(
+            TEST_SESSION_ID,
+            AssuranceConstants.AssuranceEnvironment.PROD,
+            TEST_TOKEN,
+            sessionStatusListener,
+            SessionAuthorizingPresentationType.QUICK_CONNECT
+        )
+
+        verify(mockAssuranceSession).logLocalUI(eq(AssuranceConstants.UILogColorVisibility.HIGH), anyString())
+        verify(mockAssuranceSession).connect()
+    }
+
+    @Test
+    fun `Test HostAppActivityLifecycleObserver#onActivityResumed records the overhead with and without a session`() {
+        val activity = mock(Activity::class.java)
+
+        activityLifecycleObserver.onActivityResumed(activity)
+        verify(mockAssuranceSession, never()).onActivityResumed(activity)
+
+        setInternalState(assuranceSessionOrchestrator, "session", mockAssuranceSession)
+        activityLifecycleObserver.onActivityResumed(activity)
+        activityLifecycleObserver.onActivityResumed(activity)
+        verify(mockAssuranceSession, times(2)).onActivityResumed(activity)
+
+        val resumeOverhead = activityLifecycleObserver.resumeOverhead
+        assertEquals(1, resumeOverhead.getResumeCount(false))
+        assertEquals(2, resumeOverhead.getResumeCount(true))
+        assertTrue(resumeOverhead.getMaxNanos(true) >= resumeOverhead.getAverageNanos(true))
+    }
+
+    @Test
+    fun `Test HostAppActivityLifecycleObserver flushes pending writes when the app goes to the background`() {
+        val activity = mock(Activity::class.java)
+        val otherActivity = mock(Activity::class.java)
+
+        mockStatic(AssuranceWriteBehindStore::class.java).use { mockedStaticStore ->
+            activityLifecycleObserver.onActivityStarted(activity)
+            activityLifecycleObserver.onActivityStarted(otherActivity)
+            activityLifecycleObserver.onActivityStopped(activity)
+            mockedStaticStore.verify({ AssuranceWriteBehindStore.flushAll() }, never())
+
+            activityLifecycleObserver.onActivityStopped(otherActivity)
+            mockedStaticStore.verify { AssuranceWriteBehindStore.flushAll() }
+        }
+    }
 }
@@ -266,6 +266,7 @@ class AssuranceSessionPresentationManagerTest {
 
         // Verify
         verify(mockAssuranceFloatingButton).hide()
+        verify(mockAssuranceFloatingButton, never()).attach(mockAssuranceActivity)
     }
 
     @Test
@@ -302,6 +303,7 @@ class AssuranceSessionPresentationManagerTest {
         assuranceSessionPresentationManager.onActivityResumed(mockActivity)
 
         // Verify
+        verify(mockAssuranceFloatingButton).attach(mockActivity)
         verify(mockAssuranceFloatingButton).show()
     }
 
@@ -437,6 +439,15 @@ class AssuranceSessionPresentationManagerTest {
         assertTrue { AssuranceComponentRegistry.appState.statusLogs.value.isEmpty() }
     }
 
+    @Test
+    fun `Test FloatingButtonMode#fromConfigValue`() {
+        assertEquals(FloatingButtonMode.OVERLAY, FloatingButtonMode.fromConfigValue("overlay"))
+        assertEquals(FloatingButtonMode.OVERLAY, FloatingButtonMode.fromConfigValue("OVERLAY"))
+        assertEquals(FloatingButtonMode.PRESENTABLE, FloatingButtonMode.fromConfigValue("presentable"))
+        assertEquals(FloatingButtonMode.PRESENTABLE, FloatingButtonMode.fromConfigValue("unknown"))
+        assertEquals(FloatingButtonMode.PRESENTABLE, FloatingButtonMode.fromConfigValue(null))
+    }
+
     @After
     fun teardown() {
         mockedStaticServiceProvider.close()
@@ -29,6 +29,7 @@ import org.mockito.Mock
 import org.mockito.MockedStatic
 import org.mockito.Mockito
 import org.mockito.Mockito.eq
+import org.mockito.Mockito.inOrder
 import org.mockito.Mockito.times
 import org.mockito.Mockito.`when`
 import org.mockito.MockitoAnnotations
@@ -605,6 +606,7 @@ class AssuranceSessionTest {
         assuranceSession.inboundQueueEventListener.onInboundEvent(startEventForwardingEvent)
 
         // verify
+        verify(mockOutboundEventQueueWorker).setServerCachesAppSettings(false)
         verify(mockOutboundEventQueueWorker).unblock()
         verify(mockAssuranceSessionPresentationManager).onSessionConnected()
         verify(mockAuthorizingPresentationDelegate).onSessionConnected()
@@ -613,6 +615,60 @@ class AssuranceSessionTest {
         verify(mockAssurancePluginManager, never()).onAssuranceEvent(startEventForwardingEvent)
     }
 
+    @Test
+    fun `Test that START_EVENT_FORWARDING event applies the negotiated encoding`() {
+        // setup
+        val startEventForwardingEvent = AssuranceEvent(
+            AssuranceConstants.VENDOR_ASSURANCE_MOBILE,
+            AssuranceConstants.AssuranceEventType.CONTROL,
+            mutableMapOf(),
+            mutableMapOf<String, Any?>(
+                AssuranceConstants.PayloadDataKeys.TYPE to AssuranceConstants.ControlType.START_EVENT_FORWARDING,
+                AssuranceConstants.PayloadDataKeys.DETAIL to mapOf(
+                    AssuranceConstants.ControlDetailKeys.ENCODING to AssuranceConstants.EventEncoding.CBOR,
+                    AssuranceConstants.ControlDetailKeys.STATE_DELTAS to true,
+                    AssuranceConstants.ControlDetailKeys.APP_SETTINGS_CACHED to true
+                )
+            ),
+            300L
+        )
+
+        assuranceSession = setupAssuranceSession(SessionAuthorizingPresentationType.PIN)
+
+        // test
+        assuranceSession.inboundQueueEventListener.onInboundEvent(startEventForwardingEvent)
+
+        // verify
+        val inOrder = inOrder(mockOutboundEventQueueWorker)
+        inOrder.verify(mockOutboundEventQueueWorker).setEventEncoding(AssuranceConstants.EventEncoding.CBOR)
+        inOrder.verify(mockOutboundEventQueueWorker).setStateDeltasEnabled(true)
+        inOrder.verify(mockOutboundEventQueueWorker).setServerCachesAppSettings(true)
+        inOrder.verify(mockOutboundEventQueueWorker).unblock()
+    }
+
+    @Test
+    fun `Test that CLIENT_INFO_REQUEST event re-sends the full client info`() {
+        // setup
+        val clientInfoRequestEvent = AssuranceEvent(
+            AssuranceConstants.VENDOR_ASSURANCE_MOBILE,
+            AssuranceConstants.AssuranceEventType.CONTROL,
+            mutableMapOf(),
+            mutableMapOf<String, Any?>(
+                AssuranceConstants.PayloadDataKeys.TYPE to AssuranceConstants.ControlType.CLIENT_INFO_REQUEST
+            ),
+            300L
+        )
+
+        assuranceSession = setupAssuranceSession(SessionAuthorizingPresentationType.PIN)
+
+        // test
+        assuranceSession.inboundQueueEventListener.onInboundEvent(clientInfoRequestEvent)
+
+        // verify
+        verify(mockOutboundEventQueueWorker).sendFullClientInfoEvent()
+        verify(mockAssurancePluginManager, never()).onAssuranceEvent(clientInfoRequestEvent)
+    }
+
     @Test
     fun `Test that InboundEventQueueWorker forwards events to plugin manager`() {
         // setup
@@ -19,8 +19,12 @@ import org.mockito.Mock
 import org.mockito.Mockito.verify
 import org.mockito.Mockito.`when`
 import org.mockito.MockitoAnnotations
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
 import java.util.UUID
+import java.util.concurrent.ScheduledExecutorService
 import kotlin.test.assertEquals
 import kotlin.test.assertNotNull
 import kotlin.test.assertTrue
@@ -37,9 +41,16 @@ class AssuranceSharedStateManagerTest {
     @Mock
     private lateinit var mockAssuranceNamedCollection: NamedCollection
 
+    // flushes the writes on the test thread
+    private val inlineFlushScheduler: ScheduledExecutorService = mock()
+
     @Before
     fun setup() {
         MockitoAnnotations.openMocks(this)
+        whenever(inlineFlushScheduler.schedule(any<Runnable>(), any(), any())).thenAnswer {
+            (it.getArgument(0) as Runnable).run()
+            null
+        }
     }
 
     @Test
@@ -64,7 +75,7 @@ class AssuranceSharedStateManagerTest {
         ).thenReturn(MOCK_SESSION_ID)
 
         // Test
-        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService)
+        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService, inlineFlushScheduler)
         val initialAssuranceSharedState = assuranceSharedStateManager.assuranceSharedState
 
         // Verify that the initial assurance shared state is initialized with the expected values
@@ -84,7 +95,7 @@ class AssuranceSharedStateManagerTest {
         )
 
         // Test
-        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService)
+        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService, inlineFlushScheduler)
         val initialAssuranceSharedState = assuranceSharedStateManager.assuranceSharedState
 
         // Verify that the initial assurance shared state is initialized with a valid client id
@@ -116,7 +127,7 @@ class AssuranceSharedStateManagerTest {
         ).thenReturn("")
 
         // Test
-        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService)
+        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService, inlineFlushScheduler)
         val initialAssuranceSharedState = assuranceSharedStateManager.assuranceSharedState
 
         // Verify that the initial assurance shared state is initialized with a valid client id
@@ -150,7 +161,7 @@ class AssuranceSharedStateManagerTest {
             )
         ).thenReturn(MOCK_SESSION_ID)
 
-        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService)
+        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService, inlineFlushScheduler)
         val initialAssuranceSharedState = assuranceSharedStateManager.assuranceSharedState
 
         // Verify that the initial assurance shared state is initialized with the expected values
@@ -194,7 +205,7 @@ class AssuranceSharedStateManagerTest {
             )
         ).thenReturn(MOCK_SESSION_ID)
 
-        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService)
+        val assuranceSharedStateManager = AssuranceSharedStateManager(mockDataStoreService, inlineFlushScheduler)
         val initialAssuranceSharedState = assuranceSharedStateManager.assuranceSharedState
 
         // Verify that the initial assurance shared state is initialized with the expected values
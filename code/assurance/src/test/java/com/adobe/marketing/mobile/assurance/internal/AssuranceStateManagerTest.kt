@@ -11,6 +11,8 @@
 
 package com.adobe.marketing.mobile.assurance.internal
 
+import com.adobe.marketing.mobile.AdobeCallback
+import com.adobe.marketing.mobile.Event
 import com.adobe.marketing.mobile.EventSource
 import com.adobe.marketing.mobile.EventType
 import com.adobe.marketing.mobile.ExtensionApi
@@ -32,6 +34,8 @@ import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.verify
 import kotlin.test.assertEquals
+import kotlin.test.assertNull
+import kotlin.test.assertTrue
 
 class AssuranceStateManagerTest {
 
@@ -275,6 +279,124 @@ class AssuranceStateManagerTest {
         assertEquals(JSONArray(expectedStateMaps).toString(), JSONArray(actualStateMaps).toString())
     }
 
+    @Test
+    fun `Test #getAllExtensionStateData() fetches all states relative to the same SDK event`() {
+        val snapshotEvent = Event.Builder("Snapshot Event", EventType.HUB, EventSource.OS).build()
+        val laterEvent = Event.Builder("Later Event", EventType.HUB, EventSource.OS).build()
+        val extensionNames = (0 until 8).map { "com.adobe.extension$it" }
+        val eventHubState = mapOf<String, Any?>(
+            AssuranceConstants.SDKEventDataKey.EXTENSIONS to extensionNames.associateWith {
+                mapOf(AssuranceConstants.SDKEventDataKey.FRIENDLY_NAME to it)
+            }
+        )
+        val fetchEvents = mutableListOf<Event?>()
+        assuranceStateManager.onSDKEvent(snapshotEvent)
+
+        `when`(
+            mockExtensionApi.getSharedState(
+                any(),
+                anyOrNull(),
+                eq(false),
+                eq(SharedStateResolution.ANY)
+            )
+        ).doAnswer {
+            fetchEvents.add(it.arguments[1] as Event?)
+            // more SDK events arrive while the snapshot is taken
+            assuranceStateManager.onSDKEvent(laterEvent)
+
+            val extensionName = it.arguments[0] as String
+            if (extensionName == EVENT_HUB_EXTENSION_STATE_NAME) {
+                SharedStateResult(SharedStateStatus.SET, eventHubState)
+            } else {
+                SharedStateResult(SharedStateStatus.SET, mapOf<String, Any?>("owner" to extensionName))
+            }
+        }
+
+        `when`(
+            mockExtensionApi.getXDMSharedState(
+                any(),
+                anyOrNull(),
+                eq(false),
+                eq(SharedStateResolution.ANY)
+            )
+        ).doAnswer {
+            fetchEvents.add(it.arguments[1] as Event?)
+            SharedStateResult(SharedStateStatus.NONE, null)
+        }
+
+        // Test
+        val stateEvents = assuranceStateManager.getAllExtensionStateData()
+
+        // Verify that every state is fetched for the snapshot event, in registration order
+        assertEquals(1 + (extensionNames.size + 1) * 2, fetchEvents.size)
+        assertTrue(fetchEvents.all { it === snapshotEvent })
+        assertEquals(
+            listOf("EventHub State") + extensionNames.map { "$it State" },
+            stateEvents.map {
+                it.payload[AssuranceConstants.GenericEventPayloadKey.ACP_EXTENSION_EVENT_NAME]
+            }
+        )
+    }
+
+    @Test
+    fun `Test #forEachExtensionStateData() passes the states as they are fetched`() {
+        val extensionNames = (0 until 32).map { "com.adobe.extension$it" }
+        val calls = mutableListOf<String>()
+        stubRegisteredExtensions(extensionNames) { calls.add("fetch $it") }
+
+        // Test
+        assuranceStateManager.forEachExtensionStateData(
+            AdobeCallback { stateEvent ->
+                val eventData = stateEvent.payload[
+                    AssuranceConstants.GenericEventPayloadKey.ACP_EXTENSION_EVENT_DATA
+                ] as Map<*, *>
+                calls.add("state ${eventData[AssuranceConstants.SDKEventDataKey.STATE_OWNER]}")
+            }
+        )
+
+        // Verify that the state of every extension is passed before the next one is fetched
+        val owners = listOf(EVENT_HUB_EXTENSION_STATE_NAME) + extensionNames
+        assertEquals(owners.size, calls.count { it.startsWith("state ") })
+        owners.zipWithNext().forEach { (owner, nextOwner) ->
+            assertTrue(calls.indexOf("state $owner") < calls.lastIndexOf("fetch $nextOwner"))
+        }
+    }
+
+    @Test
+    fun `Benchmark #forEachExtensionStateData() passes the first state sooner`() {
+        Benchmarks.assumeEnabled()
+
+        stubRegisteredExtensions((0 until 32).map { "com.adobe.extension$it" }) {}
+
+        // the first state event used to be queued once the complete snapshot was built
+        val snapshotNanos = Benchmarks.bestOfNanos(10) {
+            assuranceStateManager.getAllExtensionStateData().first()
+        }
+
+        var streamedNanos = Long.MAX_VALUE
+        repeat(13) { run ->
+            var firstStateNanos = -1L
+            val start = System.nanoTime()
+            assuranceStateManager.forEachExtensionStateData(
+                AdobeCallback {
+                    if (firstStateNanos < 0) {
+                        firstStateNanos = System.nanoTime() - start
+                    }
+                }
+            )
+
+            if (run >= 3) {
+                streamedNanos = minOf(streamedNanos, firstStateNanos)
+            }
+        }
+
+        assertTrue(
+            streamedNanos * 2 < snapshotNanos,
+            "time to the first state event: streamed ${streamedNanos}ns, " +
+                "snapshot ${snapshotNanos}ns"
+        )
+    }
+
     @Test
     fun `Test #getOrgId with url encoding`() {
         val orgId = "B974622245B1A30A490D4D@AdobeOrg"
@@ -315,6 +437,56 @@ class AssuranceStateManagerTest {
         assertEquals("", result)
     }
 
+    @Test
+    fun `Test #getConfigurationString`() {
+        val configurationSharedState = mapOf<String, Any?>(
+            AssuranceConstants.SDKConfigurationKey.FLOATING_BUTTON_MODE to "overlay"
+        )
+        doReturn(SharedStateResult(SharedStateStatus.SET, configurationSharedState)).`when`(mockExtensionApi).getSharedState(
+            AssuranceConstants.SDKSharedStateName.CONFIGURATION,
+            null,
+            false,
+            SharedStateResolution.ANY
+        )
+
+        assertEquals("overlay", assuranceStateManager.getConfigurationString(AssuranceConstants.SDKConfigurationKey.FLOATING_BUTTON_MODE))
+        assertNull(assuranceStateManager.getConfigurationString(AssuranceConstants.SDKConfigurationKey.ORG_ID))
+    }
+
+    @Test
+    fun `Test #getConfigurationString with no configuration state`() {
+        `when`(mockExtensionApi.getSharedState(AssuranceConstants.SDKSharedStateName.CONFIGURATION, null, false, SharedStateResolution.ANY))
+            .thenReturn(SharedStateResult(SharedStateStatus.NONE, null))
+
+        assertNull(assuranceStateManager.getConfigurationString(AssuranceConstants.SDKConfigurationKey.FLOATING_BUTTON_MODE))
+    }
+
+    @Test
+    fun `Test #getConfigurationLong`() {
+        val configurationSharedState = mapOf<String, Any?>(
+            AssuranceConstants.SDKConfigurationKey.QUICK_CONNECT_LONG_POLL_WAIT_MS to 20000,
+            AssuranceConstants.SDKConfigurationKey.FLOATING_BUTTON_MODE to "overlay"
+        )
+        doReturn(SharedStateResult(SharedStateStatus.SET, configurationSharedState)).`when`(mockExtensionApi).getSharedState(
+            AssuranceConstants.SDKSharedStateName.CONFIGURATION,
+            null,
+            false,
+            SharedStateResolution.ANY
+        )
+
+        assertEquals(20000L, assuranceStateManager.getConfigurationLong(AssuranceConstants.SDKConfigurationKey.QUICK_CONNECT_LONG_POLL_WAIT_MS, 0))
+        assertEquals(7L, assuranceStateManager.getConfigurationLong(AssuranceConstants.SDKConfigurationKey.FLOATING_BUTTON_MODE, 7))
+        assertEquals(7L, assuranceStateManager.getConfigurationLong(AssuranceConstants.SDKConfigurationKey.ORG_ID, 7))
+    }
+
+    @Test
+    fun `Test #getConfigurationLong with no configuration state`() {
+        `when`(mockExtensionApi.getSharedState(AssuranceConstants.SDKSharedStateName.CONFIGURATION, null, false, SharedStateResolution.ANY))
+            .thenReturn(SharedStateResult(SharedStateStatus.NONE, null))
+
+        assertEquals(0L, assuranceStateManager.getConfigurationLong(AssuranceConstants.SDKConfigurationKey.QUICK_CONNECT_LONG_POLL_WAIT_MS, 0))
+    }
+
     @Test
     fun `Test #shareAssuranceSharedState() with null SessionId`() {
         `when`(mockAssuranceSharedStateManager.assuranceSharedState).thenReturn(AssuranceSharedState("clientId", "sessionId"))
@@ -343,6 +515,51 @@ class AssuranceStateManagerTest {
         verify(mockExtensionApi).createSharedState(mapOf(), null)
     }
 
+    /**
+     * Registers the extensions in the event hub state, each with a regular state of a few keys
+     * and no XDM state. [onFetch] is called with the owner of every regular state fetched.
+     */
+    private fun stubRegisteredExtensions(
+        extensionNames: List<String>,
+        onFetch: (String) -> Unit
+    ) {
+        val eventHubState = mapOf<String, Any?>(
+            AssuranceConstants.SDKEventDataKey.EXTENSIONS to extensionNames.associateWith {
+                mapOf(AssuranceConstants.SDKEventDataKey.FRIENDLY_NAME to it)
+            }
+        )
+
+        `when`(
+            mockExtensionApi.getSharedState(
+                any(),
+                anyOrNull(),
+                eq(false),
+                eq(SharedStateResolution.ANY)
+            )
+        ).doAnswer {
+            val extensionName = it.arguments[0] as String
+            onFetch(extensionName)
+
+            if (extensionName == EVENT_HUB_EXTENSION_STATE_NAME) {
+                SharedStateResult(SharedStateStatus.SET, eventHubState)
+            } else {
+                SharedStateResult(
+                    SharedStateStatus.SET,
+                    (0 until 16).associate { key -> "key$key" to "$extensionName value $key" }
+                )
+            }
+        }
+
+        `when`(
+            mockExtensionApi.getXDMSharedState(
+                any(),
+                anyOrNull(),
+                eq(false),
+                eq(SharedStateResolution.ANY)
+            )
+        ).doReturn(SharedStateResult(SharedStateStatus.NONE, null))
+    }
+
     private fun setConfigurationSharedStateWithOrgId(orgId: String) {
         val configurationSharedState = mutableMapOf<String, Any?>()
 
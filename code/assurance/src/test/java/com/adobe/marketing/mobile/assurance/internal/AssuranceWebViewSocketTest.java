@@ -163,7 +163,7 @@ public class AssuranceWebViewSocketTest {
 
         byte[] mockDataBytes = "MockData".getBytes();
         // test
-        assuranceWebViewSocket.sendData(mockDataBytes);
+        assertTrue(assuranceWebViewSocket.sendData(mockDataBytes));
 
         Thread.sleep(4000);
 
@@ -0,0 +1,289 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.SharedPreferences;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+@SuppressWarnings("unchecked")
+public class AssuranceWriteBehindStoreTest {
+    private final AssuranceWriteBehindStore.Backend mockBackend =
+            mock(AssuranceWriteBehindStore.Backend.class);
+    private final ScheduledExecutorService mockFlushScheduler =
+            mock(ScheduledExecutorService.class);
+    private AssuranceWriteBehindStore store;
+
+    // the flushes scheduled on the mock scheduler, run by the tests
+    private final List<Runnable> scheduledFlushes = new ArrayList<>();
+
+    @Before
+    public void setup() {
+        doAnswer(
+                        invocation -> {
+                            scheduledFlushes.add(invocation.getArgument(0));
+                            return null;
+                        })
+                .when(mockFlushScheduler)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+        doAnswer(
+                        invocation -> {
+                            scheduledFlushes.add(invocation.getArgument(0));
+                            return null;
+                        })
+                .when(mockFlushScheduler)
+                .execute(any(Runnable.class));
+        when(mockBackend.write(anyMap())).thenReturn(true);
+        store = new AssuranceWriteBehindStore(mockBackend, mockFlushScheduler);
+    }
+
+    @Test
+    public void test_get_readsBackendOncePerKey() {
+        when(mockBackend.getString("url")).thenReturn("wss://session");
+
+        assertEquals("wss://session", store.getString("url"));
+        assertEquals("wss://session", store.getString("url"));
+        assertNull(store.getString("missing"));
+        assertNull(store.getString("missing"));
+
+        verify(mockBackend, times(1)).getString("url");
+        verify(mockBackend, times(1)).getString("missing");
+    }
+
+    @Test
+    public void test_put_isReadBackBeforeFlush() {
+        store.putString("url", "wss://session");
+
+        assertEquals("wss://session", store.getString("url"));
+        verify(mockBackend, never()).getString("url");
+        verify(mockBackend, never()).write(anyMap());
+    }
+
+    @Test
+    public void test_puts_areCoalescedPerKey() {
+        store.putString("url", "wss://first");
+        store.putString("url", "wss://second");
+        store.putString("sessionId", "id");
+        store.remove("sessionId");
+
+        verify(mockFlushScheduler, times(1))
+                .schedule(
+                        any(Runnable.class),
+                        eq(AssuranceWriteBehindStore.FLUSH_DELAY_MS),
+                        eq(TimeUnit.MILLISECONDS));
+        runFlushes();
+
+        final Map<String, Object> expectedChanges = new HashMap<>();
+        expectedChanges.put("url", "wss://second");
+        expectedChanges.put("sessionId", null);
+        verify(mockBackend, times(1)).write(expectedChanges);
+        assertNull(store.getString("sessionId"));
+    }
+
+    @Test
+    public void test_putAfterFlush_isFlushedSeparately() {
+        store.putString("url", "wss://first");
+        runFlushes();
+        store.putString("url", "wss://second");
+        runFlushes();
+
+        final InOrder inOrder = Mockito.inOrder(mockBackend);
+        inOrder.verify(mockBackend)
+                .write(Collections.<String, Object>singletonMap("url", "wss://first"));
+        inOrder.verify(mockBackend)
+                .write(Collections.<String, Object>singletonMap("url", "wss://second"));
+    }
+
+    @Test
+    public void test_failedWrite_isRetried_unlessOverwritten() {
+        when(mockBackend.write(anyMap())).thenReturn(false).thenReturn(true);
+        store.putString("url", "wss://first");
+        store.putString("sessionId", "id");
+        runFlushes();
+
+        store.putString("url", "wss://second");
+        runFlushes();
+
+        final ArgumentCaptor<Map<String, Object>> changesCaptor =
+                ArgumentCaptor.forClass(Map.class);
+        verify(mockBackend, times(2)).write(changesCaptor.capture());
+        assertEquals("wss://second", changesCaptor.getAllValues().get(1).get("url"));
+        assertEquals("id", changesCaptor.getAllValues().get(1).get("sessionId"));
+    }
+
+    @Test
+    public void test_failedWrite_reschedulesFlushWithBackoff() {
+        when(mockBackend.write(anyMap()))
+                .thenReturn(false)
+                .thenReturn(false)
+                .thenReturn(true)
+                .thenReturn(false);
+        store.putString("url", "wss://session");
+
+        runFlushes();
+        runFlushes();
+        runFlushes();
+        store.putString("url", "wss://other");
+        runFlushes();
+
+        final ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(mockFlushScheduler, times(5))
+                .schedule(any(Runnable.class), delayCaptor.capture(), eq(TimeUnit.MILLISECONDS));
+        // the delay is reset once a flush succeeds
+        assertEquals(Arrays.asList(100L, 200L, 400L, 100L, 200L), delayCaptor.getAllValues());
+        verify(mockBackend, times(4)).write(anyMap());
+    }
+
+    @Test
+    public void test_failedWrite_retryDelayIsLimited() {
+        when(mockBackend.write(anyMap())).thenReturn(false);
+        store.putString("url", "wss://session");
+
+        for (int i = 0; i < 20; i++) {
+            runFlushes();
+        }
+
+        final ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+        verify(mockFlushScheduler, times(21))
+                .schedule(any(Runnable.class), delayCaptor.capture(), eq(TimeUnit.MILLISECONDS));
+        assertEquals(
+                AssuranceWriteBehindStore.MAX_RETRY_DELAY_MS,
+                (long) delayCaptor.getValue());
+    }
+
+    @Test
+    public void test_flushAll_flushesPendingWritesRightAway() {
+        store.putString("url", "wss://session");
+
+        AssuranceWriteBehindStore.flushAll();
+
+        verify(mockFlushScheduler).execute(any(Runnable.class));
+        runFlushes();
+        verify(mockBackend, times(1))
+                .write(Collections.<String, Object>singletonMap("url", "wss://session"));
+    }
+
+    @Test
+    public void test_flushAll_withoutPendingWrites_doesNotFlush() {
+        store.putString("url", "wss://session");
+        runFlushes();
+
+        AssuranceWriteBehindStore.flushAll();
+
+        verify(mockFlushScheduler, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void test_writeFailure_isContained() {
+        when(mockBackend.write(anyMap())).thenThrow(new IllegalStateException("disk full"));
+        store.putString("url", "wss://session");
+
+        runFlushes();
+
+        assertEquals("wss://session", store.getString("url"));
+    }
+
+    @Test
+    public void test_stringSet_isCopied() {
+        final Set<String> keys = new HashSet<>();
+        keys.add("key1");
+        store.putStringSet("keys", keys);
+        keys.add("key2");
+
+        assertEquals(Collections.singleton("key1"), store.getStringSet("keys"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_stringSet_isUnmodifiable() {
+        when(mockBackend.getStringSet("keys"))
+                .thenReturn(new HashSet<>(Collections.singleton("key1")));
+
+        store.getStringSet("keys").add("key2");
+    }
+
+    @Test
+    public void test_sharedPreferencesBackend_commitsChangesAtOnce() {
+        final SharedPreferences mockPreferences = mock(SharedPreferences.class);
+        final SharedPreferences.Editor mockEditor = mock(SharedPreferences.Editor.class);
+        when(mockPreferences.edit()).thenReturn(mockEditor);
+        when(mockEditor.commit()).thenReturn(true);
+        final AssuranceWriteBehindStore.Backend backend =
+                AssuranceWriteBehindStore.forSharedPreferences(mockPreferences);
+        final Map<String, Object> changes = new HashMap<>();
+        changes.put("url", "wss://session");
+        changes.put("keys", Collections.singleton("key1"));
+        changes.put("removed", null);
+
+        assertTrue(backend.write(changes));
+
+        verify(mockPreferences, times(1)).edit();
+        verify(mockEditor).putString("url", "wss://session");
+        verify(mockEditor).putStringSet("keys", Collections.singleton("key1"));
+        verify(mockEditor).remove("removed");
+        verify(mockEditor, times(1)).commit();
+        verify(mockEditor, never()).apply();
+    }
+
+    @Test
+    public void test_namedCollectionBackend_writesStrings() {
+        final NamedCollection mockCollection = mock(NamedCollection.class);
+        when(mockCollection.getString("clientId", null)).thenReturn("client");
+        final AssuranceWriteBehindStore.Backend backend =
+                AssuranceWriteBehindStore.forNamedCollection(mockCollection);
+        final Map<String, Object> changes = new HashMap<>();
+        changes.put("sessionId", "id");
+        changes.put("removed", null);
+
+        assertEquals("client", backend.getString("clientId"));
+        assertTrue(backend.write(changes));
+
+        verify(mockCollection).setString("sessionId", "id");
+        verify(mockCollection).remove("removed");
+    }
+
+    private void runFlushes() {
+        final List<Runnable> flushes = new ArrayList<>(scheduledFlushes);
+        scheduledFlushes.clear();
+
+        for (final Runnable flush : flushes) {
+            flush.run();
+        }
+    }
+}
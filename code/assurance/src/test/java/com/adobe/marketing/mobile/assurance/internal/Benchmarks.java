@@ -0,0 +1,61 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import org.junit.Assume;
+
+/**
+ * Support for the benchmarks of the unit test sources. Benchmarks are skipped unless the tests
+ * are run with {@code -PrunBenchmarks}, and compare the measured implementation with a baseline
+ * rather than with absolute times, so that they do not depend on the speed of the machine.
+ */
+final class Benchmarks {
+    private static final String RUN_BENCHMARKS_PROPERTY = "assurance.runBenchmarks";
+    private static final int WARM_UP_RUNS = 3;
+
+    /** A task whose duration is measured. */
+    interface Task {
+        void run() throws Exception;
+    }
+
+    private Benchmarks() {}
+
+    /** Skips the calling test unless benchmarks were requested. */
+    static void assumeEnabled() {
+        Assume.assumeTrue(
+                "Benchmarks only run with -PrunBenchmarks",
+                Boolean.getBoolean(RUN_BENCHMARKS_PROPERTY));
+    }
+
+    /**
+     * Returns the shortest duration of the runs of the task, after a few warm-up runs.
+     *
+     * @param runs the number of measured runs
+     * @param task the {@link Task} to measure
+     * @return the shortest duration, in nanoseconds
+     */
+    static long bestOfNanos(final int runs, final Task task) throws Exception {
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            task.run();
+        }
+
+        long best = Long.MAX_VALUE;
+
+        for (int i = 0; i < runs; i++) {
+            final long start = System.nanoTime();
+            task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        return best;
+    }
+}
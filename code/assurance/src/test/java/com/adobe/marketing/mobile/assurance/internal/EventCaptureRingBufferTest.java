@@ -0,0 +1,236 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class EventCaptureRingBufferTest {
+
+    @Test
+    public void test_publish_handledInOrderOnConsumerThread() throws InterruptedException {
+        final int itemCount = 10000;
+        final List<Integer> handledItems = Collections.synchronizedList(new ArrayList<Integer>());
+        final List<Long> handledTimestamps = Collections.synchronizedList(new ArrayList<Long>());
+        final List<String> handlerThreads = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch latch = new CountDownLatch(itemCount);
+
+        final EventCaptureRingBuffer<Integer> buffer =
+                new EventCaptureRingBuffer<>(
+                        16384,
+                        "TestCaptureThread",
+                        new EventCaptureRingBuffer.Handler<Integer>() {
+                            @Override
+                            public void handle(final Integer item, final long timestamp) {
+                                handledItems.add(item);
+                                handledTimestamps.add(timestamp);
+                                handlerThreads.add(Thread.currentThread().getName());
+                                latch.countDown();
+                            }
+                        });
+
+        for (int i = 0; i < itemCount; i++) {
+            assertTrue(buffer.publish(i, i * 10L));
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < itemCount; i++) {
+            assertEquals(Integer.valueOf(i), handledItems.get(i));
+            assertEquals(Long.valueOf(i * 10L), handledTimestamps.get(i));
+        }
+
+        assertEquals(
+                Collections.singleton("TestCaptureThread"), new HashSet<>(handlerThreads));
+        assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void test_publish_dropsWhenFull() throws InterruptedException {
+        final CountDownLatch handlerStarted = new CountDownLatch(1);
+        final CountDownLatch releaseHandler = new CountDownLatch(1);
+        final List<Integer> handledItems = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch allHandled = new CountDownLatch(5);
+
+        final EventCaptureRingBuffer<Integer> buffer =
+                new EventCaptureRingBuffer<>(
+                        4,
+                        "TestCaptureThread",
+                        new EventCaptureRingBuffer.Handler<Integer>() {
+                            @Override
+                            public void handle(final Integer item, final long timestamp) {
+                                handlerStarted.countDown();
+
+                                try {
+                                    releaseHandler.await(5, TimeUnit.SECONDS);
+                                } catch (final InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+
+                                handledItems.add(item);
+                                allHandled.countDown();
+                            }
+                        });
+
+        // Block the consumer on the first item.
+        assertTrue(buffer.publish(0, 0L));
+        assertTrue(handlerStarted.await(5, TimeUnit.SECONDS));
+
+        // Fill the buffer and overflow it.
+        for (int i = 1; i <= 4; i++) {
+            assertTrue(buffer.publish(i, 0L));
+        }
+
+        assertFalse(buffer.publish(5, 0L));
+        assertFalse(buffer.publish(6, 0L));
+        assertEquals(2, buffer.getDroppedCount());
+        assertEquals(4, buffer.size());
+
+        releaseHandler.countDown();
+        assertTrue(allHandled.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), handledItems);
+    }
+
+    @Test
+    public void test_handlerException_doesNotStopConsumer() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        final EventCaptureRingBuffer<Integer> buffer =
+                new EventCaptureRingBuffer<>(
+                        8,
+                        "TestCaptureThread",
+                        new EventCaptureRingBuffer.Handler<Integer>() {
+                            @Override
+                            public void handle(final Integer item, final long timestamp) {
+                                if (item == 0) {
+                                    throw new IllegalStateException("test");
+                                }
+
+                                latch.countDown();
+                            }
+                        });
+
+        buffer.publish(0, 0L);
+        buffer.publish(1, 0L);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void test_clear_discardsPendingItems() throws InterruptedException {
+        final CountDownLatch handlerStarted = new CountDownLatch(1);
+        final CountDownLatch releaseHandler = new CountDownLatch(1);
+        final List<Integer> handledItems = Collections.synchronizedList(new ArrayList<Integer>());
+        final CountDownLatch allHandled = new CountDownLatch(2);
+
+        final EventCaptureRingBuffer<Integer> buffer =
+                new EventCaptureRingBuffer<>(
+                        8,
+                        "TestCaptureThread",
+                        new EventCaptureRingBuffer.Handler<Integer>() {
+                            @Override
+                            public void handle(final Integer item, final long timestamp) {
+                                handlerStarted.countDown();
+
+                                try {
+                                    releaseHandler.await(5, TimeUnit.SECONDS);
+                                } catch (final InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+
+                                handledItems.add(item);
+                                allHandled.countDown();
+                            }
+                        });
+
+        // Block the consumer on the first item.
+        assertTrue(buffer.publish(0, 0L));
+        assertTrue(handlerStarted.await(5, TimeUnit.SECONDS));
+
+        buffer.publish(1, 0L);
+        buffer.publish(2, 0L);
+        buffer.clear();
+        buffer.publish(3, 0L);
+
+        releaseHandler.countDown();
+        assertTrue(allHandled.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(0, 3), handledItems);
+        assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void test_stop_terminatesConsumerThread() throws InterruptedException {
+        final List<Thread> consumerThreads = Collections.synchronizedList(new ArrayList<Thread>());
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        final EventCaptureRingBuffer<Integer> buffer =
+                new EventCaptureRingBuffer<>(
+                        8,
+                        "TestCaptureThread",
+                        new EventCaptureRingBuffer.Handler<Integer>() {
+                            @Override
+                            public void handle(final Integer item, final long timestamp) {
+                                consumerThreads.add(Thread.currentThread());
+                                latch.countDown();
+                            }
+                        });
+
+        assertTrue(buffer.publish(0, 0L));
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        buffer.stop();
+
+        final Thread consumerThread = consumerThreads.get(0);
+        consumerThread.join(5000);
+        assertFalse(consumerThread.isAlive());
+        assertFalse(buffer.publish(1, 0L));
+        assertEquals(1, consumerThreads.size());
+    }
+
+    @Test
+    public void test_stop_beforePublish_doesNotStartConsumer() {
+        final EventCaptureRingBuffer<Integer> buffer =
+                new EventCaptureRingBuffer<>(
+                        8,
+                        "TestCaptureThread",
+                        new EventCaptureRingBuffer.Handler<Integer>() {
+                            @Override
+                            public void handle(final Integer item, final long timestamp) {}
+                        });
+
+        buffer.stop();
+
+        assertFalse(buffer.publish(0, 0L));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void test_constructor_capacityNotPowerOfTwo() {
+        new EventCaptureRingBuffer<>(
+                10,
+                "TestCaptureThread",
+                new EventCaptureRingBuffer.Handler<Object>() {
+                    @Override
+                    public void handle(final Object item, final long timestamp) {}
+                });
+    }
+}
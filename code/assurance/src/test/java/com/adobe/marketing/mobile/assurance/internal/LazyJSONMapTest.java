@@ -0,0 +1,89 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class LazyJSONMapTest {
+
+    @Test
+    public void test_optString_doesNotMaterialize() throws JSONException {
+        final LazyJSONMap map =
+                new LazyJSONMap(new JSONObject("{\"type\":\"screenshot\",\"detail\":{\"a\":1}}"));
+
+        assertEquals("screenshot", map.optString("type"));
+        assertNull(map.optString("detail"));
+        assertNull(map.optString("missing"));
+        assertFalse(map.isMaterialized());
+    }
+
+    @Test
+    public void test_mapAccess_materializesNestedMaps() throws JSONException {
+        final LazyJSONMap map =
+                new LazyJSONMap(
+                        new JSONObject(
+                                "{\"str\":\"value\",\"num\":5,\"list\":[1,2],\"nested\":{\"bool\":true}}"));
+
+        final Map<String, Object> expectedNested = new HashMap<>();
+        expectedNested.put("bool", true);
+        final Map<String, Object> expected = new HashMap<>();
+        expected.put("str", "value");
+        expected.put("num", 5);
+        expected.put("list", Arrays.asList(1, 2));
+        expected.put("nested", expectedNested);
+
+        assertTrue(map.get("nested") instanceof HashMap);
+        assertTrue(map.isMaterialized());
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+        assertEquals("value", map.optString("str"));
+    }
+
+    @Test
+    public void test_put_afterMaterialization() throws JSONException {
+        final LazyJSONMap map = new LazyJSONMap(new JSONObject("{\"key\":\"value\"}"));
+
+        map.put("other", "otherValue");
+
+        assertEquals(2, map.size());
+        assertEquals("otherValue", map.optString("other"));
+    }
+
+    @Test
+    public void test_inboundEvent_controlTypeDoesNotMaterializePayload() throws JSONException {
+        final String json =
+                "{\"eventID\":\"id\",\"vendor\":\"com.adobe.griffon.mobile\",\"type\":\"control\","
+                        + "\"timestamp\":123,\"payload\":{\"type\":\"logForwarding\","
+                        + "\"detail\":{\"enable\":true}}}";
+
+        final AssuranceEvent event = new AssuranceEvent(json);
+
+        assertEquals(AssuranceConstants.ControlType.LOG_FORWARDING, event.getControlType());
+        assertFalse(((LazyJSONMap) event.getPayload()).isMaterialized());
+
+        final HashMap<String, Object> controlDetail = event.getControlDetail();
+        assertNotNull(controlDetail);
+        assertEquals(true, controlDetail.get("enable"));
+    }
+}
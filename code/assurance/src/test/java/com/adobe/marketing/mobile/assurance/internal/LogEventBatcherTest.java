@@ -0,0 +1,156 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("unchecked")
+public class LogEventBatcherTest {
+    private final List<AssuranceEvent> sentEvents = new ArrayList<>();
+    private final List<Runnable> scheduledFlushes = new ArrayList<>();
+    private ScheduledExecutorService mockScheduler;
+    private ScheduledFuture<?> mockScheduledFuture;
+
+    @Before
+    public void setup() {
+        mockScheduler = mock(ScheduledExecutorService.class);
+        mockScheduledFuture = mock(ScheduledFuture.class);
+        doAnswer(
+                        invocation -> {
+                            scheduledFlushes.add(invocation.getArgument(0));
+                            return mockScheduledFuture;
+                        })
+                .when(mockScheduler)
+                .schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    public void test_add_notBatched_sendsLoglinePerEntry() {
+        final LogEventBatcher batcher = createBatcher(false, 10, 1024);
+
+        batcher.add(new LogEntry("01-02 03:04:05.678", 1234, 56, 'D', "Tag", "line1\nline2"));
+        batcher.add(entry("second"));
+
+        assertEquals(2, sentEvents.size());
+        assertEquals(AssuranceConstants.AssuranceEventType.LOG, sentEvents.get(0).type);
+        assertEquals(
+                "[ 01-02 03:04:05.678  1234:   56 D/Tag      ]\nline1\nline2\n",
+                sentEvents.get(0).payload.get("logline"));
+        assertTrue(scheduledFlushes.isEmpty());
+    }
+
+    @Test
+    public void test_add_batched_sendsStructuredEntriesAfterInterval() {
+        final LogEventBatcher batcher = createBatcher(true, 10, 64 * 1024);
+
+        batcher.add(new LogEntry("01-02 03:04:05.678", 1234, 56, 'W', "Tag", "message"));
+        batcher.add(entry("second"));
+
+        assertTrue(sentEvents.isEmpty());
+        verify(mockScheduler, times(1)).schedule(any(Runnable.class), eq(500L), any());
+
+        scheduledFlushes.get(0).run();
+
+        assertEquals(1, sentEvents.size());
+        final List<Map<String, Object>> entries = getEntries(sentEvents.get(0));
+        assertEquals(2, entries.size());
+        final Map<String, Object> first = entries.get(0);
+        assertEquals("01-02 03:04:05.678", first.get("time"));
+        assertEquals(1234, first.get("pid"));
+        assertEquals(56, first.get("tid"));
+        assertEquals("W", first.get("level"));
+        assertEquals("Tag", first.get("tag"));
+        assertEquals("message", first.get("message"));
+        assertEquals("second", entries.get(1).get("message"));
+    }
+
+    @Test
+    public void test_add_batched_flushesWhenCountReached() {
+        final LogEventBatcher batcher = createBatcher(true, 3, 64 * 1024);
+
+        for (int i = 0; i < 7; i++) {
+            batcher.add(entry("message" + i));
+        }
+
+        assertEquals(2, sentEvents.size());
+        assertEquals(3, getEntries(sentEvents.get(0)).size());
+        assertEquals("message3", getEntries(sentEvents.get(1)).get(0).get("message"));
+        // the timed flush of every full batch is cancelled
+        verify(mockScheduledFuture, times(2)).cancel(false);
+
+        batcher.flush();
+
+        assertEquals(3, sentEvents.size());
+        assertEquals(1, getEntries(sentEvents.get(2)).size());
+    }
+
+    @Test
+    public void test_add_batched_flushesWhenSizeReached() {
+        final LogEventBatcher batcher = createBatcher(true, 100, 1000);
+        final StringBuilder message = new StringBuilder();
+
+        for (int i = 0; i < 200; i++) {
+            message.append('x');
+        }
+
+        for (int i = 0; i < 3; i++) {
+            batcher.add(entry(message.toString()));
+        }
+
+        assertTrue(sentEvents.isEmpty());
+
+        batcher.add(entry(message.toString()));
+
+        assertEquals(1, sentEvents.size());
+        assertEquals(4, getEntries(sentEvents.get(0)).size());
+    }
+
+    @Test
+    public void test_flush_emptyBatch_sendsNothing() {
+        final LogEventBatcher batcher = createBatcher(true, 10, 1024);
+
+        batcher.flush();
+
+        assertTrue(sentEvents.isEmpty());
+    }
+
+    private LogEventBatcher createBatcher(
+            final boolean batched, final int maxEntries, final int maxBytes) {
+        return new LogEventBatcher(
+                sentEvents::add, mockScheduler, batched, 500, maxEntries, maxBytes);
+    }
+
+    private static LogEntry entry(final String message) {
+        return new LogEntry("01-02 03:04:05.678", 1, 2, 'I', "Tag", message);
+    }
+
+    private static List<Map<String, Object>> getEntries(final AssuranceEvent event) {
+        return (List<Map<String, Object>>) event.payload.get("entries");
+    }
+}
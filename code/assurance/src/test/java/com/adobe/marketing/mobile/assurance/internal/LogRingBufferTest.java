@@ -0,0 +1,145 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+
+public class LogRingBufferTest {
+
+    @Test
+    public void test_drainTo_returnsItemsInOrder() {
+        final LogRingBuffer<String> buffer = new LogRingBuffer<>(4);
+        buffer.offer("a");
+        buffer.offer("b");
+        buffer.offer("c");
+
+        final List<String> drained = new ArrayList<>();
+
+        assertEquals(3, buffer.drainTo(drained, 10));
+        assertEquals(Arrays.asList("a", "b", "c"), drained);
+        assertEquals(0, buffer.drainTo(drained, 10));
+    }
+
+    @Test
+    public void test_drainTo_limitsItems() {
+        final LogRingBuffer<String> buffer = new LogRingBuffer<>(4);
+        buffer.offer("a");
+        buffer.offer("b");
+        buffer.offer("c");
+
+        final List<String> drained = new ArrayList<>();
+
+        assertEquals(2, buffer.drainTo(drained, 2));
+        assertEquals(Arrays.asList("a", "b"), drained);
+        assertEquals(1, buffer.drainTo(drained, 2));
+        assertEquals(Arrays.asList("a", "b", "c"), drained);
+    }
+
+    @Test
+    public void test_offer_whenFull_dropsAndCountsItems() {
+        final LogRingBuffer<Integer> buffer = new LogRingBuffer<>(3);
+
+        // the capacity is rounded up to 4
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        assertFalse(buffer.offer(5));
+        assertEquals(2, buffer.getDroppedCount());
+
+        final List<Integer> drained = new ArrayList<>();
+        buffer.drainTo(drained, 10);
+        assertEquals(Arrays.asList(0, 1, 2, 3), drained);
+    }
+
+    @Test
+    public void test_offer_afterDrain_reusesSlots() {
+        final LogRingBuffer<Integer> buffer = new LogRingBuffer<>(2);
+        final List<Integer> drained = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(buffer.offer(i));
+            assertEquals(1, buffer.drainTo(drained, 10));
+        }
+
+        assertEquals(10, drained.size());
+        assertEquals(Integer.valueOf(9), drained.get(9));
+        assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void test_offer_fromManyThreads_keepsEveryItemOrDropCount() throws Exception {
+        final int producers = 4;
+        final int itemsPerProducer = 50000;
+        final LogRingBuffer<int[]> buffer = new LogRingBuffer<>(1024);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            final Thread thread =
+                    new Thread(
+                            () -> {
+                                try {
+                                    start.await();
+                                } catch (final InterruptedException e) {
+                                    return;
+                                }
+
+                                for (int i = 0; i < itemsPerProducer; i++) {
+                                    buffer.offer(new int[] {producer, i});
+                                }
+                            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        final List<int[]> drained = new ArrayList<>();
+        final int[] lastSeen = new int[producers];
+        Arrays.fill(lastSeen, -1);
+        long drainedCount = 0;
+        start.countDown();
+
+        boolean producing = true;
+
+        while (producing) {
+            producing = false;
+
+            for (final Thread thread : threads) {
+                producing |= thread.isAlive();
+            }
+
+            drained.clear();
+            buffer.drainTo(drained, Integer.MAX_VALUE);
+
+            for (final int[] item : drained) {
+                // the items of every producer are drained in the order they were added
+                assertTrue(item[1] > lastSeen[item[0]]);
+                lastSeen[item[0]] = item[1];
+            }
+
+            drainedCount += drained.size();
+        }
+
+        assertEquals(producers * itemsPerProducer, drainedCount + buffer.getDroppedCount());
+    }
+}
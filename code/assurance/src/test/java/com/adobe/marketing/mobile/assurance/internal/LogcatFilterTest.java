@@ -0,0 +1,138 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class LogcatFilterTest {
+
+    @Test
+    public void test_default_readsMainBuffer() {
+        assertEquals(
+                Arrays.asList("logcat", "--pid=42", "-b", "main", "-v", "long"),
+                LogcatFilter.DEFAULT.toCommand(42));
+        assertEquals(LogcatFilter.DEFAULT, LogcatFilter.from(new HashMap<String, Object>()));
+    }
+
+    @Test
+    public void test_from_buffers() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("buffers", Arrays.asList("system", "crash", "events", "crash", 3));
+
+        assertEquals(
+                Arrays.asList("logcat", "--pid=42", "-b", "system", "-b", "crash", "-v", "long"),
+                LogcatFilter.from(details).toCommand(42));
+    }
+
+    @Test
+    public void test_from_filterSpecs_silencesOtherTags() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put(
+                "filters",
+                Arrays.asList(
+                        "MyTag:D", "AdobeExperienceSDK:W", "Bad Tag:D", "Tag:X", "Tag", ":D"));
+
+        assertEquals(
+                Arrays.asList(
+                        "logcat",
+                        "--pid=42",
+                        "-b",
+                        "main",
+                        "-v",
+                        "long",
+                        "MyTag:D",
+                        "AdobeExperienceSDK:W",
+                        "*:S"),
+                LogcatFilter.from(details).toCommand(42));
+    }
+
+    @Test
+    public void test_from_filterSpecs_withWildcardSpec() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("filters", Arrays.asList("Noisy:S", "*:I"));
+
+        assertEquals(
+                Arrays.asList("logcat", "--pid=42", "-b", "main", "-v", "long", "Noisy:S", "*:I"),
+                LogcatFilter.from(details).toCommand(42));
+    }
+
+    @Test
+    public void test_from_includeRegexes_areCombined() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("include", Arrays.asList("purchase", "order [0-9]+", "(unclosed", ""));
+
+        assertEquals(
+                Arrays.asList(
+                        "logcat",
+                        "--pid=42",
+                        "-b",
+                        "main",
+                        "-v",
+                        "long",
+                        "-e",
+                        "(?:purchase)|(?:order [0-9]+)"),
+                LogcatFilter.from(details).toCommand(42));
+    }
+
+    @Test
+    public void test_equals() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("filters", Collections.singletonList("MyTag:D"));
+        final Map<String, Object> otherDetails = new HashMap<>();
+        otherDetails.put("filters", Collections.singletonList("MyTag:I"));
+
+        assertEquals(LogcatFilter.from(details), LogcatFilter.from(details));
+        assertEquals(LogcatFilter.from(details).hashCode(), LogcatFilter.from(details).hashCode());
+        assertNotEquals(LogcatFilter.from(details), LogcatFilter.from(otherDetails));
+    }
+
+    @Test
+    public void test_withSilencedTag_appendsSilencingSpec() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("filters", Collections.singletonList("MyTag:D"));
+
+        assertEquals(
+                Arrays.asList(
+                        "logcat", "--pid=42", "-b", "main", "-v", "long", "MyTag:D", "*:S",
+                        "SdkTag:S"),
+                LogcatFilter.from(details).withSilencedTag("SdkTag").toCommand(42));
+        assertEquals(
+                Arrays.asList("logcat", "--pid=42", "-b", "main", "-v", "long", "SdkTag:S"),
+                LogcatFilter.DEFAULT.withSilencedTag("SdkTag").toCommand(42));
+    }
+
+    @Test
+    public void test_withSilencedTag_overridesServerSpecOfTag() {
+        final Map<String, Object> details = new HashMap<>();
+        details.put("filters", Arrays.asList("AdobeExperienceSDK:W", "MyTag:D"));
+
+        assertEquals(
+                Arrays.asList(
+                        "logcat",
+                        "--pid=42",
+                        "-b",
+                        "main",
+                        "-v",
+                        "long",
+                        "MyTag:D",
+                        "*:S",
+                        "AdobeExperienceSDK:S"),
+                LogcatFilter.from(details).withSilencedTag("AdobeExperienceSDK").toCommand(42));
+    }
+}
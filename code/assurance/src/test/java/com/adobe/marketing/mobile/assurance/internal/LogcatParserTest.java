@@ -0,0 +1,394 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogcatParserTest {
+    // the header pattern used before the hand-written parser, as a reference
+    private static final Pattern HEADER_MESSAGE =
+            Pattern.compile(
+                    "^\\[ (\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d.\\d\\d\\d) {1,}(\\d+): {0,}(\\d+)"
+                            + " ([VDIWEAF])/([^ ]+) {1,}]$");
+    private static final long TEST_FIXTURE_SIZE_CHARS = 1024 * 1024;
+    private static final long BENCHMARK_FIXTURE_SIZE_CHARS = 50L * 1024 * 1024;
+
+    private final List<LogEntry> entries = new ArrayList<>();
+    private LogcatParser parser;
+
+    @Before
+    public void setup() {
+        parser = new LogcatParser(entries::add);
+    }
+
+    @Test
+    public void test_feed_parsesHeaderFields() {
+        feed("[ 01-02 03:04:05.678  1234: 5678 D/MyTag    ]\nhello world\n\n");
+        feed("[ 12-31 23:59:59.999 99999:   7 E/Tag.With.Dots ]\nbye\n\n");
+        parser.flush();
+
+        assertEquals(2, entries.size());
+        assertEntry(entries.get(0), "01-02 03:04:05.678", 1234, 5678, 'D', "MyTag", "hello world");
+        assertEntry(entries.get(1), "12-31 23:59:59.999", 99999, 7, 'E', "Tag.With.Dots", "bye");
+    }
+
+    @Test
+    public void test_feed_entryCompletedByNextHeader() {
+        feed("[ 01-02 03:04:05.678  1: 2 I/Tag ]\nfirst\n\n");
+
+        assertTrue(entries.isEmpty());
+
+        feed("[ 01-02 03:04:05.679  1: 2 I/Tag ]\n");
+
+        assertEquals(1, entries.size());
+        assertEquals("first", entries.get(0).message);
+    }
+
+    @Test
+    public void test_feed_multiLineMessage_keepsInnerEmptyLines() {
+        feed("[ 01-02 03:04:05.678  1: 2 W/Tag ]\nline1\n\nline3\r\nline4\n\n");
+        parser.flush();
+
+        assertEquals(1, entries.size());
+        assertEquals("line1\n\nline3\nline4", entries.get(0).message);
+    }
+
+    @Test
+    public void test_feed_tagWithSpaces() {
+        feed("[ 01-02 03:04:05.678  1: 2 V/My Tag   ]\nmessage\n\n");
+        parser.flush();
+
+        assertEquals("My Tag", entries.get(0).tag);
+    }
+
+    @Test
+    public void test_feed_bracketedMessageLineIsNotAHeader() {
+        feed("[ 01-02 03:04:05.678  1: 2 I/Tag ]\n[ not a header ]\n[ 01-02 03:04:05 ]\n\n");
+        parser.flush();
+
+        assertEquals(1, entries.size());
+        assertEquals("[ not a header ]\n[ 01-02 03:04:05 ]", entries.get(0).message);
+    }
+
+    @Test
+    public void test_feed_ignoresLinesBeforeFirstHeaderAndEmptyEntries() {
+        feed("--------- beginning of main\n");
+        feed("[ 01-02 03:04:05.678  1: 2 I/Empty ]\n\n");
+        feed("[ 01-02 03:04:05.679  1: 2 I/Tag ]\nmessage\n\n");
+        parser.flush();
+
+        assertEquals(1, entries.size());
+        assertEquals("Tag", entries.get(0).tag);
+    }
+
+    @Test
+    public void test_feed_chunksSplitAnywhere() {
+        final String output = createLogcatOutput(50);
+        final List<LogEntry> expected = new ArrayList<>();
+        final LogcatParser wholeParser = new LogcatParser(expected::add);
+        wholeParser.feed(output.toCharArray(), 0, output.length());
+        wholeParser.flush();
+
+        final char[] chars = output.toCharArray();
+
+        for (int i = 0; i < chars.length; i += 7) {
+            parser.feed(chars, i, Math.min(7, chars.length - i));
+        }
+
+        parser.flush();
+
+        assertEquals(50, expected.size());
+        assertEquals(expected.size(), entries.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toLogline(), entries.get(i).toLogline());
+        }
+    }
+
+    @Test
+    public void test_flush_keepsPartialLines() {
+        feed("[ 01-02 03:04:05.678  1: 2 I/Tag ]\npart");
+        parser.flush();
+
+        assertTrue(entries.isEmpty());
+
+        feed("ial\n\n");
+        parser.flush();
+
+        assertEquals("partial", entries.get(0).message);
+    }
+
+    @Test
+    public void test_flush_afterHeader_keepsEntry() {
+        feed("[ 01-02 03:04:05.678  1: 2 I/Tag ]\n");
+        parser.flush();
+
+        assertTrue(entries.isEmpty());
+
+        feed("message\n\n");
+        parser.flush();
+
+        assertEquals(1, entries.size());
+        assertEquals("Tag", entries.get(0).tag);
+        assertEquals("message", entries.get(0).message);
+    }
+
+    @Test
+    public void test_flush_continuationLinesFormEntryWithSameHeader() {
+        feed("[ 01-02 03:04:05.678  1: 2 E/Tag ]\nException\n");
+        parser.flush();
+        feed("\tat Class.method(Class.java:1)\n\n");
+        feed("[ 01-02 03:04:05.679  1: 2 I/Next ]\n");
+
+        assertEquals(2, entries.size());
+        assertEntry(entries.get(0), "01-02 03:04:05.678", 1, 2, 'E', "Tag", "Exception");
+        assertEntry(
+                entries.get(1),
+                "01-02 03:04:05.678",
+                1,
+                2,
+                'E',
+                "Tag",
+                "\tat Class.method(Class.java:1)");
+    }
+
+    @Test
+    public void test_feed_matchesRegexParsing() {
+        final String output = createLogcatOutput(1000);
+        parser.feed(output.toCharArray(), 0, output.length());
+        parser.flush();
+
+        final List<String> regexHeaders = new ArrayList<>();
+
+        for (final String line : output.split("\n")) {
+            final Matcher matcher = HEADER_MESSAGE.matcher(line);
+
+            if (matcher.matches()) {
+                regexHeaders.add(
+                        matcher.group(1)
+                                + "|"
+                                + matcher.group(2)
+                                + "|"
+                                + matcher.group(3)
+                                + "|"
+                                + matcher.group(4)
+                                + "|"
+                                + matcher.group(5));
+            }
+        }
+
+        assertEquals(regexHeaders.size(), entries.size());
+
+        for (int i = 0; i < entries.size(); i++) {
+            final LogEntry entry = entries.get(i);
+            assertEquals(
+                    regexHeaders.get(i),
+                    entry.time
+                            + "|"
+                            + entry.pid
+                            + "|"
+                            + entry.tid
+                            + "|"
+                            + entry.level
+                            + "|"
+                            + entry.tag);
+        }
+    }
+
+    @Test
+    public void test_feed_generatedFixture_matchesRegexHeaders() throws IOException {
+        final long parsedEntries = parseFixture(TEST_FIXTURE_SIZE_CHARS);
+
+        assertTrue(parsedEntries > 0);
+        assertEquals(matchFixtureHeaders(TEST_FIXTURE_SIZE_CHARS), parsedEntries);
+    }
+
+    @Test
+    public void test_benchmark_feed_fasterThanRegexOver50MBFixture() throws Exception {
+        Benchmarks.assumeEnabled();
+
+        final long parserNanos =
+                Benchmarks.bestOfNanos(3, () -> parseFixture(BENCHMARK_FIXTURE_SIZE_CHARS));
+        final long regexNanos =
+                Benchmarks.bestOfNanos(3, () -> matchFixtureHeaders(BENCHMARK_FIXTURE_SIZE_CHARS));
+
+        assertTrue(
+                "Parsing the 50MB fixture took "
+                        + parserNanos
+                        + "ns, line split and regex "
+                        + regexNanos
+                        + "ns",
+                parserNanos < regexNanos);
+    }
+
+    /** Parses the fixture with the parser, returning the number of entries. */
+    private static long parseFixture(final long size) throws IOException {
+        final long[] entryCount = new long[1];
+        final LogcatParser fixtureParser = new LogcatParser(entry -> entryCount[0]++);
+        // the fixture is streamed, so that it does not need to be held in memory
+        final Reader fixture = new LogcatFixtureReader(size);
+        final char[] buffer = new char[8192];
+        int read;
+
+        while ((read = fixture.read(buffer)) != -1) {
+            fixtureParser.feed(buffer, 0, read);
+        }
+
+        fixtureParser.flush();
+        return entryCount[0];
+    }
+
+    /** Splits the fixture in lines and matches them with the regex, returning the headers count. */
+    private static long matchFixtureHeaders(final long size) throws IOException {
+        final Reader fixture = new LogcatFixtureReader(size);
+        final char[] buffer = new char[8192];
+        final StringBuilder line = new StringBuilder();
+        long headerCount = 0;
+        int read;
+
+        while ((read = fixture.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] != '\n') {
+                    line.append(buffer[i]);
+                    continue;
+                }
+
+                if (HEADER_MESSAGE.matcher(line.toString()).matches()) {
+                    headerCount++;
+                }
+
+                line.setLength(0);
+            }
+        }
+
+        return headerCount;
+    }
+
+    private void feed(final String output) {
+        parser.feed(output.toCharArray(), 0, output.length());
+    }
+
+    private static void assertEntry(
+            final LogEntry entry,
+            final String time,
+            final int pid,
+            final int tid,
+            final char level,
+            final String tag,
+            final String message) {
+        assertEquals(time, entry.time);
+        assertEquals(pid, entry.pid);
+        assertEquals(tid, entry.tid);
+        assertEquals(level, entry.level);
+        assertEquals(tag, entry.tag);
+        assertEquals(message, entry.message);
+    }
+
+    private static String createLogcatOutput(final int entryCount) {
+        final StringBuilder output = new StringBuilder();
+
+        for (int i = 0; i < entryCount; i++) {
+            output.append(LogcatFixtureReader.createEntry(i));
+        }
+
+        return output.toString();
+    }
+
+    /**
+     * Generates logcat long format output of at least the requested size, by repeating a block of
+     * generated entries.
+     */
+    private static final class LogcatFixtureReader extends Reader {
+        private static final String LEVELS = "VDIWE";
+        private static final int BLOCK_ENTRY_COUNT = 1000;
+
+        private final long size;
+        private final char[] block;
+        private long position;
+        private int blockOffset;
+
+        LogcatFixtureReader(final long size) {
+            this.size = size;
+            this.block = createLogcatOutput(BLOCK_ENTRY_COUNT).toCharArray();
+            this.blockOffset = block.length;
+        }
+
+        static String createEntry(final int number) {
+            final StringBuilder entry = new StringBuilder();
+            entry.append(
+                    String.format(
+                            Locale.US,
+                            "[ 01-%02d %02d:%02d:%02d.%03d %5d:%5d %c/%-8s ]\n",
+                            1 + number % 28,
+                            number % 24,
+                            number % 60,
+                            number % 60,
+                            number % 1000,
+                            4321,
+                            4321 + number % 40,
+                            LEVELS.charAt(number % LEVELS.length()),
+                            "Tag" + number % 17));
+            entry.append("Message number ").append(number).append(" with some text\n");
+
+            // every tenth entry is a multi-line stack trace
+            if (number % 10 == 0) {
+                for (int i = 0; i < 20; i++) {
+                    entry.append("\tat com.example.Class").append(i).append(".method(Class.java:")
+                            .append(i * 7)
+                            .append(")\n");
+                }
+            }
+
+            return entry.append('\n').toString();
+        }
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length) {
+            int count = 0;
+
+            while (count < length) {
+                if (blockOffset == block.length) {
+                    // the fixture ends with a complete block
+                    if (position >= size) {
+                        break;
+                    }
+
+                    blockOffset = 0;
+                }
+
+                final int chunk = Math.min(length - count, block.length - blockOffset);
+                System.arraycopy(block, blockOffset, buffer, offset + count, chunk);
+                blockOffset += chunk;
+                count += chunk;
+                position += chunk;
+            }
+
+            return count == 0 ? -1 : count;
+        }
+
+        @Override
+        public void close() {
+            /* no-op */
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class LogcatReaderTest {
+    private static final long TIMEOUT_MILLIS = 2000;
+    private static final List<String> PRUNE_COMMAND = Arrays.asList("logcat", "-P", "");
+
+    private final List<LogEntry> entries = new CopyOnWriteArrayList<>();
+    private final List<List<String>> commands = new CopyOnWriteArrayList<>();
+    private final BlockingQueue<FakeProcess> logcatProcesses = new LinkedBlockingQueue<>();
+    private LogcatReader reader;
+    private Thread readerThread;
+
+    @Before
+    public void setup() {
+        reader =
+                new LogcatReader(
+                        LogcatFilter.DEFAULT,
+                        entries::add,
+                        command -> {
+                            commands.add(command);
+
+                            if (command.equals(PRUNE_COMMAND)) {
+                                return new FakeProcess();
+                            }
+
+                            final FakeProcess process = new FakeProcess();
+                            logcatProcesses.add(process);
+                            return process;
+                        },
+                        42);
+        readerThread = new Thread(reader);
+        readerThread.start();
+    }
+
+    @After
+    public void teardown() throws InterruptedException {
+        reader.stop();
+        readerThread.join(TIMEOUT_MILLIS);
+    }
+
+    @Test
+    public void test_run_parsesLogcatOutput() throws Exception {
+        final FakeProcess process = nextLogcatProcess();
+        process.write("[ 01-02 03:04:05.678  1234: 5678 D/Tag      ]\nfirst\n\n");
+        process.write("[ 01-02 03:04:05.679  1234: 5678 W/Tag      ]\nsecond\n\n");
+        awaitEntries(2);
+
+        assertEquals("first", entries.get(0).message);
+        assertEquals("second", entries.get(1).message);
+        assertEquals(2, reader.getEntriesRead());
+        assertEquals(PRUNE_COMMAND, commands.get(0));
+        assertEquals(LogcatFilter.DEFAULT.toCommand(42), commands.get(1));
+    }
+
+    @Test
+    public void test_run_decodesCharactersSplitAcrossReads() throws Exception {
+        final FakeProcess process = nextLogcatProcess();
+        final byte[] message = "café\n\n".getBytes(StandardCharsets.UTF_8);
+        process.write("[ 01-02 03:04:05.678  1234: 5678 D/Tag      ]\n");
+        // the two bytes of the accented character are written separately
+        process.write(Arrays.copyOfRange(message, 0, 4));
+        Thread.sleep(50);
+        process.write(Arrays.copyOfRange(message, 4, message.length));
+        awaitEntries(1);
+
+        assertEquals("café", entries.get(0).message);
+    }
+
+    @Test
+    public void test_run_entryWrittenInSeveralWrites_isNotSplit() throws Exception {
+        final FakeProcess process = nextLogcatProcess();
+        process.write("[ 01-02 03:04:05.678  1234: 5678 E/Tag      ]\nException\n");
+        // the pipe is drained before the rest of the entry is written
+        Thread.sleep(20);
+        process.write("\tat Class.method(Class.java:1)\n\n");
+        awaitEntries(1);
+
+        assertEquals("Exception\n\tat Class.method(Class.java:1)", entries.get(0).message);
+    }
+
+    @Test
+    public void test_run_continuationAfterIdleTimeout_isNotDiscarded() throws Exception {
+        final FakeProcess process = nextLogcatProcess();
+        process.write("[ 01-02 03:04:05.678  1234: 5678 E/Tag      ]\nException\n");
+        awaitEntries(1);
+
+        process.write("\tat Class.method(Class.java:1)\n\n");
+        awaitEntries(2);
+
+        // the continuation line forms another entry with the header of the completed one
+        final LogEntry continuation = entries.get(1);
+        assertEquals("Exception", entries.get(0).message);
+        assertEquals("\tat Class.method(Class.java:1)", continuation.message);
+        assertEquals("01-02 03:04:05.678", continuation.time);
+        assertEquals(1234, continuation.pid);
+        assertEquals(5678, continuation.tid);
+        assertEquals('E', continuation.level);
+        assertEquals("Tag", continuation.tag);
+    }
+
+    @Test
+    public void test_stop_whileWaitingForOutput_completesPromptly() throws Exception {
+        final FakeProcess process = nextLogcatProcess();
+        process.write("[ 01-02 03:04:05.678  1234: 5678 D/Tag      ]\nmessage\n\n");
+        awaitEntries(1);
+
+        reader.stop();
+        readerThread.join(TIMEOUT_MILLIS);
+
+        assertFalse(readerThread.isAlive());
+        assertTrue(process.destroyed);
+        assertTrue(reader.isStopped());
+        assertEquals(1, reader.getProcessStarts());
+        assertTrue(reader.getBytesRead() > 0);
+    }
+
+    @Test
+    public void test_interrupt_whileWaitingForOutput_completesPromptly() throws Exception {
+        final FakeProcess process = nextLogcatProcess();
+
+        readerThread.interrupt();
+        readerThread.join(TIMEOUT_MILLIS);
+
+        assertFalse(readerThread.isAlive());
+        assertTrue(process.destroyed);
+        assertTrue(reader.isStopped());
+    }
+
+    @Test
+    public void test_setFilter_restartsLogcatWithFilter() throws Exception {
+        final FakeProcess firstProcess = nextLogcatProcess();
+        final Map<String, Object> details = new HashMap<>();
+        details.put("filters", Collections.singletonList("MyTag:D"));
+        final LogcatFilter filter = LogcatFilter.from(details);
+
+        reader.setFilter(filter);
+        final FakeProcess secondProcess = nextLogcatProcess();
+
+        assertTrue(firstProcess.destroyed);
+        assertFalse(secondProcess.destroyed);
+        assertEquals(filter.toCommand(42), commands.get(2));
+        assertEquals(2, reader.getProcessStarts());
+    }
+
+    @Test
+    public void test_setFilter_sameFilter_keepsLogcat() throws Exception {
+        final FakeProcess process = nextLogcatProcess();
+
+        reader.setFilter(LogcatFilter.from(new HashMap<String, Object>()));
+
+        assertFalse(process.destroyed);
+        assertEquals(1, reader.getProcessStarts());
+    }
+
+    @Test
+    public void test_run_whenLogcatExits_completes() throws Exception {
+        final FakeProcess process = nextLogcatProcess();
+        process.write("[ 01-02 03:04:05.678  1234: 5678 D/Tag      ]\nlast\n");
+
+        process.exit();
+        readerThread.join(TIMEOUT_MILLIS);
+
+        assertFalse(readerThread.isAlive());
+        assertEquals(1, entries.size());
+        assertEquals("last", entries.get(0).message);
+    }
+
+    private FakeProcess nextLogcatProcess() throws InterruptedException {
+        final FakeProcess process = logcatProcesses.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertTrue(process != null);
+        return process;
+    }
+
+    private void awaitEntries(final int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while (entries.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(count, entries.size());
+    }
+
+    /** A process whose output is written by the test, and which exits when destroyed. */
+    private static final class FakeProcess extends Process {
+        private final PipedOutputStream output = new PipedOutputStream();
+        private final PipedInputStream input;
+        volatile boolean destroyed;
+
+        FakeProcess() {
+            try {
+                input = new PipedInputStream(output, 65536);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void write(final String text) throws IOException {
+            write(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void write(final byte[] bytes) throws IOException {
+            output.write(bytes);
+            output.flush();
+        }
+
+        void exit() throws IOException {
+            output.close();
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return new ByteArrayOutputStream();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return input;
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public int waitFor() {
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+            destroyed = true;
+
+            try {
+                output.close();
+            } catch (final IOException ignored) {
+                // already closed
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class OutboundEventBufferTest {
+
+    @Test
+    public void test_add_keepsEarliestAndMostRecentEvents() {
+        final OutboundEventBuffer buffer = new OutboundEventBuffer(2, 3, Long.MAX_VALUE);
+        final List<AssuranceEvent> events = createEvents(10, 0);
+
+        for (final AssuranceEvent event : events) {
+            assertTrue(buffer.add(event));
+        }
+
+        assertEquals(
+                Arrays.asList(
+                        events.get(0), events.get(1), events.get(7), events.get(8), events.get(9)),
+                buffer.snapshot());
+        assertEquals(5, buffer.size());
+        assertEquals(5, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void test_add_belowLimits_keepsAllEventsInOrder() {
+        final OutboundEventBuffer buffer = new OutboundEventBuffer(2, 3, Long.MAX_VALUE);
+        final List<AssuranceEvent> events = createEvents(4, 0);
+
+        for (final AssuranceEvent event : events) {
+            buffer.add(event);
+        }
+
+        assertEquals(events, buffer.snapshot());
+        assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void test_add_byteLimit_evictsOldestRecentEvents() {
+        final List<AssuranceEvent> events = createEvents(6, 100);
+        final long eventSize = OutboundEventBuffer.estimateSize(events.get(0));
+        // Room for exactly three events.
+        final OutboundEventBuffer buffer = new OutboundEventBuffer(1, 10, eventSize * 3);
+
+        for (final AssuranceEvent event : events) {
+            assertTrue(buffer.add(event));
+        }
+
+        assertEquals(Arrays.asList(events.get(0), events.get(4), events.get(5)), buffer.snapshot());
+        assertEquals(3, buffer.getDroppedCount());
+        assertTrue(buffer.getEstimatedBytes() <= eventSize * 3);
+    }
+
+    @Test
+    public void test_add_eventLargerThanByteLimit_isDropped() {
+        final OutboundEventBuffer buffer = new OutboundEventBuffer(2, 2, 64);
+
+        assertFalse(buffer.add(createEvents(1, 1000).get(0)));
+        assertEquals(0, buffer.size());
+        assertEquals(1, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void test_clear_retainsDroppedCount() {
+        final OutboundEventBuffer buffer = new OutboundEventBuffer(1, 1, Long.MAX_VALUE);
+
+        for (final AssuranceEvent event : createEvents(3, 0)) {
+            buffer.add(event);
+        }
+
+        buffer.clear();
+
+        assertEquals(0, buffer.size());
+        assertEquals(0, buffer.getEstimatedBytes());
+        assertTrue(buffer.snapshot().isEmpty());
+        assertEquals(1, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void test_add_concurrentProducers() throws InterruptedException {
+        final OutboundEventBuffer buffer = new OutboundEventBuffer(50, 50, Long.MAX_VALUE);
+        final int threadCount = 4;
+        final int eventsPerThread = 500;
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+
+        for (int i = 0; i < threadCount; i++) {
+            new Thread(
+                            new Runnable() {
+                                @Override
+                                public void run() {
+                                    for (final AssuranceEvent event :
+                                            createEvents(eventsPerThread, 0)) {
+                                        buffer.add(event);
+                                        buffer.snapshot();
+                                    }
+
+                                    latch.countDown();
+                                }
+                            })
+                    .start();
+        }
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(100, buffer.size());
+        assertEquals(threadCount * eventsPerThread - 100, buffer.getDroppedCount());
+    }
+
+    private static List<AssuranceEvent> createEvents(final int count, final int valueLength) {
+        final List<AssuranceEvent> events = new ArrayList<>();
+        final StringBuilder value = new StringBuilder();
+
+        for (int i = 0; i < valueLength; i++) {
+            value.append('a');
+        }
+
+        for (int i = 0; i < count; i++) {
+            final Map<String, Object> payload = new HashMap<>();
+            payload.put("key", value.toString());
+            events.add(new AssuranceEvent("type", payload));
+        }
+
+        return events;
+    }
+}
@@ -76,6 +76,7 @@ public class OutboundEventQueueWorkerTest {
                 new AssuranceEvent(
                         AssuranceConstants.AssuranceEventType.CLIENT, Collections.EMPTY_MAP);
         when(mockAssuranceClientInfo.getData()).thenReturn(clientInfoData);
+        when(mockAssuranceWebViewSocket.sendData(any(byte[].class))).thenReturn(true);
 
         outboundEventQueueWorker =
                 new OutboundEventQueueWorker(
@@ -558,6 +559,181 @@ public class OutboundEventQueueWorkerTest {
         }
     }
 
+    @Test
+    public void test_sendEvent_cborEncodingNegotiated() throws IOException {
+        when(mockAssuranceWebViewSocket.getState())
+                .thenReturn(AssuranceWebViewSocket.SocketReadyState.OPEN);
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put("key", "value");
+        final AssuranceEvent event = new AssuranceEvent("type", payload);
+
+        outboundEventQueueWorker.offer(event);
+        outboundEventQueueWorker.start();
+        outboundEventQueueWorker.setEventEncoding(AssuranceConstants.EventEncoding.CBOR);
+        outboundEventQueueWorker.unblock();
+
+        ArgumentCaptor<byte[]> socketDataCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(mockAssuranceWebViewSocket, times(2)).sendData(socketDataCaptor.capture());
+        final List<byte[]> capturedEventData = socketDataCaptor.getAllValues();
+
+        // Client info event is always sent as JSON.
+        assertEquals('{', capturedEventData.get(0)[0]);
+
+        // Verify that the event is CBOR encoded and decodes back to the original event.
+        final AssuranceEvent actualEvent = AssuranceCborCodec.decode(capturedEventData.get(1));
+        assertEquals(event.eventID, actualEvent.eventID);
+        assertEquals(event.type, actualEvent.type);
+        assertEquals(event.payload, actualEvent.payload);
+    }
+
+    @Test
+    public void test_sendEvent_cborEncodingNegotiated_overflowFallsBackToJsonChunks()
+            throws IOException, JSONException {
+        when(mockAssuranceWebViewSocket.getState())
+                .thenReturn(AssuranceWebViewSocket.SocketReadyState.OPEN);
+        final AssuranceEvent largeAssuranceEvent =
+                new AssuranceEvent(readFromResource("assurance_large_full_event_outbound_flow.txt"));
+
+        outboundEventQueueWorker.offer(largeAssuranceEvent);
+        outboundEventQueueWorker.start();
+        outboundEventQueueWorker.setEventEncoding(AssuranceConstants.EventEncoding.CBOR);
+        outboundEventQueueWorker.unblock();
+
+        // 1 client info event and 7 chunked Assurance events, all sent as JSON.
+        ArgumentCaptor<byte[]> socketDataCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(mockAssuranceWebViewSocket, times(8)).sendData(socketDataCaptor.capture());
+
+        for (final byte[] eventData : socketDataCaptor.getAllValues()) {
+            assertEquals('{', eventData[0]);
+        }
+    }
+
+    @Test
+    public void test_sendEvent_stateDeltasNegotiated() throws JSONException {
+        when(mockAssuranceWebViewSocket.getState())
+                .thenReturn(AssuranceWebViewSocket.SocketReadyState.OPEN);
+        final Map<String, Object> firstState = new HashMap<>();
+        firstState.put("version", "1.0.0");
+        firstState.put("largeValue", "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+        final Map<String, Object> secondState = new HashMap<>(firstState);
+        secondState.put("version", "1.0.1");
+
+        outboundEventQueueWorker.offer(createSharedStateEvent(firstState));
+        outboundEventQueueWorker.offer(createSharedStateEvent(secondState));
+        outboundEventQueueWorker.start();
+        outboundEventQueueWorker.setStateDeltasEnabled(true);
+        outboundEventQueueWorker.unblock();
+
+        ArgumentCaptor<byte[]> socketDataCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(mockAssuranceWebViewSocket, times(3)).sendData(socketDataCaptor.capture());
+        final List<byte[]> capturedEventData = socketDataCaptor.getAllValues();
+
+        final JSONObject keyframeMetadata =
+                new JSONObject(new String(capturedEventData.get(1), Charset.forName("UTF-8")))
+                        .getJSONObject("payload")
+                        .getJSONObject("metadata");
+        assertEquals(firstState, JSONUtils.toMap(keyframeMetadata.getJSONObject("state.data")));
+        assertEquals(1, keyframeMetadata.getInt("state.version"));
+
+        final JSONObject deltaMetadata =
+                new JSONObject(new String(capturedEventData.get(2), Charset.forName("UTF-8")))
+                        .getJSONObject("payload")
+                        .getJSONObject("metadata");
+        assertFalse(deltaMetadata.has("state.data"));
+        assertEquals(1, deltaMetadata.getInt("state.baseVersion"));
+        assertEquals(2, deltaMetadata.getInt("state.version"));
+        assertEquals(1, deltaMetadata.getJSONArray("state.data.patch").length());
+    }
+
+    @Test
+    public void test_sendEvent_stateDeltasNegotiated_droppedStateIsNotPatchBase()
+            throws JSONException {
+        when(mockAssuranceWebViewSocket.getState())
+                .thenReturn(AssuranceWebViewSocket.SocketReadyState.OPEN);
+        final Map<String, Object> firstState = new HashMap<>();
+        firstState.put("version", "1.0.0");
+        firstState.put("largeValue", "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa");
+        final Map<String, Object> secondState = new HashMap<>(firstState);
+        secondState.put("version", "1.0.1");
+        // the client info event is sent, the first state is dropped by the socket
+        when(mockAssuranceWebViewSocket.sendData(any(byte[].class)))
+                .thenReturn(true, false, true);
+
+        outboundEventQueueWorker.offer(createSharedStateEvent(firstState));
+        outboundEventQueueWorker.offer(createSharedStateEvent(secondState));
+        outboundEventQueueWorker.start();
+        outboundEventQueueWorker.setStateDeltasEnabled(true);
+        outboundEventQueueWorker.unblock();
+
+        ArgumentCaptor<byte[]> socketDataCaptor = ArgumentCaptor.forClass(byte[].class);
+        verify(mockAssuranceWebViewSocket, times(3)).sendData(socketDataCaptor.capture());
+
+        final JSONObject secondMetadata =
+                new JSONObject(
+                                new String(
+                                        socketDataCaptor.getAllValues().get(2),
+                                        Charset.forName("UTF-8")))
+                        .getJSONObject("payload")
+                        .getJSONObject("metadata");
+        assertEquals(secondState, JSONUtils.toMap(secondMetadata.getJSONObject("state.data")));
+        assertFalse(secondMetadata.has("state.baseVersion"));
+        assertEquals(2, secondMetadata.getInt("state.version"));
+    }
+
+    @Test
+    public void test_sendClientInfoEvent_afterHandshake_sendsAppSettingsHashOnly() {
+        when(mockAssuranceWebViewSocket.getState())
+                .thenReturn(AssuranceWebViewSocket.SocketReadyState.OPEN);
+        final HashMap<String, Object> hashOnlyClientInfoData = new HashMap<>();
+        hashOnlyClientInfoData.put(AssuranceConstants.ClientInfoKeys.APP_SETTINGS_HASH, "hash");
+        when(mockAssuranceClientInfo.getData(false)).thenReturn(hashOnlyClientInfoData);
+
+        // first connection sends the full app settings, which the server caches
+        outboundEventQueueWorker.start();
+        outboundEventQueueWorker.setServerCachesAppSettings(true);
+        outboundEventQueueWorker.unblock();
+        verify(mockAssuranceClientInfo, times(1)).getData();
+
+        // reconnect sends the app settings hash only
+        outboundEventQueueWorker.block();
+        outboundEventQueueWorker.sendClientInfoEvent();
+        verify(mockAssuranceClientInfo, times(1)).getData(false);
+
+        // server requests the full app settings
+        outboundEventQueueWorker.sendFullClientInfoEvent();
+        verify(mockAssuranceClientInfo, times(2)).getData();
+        verify(mockAssuranceWebViewSocket, times(3)).sendData(any(byte[].class));
+    }
+
+    @Test
+    public void test_sendClientInfoEvent_serverDoesNotCacheAppSettings_sendsFullAppSettings() {
+        when(mockAssuranceWebViewSocket.getState())
+                .thenReturn(AssuranceWebViewSocket.SocketReadyState.OPEN);
+
+        outboundEventQueueWorker.start();
+        outboundEventQueueWorker.unblock();
+
+        // reconnect
+        outboundEventQueueWorker.block();
+        outboundEventQueueWorker.sendClientInfoEvent();
+
+        verify(mockAssuranceClientInfo, times(2)).getData();
+        verify(mockAssuranceClientInfo, never()).getData(false);
+    }
+
+    private static AssuranceEvent createSharedStateEvent(final Map<String, Object> state) {
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put(
+                AssuranceConstants.GenericEventPayloadKey.ACP_EXTENSION_EVENT_DATA,
+                Collections.singletonMap(
+                        AssuranceConstants.SDKEventDataKey.STATE_OWNER,
+                        "com.adobe.module.configuration"));
+        payload.put(
+                AssuranceConstants.PayloadDataKeys.METADATA,
+                Collections.singletonMap(AssuranceConstants.PayloadDataKeys.STATE_DATA, state));
+        return new AssuranceEvent(AssuranceConstants.AssuranceEventType.GENERIC, payload);
+    }
+
     private String readFromResource(final String resourceName) throws IOException {
         final InputStream payloadValueStream =
                 this.getClass().getClassLoader().getResourceAsStream(resourceName);
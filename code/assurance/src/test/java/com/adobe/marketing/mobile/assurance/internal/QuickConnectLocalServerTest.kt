@@ -0,0 +1,270 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+
+package com.adobe.marketing.mobile.assurance.internal
+
+import com.adobe.marketing.mobile.services.DeviceInforming
+import com.adobe.marketing.mobile.services.HttpConnecting
+import com.adobe.marketing.mobile.services.NetworkCallback
+import com.adobe.marketing.mobile.services.NetworkRequest
+import com.adobe.marketing.mobile.services.Networking
+import com.adobe.marketing.mobile.services.ServiceProvider
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import org.json.JSONObject
+import org.junit.After
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.mockito.ArgumentMatchers.any
+import org.mockito.ArgumentMatchers.anyLong
+import org.mockito.MockedStatic
+import org.mockito.Mockito
+import org.mockito.Mockito.`when`
+import org.mockito.kotlin.doAnswer
+import org.mockito.kotlin.mock
+import java.io.InputStream
+import java.net.HttpURLConnection
+import java.net.InetSocketAddress
+import java.net.URL
+import java.util.PriorityQueue
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Runs the QuickConnect status polling against a local HTTP stand-in for the device API.
+ *
+ * The tasks of the [QuickConnectManager] are run on the test thread, to which the static mock of
+ * the [ServiceProvider] is bound, and the requests of the networking service are made to the
+ * stand-in with [HttpURLConnection].
+ */
+class QuickConnectLocalServerTest {
+
+    companion object {
+        private const val TEST_ORG_ID = "SampleOrgId@AdobeOrg"
+        private const val TEST_CLIENT_ID = "SampleClientId"
+        private const val TEST_SESSION_ID = "SampleSessionId"
+        private const val TEST_TOKEN = "SampleToken"
+        private const val TIMEOUT_MS = 10_000L
+    }
+
+    private lateinit var server: HttpServer
+    private lateinit var mockedStaticServiceProvider: MockedStatic<ServiceProvider>
+    private val serverExecutor = Executors.newCachedThreadPool()
+    private val statusRequests = CopyOnWriteArrayList<JSONObject>()
+    private val statusRequestCount = AtomicInteger()
+    private val sessionReady = CountDownLatch(1)
+    private val scheduledTasks = PriorityQueue<ScheduledTask>(compareBy { it.dueTimeMs })
+
+    // whether the stand-in holds status requests that carry a wait, until the session is ready
+    @Volatile
+    private var supportsLongPoll = true
+
+    // the number of status requests after which the stand-in marks the session ready
+    @Volatile
+    private var readyAfterRequests = Int.MAX_VALUE
+
+    private var result: String? = null
+
+    private class ScheduledTask(val task: Runnable, val dueTimeMs: Long)
+
+    @Before
+    fun setUp() {
+        server = HttpServer.create(InetSocketAddress("127.0.0.1", 0), 0)
+        server.createContext("/device/create") { exchange -> respond(exchange, 201, "{}") }
+        server.createContext("/device/status") { exchange -> handleStatusRequest(exchange) }
+        server.executor = serverExecutor
+        server.start()
+
+        val mockNetworkService = mock<Networking> {
+            on { connectAsync(any(), any()) } doAnswer { invocation ->
+                val request = invocation.getArgument<NetworkRequest>(0)
+                val callback = invocation.getArgument<NetworkCallback>(1)
+                callback.call(connectToStandIn(request))
+            }
+        }
+        val mockDeviceInfoService = mock<DeviceInforming> {
+            on { deviceName } doAnswer { "SampleDeviceName" }
+        }
+        val mockServiceProvider = mock<ServiceProvider>()
+        `when`(mockServiceProvider.networkService).thenReturn(mockNetworkService)
+        `when`(mockServiceProvider.deviceInfoService).thenReturn(mockDeviceInfoService)
+        mockedStaticServiceProvider = Mockito.mockStatic(ServiceProvider::class.java)
+        mockedStaticServiceProvider.`when`<Any> { ServiceProvider.getInstance() }.thenReturn(mockServiceProvider)
+    }
+
+    @After
+    fun tearDown() {
+        mockedStaticServiceProvider.close()
+        server.stop(0)
+        serverExecutor.shutdownNow()
+    }
+
+    @Test
+    fun `Polling connects once the session is ready`() {
+        supportsLongPoll = false
+        readyAfterRequests = 4
+        val manager = createManager(longPollWaitMs = 0)
+
+        manager.registerDevice()
+        runTasks()
+
+        assertEquals("$TEST_SESSION_ID:$TEST_TOKEN", result)
+        assertEquals(4, statusRequestCount.get())
+        assertTrue(statusRequests.none { it.has(AssuranceConstants.QuickConnect.KEY_WAIT_MS) })
+    }
+
+    @Test
+    fun `Long polling connects as soon as the session is ready`() {
+        val manager = createManager(longPollWaitMs = 5_000)
+        serverExecutor.execute {
+            Thread.sleep(300)
+            sessionReady.countDown()
+        }
+
+        val startTimeMs = System.currentTimeMillis()
+        manager.registerDevice()
+        runTasks()
+
+        assertEquals("$TEST_SESSION_ID:$TEST_TOKEN", result)
+        // the held request completes when the session is ready, rather than after its wait
+        assertTrue(System.currentTimeMillis() - startTimeMs < 5_000)
+        assertEquals(1, statusRequestCount.get())
+        assertEquals(5_000L, statusRequests[0].getLong(AssuranceConstants.QuickConnect.KEY_WAIT_MS))
+    }
+
+    @Test
+    fun `Long polling falls back to polling when the server does not hold requests`() {
+        supportsLongPoll = false
+        readyAfterRequests = 3
+        val manager = createManager(longPollWaitMs = 5_000)
+
+        manager.registerDevice()
+        runTasks()
+
+        assertEquals("$TEST_SESSION_ID:$TEST_TOKEN", result)
+        assertEquals(0L, manager.longPollWaitMs)
+        assertEquals(3, statusRequestCount.get())
+        // only the first request asks the server to hold it
+        assertTrue(statusRequests[0].has(AssuranceConstants.QuickConnect.KEY_WAIT_MS))
+        assertTrue(statusRequests.drop(1).none { it.has(AssuranceConstants.QuickConnect.KEY_WAIT_MS) })
+    }
+
+    private fun createManager(longPollWaitMs: Long): QuickConnectManager {
+        val mockStateManager = mock<AssuranceStateManager> {
+            on { getOrgId(false) } doAnswer { TEST_ORG_ID }
+            on { getClientId() } doAnswer { TEST_CLIENT_ID }
+        }
+
+        return QuickConnectManager(
+            mockStateManager,
+            createTestThreadExecutor(),
+            object : QuickConnectCallback {
+                override fun onError(error: AssuranceConstants.AssuranceConnectionError) {
+                    result = error.name
+                }
+
+                override fun onSuccess(sessionUUID: String, token: String) {
+                    result = "$sessionUUID:$token"
+                }
+            },
+            pollingSchedule = QuickConnectPollingSchedule(initialDelayMs = 10, maxDelayMs = 40, timeoutMs = TIMEOUT_MS),
+            longPollWaitMs = longPollWaitMs
+        )
+    }
+
+    private fun handleStatusRequest(exchange: HttpExchange) {
+        val request = JSONObject(exchange.requestBody.bufferedReader().readText())
+        statusRequests.add(request)
+
+        if (statusRequestCount.incrementAndGet() >= readyAfterRequests) {
+            sessionReady.countDown()
+        }
+
+        val waitMs = request.optLong(AssuranceConstants.QuickConnect.KEY_WAIT_MS)
+        if (supportsLongPoll && waitMs > 0) {
+            sessionReady.await(waitMs, TimeUnit.MILLISECONDS)
+        }
+
+        if (sessionReady.count == 0L) {
+            respond(exchange, 200, "{\"sessionUuid\":\"$TEST_SESSION_ID\",\"token\":\"$TEST_TOKEN\"}")
+        } else {
+            respond(exchange, 200, "{}")
+        }
+    }
+
+    private fun respond(exchange: HttpExchange, code: Int, body: String) {
+        val bytes = body.toByteArray()
+        exchange.sendResponseHeaders(code, bytes.size.toLong())
+        exchange.responseBody.use { it.write(bytes) }
+    }
+
+    /** Makes the request to the stand-in, keeping the path of the device API url. */
+    private fun connectToStandIn(request: NetworkRequest): HttpConnecting {
+        val url = URL("http://127.0.0.1:${server.address.port}${URL(request.url).path}")
+        val connection = url.openConnection() as HttpURLConnection
+        connection.requestMethod = request.method.name
+        connection.connectTimeout = request.connectTimeout
+        connection.readTimeout = request.readTimeout
+        request.headers.forEach { (key, value) -> connection.setRequestProperty(key, value) }
+        connection.doOutput = true
+        connection.outputStream.use { it.write(request.body) }
+        val responseCode = connection.responseCode
+
+        return object : HttpConnecting {
+            override fun getInputStream(): InputStream = connection.inputStream
+            override fun getErrorStream(): InputStream? = connection.errorStream
+            override fun getResponseCode(): Int = responseCode
+            override fun getResponseMessage(): String = connection.responseMessage
+            override fun getResponsePropertyValue(responsePropertyKey: String?): String? =
+                connection.getHeaderField(responsePropertyKey)
+            override fun close() = connection.disconnect()
+        }
+    }
+
+    /** An executor whose tasks are run by [runTasks], on the test thread. */
+    private fun createTestThreadExecutor(): ScheduledExecutorService {
+        return mock {
+            on { submit(any(Runnable::class.java)) } doAnswer { invocation ->
+                scheduledTasks.add(ScheduledTask(invocation.getArgument(0), System.currentTimeMillis()))
+                mock<ScheduledFuture<*>>()
+            }
+            on { schedule(any(Runnable::class.java), anyLong(), any(TimeUnit::class.java)) } doAnswer { invocation ->
+                val delayMs = invocation.getArgument<TimeUnit>(2).toMillis(invocation.getArgument(1))
+                scheduledTasks.add(ScheduledTask(invocation.getArgument(0), System.currentTimeMillis() + delayMs))
+                mock<ScheduledFuture<*>>()
+            }
+        }
+    }
+
+    /** Runs the scheduled tasks in order, until the QuickConnect workflow completes. */
+    private fun runTasks() {
+        val deadline = System.currentTimeMillis() + TIMEOUT_MS
+
+        while (result == null && System.currentTimeMillis() < deadline) {
+            val next = scheduledTasks.poll() ?: break
+            val waitMs = next.dueTimeMs - System.currentTimeMillis()
+
+            if (waitMs > 0) {
+                Thread.sleep(waitMs)
+            }
+
+            next.task.run()
+        }
+    }
+}
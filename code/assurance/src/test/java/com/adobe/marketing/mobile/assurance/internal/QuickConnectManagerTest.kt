@@ -20,6 +20,7 @@ import com.adobe.marketing.mobile.services.Networking
 import com.adobe.marketing.mobile.services.ServiceProvider
 import org.json.JSONObject
 import org.junit.After
+import org.junit.Assert.assertEquals
 import org.junit.Assert.assertFalse
 import org.junit.Assert.assertNotNull
 import org.junit.Assert.assertNull
@@ -52,8 +53,12 @@ class QuickConnectManagerTest {
         private const val TEST_ORG_ID = "SampleOrgId@AdobeOrg"
         private const val TEST_CLIENT_ID = "SampleClientId"
         private const val TEST_DEVICE_NAME = "SampleDeviceName"
+        private val RETRY_DELAY_MS = (QuickConnect.STATUS_CHECK_INITIAL_DELAY_MS * QuickConnect.STATUS_CHECK_BACKOFF_MULTIPLIER).toLong()
+        private const val TEST_LONG_POLL_WAIT_MS = 20_000L
     }
 
+    private var currentTimeMs = 0L
+
     @Mock
     private lateinit var mockAssuranceStateManager: AssuranceStateManager
 
@@ -148,7 +153,7 @@ class QuickConnectManagerTest {
         val quickConnectDeviceStatusCheckerCaptor: KArgumentCaptor<QuickConnectDeviceStatusChecker> = argumentCaptor()
         capturedDeviceCreationTask.getCallback().call(Response.Success(response))
 
-        verify(mockExecutorService).schedule(quickConnectDeviceStatusCheckerCaptor.capture(), eq(QuickConnect.STATUS_CHECK_DELAY_MS), eq(TimeUnit.MILLISECONDS))
+        verify(mockExecutorService).schedule(quickConnectDeviceStatusCheckerCaptor.capture(), eq(QuickConnect.STATUS_CHECK_INITIAL_DELAY_MS), eq(TimeUnit.MILLISECONDS))
 
         val capturedDeviceStatusCheckerTask = quickConnectDeviceStatusCheckerCaptor.firstValue
         assertNotNull(capturedDeviceStatusCheckerTask)
@@ -214,7 +219,7 @@ class QuickConnectManagerTest {
         capturedDeviceStatusCheckerTask.getCallback().call(Response.Success(simulatedResponse))
 
         val retryQuickConnectDeviceStatusCheckerCaptor: KArgumentCaptor<QuickConnectDeviceStatusChecker> = argumentCaptor()
-        verify(mockExecutorService).schedule(retryQuickConnectDeviceStatusCheckerCaptor.capture(), eq(QuickConnect.STATUS_CHECK_DELAY_MS), eq(TimeUnit.MILLISECONDS))
+        verify(mockExecutorService).schedule(retryQuickConnectDeviceStatusCheckerCaptor.capture(), eq(RETRY_DELAY_MS), eq(TimeUnit.MILLISECONDS))
         val capturedRetryDeviceStatusCheckerTask = retryQuickConnectDeviceStatusCheckerCaptor.firstValue
         assertNotNull(capturedRetryDeviceStatusCheckerTask)
     }
@@ -285,7 +290,7 @@ class QuickConnectManagerTest {
         val quickConnectDeviceStatusCheckerCaptor: KArgumentCaptor<QuickConnectDeviceStatusChecker> = argumentCaptor()
         capturedDeviceCreationTask.getCallback().call(Response.Success(response))
 
-        verify(mockExecutorService).schedule(quickConnectDeviceStatusCheckerCaptor.capture(), eq(QuickConnect.STATUS_CHECK_DELAY_MS), eq(TimeUnit.MILLISECONDS))
+        verify(mockExecutorService).schedule(quickConnectDeviceStatusCheckerCaptor.capture(), eq(QuickConnect.STATUS_CHECK_INITIAL_DELAY_MS), eq(TimeUnit.MILLISECONDS))
 
         val capturedDeviceStatusCheckerTask = quickConnectDeviceStatusCheckerCaptor.firstValue
         assertNotNull(capturedDeviceStatusCheckerTask)
@@ -300,6 +305,136 @@ class QuickConnectManagerTest {
         assertFalse(quickConnectManager.isActive)
     }
 
+    @Test
+    fun `Invoking register resolves the socket host of the environment`() {
+        `when`(mockAssuranceStateManager.getClientId()).thenReturn(TEST_CLIENT_ID)
+        `when`(mockAssuranceStateManager.getOrgId(false)).thenReturn(TEST_CLIENT_ID)
+        `when`(mockDeviceInfoService.deviceName).thenReturn(TEST_DEVICE_NAME)
+        quickConnectManager = QuickConnectManager(
+            mockAssuranceStateManager,
+            mockExecutorService,
+            mockQuickConnectCallback,
+            AssuranceConstants.AssuranceEnvironment.STAGE
+        )
+
+        quickConnectManager.registerDevice()
+
+        val warmerCaptor: KArgumentCaptor<Runnable> = argumentCaptor()
+        verify(mockExecutorService).execute(warmerCaptor.capture())
+        assertEquals("connect-stage.griffon.adobe.com", (warmerCaptor.firstValue as QuickConnectConnectionWarmer).host)
+    }
+
+    @Test
+    fun `Check status backs off between retries`() {
+        quickConnectManager = createManagerWithClock(0)
+        simulateRegistration()
+
+        quickConnectManager.checkDeviceStatus(TEST_ORG_ID, TEST_CLIENT_ID)
+
+        val delays = mutableListOf<Long>()
+        repeat(8) {
+            val delayCaptor: KArgumentCaptor<Long> = argumentCaptor()
+            val checkerCaptor: KArgumentCaptor<QuickConnectDeviceStatusChecker> = argumentCaptor()
+            verify(mockExecutorService).schedule(checkerCaptor.capture(), delayCaptor.capture(), eq(TimeUnit.MILLISECONDS))
+            delays.add(delayCaptor.firstValue)
+            reset(mockExecutorService)
+
+            currentTimeMs += delayCaptor.firstValue
+            checkerCaptor.firstValue.getCallback().call(Response.Success(noSessionDetailsResponse()))
+        }
+
+        assertEquals(listOf(500L, 750L, 1125L, 1687L, 2530L, 3795L, 5000L, 5000L), delays)
+    }
+
+    @Test
+    fun `Check status calls QuickConnectCallback-onError when the status check times out`() {
+        quickConnectManager = createManagerWithClock(0)
+        simulateRegistration()
+
+        quickConnectManager.checkDeviceStatus(TEST_ORG_ID, TEST_CLIENT_ID)
+
+        val checkerCaptor: KArgumentCaptor<QuickConnectDeviceStatusChecker> = argumentCaptor()
+        verify(mockExecutorService).schedule(checkerCaptor.capture(), anyLong(), any(TimeUnit::class.java))
+        reset(mockExecutorService)
+
+        currentTimeMs = QuickConnect.STATUS_CHECK_TIMEOUT_MS
+        checkerCaptor.firstValue.getCallback().call(Response.Success(noSessionDetailsResponse()))
+
+        verify(mockExecutorService, never()).schedule(any(QuickConnectDeviceStatusChecker::class.java), anyLong(), any(TimeUnit::class.java))
+        verify(mockQuickConnectCallback).onError(AssuranceConnectionError.RETRY_LIMIT_REACHED)
+        assertFalse(quickConnectManager.isActive)
+    }
+
+    @Test
+    fun `Check status in long-poll mode checks again right away when the request was held`() {
+        quickConnectManager = createManagerWithClock(TEST_LONG_POLL_WAIT_MS)
+        simulateRegistration()
+
+        quickConnectManager.checkDeviceStatus(TEST_ORG_ID, TEST_CLIENT_ID)
+
+        val checkerCaptor: KArgumentCaptor<QuickConnectDeviceStatusChecker> = argumentCaptor()
+        verify(mockExecutorService).schedule(checkerCaptor.capture(), eq(0L), eq(TimeUnit.MILLISECONDS))
+        reset(mockExecutorService)
+
+        // the server held the request until its wait elapsed
+        currentTimeMs += TEST_LONG_POLL_WAIT_MS
+        checkerCaptor.firstValue.getCallback().call(Response.Success(noSessionDetailsResponse()))
+
+        verify(mockExecutorService).schedule(any(QuickConnectDeviceStatusChecker::class.java), eq(0L), eq(TimeUnit.MILLISECONDS))
+        assertEquals(TEST_LONG_POLL_WAIT_MS, quickConnectManager.longPollWaitMs)
+    }
+
+    @Test
+    fun `Check status in long-poll mode falls back to polling when the request was not held`() {
+        quickConnectManager = createManagerWithClock(TEST_LONG_POLL_WAIT_MS)
+        simulateRegistration()
+
+        quickConnectManager.checkDeviceStatus(TEST_ORG_ID, TEST_CLIENT_ID)
+
+        val checkerCaptor: KArgumentCaptor<QuickConnectDeviceStatusChecker> = argumentCaptor()
+        verify(mockExecutorService).schedule(checkerCaptor.capture(), eq(0L), eq(TimeUnit.MILLISECONDS))
+        reset(mockExecutorService)
+
+        // the server answered right away
+        currentTimeMs += 100
+        checkerCaptor.firstValue.getCallback().call(Response.Success(noSessionDetailsResponse()))
+
+        verify(mockExecutorService).schedule(any(QuickConnectDeviceStatusChecker::class.java), eq(RETRY_DELAY_MS), eq(TimeUnit.MILLISECONDS))
+        assertEquals(0L, quickConnectManager.longPollWaitMs)
+    }
+
+    @Test
+    fun `Long-poll wait is limited to the maximum wait`() {
+        assertEquals(QuickConnect.LONG_POLL_MAX_WAIT_MS, createManagerWithClock(Long.MAX_VALUE).longPollWaitMs)
+        assertEquals(0L, createManagerWithClock(-1).longPollWaitMs)
+    }
+
+    private fun createManagerWithClock(longPollWaitMs: Long): QuickConnectManager {
+        return QuickConnectManager(
+            mockAssuranceStateManager,
+            mockExecutorService,
+            mockQuickConnectCallback,
+            pollingSchedule = QuickConnectPollingSchedule(clock = { currentTimeMs }),
+            longPollWaitMs = longPollWaitMs
+        )
+    }
+
+    private fun simulateRegistration() {
+        `when`(mockAssuranceStateManager.getClientId()).thenReturn(TEST_CLIENT_ID)
+        `when`(mockAssuranceStateManager.getOrgId(false)).thenReturn(TEST_CLIENT_ID)
+        `when`(mockDeviceInfoService.deviceName).thenReturn(TEST_DEVICE_NAME)
+        quickConnectManager.registerDevice()
+        reset(mockExecutorService)
+    }
+
+    private fun noSessionDetailsResponse(): HttpConnecting {
+        return simulateNetworkResponse(
+            HttpsURLConnection.HTTP_OK,
+            JSONObject(emptyMap<String, String>()).toString().byteInputStream(),
+            mapOf()
+        )
+    }
+
     @After
     fun teardown() {
         mockedStaticServiceProvider.close()
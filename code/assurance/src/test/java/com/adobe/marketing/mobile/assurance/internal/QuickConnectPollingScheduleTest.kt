@@ -0,0 +1,61 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+
+package com.adobe.marketing.mobile.assurance.internal
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNull
+import org.junit.Test
+
+class QuickConnectPollingScheduleTest {
+
+    private var currentTimeMs = 0L
+    private val schedule = QuickConnectPollingSchedule(
+        initialDelayMs = 100,
+        maxDelayMs = 400,
+        timeoutMs = 1000,
+        clock = { currentTimeMs }
+    )
+
+    @Test
+    fun `Delays back off up to the maximum delay`() {
+        val delays = mutableListOf(schedule.start())
+
+        repeat(5) {
+            delays.add(schedule.nextDelayMs()!!)
+        }
+
+        assertEquals(listOf(100L, 150L, 225L, 337L, 400L, 400L), delays)
+    }
+
+    @Test
+    fun `Next delay is null once the timeout elapsed`() {
+        schedule.start()
+
+        currentTimeMs = 999
+        assertEquals(150L, schedule.nextDelayMs())
+
+        currentTimeMs = 1000
+        assertNull(schedule.nextDelayMs())
+    }
+
+    @Test
+    fun `Start restarts the delays and the timeout`() {
+        schedule.start()
+        schedule.nextDelayMs()
+        schedule.nextDelayMs()
+        currentTimeMs = 5000
+
+        assertEquals(100L, schedule.start())
+        assertEquals(150L, schedule.nextDelayMs())
+    }
+}
@@ -0,0 +1,92 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.graphics.Rect;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class ScreenFrameDifferTest {
+    private ScreenFrameDiffer differ;
+
+    @Before
+    public void setup() {
+        differ = new ScreenFrameDiffer(16);
+    }
+
+    @Test
+    public void test_findChangedRegion_firstFrameIsComplete() {
+        assertEquals(new Rect(0, 0, 100, 60), differ.findChangedRegion(frame(100, 60)));
+    }
+
+    @Test
+    public void test_findChangedRegion_unchangedFrame() {
+        differ.findChangedRegion(frame(100, 60));
+
+        assertNull(differ.findChangedRegion(frame(100, 60)));
+    }
+
+    @Test
+    public void test_findChangedRegion_returnsBoundsOfChangedTiles() {
+        differ.findChangedRegion(frame(100, 60));
+
+        final Bitmap changed = frame(100, 60);
+        changed.setPixel(20, 5, Color.RED);
+        changed.setPixel(40, 35, Color.RED);
+
+        // tiles (1, 0) and (2, 2)
+        assertEquals(new Rect(16, 0, 48, 48), differ.findChangedRegion(changed));
+        // the changed frame is the previous frame now
+        assertNull(differ.findChangedRegion(changed));
+    }
+
+    @Test
+    public void test_findChangedRegion_clipsPartialTilesToTheFrame() {
+        differ.findChangedRegion(frame(100, 60));
+
+        final Bitmap changed = frame(100, 60);
+        changed.setPixel(99, 59, Color.RED);
+
+        assertEquals(new Rect(96, 48, 100, 60), differ.findChangedRegion(changed));
+    }
+
+    @Test
+    public void test_findChangedRegion_resizedFrameIsComplete() {
+        differ.findChangedRegion(frame(100, 60));
+
+        assertEquals(new Rect(0, 0, 50, 30), differ.findChangedRegion(frame(50, 30)));
+    }
+
+    @Test
+    public void test_reset_nextFrameIsComplete() {
+        differ.findChangedRegion(frame(100, 60));
+        differ.reset();
+
+        assertEquals(new Rect(0, 0, 100, 60), differ.findChangedRegion(frame(100, 60)));
+    }
+
+    private static Bitmap frame(final int width, final int height) {
+        final Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.WHITE);
+        return bitmap;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.os.PowerManager;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScreenStreamRateControllerTest {
+    private static final float DELTA = 0.001f;
+    private static final long BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(8);
+
+    private ScreenStreamRateController controller;
+
+    @Before
+    public void setup() {
+        controller = new ScreenStreamRateController(4f, 0.5f, BUDGET_NANOS);
+    }
+
+    @Test
+    public void test_startsAtTheRequestedRate() {
+        assertEquals(4f, controller.getFps(), DELTA);
+        assertEquals(250, controller.getFrameIntervalMillis());
+        assertEquals(0.5f, controller.getScale(), DELTA);
+    }
+
+    @Test
+    public void test_onFrameSkipped_reducesRate() {
+        controller.onFrameSkipped();
+
+        assertEquals(3f, controller.getFps(), DELTA);
+    }
+
+    @Test
+    public void test_onUploadFailed_halvesRateDownToTheMinimum() {
+        for (int i = 0; i < 10; i++) {
+            controller.onUploadFailed();
+        }
+
+        assertEquals(ScreenStreamRateController.MIN_FPS, controller.getFps(), DELTA);
+    }
+
+    @Test
+    public void test_onFrameUploaded_recoversUpToTheRequestedRate() {
+        controller.onUploadFailed();
+
+        for (int i = 0; i < 20; i++) {
+            controller.onFrameUploaded(50);
+        }
+
+        assertEquals(4f, controller.getFps(), DELTA);
+    }
+
+    @Test
+    public void test_onFrameUploaded_limitsRateToUploadThroughput() {
+        for (int i = 0; i < 20; i++) {
+            controller.onFrameUploaded(500);
+        }
+
+        // uploads take 500ms, so no more than 2 frames per second can be uploaded
+        assertEquals(2f, controller.getFps(), DELTA);
+    }
+
+    @Test
+    public void test_onThermalStatus_capsRate() {
+        controller.onThermalStatus(PowerManager.THERMAL_STATUS_MODERATE);
+        assertEquals(2f, controller.getFps(), DELTA);
+
+        controller.onThermalStatus(PowerManager.THERMAL_STATUS_SEVERE);
+        assertEquals(ScreenStreamRateController.MIN_FPS, controller.getFps(), DELTA);
+
+        // the rate recovers once the device cools down
+        controller.onThermalStatus(PowerManager.THERMAL_STATUS_NONE);
+
+        for (int i = 0; i < 20; i++) {
+            controller.onFrameUnchanged();
+        }
+
+        assertEquals(4f, controller.getFps(), DELTA);
+    }
+
+    @Test
+    public void test_onThermalStatus_capsRecovery() {
+        controller.onThermalStatus(PowerManager.THERMAL_STATUS_MODERATE);
+
+        for (int i = 0; i < 20; i++) {
+            controller.onFrameUploaded(10);
+        }
+
+        assertEquals(2f, controller.getFps(), DELTA);
+    }
+
+    @Test
+    public void test_onMainThreadTime_withinBudget() {
+        controller.onMainThreadTime(BUDGET_NANOS);
+
+        assertEquals(4f, controller.getFps(), DELTA);
+        assertEquals(0.5f, controller.getScale(), DELTA);
+    }
+
+    @Test
+    public void test_onMainThreadTime_overBudgetReducesScaleAndRate() {
+        controller.onMainThreadTime(BUDGET_NANOS + 1);
+
+        assertEquals(3f, controller.getFps(), DELTA);
+        assertEquals(0.375f, controller.getScale(), DELTA);
+
+        for (int i = 0; i < 10; i++) {
+            controller.onMainThreadTime(BUDGET_NANOS * 2);
+        }
+
+        assertEquals(ScreenStreamRateController.MIN_SCALE, controller.getScale(), DELTA);
+        assertTrue(controller.getFps() >= ScreenStreamRateController.MIN_FPS);
+    }
+}
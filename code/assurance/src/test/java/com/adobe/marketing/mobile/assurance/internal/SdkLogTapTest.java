@@ -0,0 +1,161 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.adobe.marketing.mobile.services.Logging;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class SdkLogTapTest {
+    private MockedStatic<ServiceProvider> mockedStaticServiceProvider;
+    private final AtomicReference<Logging> loggingService = new AtomicReference<>();
+    private Logging mockLogging;
+    private SdkLogTap sdkLogTap;
+
+    @Before
+    public void setup() {
+        mockedStaticServiceProvider = Mockito.mockStatic(ServiceProvider.class);
+        final ServiceProvider mockServiceProvider = mock(ServiceProvider.class);
+        mockedStaticServiceProvider
+                .when(ServiceProvider::getInstance)
+                .thenReturn(mockServiceProvider);
+        when(mockServiceProvider.getLoggingService())
+                .thenAnswer(invocation -> loggingService.get());
+        doAnswer(
+                        invocation -> {
+                            loggingService.set(invocation.getArgument(0));
+                            return null;
+                        })
+                .when(mockServiceProvider)
+                .setLoggingService(any());
+
+        mockLogging = mock(Logging.class);
+        loggingService.set(mockLogging);
+        sdkLogTap = new SdkLogTap(4);
+    }
+
+    @After
+    public void teardown() {
+        mockedStaticServiceProvider.close();
+    }
+
+    @Test
+    public void test_install_replacesLoggingService() {
+        sdkLogTap.install();
+
+        assertTrue(sdkLogTap.isInstalled());
+        assertSame(sdkLogTap, loggingService.get());
+    }
+
+    @Test
+    public void test_install_twice_keepsOriginalDelegate() {
+        sdkLogTap.install();
+        sdkLogTap.install();
+        sdkLogTap.uninstall();
+
+        assertFalse(sdkLogTap.isInstalled());
+        assertSame(mockLogging, loggingService.get());
+    }
+
+    @Test
+    public void test_uninstall_whenReplacedSince_keepsNewService() {
+        final Logging otherLogging = mock(Logging.class);
+        sdkLogTap.install();
+        loggingService.set(otherLogging);
+
+        sdkLogTap.uninstall();
+
+        assertFalse(sdkLogTap.isInstalled());
+        assertSame(otherLogging, loggingService.get());
+    }
+
+    @Test
+    public void test_logCalls_areDelegatedAndCaptured() {
+        sdkLogTap.install();
+
+        sdkLogTap.trace("Tag/V", "trace message");
+        sdkLogTap.debug("Tag/D", "debug message");
+        sdkLogTap.warning("Tag/W", "warning message");
+        sdkLogTap.error("Tag/E", "error message");
+
+        verify(mockLogging).trace("Tag/V", "trace message");
+        verify(mockLogging).debug("Tag/D", "debug message");
+        verify(mockLogging).warning("Tag/W", "warning message");
+        verify(mockLogging).error("Tag/E", "error message");
+
+        final List<LogEntry> entries = new ArrayList<>();
+        assertEquals(4, sdkLogTap.drainTo(entries, 10));
+        assertEntry(entries.get(0), 'V', "Tag/V", "trace message");
+        assertEntry(entries.get(1), 'D', "Tag/D", "debug message");
+        assertEntry(entries.get(2), 'W', "Tag/W", "warning message");
+        assertEntry(entries.get(3), 'E', "Tag/E", "error message");
+        assertEquals(android.os.Process.myPid(), entries.get(0).pid);
+        assertTrue(entries.get(0).time.matches("\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d\\.\\d\\d\\d"));
+    }
+
+    @Test
+    public void test_logCalls_whenFull_areDelegatedAndDropped() {
+        sdkLogTap.install();
+
+        for (int i = 0; i < 6; i++) {
+            sdkLogTap.debug("Tag", "message " + i);
+        }
+
+        verify(mockLogging, times(6)).debug(any(), any());
+        assertEquals(2, sdkLogTap.getDroppedCount());
+
+        final List<LogEntry> entries = new ArrayList<>();
+        assertEquals(4, sdkLogTap.drainTo(entries, 10));
+        assertEquals("message 3", entries.get(3).message);
+    }
+
+    @Test
+    public void test_logCalls_withNullValues_areCapturedAsEmpty() {
+        sdkLogTap.install();
+        sdkLogTap.debug(null, null);
+
+        final List<LogEntry> entries = new ArrayList<>();
+        sdkLogTap.drainTo(entries, 10);
+        assertEntry(entries.get(0), 'D', "", "");
+    }
+
+    private static void assertEntry(
+            final LogEntry entry, final char level, final String tag, final String message) {
+        assertEquals(level, entry.level);
+        assertEquals(tag, entry.tag);
+        assertEquals(message, entry.message);
+    }
+}
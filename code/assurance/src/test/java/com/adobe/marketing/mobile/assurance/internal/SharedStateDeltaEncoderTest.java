@@ -0,0 +1,233 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class SharedStateDeltaEncoderTest {
+    private static final String OWNER = "com.adobe.module.configuration";
+
+    @Test
+    public void test_encode_nonStateEvent_returnedAsIs() {
+        final SharedStateDeltaEncoder encoder = new SharedStateDeltaEncoder();
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put("key", "value");
+        final AssuranceEvent event = new AssuranceEvent("generic", payload);
+
+        assertSame(event, encodeAndSend(encoder, event));
+    }
+
+    @Test
+    public void test_encode_firstStateIsKeyframe() {
+        final SharedStateDeltaEncoder encoder = new SharedStateDeltaEncoder();
+        final Map<String, Object> state = createState("1.0.0");
+        final AssuranceEvent event = createStateEvent(OWNER, "state.data", state);
+
+        final AssuranceEvent encoded = encodeAndSend(encoder, event);
+        final Map<String, Object> metadata = getStateMetadata(encoded);
+
+        assertEquals(event.eventID, encoded.eventID);
+        assertEquals(event.eventNumber, encoded.eventNumber);
+        assertEquals(event.timestamp, encoded.timestamp);
+        assertEquals(state, metadata.get("state.data"));
+        assertEquals(1, metadata.get("state.version"));
+    }
+
+    @Test
+    public void test_encode_changedStateIsPatch_thatReconstructsState() {
+        final SharedStateDeltaEncoder encoder = new SharedStateDeltaEncoder();
+        final Map<String, Object> first = createState("1.0.0");
+        final Map<String, Object> second = createState("1.0.1");
+        second.remove("removed");
+        second.put("added/key", Arrays.asList(1, 2));
+        ((Map<String, Object>) second.get("nested")).put("inner", false);
+
+        encodeAndSend(encoder, createStateEvent(OWNER, "xdm.state.data", first));
+        final Map<String, Object> metadata =
+                getStateMetadata(
+                        encodeAndSend(
+                                encoder, createStateEvent(OWNER, "xdm.state.data", second)));
+
+        assertFalse(metadata.containsKey("xdm.state.data"));
+        assertEquals(1, metadata.get("state.baseVersion"));
+        assertEquals(2, metadata.get("state.version"));
+
+        final List<Map<String, Object>> patch =
+                (List<Map<String, Object>>) metadata.get("xdm.state.data.patch");
+        assertEquals(4, patch.size());
+        assertEquals(second, SharedStateDeltaEncoder.applyPatch(first, patch));
+        // the base state is left untouched
+        assertEquals(createState("1.0.0"), first);
+    }
+
+    @Test
+    public void test_encode_statesTrackedPerOwnerAndType() {
+        final SharedStateDeltaEncoder encoder = new SharedStateDeltaEncoder();
+
+        encodeAndSend(encoder, createStateEvent(OWNER, "state.data", createState("1")));
+
+        assertTrue(
+                getStateMetadata(
+                                encodeAndSend(
+                                        encoder,
+                                        createStateEvent(
+                                                OWNER, "xdm.state.data", createState("1"))))
+                        .containsKey("xdm.state.data"));
+        assertTrue(
+                getStateMetadata(
+                                encodeAndSend(
+                                        encoder,
+                                        createStateEvent("other", "state.data", createState("1"))))
+                        .containsKey("state.data"));
+        assertTrue(
+                getStateMetadata(
+                                encodeAndSend(
+                                        encoder,
+                                        createStateEvent(OWNER, "state.data", createState("2"))))
+                        .containsKey("state.data.patch"));
+    }
+
+    @Test
+    public void test_encode_keyframeInterval() {
+        final SharedStateDeltaEncoder encoder = new SharedStateDeltaEncoder(3);
+
+        for (int i = 0; i < 7; i++) {
+            final Map<String, Object> metadata =
+                    getStateMetadata(
+                            encodeAndSend(
+                                    encoder,
+                                    createStateEvent(OWNER, "state.data", createState("v" + i))));
+
+            assertEquals(i % 3 == 0, metadata.containsKey("state.data"));
+            assertEquals(i + 1, metadata.get("state.version"));
+        }
+    }
+
+    @Test
+    public void test_encode_patchLargerThanState_sendsKeyframe() {
+        final SharedStateDeltaEncoder encoder = new SharedStateDeltaEncoder();
+
+        encodeAndSend(
+                encoder,
+                createStateEvent(OWNER, "state.data", Collections.singletonMap("a", (Object) 1)));
+        final Map<String, Object> metadata =
+                getStateMetadata(
+                        encodeAndSend(
+                                encoder,
+                                createStateEvent(
+                                        OWNER,
+                                        "state.data",
+                                        Collections.singletonMap("b", (Object) 2))));
+
+        assertTrue(metadata.containsKey("state.data"));
+        assertEquals(2, metadata.get("state.version"));
+    }
+
+    @Test
+    public void test_onSendCompleted_notSent_nextStateIsKeyframe() {
+        final SharedStateDeltaEncoder encoder = new SharedStateDeltaEncoder();
+
+        encodeAndSend(encoder, createStateEvent(OWNER, "state.data", createState("1")));
+        final AssuranceEvent dropped =
+                encoder.encode(createStateEvent(OWNER, "state.data", createState("2")));
+        assertTrue(getStateMetadata(dropped).containsKey("state.data.patch"));
+        encoder.onSendCompleted(dropped, false);
+
+        final Map<String, Object> metadata =
+                getStateMetadata(
+                        encodeAndSend(
+                                encoder, createStateEvent(OWNER, "state.data", createState("3"))));
+
+        assertTrue(metadata.containsKey("state.data"));
+        assertFalse(metadata.containsKey("state.baseVersion"));
+        assertEquals(3, metadata.get("state.version"));
+    }
+
+    @Test
+    public void test_encode_unconfirmedState_isNotPatchBase() {
+        final SharedStateDeltaEncoder encoder = new SharedStateDeltaEncoder();
+
+        encodeAndSend(encoder, createStateEvent(OWNER, "state.data", createState("1")));
+        encoder.encode(createStateEvent(OWNER, "state.data", createState("2")));
+        final Map<String, Object> metadata =
+                getStateMetadata(
+                        encodeAndSend(
+                                encoder, createStateEvent(OWNER, "state.data", createState("3"))));
+
+        // the patch is relative to the last state confirmed as sent
+        assertEquals(1, metadata.get("state.baseVersion"));
+    }
+
+    @Test
+    public void test_reset_nextStateIsKeyframe() {
+        final SharedStateDeltaEncoder encoder = new SharedStateDeltaEncoder();
+
+        encodeAndSend(encoder, createStateEvent(OWNER, "state.data", createState("1")));
+        encoder.reset();
+        final Map<String, Object> metadata =
+                getStateMetadata(
+                        encodeAndSend(
+                                encoder, createStateEvent(OWNER, "state.data", createState("2"))));
+
+        assertTrue(metadata.containsKey("state.data"));
+        assertEquals(1, metadata.get("state.version"));
+    }
+
+    private static AssuranceEvent encodeAndSend(
+            final SharedStateDeltaEncoder encoder, final AssuranceEvent event) {
+        final AssuranceEvent encoded = encoder.encode(event);
+        encoder.onSendCompleted(encoded, true);
+        return encoded;
+    }
+
+    private static Map<String, Object> createState(final String version) {
+        final Map<String, Object> nested = new HashMap<>();
+        nested.put("inner", true);
+        nested.put(
+                "description",
+                "a reasonably long value that is not expected to change between the states, so"
+                        + " that sending the changes alone is much smaller than the full state");
+
+        final Map<String, Object> state = new HashMap<>();
+        state.put("version", version);
+        state.put("removed", "value");
+        state.put("nested", nested);
+        return state;
+    }
+
+    private static AssuranceEvent createStateEvent(
+            final String owner, final String stateType, final Map<String, Object> state) {
+        final Map<String, Object> payload = new HashMap<>();
+        payload.put(
+                AssuranceConstants.GenericEventPayloadKey.ACP_EXTENSION_EVENT_DATA,
+                Collections.singletonMap(AssuranceConstants.SDKEventDataKey.STATE_OWNER, owner));
+        payload.put(
+                AssuranceConstants.PayloadDataKeys.METADATA,
+                Collections.singletonMap(stateType, state));
+        return new AssuranceEvent(AssuranceConstants.AssuranceEventType.GENERIC, payload);
+    }
+
+    private static Map<String, Object> getStateMetadata(final AssuranceEvent event) {
+        return (Map<String, Object>)
+                event.getPayload().get(AssuranceConstants.PayloadDataKeys.METADATA);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal
+
+import com.adobe.marketing.mobile.assurance.internal.AssuranceAppState.StatusLog
+import com.adobe.marketing.mobile.assurance.internal.AssuranceConstants.UILogColorVisibility
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertSame
+import org.junit.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+
+class StatusLogStoreTest {
+
+    private var currentTimeMs = 1000L
+    private var changeCount = 0
+    private val mockScheduler: ScheduledExecutorService = mock()
+
+    private fun createStore(capacity: Int = 1000, publishIntervalMs: Long = 100) = StatusLogStore(
+        capacity,
+        publishIntervalMs,
+        lazyOf(mockScheduler),
+        { currentTimeMs },
+        { changeCount++ }
+    )
+
+    private fun log(index: Int) = StatusLog(UILogColorVisibility.NORMAL, "Log $index")
+
+    @Test
+    fun `Snapshot contains the appended logs in order`() {
+        val store = createStore()
+
+        repeat(600) { store.append(log(it)) }
+
+        val snapshot = store.snapshot()
+        assertEquals(600, snapshot.size)
+        assertEquals((0 until 600).map { log(it) }, snapshot)
+    }
+
+    @Test
+    fun `Snapshot is not modified by later appends`() {
+        val store = createStore()
+        repeat(10) { store.append(log(it)) }
+
+        val snapshot = store.snapshot()
+        repeat(300) { store.append(log(10 + it)) }
+
+        assertEquals((0 until 10).map { log(it) }, snapshot)
+        assertEquals(310, store.snapshot().size)
+    }
+
+    @Test
+    fun `Snapshot is cached until the logs change`() {
+        val store = createStore()
+        store.append(log(0))
+
+        val snapshot = store.snapshot()
+        assertSame(snapshot, store.snapshot())
+
+        store.append(log(1))
+        assertEquals(2, store.snapshot().size)
+    }
+
+    @Test
+    fun `Oldest logs are evicted once the capacity is reached`() {
+        val store = createStore(capacity = 300)
+        val snapshotBeforeEviction = run {
+            repeat(300) { store.append(log(it)) }
+            store.snapshot()
+        }
+
+        repeat(700) { store.append(log(300 + it)) }
+
+        val snapshot = store.snapshot()
+        assertEquals(300, snapshot.size)
+        assertEquals((700 until 1000).map { log(it) }, snapshot)
+        assertEquals((0 until 300).map { log(it) }, snapshotBeforeEviction)
+    }
+
+    @Test
+    fun `Keys are stable across snapshots and evictions`() {
+        val store = createStore(capacity = 5)
+        repeat(5) { store.append(log(it)) }
+        val snapshot = store.snapshot()
+
+        repeat(2) { store.append(log(5 + it)) }
+        val laterSnapshot = store.snapshot()
+
+        assertEquals(snapshot[2], laterSnapshot[0])
+        assertEquals(snapshot.keyAt(2), laterSnapshot.keyAt(0))
+        assertEquals((2L..6L).toList(), (0 until 5).map { laterSnapshot.keyAt(it) })
+    }
+
+    @Test
+    fun `Clear removes all logs and keeps the keys unique`() {
+        val store = createStore()
+        repeat(3) { store.append(log(it)) }
+        val snapshot = store.snapshot()
+
+        store.clear()
+        assertEquals(emptyList<StatusLog>(), store.snapshot())
+        assertEquals(3, snapshot.size)
+
+        store.append(log(3))
+        assertEquals(listOf(log(3)), store.snapshot())
+        assertEquals(3L, store.snapshot().keyAt(0))
+    }
+
+    @Test(expected = IndexOutOfBoundsException::class)
+    fun `Snapshot throws on an index out of bounds`() {
+        val store = createStore()
+        store.append(log(0))
+
+        store.snapshot()[1]
+    }
+
+    @Test
+    fun `Changes within the publish interval are published once at its end`() {
+        val store = createStore()
+
+        store.append(log(0))
+        assertEquals(1, changeCount)
+
+        currentTimeMs += 30
+        repeat(50) { store.append(log(1 + it)) }
+        assertEquals(1, changeCount)
+
+        val runnableCaptor = argumentCaptor<Runnable>()
+        verify(mockScheduler, times(1)).schedule(runnableCaptor.capture(), eq(70L), eq(TimeUnit.MILLISECONDS))
+
+        currentTimeMs += 70
+        runnableCaptor.firstValue.run()
+        assertEquals(2, changeCount)
+
+        // the interval elapsed, the next change is published right away
+        currentTimeMs += 100
+        store.append(log(51))
+        assertEquals(3, changeCount)
+    }
+
+    @Test
+    fun `Changes are published right away without a publish interval`() {
+        val store = createStore(publishIntervalMs = 0)
+
+        repeat(10) { store.append(log(it)) }
+
+        assertEquals(10, changeCount)
+        verify(mockScheduler, never()).schedule(any<Runnable>(), any(), any())
+    }
+
+    @Test
+    fun `Clear is published right away`() {
+        val store = createStore()
+        store.append(log(0))
+        store.append(log(1))
+        assertEquals(1, changeCount)
+
+        store.clear()
+        assertEquals(2, changeCount)
+    }
+}
@@ -0,0 +1,179 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+
+package com.adobe.marketing.mobile.assurance.internal.ui.floatingbutton
+
+import android.app.Activity
+import android.os.Handler
+import android.os.Looper
+import android.view.View
+import android.view.ViewGroup
+import com.adobe.marketing.mobile.assurance.internal.ui.AssuranceActivity
+import com.adobe.marketing.mobile.services.AppContextService
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.Mockito.mock
+import org.mockito.Mockito.`when`
+import org.robolectric.Robolectric
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import java.lang.ref.WeakReference
+
+@RunWith(RobolectricTestRunner::class)
+@Config(sdk = [28])
+class AssuranceFloatingButtonOverlayTest {
+
+    private val mockAppContextService: AppContextService = mock(AppContextService::class.java)
+    private lateinit var activity: Activity
+    private lateinit var overlay: AssuranceFloatingButtonOverlay
+
+    @Before
+    fun setup() {
+        activity = Robolectric.buildActivity(Activity::class.java).setup().get()
+        `when`(mockAppContextService.currentActivity).thenReturn(activity)
+        overlay = AssuranceFloatingButtonOverlay(mockAppContextService, Handler(Looper.getMainLooper()))
+    }
+
+    @Test
+    fun `Show attaches a visible view to the window of the current activity`() {
+        overlay.show()
+
+        assertTrue(overlay.isActive())
+        assertEquals(1, overlay.getAttachedWindowCount())
+        assertEquals(View.VISIBLE, findView(activity)?.visibility)
+    }
+
+    @Test
+    fun `Attach is a no-op for a window the view is already attached to`() {
+        overlay.show()
+        val view = findView(activity)
+        val childCount = (activity.window.decorView as ViewGroup).childCount
+
+        overlay.attach(activity)
+        overlay.attach(activity)
+
+        assertSame(view, findView(activity))
+        assertEquals(childCount, (activity.window.decorView as ViewGroup).childCount)
+        assertEquals(1, overlay.getAttachedWindowCount())
+    }
+
+    @Test
+    fun `Attach adds one view per window`() {
+        overlay.show()
+        val otherActivity = Robolectric.buildActivity(Activity::class.java).setup().get()
+
+        overlay.attach(otherActivity)
+
+        assertEquals(2, overlay.getAttachedWindowCount())
+        assertEquals(View.VISIBLE, findView(otherActivity)?.visibility)
+    }
+
+    @Test
+    fun `Attach is a no-op before show and for the Assurance activity`() {
+        overlay.attach(activity)
+        assertEquals(0, overlay.getAttachedWindowCount())
+
+        overlay.show()
+        overlay.attach(mock(AssuranceActivity::class.java))
+        assertEquals(1, overlay.getAttachedWindowCount())
+    }
+
+    @Test
+    fun `Hide and show do not request a layout of the window`() {
+        overlay.show()
+        val decorView = activity.window.decorView
+        decorView.measure(
+            View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+            View.MeasureSpec.makeMeasureSpec(1920, View.MeasureSpec.EXACTLY)
+        )
+        decorView.layout(0, 0, 1080, 1920)
+        assertFalse(decorView.isLayoutRequested)
+
+        overlay.hide()
+        assertEquals(View.INVISIBLE, findView(activity)?.visibility)
+        assertFalse(decorView.isLayoutRequested)
+
+        overlay.attach(activity)
+        overlay.show()
+        assertEquals(View.VISIBLE, findView(activity)?.visibility)
+        assertFalse(decorView.isLayoutRequested)
+    }
+
+    @Test
+    fun `Views attached while hidden are invisible`() {
+        overlay.show()
+        overlay.hide()
+        val otherActivity = Robolectric.buildActivity(Activity::class.java).setup().get()
+
+        overlay.attach(otherActivity)
+
+        assertEquals(View.INVISIBLE, findView(otherActivity)?.visibility)
+    }
+
+    @Test
+    fun `Remove detaches the views`() {
+        overlay.show()
+
+        overlay.remove()
+
+        assertFalse(overlay.isActive())
+        assertEquals(0, overlay.getAttachedWindowCount())
+        assertNull(findView(activity))
+    }
+
+    @Test
+    fun `Views are not retained once their window releases them`() {
+        overlay.show()
+        val viewReference = detachViewFromWindow(activity)
+
+        for (i in 0 until 10) {
+            if (viewReference.get() == null) {
+                break
+            }
+
+            System.gc()
+            Thread.sleep(10)
+        }
+
+        assertNull(viewReference.get())
+        assertEquals(0, overlay.getAttachedWindowCount())
+    }
+
+    /**
+     * Removes the view from the window of the activity, as when the window is torn down, and
+     * returns a weak reference to it.
+     */
+    private fun detachViewFromWindow(activity: Activity): WeakReference<FloatingButtonOverlayView> {
+        val view = findView(activity)!!
+        (activity.window.decorView as ViewGroup).removeView(view)
+        return WeakReference(view)
+    }
+
+    private fun findView(activity: Activity): FloatingButtonOverlayView? {
+        val decorView = activity.window.decorView as ViewGroup
+
+        for (i in 0 until decorView.childCount) {
+            val child = decorView.getChildAt(i)
+
+            if (child is FloatingButtonOverlayView) {
+                return child
+            }
+        }
+
+        return null
+    }
+}
@@ -179,6 +179,22 @@ class QuickConnectViewModelTest {
         )
     }
 
+    @Test
+    fun `Test that the long-poll wait is read from the configuration`() {
+        val mockState: MutableState<ConnectionState> = mutableStateOf(ConnectionState.Disconnected(null))
+        quickConnectViewModel = QuickConnectViewModel(
+            mockState,
+            AssuranceStatusListenerWrapper(mockState),
+            mockAssuranceStateManager,
+            AssuranceConstants.AssuranceEnvironment.PROD
+        )
+
+        verify(mockAssuranceStateManager).getConfigurationLong(
+            AssuranceConstants.SDKConfigurationKey.QUICK_CONNECT_LONG_POLL_WAIT_MS,
+            0
+        )
+    }
+
     @After
     fun tearDown() {
     }